@@ -0,0 +1,174 @@
+package io.mosip.biosdk.client.codec;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.ByteArrayToIntArraySerializer;
+
+/**
+ * The distinct BDBs of one request, found by content, so that a BDB repeated
+ * within the request is written once.
+ *
+ * <p>
+ * Galleries often carry the same BDB several times, e.g. duplicate enrolments
+ * or copies of a record from different packets. With a service advertising
+ * {@value #SDK_INFO_KEY} in the {@code otherInfo} of its SDK info, the first
+ * occurrence of a BDB in a request envelope is written as usual and every later
+ * BDB with the same content as {@code {"ref": n}}, where {@code n} is the
+ * zero-based index of the first occurrence among the BDBs written in full, in
+ * the order they appear in the request. BDBs are compared by their SHA-256
+ * digest, only computed for BDBs of a length already seen in the request.
+ * </p>
+ * <p>
+ * The {@link MultipartRequest} parts are indexed the same way, so a repeated
+ * BDB there refers to the part of its first occurrence, with any service.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public final class BdbReferences {
+	/** Key of the SDK info {@code otherInfo} entry a service advertises references with. */
+	public static final String SDK_INFO_KEY = "bdb-references";
+
+	private final Map<byte[], Integer> indexes = new IdentityHashMap<>();
+
+	private final Map<Integer, List<Written>> byLength = new HashMap<>();
+
+	private final List<byte[]> bdbs = new ArrayList<>();
+
+	/**
+	 * Returns the index of a BDB with the same content written earlier, or records
+	 * the BDB as written in full.
+	 *
+	 * @param bdb The BDB about to be written.
+	 * @return The index of the earlier BDB, or {@code -1} if the BDB is new.
+	 */
+	int referenceTo(byte[] bdb) {
+		Integer index = indexes.get(bdb);
+		if (index != null) {
+			return index;
+		}
+		List<Written> sameLength = byLength.computeIfAbsent(bdb.length, length -> new ArrayList<>(1));
+		Written candidate = new Written(bdb);
+		for (Written written : sameLength) {
+			if (MessageDigest.isEqual(written.digest(), candidate.digest())) {
+				indexes.put(bdb, written.index);
+				return written.index;
+			}
+		}
+		candidate.index = bdbs.size();
+		bdbs.add(bdb);
+		sameLength.add(candidate);
+		indexes.put(bdb, candidate.index);
+		return -1;
+	}
+
+	/**
+	 * The BDBs written in full, in index order.
+	 */
+	List<byte[]> getBdbs() {
+		return bdbs;
+	}
+
+	/**
+	 * Index of a BDB, writing it if new: the index of its first occurrence.
+	 */
+	int indexOf(byte[] bdb) {
+		int index = referenceTo(bdb);
+		return index < 0 ? bdbs.size() - 1 : index;
+	}
+
+	/**
+	 * A BDB written in full, with its digest once computed.
+	 */
+	private static final class Written {
+		private final byte[] bdb;
+
+		private byte[] digest;
+
+		private int index;
+
+		Written(byte[] bdb) {
+			this.bdb = bdb;
+		}
+
+		byte[] digest() {
+			if (digest == null) {
+				try {
+					digest = MessageDigest.getInstance("SHA-256").digest(bdb);
+				} catch (NoSuchAlgorithmException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+			return digest;
+		}
+	}
+
+	/**
+	 * Writes a BDB as a reference to an earlier one with the same content when
+	 * the writer carries a {@link BdbReferences} attribute, and as usual for the
+	 * format otherwise: binary where the format has binary values, an array of
+	 * integers in JSON.
+	 */
+	static final class BdbReferenceSerializer extends StdSerializer<byte[]> {
+		private static final long serialVersionUID = 1L;
+
+		private static final ByteArrayToIntArraySerializer INT_ARRAY_SERIALIZER = new ByteArrayToIntArraySerializer();
+
+		BdbReferenceSerializer() {
+			super(byte[].class);
+		}
+
+		@Override
+		public void serialize(byte[] value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			if (provider.getAttribute(BdbReferences.class) instanceof BdbReferences references) {
+				int index = references.referenceTo(value);
+				if (index >= 0) {
+					gen.writeStartObject();
+					gen.writeNumberField("ref", index);
+					gen.writeEndObject();
+					return;
+				}
+			}
+			if (gen.canWriteBinaryNatively()) {
+				gen.writeBinary(value);
+			} else {
+				INT_ARRAY_SERIALIZER.serialize(value, gen, provider);
+			}
+		}
+	}
+
+	/**
+	 * Jackson mix-in for {@link BIR} writing BDBs through
+	 * {@link BdbReferenceSerializer} in JSON.
+	 */
+	abstract static class JsonMixIn {
+		@JsonSerialize(using = BdbReferenceSerializer.class)
+		private byte[] bdb;
+	}
+
+	/**
+	 * {@link JsonMixIn} for the binary {@link WireFormat}s, which also write
+	 * {@code sb} as binary, see {@link BinaryBirMixIn}.
+	 */
+	abstract static class BinaryMixIn {
+		@JsonSerialize(using = BdbReferenceSerializer.class)
+		private byte[] bdb;
+
+		@JsonSerialize(using = JsonSerializer.None.class)
+		private byte[] sb;
+	}
+}
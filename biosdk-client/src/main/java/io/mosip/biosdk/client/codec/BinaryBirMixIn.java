@@ -0,0 +1,40 @@
+package io.mosip.biosdk.client.codec;
+
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import io.mosip.kernel.biometrics.entities.BIR;
+
+/**
+ * Jackson mix-in for {@link BIR} used by the binary {@link WireFormat}s.
+ *
+ * <p>
+ * {@code BIR} maps {@code bdb} and {@code sb} to JSON arrays of integers. The
+ * mix-ins clear those custom (de)serializers, so the binary formats write the
+ * bytes as native binary values. {@code BIR} is read through its builder, which
+ * carries the deserializers; reading still accepts integer arrays, in case the
+ * service answers with them.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+abstract class BinaryBirMixIn {
+	@JsonSerialize(using = JsonSerializer.None.class)
+	private byte[] bdb;
+
+	@JsonSerialize(using = JsonSerializer.None.class)
+	private byte[] sb;
+
+	/**
+	 * Jackson mix-in for {@link BIR.BIRBuilder}.
+	 */
+	abstract static class Builder {
+		@JsonDeserialize(using = JsonDeserializer.None.class)
+		public abstract BIR.BIRBuilder withBdb(byte[] bdb);
+
+		@JsonDeserialize(using = JsonDeserializer.None.class)
+		public abstract BIR.BIRBuilder withSb(byte[] sb);
+	}
+}
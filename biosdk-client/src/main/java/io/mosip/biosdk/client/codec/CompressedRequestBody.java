@@ -0,0 +1,134 @@
+package io.mosip.biosdk.client.codec;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import io.mosip.biosdk.client.dto.CheckQualityBatchRequestDto;
+import io.mosip.biosdk.client.dto.CheckQualityRequestDto;
+import io.mosip.biosdk.client.dto.ConvertFormatRequestDto;
+import io.mosip.biosdk.client.dto.ExtractTemplateRequestDto;
+import io.mosip.biosdk.client.dto.MatchGalleryRequestDto;
+import io.mosip.biosdk.client.dto.MatchRequestDto;
+import io.mosip.biosdk.client.dto.RegisterGalleryRequestDto;
+import io.mosip.biosdk.client.dto.SegmentRequestDto;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * A request body that is compressed while it is written, by
+ * {@link CompressingHttpMessageConverter}.
+ *
+ * <p>
+ * The decision to compress has to be taken before the body is written, since
+ * the {@code Content-Encoding} header goes out first. {@link #estimateSize}
+ * gives a cheap estimate of the request size for that decision.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public class CompressedRequestBody {
+	/**
+	 * Estimated size of the metadata of one BIR (BIRInfo, BDBInfo and version
+	 * blocks) when serialized.
+	 */
+	private static final long BIR_METADATA_SIZE = 512;
+
+	private final Object body;
+
+	private final Compression compression;
+
+	/**
+	 * @param body        The request body, e.g. a {@link RequestEnvelope} or
+	 *                    multipart parts.
+	 * @param compression The coding applied to the body.
+	 */
+	public CompressedRequestBody(Object body, Compression compression) {
+		this.body = body;
+		this.compression = compression;
+	}
+
+	/**
+	 * The uncompressed body. It is also what request debug logging prints.
+	 */
+	@JsonValue
+	public Object getBody() {
+		return body;
+	}
+
+	public Compression getCompression() {
+		return compression;
+	}
+
+	/**
+	 * Estimates the uncompressed size of a request DTO from the sizes of the
+	 * biometric records it carries, without serializing it. The BDB and SB bytes
+	 * are counted once each, plus a fixed amount per BIR for its metadata.
+	 *
+	 * @param requestBody The request DTO.
+	 * @return The estimated size in bytes, {@code 0} for DTOs without records.
+	 */
+	public static long estimateSize(Object requestBody) {
+		if (requestBody instanceof MatchRequestDto matchRequestDto) {
+			long size = estimateSize(matchRequestDto.getSample());
+			if (matchRequestDto.getGallery() != null) {
+				for (BiometricRecord galleryRecord : matchRequestDto.getGallery()) {
+					size += estimateSize(galleryRecord);
+				}
+			}
+			return size;
+		} else if (requestBody instanceof RegisterGalleryRequestDto registerGalleryRequestDto) {
+			long size = 0;
+			if (registerGalleryRequestDto.getGallery() != null) {
+				for (BiometricRecord galleryRecord : registerGalleryRequestDto.getGallery()) {
+					size += estimateSize(galleryRecord);
+				}
+			}
+			return size;
+		} else if (requestBody instanceof MatchGalleryRequestDto matchGalleryRequestDto) {
+			return estimateSize(matchGalleryRequestDto.getSample());
+		} else if (requestBody instanceof CheckQualityRequestDto checkQualityRequestDto) {
+			return estimateSize(checkQualityRequestDto.getSample());
+		} else if (requestBody instanceof CheckQualityBatchRequestDto checkQualityBatchRequestDto) {
+			long size = 0;
+			for (CheckQualityRequestDto checkQualityRequestDto : checkQualityBatchRequestDto.getRequests()) {
+				size += estimateSize(checkQualityRequestDto);
+			}
+			return size;
+		} else if (requestBody instanceof ExtractTemplateRequestDto extractTemplateRequestDto) {
+			return estimateSize(extractTemplateRequestDto.getSample());
+		} else if (requestBody instanceof SegmentRequestDto segmentRequestDto) {
+			return estimateSize(segmentRequestDto.getSample());
+		} else if (requestBody instanceof ConvertFormatRequestDto convertFormatRequestDto) {
+			return estimateSize(convertFormatRequestDto.getSample());
+		}
+		return 0;
+	}
+
+	/**
+	 * Estimates the serialized size of one biometric record, counted like the
+	 * records of {@link #estimateSize(Object)}.
+	 *
+	 * @param biometricRecord The record, may be {@code null}.
+	 * @return The estimated size in bytes.
+	 */
+	public static long estimateSize(BiometricRecord biometricRecord) {
+		return biometricRecord == null ? 0 : estimateSize(biometricRecord.getSegments());
+	}
+
+	private static long estimateSize(List<BIR> birs) {
+		long size = 0;
+		if (birs != null) {
+			for (BIR bir : birs) {
+				if (bir != null) {
+					size += BIR_METADATA_SIZE + length(bir.getBdb()) + length(bir.getSb()) + estimateSize(bir.getBirs());
+				}
+			}
+		}
+		return size;
+	}
+
+	private static int length(byte[] bytes) {
+		return bytes == null ? 0 : bytes.length;
+	}
+}
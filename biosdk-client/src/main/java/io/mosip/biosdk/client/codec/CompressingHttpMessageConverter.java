@@ -0,0 +1,160 @@
+package io.mosip.biosdk.client.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Write-only {@link HttpMessageConverter} for {@link CompressedRequestBody}.
+ *
+ * <p>
+ * The wrapped body is written by whichever of the delegate converters can write
+ * it, e.g. {@link RequestEnvelopeHttpMessageConverter} or the multipart form
+ * converter. Their output is compressed as it is streamed, and the
+ * {@code Content-Encoding} header is set accordingly, so compression does not
+ * buffer the body either.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public class CompressingHttpMessageConverter implements HttpMessageConverter<CompressedRequestBody> {
+	private final List<HttpMessageConverter<?>> delegates;
+
+	/**
+	 * @param delegates The converters writing the wrapped bodies. The list is
+	 *                  read on each write, so it may be the list this converter
+	 *                  is added to.
+	 */
+	public CompressingHttpMessageConverter(List<HttpMessageConverter<?>> delegates) {
+		this.delegates = delegates;
+	}
+
+	@Override
+	public boolean canRead(Class<?> clazz, MediaType mediaType) {
+		return false;
+	}
+
+	@Override
+	public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+		return CompressedRequestBody.class.isAssignableFrom(clazz);
+	}
+
+	@Override
+	public List<MediaType> getSupportedMediaTypes() {
+		return List.of(MediaType.ALL);
+	}
+
+	@Override
+	public CompressedRequestBody read(Class<? extends CompressedRequestBody> clazz, HttpInputMessage inputMessage)
+			throws IOException {
+		throw new HttpMessageNotReadableException("CompressedRequestBody is write-only", inputMessage);
+	}
+
+	@Override
+	public void write(CompressedRequestBody compressedBody, MediaType contentType, HttpOutputMessage outputMessage)
+			throws IOException {
+		Object body = compressedBody.getBody();
+		HttpMessageConverter<Object> delegate = findDelegate(body.getClass(), contentType);
+		Compression compression = compressedBody.getCompression();
+		if (compression == Compression.NONE) {
+			delegate.write(body, contentType, outputMessage);
+			return;
+		}
+
+		CapturingOutputMessage captured = new CapturingOutputMessage(outputMessage.getHeaders());
+		delegate.write(body, contentType, captured);
+		HttpHeaders headers = outputMessage.getHeaders();
+		headers.remove(HttpHeaders.CONTENT_LENGTH);
+		headers.set(HttpHeaders.CONTENT_ENCODING, compression.getContentCoding());
+
+		StreamingHttpOutputMessage.Body compressed = new StreamingHttpOutputMessage.Body() {
+			@Override
+			public void writeTo(OutputStream out) throws IOException {
+				try (OutputStream compressing = compression.wrap(StreamUtils.nonClosing(out))) {
+					captured.writeTo(compressing);
+				}
+			}
+
+			@Override
+			public boolean repeatable() {
+				return captured.repeatable();
+			}
+		};
+		if (outputMessage instanceof StreamingHttpOutputMessage streamingOutputMessage) {
+			streamingOutputMessage.setBody(compressed);
+		} else {
+			compressed.writeTo(outputMessage.getBody());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private HttpMessageConverter<Object> findDelegate(Class<?> clazz, MediaType contentType) {
+		for (HttpMessageConverter<?> delegate : delegates) {
+			if (delegate != this && delegate.canWrite(clazz, contentType)) {
+				return (HttpMessageConverter<Object>) delegate;
+			}
+		}
+		throw new HttpMessageNotWritableException(
+				"No converter for [" + clazz.getName() + "] with content type [" + contentType + "]");
+	}
+
+	/**
+	 * Output message keeping the body a delegate converter writes, so it can be
+	 * replayed through the compressor. Headers go straight to the real request.
+	 */
+	private static final class CapturingOutputMessage implements StreamingHttpOutputMessage {
+		private final HttpHeaders headers;
+
+		private Body body;
+
+		private ByteArrayOutputStream buffer;
+
+		private CapturingOutputMessage(HttpHeaders headers) {
+			this.headers = headers;
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return headers;
+		}
+
+		@Override
+		public void setBody(Body body) {
+			this.body = body;
+		}
+
+		/**
+		 * Only used by converters that do not stream; their output is buffered.
+		 */
+		@Override
+		public OutputStream getBody() {
+			if (buffer == null) {
+				buffer = new ByteArrayOutputStream();
+			}
+			return buffer;
+		}
+
+		private void writeTo(OutputStream out) throws IOException {
+			if (body != null) {
+				body.writeTo(out);
+			} else if (buffer != null) {
+				buffer.writeTo(out);
+			}
+		}
+
+		private boolean repeatable() {
+			return body == null || body.repeatable();
+		}
+	}
+}
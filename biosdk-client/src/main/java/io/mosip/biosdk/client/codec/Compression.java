@@ -0,0 +1,69 @@
+package io.mosip.biosdk.client.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content codings for request bodies sent to the BioSDK service.
+ *
+ * <p>
+ * Only codings available in the JDK are offered, so no native or additional
+ * compression library is required.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public enum Compression {
+	/** Request bodies are sent as they are. */
+	NONE(null),
+
+	/** Request bodies are gzip compressed. */
+	GZIP("gzip");
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final String contentCoding;
+
+	Compression(String contentCoding) {
+		this.contentCoding = contentCoding;
+	}
+
+	/**
+	 * The {@code Content-Encoding} token of this coding, or {@code null} for
+	 * {@link #NONE}.
+	 */
+	public String getContentCoding() {
+		return contentCoding;
+	}
+
+	/**
+	 * Wraps a stream so that data written to it is compressed. Closing the
+	 * returned stream finishes the compressed data and closes the target.
+	 *
+	 * @param out The target stream.
+	 * @return The compressing stream, or the target itself for {@link #NONE}.
+	 * @throws IOException If the compressor cannot write its header.
+	 */
+	public OutputStream wrap(OutputStream out) throws IOException {
+		if (this == GZIP) {
+			return new GZIPOutputStream(out, BUFFER_SIZE);
+		}
+		return out;
+	}
+
+	/**
+	 * Resolves a configured coding name such as {@code gzip}.
+	 *
+	 * @param name The configured name, may be {@code null}.
+	 * @return The matching coding, or {@link #NONE} if the name is blank.
+	 * @throws IllegalArgumentException If the name is not a known coding.
+	 */
+	public static Compression fromName(String name) {
+		if (name == null || name.isBlank()) {
+			return NONE;
+		}
+		return valueOf(name.trim().toUpperCase(Locale.ROOT));
+	}
+}
@@ -0,0 +1,121 @@
+package io.mosip.biosdk.client.codec;
+
+import java.util.List;
+
+import io.mosip.biosdk.client.dto.ErrorDto;
+
+/**
+ * Result of decoding a BioSDK service response with
+ * {@link ResponseEnvelopeDecoder}.
+ *
+ * @param <T> The type of the decoded payload.
+ * @since 1.3.0
+ */
+public class DecodedResponse<T> {
+	private List<ErrorDto> errors;
+
+	private Integer statusCode;
+
+	private String statusMessage;
+
+	private T payload;
+
+	private WireFormat wireFormat = WireFormat.JSON;
+
+	/**
+	 * Creates a response with the status fields and wire format of another one
+	 * and a different payload, e.g. one combined from several responses.
+	 *
+	 * @param <T>     The type of the payload.
+	 * @param status  The response whose status fields are copied.
+	 * @param payload The payload.
+	 * @return The new response.
+	 */
+	public static <T> DecodedResponse<T> withPayload(DecodedResponse<?> status, T payload) {
+		DecodedResponse<T> response = new DecodedResponse<>();
+		response.setErrors(status.getErrors());
+		response.setStatusCode(status.getStatusCode());
+		response.setStatusMessage(status.getStatusMessage());
+		response.setWireFormat(status.getWireFormat());
+		response.setPayload(payload);
+		return response;
+	}
+
+	/**
+	 * Creates a response with the given status fields and payload and the wire
+	 * format of another one, e.g. one of the results of a batch response.
+	 *
+	 * @param <T>           The type of the payload.
+	 * @param format        The response whose wire format is copied.
+	 * @param statusCode    The status code.
+	 * @param statusMessage The status message.
+	 * @param payload       The payload.
+	 * @return The new response.
+	 */
+	public static <T> DecodedResponse<T> withStatus(DecodedResponse<?> format, Integer statusCode,
+			String statusMessage, T payload) {
+		DecodedResponse<T> response = new DecodedResponse<>();
+		response.setStatusCode(statusCode);
+		response.setStatusMessage(statusMessage);
+		response.setWireFormat(format.getWireFormat());
+		response.setPayload(payload);
+		return response;
+	}
+
+	/**
+	 * Errors reported in the {@code errors} array, or {@code null} if absent.
+	 */
+	public List<ErrorDto> getErrors() {
+		return errors;
+	}
+
+	void setErrors(List<ErrorDto> errors) {
+		this.errors = errors;
+	}
+
+	/**
+	 * Status code taken from the nested {@code response} object, or from the root
+	 * when the nested one is absent. {@code null} if neither is present.
+	 */
+	public Integer getStatusCode() {
+		return statusCode;
+	}
+
+	void setStatusCode(Integer statusCode) {
+		this.statusCode = statusCode;
+	}
+
+	/**
+	 * Status message taken from the nested {@code response} object, or from the
+	 * root when the nested one is absent. Empty if neither is present.
+	 */
+	public String getStatusMessage() {
+		return statusMessage;
+	}
+
+	void setStatusMessage(String statusMessage) {
+		this.statusMessage = statusMessage;
+	}
+
+	/**
+	 * The bound payload, or {@code null} if the service returned none.
+	 */
+	public T getPayload() {
+		return payload;
+	}
+
+	void setPayload(T payload) {
+		this.payload = payload;
+	}
+
+	/**
+	 * The format the response was encoded in.
+	 */
+	public WireFormat getWireFormat() {
+		return wireFormat;
+	}
+
+	void setWireFormat(WireFormat wireFormat) {
+		this.wireFormat = wireFormat;
+	}
+}
@@ -0,0 +1,113 @@
+package io.mosip.biosdk.client.codec;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import io.mosip.biosdk.client.utils.Util;
+import io.mosip.kernel.biometrics.entities.BIR;
+
+/**
+ * Builds the {@code multipart/form-data} body of the
+ * {@link RequestTransport#MULTIPART} transport.
+ *
+ * <p>
+ * The body has one {@value #METADATA_PART} part of type
+ * {@code application/json}, holding {@code {"version": "..", "request": {...}}}
+ * with the request DTO as a nested object, followed by one {@value #BDB_PART}
+ * part of type {@code application/octet-stream} per distinct BDB. Within the
+ * metadata every BDB is replaced by the zero-based index of its part, so the
+ * image bytes travel without any Base64 or integer-array encoding. A BDB
+ * repeated in the request, e.g. the same record repeated in a gallery or the
+ * same image enrolled twice, is sent once, see {@link BdbReferences}.
+ * </p>
+ * <p>
+ * The BDB parts wrap the caller's arrays without copying them; the parts are
+ * written to the request stream by Spring's form converter.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public final class MultipartRequest {
+	/** Name of the part holding the JSON metadata. */
+	public static final String METADATA_PART = "request";
+
+	/** Name of the parts holding the BDBs, in index order. */
+	public static final String BDB_PART = "bdb";
+
+	private static final ObjectWriter METADATA_WRITER = Util.getObjectMapper().copy()
+			.addMixIn(BIR.class, BdbPartMixIn.class).writer();
+
+	private static final HttpHeaders METADATA_HEADERS = partHeaders(MediaType.APPLICATION_JSON);
+
+	private static final HttpHeaders BDB_HEADERS = partHeaders(MediaType.APPLICATION_OCTET_STREAM);
+
+	private MultipartRequest() {
+	}
+
+	/**
+	 * Builds the parts of a multipart request.
+	 *
+	 * @param version The version of the request format.
+	 * @param body    The request DTO.
+	 * @return The parts, in the order they are written.
+	 * @throws IOException If the metadata cannot be serialized.
+	 */
+	public static MultiValueMap<String, Object> toParts(String version, Object body) throws IOException {
+		Map<String, Object> envelope = new LinkedHashMap<>();
+		envelope.put("version", version);
+		envelope.put("request", body);
+
+		BdbReferences bdbParts = new BdbReferences();
+		byte[] metadata = METADATA_WRITER.withAttribute(BdbReferences.class, bdbParts).writeValueAsBytes(envelope);
+
+		MultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
+		parts.add(METADATA_PART, new HttpEntity<>(metadata, METADATA_HEADERS));
+		for (byte[] bdb : bdbParts.getBdbs()) {
+			parts.add(BDB_PART, new HttpEntity<>(bdb, BDB_HEADERS));
+		}
+		return parts;
+	}
+
+	private static HttpHeaders partHeaders(MediaType mediaType) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(mediaType);
+		return HttpHeaders.readOnlyHttpHeaders(headers);
+	}
+
+	/**
+	 * Writes a BDB as the index of its part.
+	 */
+	private static final class BdbPartSerializer extends StdSerializer<byte[]> {
+		private static final long serialVersionUID = 1L;
+
+		private BdbPartSerializer() {
+			super(byte[].class);
+		}
+
+		@Override
+		public void serialize(byte[] value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			gen.writeNumber(((BdbReferences) provider.getAttribute(BdbReferences.class)).indexOf(value));
+		}
+	}
+
+	/**
+	 * Jackson mix-in for {@link BIR} replacing the BDB by its part index.
+	 */
+	private abstract static class BdbPartMixIn {
+		@JsonSerialize(using = BdbPartSerializer.class)
+		private byte[] bdb;
+	}
+}
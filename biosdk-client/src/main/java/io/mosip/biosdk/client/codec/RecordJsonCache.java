@@ -0,0 +1,204 @@
+package io.mosip.biosdk.client.codec;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import io.mosip.biosdk.client.dto.MatchRequestDto;
+import io.mosip.biosdk.client.utils.Util;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * Cache of the JSON of match gallery records, spliced into the JSON
+ * {@link RequestEnvelope} instead of serializing the records again.
+ *
+ * <p>
+ * In 1:1 verification the same enrolled record is passed as the gallery of
+ * many calls, and its JSON, with BDBs written as arrays of integers, costs far
+ * more to produce than the rest of the request. The cache keeps the JSON of
+ * each gallery record by the identity of the record, up to a number of bytes,
+ * the least recently used being dropped first. A cached JSON is only used while
+ * the record still holds the same segments with the same BDB arrays; records
+ * are otherwise assumed not to be changed in place once matched.
+ * </p>
+ * <p>
+ * Only the gallery of a {@link MatchRequestDto} in a JSON envelope is cached:
+ * samples seldom repeat, and the binary formats and the multipart transport
+ * copy the BDBs as they are. The client caches up to the bytes given by its
+ * {@code gallery-cache.max-bytes} init parameter.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public class RecordJsonCache {
+	private static final ObjectWriter RECORD_WRITER = Util.getObjectMapper().writerFor(BiometricRecord.class);
+
+	private final long maxBytes;
+
+	private final LinkedHashMap<IdentityKey, Fragment> fragments = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long usedBytes;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * @param maxBytes The number of bytes of JSON kept, {@code 0} to keep none.
+	 */
+	public RecordJsonCache(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	public boolean isEnabled() {
+		return maxBytes > 0;
+	}
+
+	/**
+	 * The number of records written from the cache and serialized, with the
+	 * number of records cached and the bytes they take.
+	 *
+	 * @return The counters by name.
+	 */
+	public Map<String, Long> getCounters() {
+		Map<String, Long> counters = new LinkedHashMap<>();
+		counters.put("hits", hits.get());
+		counters.put("misses", misses.get());
+		synchronized (fragments) {
+			counters.put("entries", (long) fragments.size());
+			counters.put("bytes", usedBytes);
+		}
+		return counters;
+	}
+
+	/**
+	 * Returns the JSON of a record, serializing and caching it if needed.
+	 */
+	SerializedString get(BiometricRecord biometricRecord) throws IOException {
+		IdentityKey key = new IdentityKey(biometricRecord);
+		synchronized (fragments) {
+			Fragment fragment = fragments.get(key);
+			if (fragment != null && fragment.isCurrent(biometricRecord)) {
+				hits.incrementAndGet();
+				return fragment.json;
+			}
+		}
+		misses.incrementAndGet();
+		Fragment fragment = new Fragment(biometricRecord, RECORD_WRITER.writeValueAsString(biometricRecord));
+		if (fragment.size() <= maxBytes) {
+			synchronized (fragments) {
+				Fragment previous = fragments.put(key, fragment);
+				usedBytes += fragment.size() - (previous == null ? 0 : previous.size());
+				var eldest = fragments.entrySet().iterator();
+				while (usedBytes > maxBytes) {
+					usedBytes -= eldest.next().getValue().size();
+					eldest.remove();
+				}
+			}
+		}
+		return fragment.json;
+	}
+
+	/**
+	 * Reference to a record, equal to references to the same record only.
+	 */
+	private record IdentityKey(BiometricRecord biometricRecord) {
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof IdentityKey key && key.biometricRecord == biometricRecord;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(biometricRecord);
+		}
+	}
+
+	/**
+	 * The JSON of a record, with the segments and BDB arrays it was written from.
+	 */
+	private static final class Fragment {
+		private final SerializedString json;
+
+		private final List<BIR> segmentList;
+
+		private final BIR[] segments;
+
+		private final byte[][] bdbs;
+
+		Fragment(BiometricRecord biometricRecord, String json) {
+			this.json = new SerializedString(json);
+			// Encoded once here, so that writing it is a copy of the bytes
+			this.json.asUnquotedUTF8();
+			this.segmentList = biometricRecord.getSegments();
+			this.segments = segmentList == null ? new BIR[0] : segmentList.toArray(new BIR[0]);
+			this.bdbs = new byte[segments.length][];
+			for (int i = 0; i < segments.length; i++) {
+				bdbs[i] = segments[i] == null ? null : segments[i].getBdb();
+			}
+		}
+
+		boolean isCurrent(BiometricRecord biometricRecord) {
+			List<BIR> currentSegments = biometricRecord.getSegments();
+			if (currentSegments != segmentList || (currentSegments != null && currentSegments.size() != segments.length)) {
+				return false;
+			}
+			for (int i = 0; i < segments.length; i++) {
+				BIR segment = currentSegments.get(i);
+				if (segment != segments[i] || (segment != null && segment.getBdb() != bdbs[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/** The string and its UTF-8 bytes. */
+		long size() {
+			return 2L * json.charLength();
+		}
+	}
+
+	/**
+	 * Writes a gallery record from the cache passed as attribute of the writer,
+	 * or serializes it as usual without one. Records are serialized as usual as
+	 * well when BDBs are written as {@link BdbReferences}, since their indexes
+	 * depend on the whole request.
+	 */
+	static final class CachedRecordSerializer extends StdSerializer<BiometricRecord> {
+		private static final long serialVersionUID = 1L;
+
+		CachedRecordSerializer() {
+			super(BiometricRecord.class);
+		}
+
+		@Override
+		public void serialize(BiometricRecord value, JsonGenerator gen, SerializerProvider provider)
+				throws IOException {
+			if (provider.getAttribute(RecordJsonCache.class) instanceof RecordJsonCache cache && cache.isEnabled()
+					&& provider.getAttribute(BdbReferences.class) == null) {
+				gen.writeRawValue(cache.get(value));
+			} else {
+				provider.findValueSerializer(BiometricRecord.class).serialize(value, gen, provider);
+			}
+		}
+	}
+
+	/**
+	 * Jackson mix-in for {@link MatchRequestDto} writing the gallery records
+	 * through the cache.
+	 */
+	abstract static class MatchRequestMixIn {
+		@JsonSerialize(contentUsing = CachedRecordSerializer.class)
+		private BiometricRecord[] gallery;
+	}
+}
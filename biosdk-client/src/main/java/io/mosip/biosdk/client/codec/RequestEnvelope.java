@@ -0,0 +1,206 @@
+package io.mosip.biosdk.client.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.mosip.biosdk.client.dto.MatchRequestDto;
+import io.mosip.biosdk.client.dto.RequestDto;
+import io.mosip.biosdk.client.utils.Util;
+import io.mosip.kernel.biometrics.entities.BIR;
+
+/**
+ * Request envelope sent to the BioSDK service, written directly to the HTTP
+ * request body.
+ *
+ * <p>
+ * The wire format is the same as a serialized {@link RequestDto}:
+ * {@code {"version":"..","request":"<base64 of the JSON request body>"}}. Instead
+ * of materializing the JSON, its bytes and its Base64 form as separate copies,
+ * the body object is serialized by a Jackson generator into a Base64-encoding
+ * stream that writes straight to the target {@link OutputStream}, so the memory
+ * held per call is bounded by the generator and encoder buffers.
+ * </p>
+ * <p>
+ * With a binary {@link WireFormat} the body is written as a nested object of
+ * the {@code request} field instead, so byte arrays are sent as raw binary
+ * values without any Base64 pass.
+ * </p>
+ * <p>
+ * The match gallery records of a JSON envelope can be spliced in from a
+ * {@link RecordJsonCache}, and BDBs repeated within the request can be written
+ * as {@link BdbReferences}.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public class RequestEnvelope {
+	private static final ObjectWriter WRITER = Util.getObjectMapper().copy()
+			.addMixIn(MatchRequestDto.class, RecordJsonCache.MatchRequestMixIn.class)
+			.addMixIn(BIR.class, BdbReferences.JsonMixIn.class).writer()
+			.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+	private static final Map<WireFormat, ObjectMapper> BINARY_MAPPERS = new EnumMap<>(WireFormat.class);
+
+	static {
+		for (WireFormat wireFormat : WireFormat.values()) {
+			if (wireFormat.isBinary()) {
+				BINARY_MAPPERS.put(wireFormat,
+						wireFormat.getMapper().copy().addMixIn(BIR.class, BdbReferences.BinaryMixIn.class));
+			}
+		}
+	}
+
+	private static final byte[] REQUEST_SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+
+	private final String version;
+
+	private final Object body;
+
+	private final WireFormat wireFormat;
+
+	private final RecordJsonCache galleryCache;
+
+	private final boolean bdbReferences;
+
+	/**
+	 * Creates a JSON envelope for the given request body.
+	 *
+	 * @param version The version of the request format.
+	 * @param body    The request DTO to be serialized into the envelope.
+	 */
+	public RequestEnvelope(String version, Object body) {
+		this(version, body, WireFormat.JSON);
+	}
+
+	/**
+	 * Creates an envelope for the given request body in the given format.
+	 *
+	 * @param version    The version of the request format.
+	 * @param body       The request DTO to be serialized into the envelope.
+	 * @param wireFormat The encoding of the envelope.
+	 */
+	public RequestEnvelope(String version, Object body, WireFormat wireFormat) {
+		this(version, body, wireFormat, null);
+	}
+
+	/**
+	 * Creates an envelope for the given request body in the given format, whose
+	 * match gallery records are written from the given cache in JSON.
+	 *
+	 * @param version      The version of the request format.
+	 * @param body         The request DTO to be serialized into the envelope.
+	 * @param wireFormat   The encoding of the envelope.
+	 * @param galleryCache The cache of gallery record JSON, {@code null} for none.
+	 */
+	public RequestEnvelope(String version, Object body, WireFormat wireFormat, RecordJsonCache galleryCache) {
+		this(version, body, wireFormat, galleryCache, false);
+	}
+
+	/**
+	 * Creates an envelope for the given request body in the given format, whose
+	 * repeated BDBs may be written as references to their first occurrence.
+	 *
+	 * @param version       The version of the request format.
+	 * @param body          The request DTO to be serialized into the envelope.
+	 * @param wireFormat    The encoding of the envelope.
+	 * @param galleryCache  The cache of gallery record JSON, {@code null} for none.
+	 *                      Not used along with BDB references.
+	 * @param bdbReferences Whether the service reads {@link BdbReferences}.
+	 */
+	public RequestEnvelope(String version, Object body, WireFormat wireFormat, RecordJsonCache galleryCache,
+			boolean bdbReferences) {
+		this.version = version;
+		this.body = body;
+		this.wireFormat = wireFormat;
+		this.galleryCache = galleryCache;
+		this.bdbReferences = bdbReferences;
+	}
+
+	public String getVersion() {
+		return version;
+	}
+
+	public Object getBody() {
+		return body;
+	}
+
+	public WireFormat getWireFormat() {
+		return wireFormat;
+	}
+
+	/**
+	 * Streams the envelope to the given output stream. The stream is flushed but
+	 * not closed.
+	 *
+	 * @param out Target stream, typically the HTTP request body.
+	 * @throws IOException If serialization or writing to the stream fails.
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		if (wireFormat.isBinary()) {
+			writeBinaryTo(out);
+			return;
+		}
+		out.write(("{\"version\":" + WRITER.writeValueAsString(version) + ",\"request\":\"")
+				.getBytes(StandardCharsets.UTF_8));
+		// Closing the encoder writes the final padding; the target stays open.
+		try (OutputStream base64 = Base64.getEncoder().wrap(StreamUtils.nonClosing(out))) {
+			writer().writeValue(base64, body);
+		}
+		out.write(REQUEST_SUFFIX);
+		out.flush();
+	}
+
+	private ObjectWriter writer() {
+		return withReferences(galleryCache == null ? WRITER : WRITER.withAttribute(RecordJsonCache.class, galleryCache));
+	}
+
+	/**
+	 * Adds a fresh table of the BDBs written to the given writer if references
+	 * are on, so that each write of the envelope stands on its own.
+	 */
+	private ObjectWriter withReferences(ObjectWriter writer) {
+		return bdbReferences ? writer.withAttribute(BdbReferences.class, new BdbReferences()) : writer;
+	}
+
+	private void writeBinaryTo(OutputStream out) throws IOException {
+		ObjectMapper mapper = BINARY_MAPPERS.get(wireFormat);
+		try (JsonGenerator generator = mapper.getFactory().createGenerator(StreamUtils.nonClosing(out))) {
+			generator.writeStartObject();
+			generator.writeStringField("version", version);
+			generator.writeFieldName("request");
+			withReferences(mapper.writer()).writeValue(generator, body);
+			generator.writeEndObject();
+		}
+		out.flush();
+	}
+
+	/**
+	 * Materializes the envelope as a {@link RequestDto}. Only intended for
+	 * request/response debug logging, where the whole payload is logged anyway,
+	 * so binary envelopes are logged in their JSON form as well.
+	 *
+	 * @return The equivalent request DTO.
+	 * @throws IOException If the body cannot be serialized.
+	 */
+	@JsonValue
+	public RequestDto toRequestDto() throws IOException {
+		ByteArrayOutputStream json = new ByteArrayOutputStream();
+		writer().writeValue(json, body);
+		RequestDto requestDto = new RequestDto();
+		requestDto.setVersion(version);
+		requestDto.setRequest(Base64.getEncoder().encodeToString(json.toByteArray()));
+		return requestDto;
+	}
+}
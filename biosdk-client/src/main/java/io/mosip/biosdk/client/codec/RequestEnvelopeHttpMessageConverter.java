@@ -0,0 +1,58 @@
+package io.mosip.biosdk.client.codec;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Write-only {@link org.springframework.http.converter.HttpMessageConverter}
+ * for {@link RequestEnvelope}.
+ *
+ * <p>
+ * The content length is reported as unknown, so the HttpComponents request
+ * factory streams the envelope through a chunked entity instead of buffering
+ * the encoded payload before sending it.
+ * </p>
+ * <p>
+ * The envelope is written in its own {@link WireFormat}; the content type of
+ * the request is expected to match it.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public class RequestEnvelopeHttpMessageConverter extends AbstractHttpMessageConverter<RequestEnvelope> {
+
+	public RequestEnvelopeHttpMessageConverter() {
+		super(WireFormat.JSON.getMediaType(), WireFormat.CBOR.getMediaType(), WireFormat.SMILE.getMediaType());
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return RequestEnvelope.class.isAssignableFrom(clazz);
+	}
+
+	@Override
+	protected boolean canRead(MediaType mediaType) {
+		return false;
+	}
+
+	@Override
+	protected RequestEnvelope readInternal(Class<? extends RequestEnvelope> clazz, HttpInputMessage inputMessage)
+			throws IOException {
+		throw new HttpMessageNotReadableException("RequestEnvelope is write-only", inputMessage);
+	}
+
+	@Override
+	protected void writeInternal(RequestEnvelope envelope, HttpOutputMessage outputMessage) throws IOException {
+		envelope.writeTo(outputMessage.getBody());
+	}
+
+	@Override
+	protected boolean supportsRepeatableWrites(RequestEnvelope envelope) {
+		return true;
+	}
+}
@@ -0,0 +1,33 @@
+package io.mosip.biosdk.client.codec;
+
+import java.util.Locale;
+
+/**
+ * How request bodies are carried to the BioSDK service.
+ *
+ * @since 1.3.0
+ */
+public enum RequestTransport {
+	/** A single {@link RequestEnvelope} in the negotiated {@link WireFormat}. */
+	ENVELOPE,
+
+	/**
+	 * A {@code multipart/form-data} body built by {@link MultipartRequest}, with
+	 * every BDB in its own binary part.
+	 */
+	MULTIPART;
+
+	/**
+	 * Resolves a configured transport name such as {@code multipart}.
+	 *
+	 * @param name The configured name, may be {@code null}.
+	 * @return The matching transport, or {@link #ENVELOPE} if the name is blank.
+	 * @throws IllegalArgumentException If the name is not a known transport.
+	 */
+	public static RequestTransport fromName(String name) {
+		if (name == null || name.isBlank()) {
+			return ENVELOPE;
+		}
+		return valueOf(name.trim().toUpperCase(Locale.ROOT));
+	}
+}
@@ -0,0 +1,258 @@
+package io.mosip.biosdk.client.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import io.mosip.biosdk.client.dto.ErrorDto;
+import io.mosip.biosdk.client.utils.Util;
+
+/**
+ * Single-pass decoder for BioSDK service responses.
+ *
+ * <p>
+ * Reads {@code errors}, {@code statusCode}, {@code statusMessage} and
+ * {@code response} directly from the response stream with a
+ * {@link JsonParser} and binds the payload with the supplied
+ * {@link ObjectReader}, without materializing the body as a {@code String} or a
+ * {@code JsonNode} tree. Both endpoint response layouts are supported:
+ * </p>
+ * <ul>
+ * <li>{@code { response: { statusCode, statusMessage, response: {...} } }}</li>
+ * <li>{@code { statusCode, statusMessage, response: {...} }}</li>
+ * </ul>
+ * <p>
+ * When the {@code response} object has no nested {@code response} field, the
+ * object itself is the payload. Its fields are kept in a {@link TokenBuffer}
+ * until the nested field is found, so only the small status fields that precede
+ * it are ever buffered for the nested layout.
+ * </p>
+ * <p>
+ * The same layouts are read from binary {@link WireFormat}s, whose parsers
+ * expose the same token stream.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public final class ResponseEnvelopeDecoder {
+	private static final String TAG_ERRORS = "errors";
+	private static final String TAG_RESPONSE = "response";
+	private static final String TAG_STATUS_CODE = "statusCode";
+	private static final String TAG_STATUS_MESSAGE = "statusMessage";
+
+	private static final ObjectReader ERR_LIST_READER = Util.getObjectMapper()
+			.readerFor(new TypeReference<List<ErrorDto>>() {
+			});
+
+	private ResponseEnvelopeDecoder() {
+	}
+
+	/**
+	 * Decodes a response body, unwrapping a nested
+	 * {@code response.response} payload when present.
+	 *
+	 * @param <T>    The type of the payload.
+	 * @param body   The response body stream. It is not closed.
+	 * @param reader Reader bound to the payload type.
+	 * @return The decoded response, or {@code null} if the body is empty.
+	 * @throws IOException If the body cannot be parsed or bound.
+	 */
+	public static <T> DecodedResponse<T> decode(InputStream body, ObjectReader reader) throws IOException {
+		return decode(body, reader, WireFormat.JSON);
+	}
+
+	/**
+	 * Decodes a response body in the given format, unwrapping a nested
+	 * {@code response.response} payload when present.
+	 *
+	 * @param <T>        The type of the payload.
+	 * @param body       The response body stream. It is not closed.
+	 * @param reader     Reader bound to the payload type, created from
+	 *                   {@link Util#getObjectMapper()}.
+	 * @param wireFormat The format of the response body.
+	 * @return The decoded response, or {@code null} if the body is empty.
+	 * @throws IOException If the body cannot be parsed or bound.
+	 */
+	public static <T> DecodedResponse<T> decode(InputStream body, ObjectReader reader, WireFormat wireFormat)
+			throws IOException {
+		try (JsonParser parser = wireFormat.createParser(body)) {
+			return withWireFormat(decode(parser, wireFormat.readerFor(reader), true), wireFormat);
+		}
+	}
+
+	/**
+	 * Decodes a response body, binding the root {@code response} field as the
+	 * payload without looking for a nested payload.
+	 *
+	 * @param <T>    The type of the payload.
+	 * @param body   The response body stream. It is not closed.
+	 * @param reader Reader bound to the payload type.
+	 * @return The decoded response, or {@code null} if the body is empty.
+	 * @throws IOException If the body cannot be parsed or bound.
+	 */
+	public static <T> DecodedResponse<T> decodeRootPayload(InputStream body, ObjectReader reader) throws IOException {
+		return decodeRootPayload(body, reader, WireFormat.JSON);
+	}
+
+	/**
+	 * Decodes a response body in the given format, binding the root
+	 * {@code response} field as the payload without looking for a nested payload.
+	 *
+	 * @param <T>        The type of the payload.
+	 * @param body       The response body stream. It is not closed.
+	 * @param reader     Reader bound to the payload type, created from
+	 *                   {@link Util#getObjectMapper()}.
+	 * @param wireFormat The format of the response body.
+	 * @return The decoded response, or {@code null} if the body is empty.
+	 * @throws IOException If the body cannot be parsed or bound.
+	 */
+	public static <T> DecodedResponse<T> decodeRootPayload(InputStream body, ObjectReader reader,
+			WireFormat wireFormat) throws IOException {
+		try (JsonParser parser = wireFormat.createParser(body)) {
+			return withWireFormat(decode(parser, wireFormat.readerFor(reader), false), wireFormat);
+		}
+	}
+
+	/**
+	 * Decodes a response from the given parser.
+	 *
+	 * @param <T>          The type of the payload.
+	 * @param parser       Parser positioned before the root value.
+	 * @param reader       Reader bound to the payload type.
+	 * @param unwrapNested Whether a nested {@code response.response} payload is
+	 *                     unwrapped.
+	 * @return The decoded response, or {@code null} if there is no content.
+	 * @throws IOException If the content cannot be parsed or bound.
+	 */
+	public static <T> DecodedResponse<T> decode(JsonParser parser, ObjectReader reader, boolean unwrapNested)
+			throws IOException {
+		JsonToken token = parser.nextToken();
+		if (token == null) {
+			return null;
+		}
+		DecodedResponse<T> decoded = new DecodedResponse<>();
+		decoded.setStatusMessage("");
+		if (token != JsonToken.START_OBJECT) {
+			parser.skipChildren();
+			return decoded;
+		}
+
+		NestedStatus nested = new NestedStatus();
+		Integer rootStatusCode = null;
+		String rootStatusMessage = null;
+		JsonProcessingException payloadFailure = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.currentName();
+			JsonToken value = parser.nextToken();
+			if (TAG_ERRORS.equals(name) && value == JsonToken.START_ARRAY) {
+				decoded.setErrors(ERR_LIST_READER.readValue(parser));
+			} else if (TAG_RESPONSE.equals(name)) {
+				try {
+					decoded.setPayload(unwrapNested ? readResponse(parser, reader, nested) : readPayload(parser, reader));
+				} catch (JsonProcessingException e) {
+					if (!value.isScalarValue()) {
+						throw e;
+					}
+					// e.g. "response": "" sent along with errors, which must take precedence
+					payloadFailure = e;
+				}
+			} else if (TAG_STATUS_CODE.equals(name) && value.isNumeric()) {
+				rootStatusCode = parser.getValueAsInt();
+			} else if (TAG_STATUS_MESSAGE.equals(name)) {
+				rootStatusMessage = parser.getValueAsString("");
+				parser.skipChildren();
+			} else {
+				parser.skipChildren();
+			}
+		}
+
+		if (payloadFailure != null && (decoded.getErrors() == null || decoded.getErrors().isEmpty())) {
+			throw payloadFailure;
+		}
+
+		decoded.setStatusCode(nested.statusCode != null ? nested.statusCode : rootStatusCode);
+		if (nested.statusMessage != null) {
+			decoded.setStatusMessage(nested.statusMessage);
+		} else if (rootStatusMessage != null) {
+			decoded.setStatusMessage(rootStatusMessage);
+		}
+		return decoded;
+	}
+
+	private static <T> DecodedResponse<T> withWireFormat(DecodedResponse<T> decoded, WireFormat wireFormat) {
+		if (decoded != null) {
+			decoded.setWireFormat(wireFormat);
+		}
+		return decoded;
+	}
+
+	/**
+	 * Reads the root {@code response} value, positioned on its first token.
+	 */
+	private static <T> T readResponse(JsonParser parser, ObjectReader reader, NestedStatus nested)
+			throws IOException {
+		if (parser.currentToken() != JsonToken.START_OBJECT) {
+			return readPayload(parser, reader);
+		}
+
+		T payload = null;
+		boolean hasNestedPayload = false;
+		TokenBuffer buffer = new TokenBuffer(parser);
+		buffer.writeStartObject();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.currentName();
+			JsonToken value = parser.nextToken();
+			if (!hasNestedPayload && TAG_RESPONSE.equals(name)) {
+				hasNestedPayload = true;
+				buffer = null;
+				payload = readPayload(parser, reader);
+				continue;
+			}
+			if (TAG_STATUS_CODE.equals(name) && value != JsonToken.VALUE_NULL) {
+				nested.statusCode = value.isScalarValue() ? parser.getValueAsInt() : 0;
+			} else if (TAG_STATUS_MESSAGE.equals(name) && value != JsonToken.VALUE_NULL) {
+				nested.statusMessage = parser.getValueAsString("");
+			}
+			if (buffer != null) {
+				buffer.writeFieldName(name);
+				buffer.copyCurrentStructure(parser);
+			} else {
+				parser.skipChildren();
+			}
+		}
+
+		if (hasNestedPayload) {
+			return payload;
+		}
+		buffer.writeEndObject();
+		try (JsonParser buffered = buffer.asParser()) {
+			return reader.readValue(buffered);
+		}
+	}
+
+	/**
+	 * Binds the value the parser is positioned on, mapping JSON {@code null} to
+	 * {@code null}.
+	 */
+	private static <T> T readPayload(JsonParser parser, ObjectReader reader) throws IOException {
+		if (parser.currentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		return reader.readValue(parser);
+	}
+
+	/**
+	 * Status fields found inside the root {@code response} object.
+	 */
+	private static final class NestedStatus {
+		private Integer statusCode;
+		private String statusMessage;
+	}
+}
@@ -0,0 +1,165 @@
+package io.mosip.biosdk.client.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import io.mosip.biosdk.client.utils.Util;
+import io.mosip.kernel.biometrics.entities.BIR;
+
+/**
+ * Encodings of the request and response envelopes exchanged with the BioSDK
+ * service.
+ *
+ * <p>
+ * {@link #JSON} is the default envelope, where the request body is carried as
+ * Base64 encoded JSON, and BDBs inside it are arrays of integers. The binary
+ * formats carry the request body as a nested object instead, and BDBs are
+ * written as raw binary values:
+ * </p>
+ * <ul>
+ * <li>{@code {"version": "1.0", "request": {...}}}</li>
+ * </ul>
+ * <p>
+ * The binary mappers are copies of {@link Util#getObjectMapper()}, so they share
+ * its modules and features, with {@link BinaryBirMixIn} applied on top.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public enum WireFormat {
+	/** JSON envelope with a Base64 encoded JSON request body. */
+	JSON(MediaType.APPLICATION_JSON, Util.getObjectMapper()),
+
+	/** CBOR envelope with the request body as a nested object. */
+	CBOR(MediaType.APPLICATION_CBOR, binaryMapper(new CBORFactory())),
+
+	/** Smile envelope with the request body as a nested object. */
+	SMILE(new MediaType("application", "x-jackson-smile"),
+			binaryMapper(SmileFactory.builder().disable(SmileGenerator.Feature.ENCODE_BINARY_AS_7BIT).build()));
+
+	private final MediaType mediaType;
+
+	private final ObjectMapper mapper;
+
+	private final String acceptHeader;
+
+	private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+	WireFormat(MediaType mediaType, ObjectMapper mapper) {
+		this.mediaType = mediaType;
+		this.mapper = mapper;
+		// Binary formats still accept JSON, so a service that only speaks JSON
+		// can answer any request
+		this.acceptHeader = MediaType.APPLICATION_JSON.equals(mediaType) ? mediaType.toString()
+				: mediaType + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.9";
+	}
+
+	/**
+	 * Content type of envelopes written in this format.
+	 */
+	public MediaType getMediaType() {
+		return mediaType;
+	}
+
+	/**
+	 * Mapper reading and writing this format.
+	 */
+	public ObjectMapper getMapper() {
+		return mapper;
+	}
+
+	/**
+	 * Value of the {@code Accept} header sent with requests in this format.
+	 */
+	public String getAcceptHeader() {
+		return acceptHeader;
+	}
+
+	/**
+	 * Returns a reader of this format for the type read by the given JSON reader.
+	 * The readers are created once per type.
+	 *
+	 * @param jsonReader A reader created from {@link Util#getObjectMapper()}.
+	 * @return The given reader for {@link #JSON}, otherwise a reader of this
+	 *         format's mapper for the same type.
+	 */
+	public ObjectReader readerFor(ObjectReader jsonReader) {
+		if (this == JSON) {
+			return jsonReader;
+		}
+		return readers.computeIfAbsent(jsonReader.getValueType(), mapper::readerFor);
+	}
+
+	/**
+	 * Whether the request body is embedded as a nested object rather than as
+	 * Base64 encoded JSON.
+	 */
+	public boolean isBinary() {
+		return this != JSON;
+	}
+
+	/**
+	 * Creates a parser for a response body in this format. The stream is not
+	 * closed by the parser.
+	 *
+	 * @param body The response body stream.
+	 * @return A parser reading the body.
+	 * @throws IOException If the parser cannot be created.
+	 */
+	public JsonParser createParser(InputStream body) throws IOException {
+		JsonParser parser = mapper.getFactory().createParser(body);
+		parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+		return parser;
+	}
+
+	private static ObjectMapper binaryMapper(JsonFactory factory) {
+		return Util.getObjectMapper().copyWith(factory)
+				.addMixIn(BIR.class, BinaryBirMixIn.class)
+				.addMixIn(BIR.BIRBuilder.class, BinaryBirMixIn.Builder.class);
+	}
+
+	/**
+	 * Resolves the format of a response from its content type.
+	 *
+	 * @param contentType The response content type, may be {@code null}.
+	 * @return The matching format, or {@link #JSON} if none matches.
+	 */
+	public static WireFormat forContentType(MediaType contentType) {
+		if (contentType != null) {
+			for (WireFormat wireFormat : values()) {
+				if (wireFormat.mediaType.isCompatibleWith(contentType)) {
+					return wireFormat;
+				}
+			}
+		}
+		return JSON;
+	}
+
+	/**
+	 * Resolves a configured format name such as {@code cbor} or {@code smile}.
+	 *
+	 * @param name The configured name, may be {@code null}.
+	 * @return The matching format, or {@link #JSON} if the name is blank.
+	 * @throws IllegalArgumentException If the name is not a known format.
+	 */
+	public static WireFormat fromName(String name) {
+		if (name == null || name.isBlank()) {
+			return JSON;
+		}
+		return valueOf(name.trim().toUpperCase(Locale.ROOT));
+	}
+}
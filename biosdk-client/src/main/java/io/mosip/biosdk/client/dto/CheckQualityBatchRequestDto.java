@@ -0,0 +1,29 @@
+package io.mosip.biosdk.client.dto;
+
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Data Transfer Object (DTO) for requesting the quality check of several
+ * biometric samples in one call to a biometric SDK service.
+ *
+ * <p>
+ * The service answers with one status and quality check per request, in the
+ * order of {@link #getRequests()}. It is only sent to services that advertise
+ * batch support in their SDK info.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+@Data
+@NoArgsConstructor
+@ToString
+public class CheckQualityBatchRequestDto {
+	/**
+	 * The quality check requests of the batch.
+	 */
+	private List<CheckQualityRequestDto> requests;
+}
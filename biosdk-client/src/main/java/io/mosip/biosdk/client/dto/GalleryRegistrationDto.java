@@ -0,0 +1,28 @@
+package io.mosip.biosdk.client.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Data Transfer Object (DTO) representing the registration of a match gallery
+ * with a biometric SDK service, returned for a
+ * {@link RegisterGalleryRequestDto}.
+ *
+ * @since 1.3.0
+ */
+@Data
+@NoArgsConstructor
+@ToString
+public class GalleryRegistrationDto {
+	/**
+	 * The id the service knows the gallery by.
+	 */
+	private String galleryId;
+
+	/**
+	 * How long the service keeps the gallery, in seconds; {@code null} if it
+	 * does not say.
+	 */
+	private Long ttlSeconds;
+}
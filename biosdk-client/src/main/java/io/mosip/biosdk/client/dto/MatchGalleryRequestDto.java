@@ -0,0 +1,47 @@
+package io.mosip.biosdk.client.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Data Transfer Object (DTO) representing a request to match a biometric
+ * sample against a gallery registered with the service before, see
+ * {@link RegisterGalleryRequestDto}.
+ *
+ * <p>
+ * The service answers like for a {@link MatchRequestDto}, or with status
+ * {@code 404} if it does not know the gallery id, e.g. because it evicted it.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+@Data
+@NoArgsConstructor
+@ToString
+public class MatchGalleryRequestDto {
+	/**
+	 * The sample biometric record to be matched against the gallery.
+	 */
+	private BiometricRecord sample;
+
+	/**
+	 * The id of the registered gallery.
+	 */
+	private String galleryId;
+
+	/**
+	 * The list of biometric modalities/types to be matched.
+	 */
+	private List<BiometricType> modalitiesToMatch;
+
+	/**
+	 * Additional flags or parameters for configuring the matching process.
+	 */
+	private Map<String, String> flags;
+}
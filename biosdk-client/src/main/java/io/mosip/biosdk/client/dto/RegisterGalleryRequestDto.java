@@ -0,0 +1,34 @@
+package io.mosip.biosdk.client.dto;
+
+import java.util.Map;
+
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Data Transfer Object (DTO) for registering a match gallery with a biometric
+ * SDK service, so that later matches against it only send a gallery id.
+ *
+ * <p>
+ * The service answers with a {@link GalleryRegistrationDto}. It keeps the
+ * gallery for the lifetime it reports, or less if it has to evict it.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+@Data
+@NoArgsConstructor
+@ToString
+public class RegisterGalleryRequestDto {
+	/**
+	 * The biometric records of the gallery.
+	 */
+	private BiometricRecord[] gallery;
+
+	/**
+	 * Additional flags or parameters for the registration.
+	 */
+	private Map<String, String> flags;
+}
@@ -0,0 +1,205 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.mosip.biosdk.client.codec.DecodedResponse;
+import io.mosip.biosdk.client.config.LoggerConfig;
+import io.mosip.biosdk.client.constant.ResponseStatus;
+import io.mosip.biosdk.client.dto.CheckQualityRequestDto;
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.utils.RequestTimeouts;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static io.mosip.biosdk.client.constant.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.client.constant.AppConstants.LOGGER_SESSIONID;
+
+/**
+ * BioSDK client with a non-blocking variant of every {@code IBioApiV2} operation.
+ * <p>
+ * The {@code ...Async} methods return as soon as the request is handed to a pooled non-blocking HTTP client,
+ * so the number of calls in flight is bounded by connections rather than by caller threads. They route,
+ * encode and decode exactly like the synchronous methods inherited from {@link Client_V_1_0}, which remain
+ * available on the same instance; {@link #init(Map)} has to be called first in both cases.
+ * <p>
+ * Where a synchronous method throws a {@link BioSdkClientException}, the future returned by its asynchronous
+ * variant completes exceptionally with it. Cancelling a future aborts its HTTP exchange. Dependent stages
+ * without an explicit executor run on the I/O dispatch threads of the HTTP client, and should not block.
+ *
+ * @since 1.3.0
+ */
+public class AsyncClient_V_1_0 extends Client_V_1_0 {
+    private static Logger logger = LoggerConfig.logConfig(AsyncClient_V_1_0.class);
+
+    /**
+     * Checks the quality of a biometric sample without blocking. The call is answered from the quality memo,
+     * batched with others or hedged if configured, see {@link #init(Map)}.
+     *
+     * @param sample            The biometric record to check.
+     * @param modalitiesToCheck List of biometric modalities to check quality for.
+     * @param flags             Additional configuration flags.
+     * @return A future completed with the quality check result, as returned by
+     * {@link #checkQuality(BiometricRecord, List, Map)}.
+     */
+    public CompletableFuture<Response<QualityCheck>> checkQualityAsync(BiometricRecord sample,
+                                                                      List<BiometricType> modalitiesToCheck,
+                                                                      Map<String, String> flags) {
+        return callAsync(() -> {
+            List<String> sdkServiceUrls = getSdkServiceUrls(modalitiesToCheck.get(0), flags);
+            CheckQualityRequestDto checkQualityRequestDto = checkQualityRequest(sample, modalitiesToCheck, flags);
+            RequestTimeouts timeouts = getCallTimeouts().startCall(flags);
+            QualityMemo memo = getQualityMemo();
+            return withinDeadline(memo.load(memo.keyFor(sample, modalitiesToCheck, flags),
+                    () -> sendQualityCheckAsync(sdkServiceUrls, checkQualityRequestDto, timeouts)), timeouts);
+        });
+    }
+
+    /**
+     * Matches a biometric sample against a gallery of biometric records without blocking. A configured
+     * gallery sharding and hedging apply as in {@link #match(BiometricRecord, BiometricRecord[], List, Map)}.
+     *
+     * @param sample            The biometric sample to match.
+     * @param gallery           Array of biometric records to match against.
+     * @param modalitiesToMatch List of biometric modalities to consider for matching.
+     * @param flags             Additional configuration flags.
+     * @return A future completed with the match decisions, as returned by
+     * {@link #match(BiometricRecord, BiometricRecord[], List, Map)}.
+     */
+    public CompletableFuture<Response<MatchDecision[]>> matchAsync(BiometricRecord sample, BiometricRecord[] gallery,
+                                                                  List<BiometricType> modalitiesToMatch,
+                                                                  Map<String, String> flags) {
+        return callAsync(() -> {
+            RequestTimeouts timeouts = getCallTimeouts().startCall(flags);
+            getMetrics().recordGallery("/match", gallery);
+            List<String> sdkServiceUrls = getSdkServiceUrls(modalitiesToMatch.get(0), flags);
+            String sdkServiceUrl = getSdkServiceUrl(modalitiesToMatch.get(0), flags);
+            List<GalleryShards.Shard> shards = getMatchShards(sdkServiceUrl, sample, gallery);
+            if (shards.size() > 1) {
+                return callMatchShardsAsync(sdkServiceUrls, sample, shards, modalitiesToMatch, flags, timeouts);
+            }
+            return callSdkServiceHedgedAsync(sdkServiceUrls, "/match",
+                    matchRequest(sample, gallery, modalitiesToMatch, flags), MATCH_DECISIONS_READER, timeouts);
+        });
+    }
+
+    /**
+     * Extracts a biometric template from the provided biometric record without blocking.
+     *
+     * @param sample              The biometric record from which the template needs to be extracted.
+     * @param modalitiesToExtract List of biometric modalities to extract templates for.
+     * @param flags               Additional configuration flags.
+     * @return A future completed with the extracted template, as returned by
+     * {@link #extractTemplate(BiometricRecord, List, Map)}.
+     */
+    public CompletableFuture<Response<BiometricRecord>> extractTemplateAsync(BiometricRecord sample,
+                                                                            List<BiometricType> modalitiesToExtract,
+                                                                            Map<String, String> flags) {
+        return callAsync(() -> {
+            TemplateCache cache = getTemplateCache();
+            SampleDigest cacheKey = cache.keyFor(sample, modalitiesToExtract, flags);
+            DecodedResponse<BiometricRecord> cached = cache.get(cacheKey);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+            return this.<BiometricRecord>callSdkServiceAsync(getSdkServiceUrl(modalitiesToExtract, flags),
+                            "/extract-template", extractTemplateRequest(sample, modalitiesToExtract, flags),
+                            BIOREC_READER, true, getCallTimeouts().startCall(flags))
+                    .thenApply(decodedResponse -> {
+                        try {
+                            cache.put(cacheKey, decodedResponse);
+                        } catch (IOException e) {
+                            throw new CompletionException(e);
+                        }
+                        return decodedResponse;
+                    });
+        });
+    }
+
+    /**
+     * Segments the given biometric record without blocking.
+     *
+     * @param biometricRecord     The biometric record to be segmented.
+     * @param modalitiesToSegment List of biometric modalities to perform segmentation on.
+     * @param flags               Additional configuration flags.
+     * @return A future completed with the segmented record, as returned by
+     * {@link #segment(BiometricRecord, List, Map)}.
+     */
+    public CompletableFuture<Response<BiometricRecord>> segmentAsync(BiometricRecord biometricRecord,
+                                                                    List<BiometricType> modalitiesToSegment,
+                                                                    Map<String, String> flags) {
+        return callAsync(() -> callSdkServiceAsync(getSdkServiceUrl(modalitiesToSegment.get(0), flags), "/segment",
+                segmentRequest(biometricRecord, modalitiesToSegment, flags), BIOREC_READER, true,
+                getCallTimeouts().startCall(flags)));
+    }
+
+    /**
+     * Converts biometric data from sourceFormat to targetFormat without blocking.
+     *
+     * @param sample              The biometric record to be converted.
+     * @param sourceFormat        Source format of the biometric data.
+     * @param targetFormat        Target format of the biometric data.
+     * @param sourceParams        Additional source format parameters.
+     * @param targetParams        Additional target format parameters.
+     * @param modalitiesToConvert List of biometric modalities to be converted.
+     * @return A future completed with the converted record, as returned by
+     * {@link #convertFormatV2(BiometricRecord, String, String, Map, Map, List)}.
+     */
+    public CompletableFuture<Response<BiometricRecord>> convertFormatV2Async(BiometricRecord sample, String sourceFormat,
+                                                                            String targetFormat,
+                                                                            Map<String, String> sourceParams,
+                                                                            Map<String, String> targetParams,
+                                                                            List<BiometricType> modalitiesToConvert) {
+        return callAsync(() -> callSdkServiceAsync(getDefaultSdkServiceUrl(), "/convert-format",
+                convertFormatRequest(sample, sourceFormat, targetFormat, sourceParams, targetParams, modalitiesToConvert),
+                BIOREC_READER, true, getCallTimeouts().startCall(Map.of())));
+    }
+
+    /**
+     * Starts a call and maps its outcome to a {@link Response}. Failures, whether raised while preparing the
+     * request or by the exchange, complete the future with a {@link BioSdkClientException} as the
+     * synchronous methods would throw it.
+     */
+    private <T> CompletableFuture<Response<T>> callAsync(AsyncCall<T> call) {
+        CompletableFuture<DecodedResponse<T>> exchange;
+        try {
+            exchange = call.start();
+        } catch (Exception e) {
+            exchange = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Response<T>> result = exchange.handle((decodedResponse, ex) -> {
+            if (ex != null) {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error", cause);
+                throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "",
+                        cause.getLocalizedMessage(), cause);
+            }
+            Response<T> response = new Response<>();
+            fillResponse(response, decodedResponse);
+            return response;
+        });
+        CompletableFuture<DecodedResponse<T>> started = exchange;
+        result.whenComplete((response, ex) -> {
+            if (result.isCancelled()) {
+                started.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Prepares and sends a request, returning the pending exchange.
+     */
+    @FunctionalInterface
+    private interface AsyncCall<T> {
+        CompletableFuture<DecodedResponse<T>> start() throws Exception;
+    }
+}
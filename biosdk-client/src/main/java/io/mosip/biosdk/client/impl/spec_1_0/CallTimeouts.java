@@ -0,0 +1,80 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.mosip.biosdk.client.utils.RequestTimeouts;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The timeouts of the calls to the SDK service URLs.
+ * <p>
+ * Every HTTP exchange waits at most {@code timeout.lease-ms} (30000 by default) for a pooled connection,
+ * {@code timeout.connect-ms} (10000) to connect and {@code timeout.read-ms} (120000) for response data;
+ * {@code 0} leaves a timeout to the HTTP client. A call can also be given a deadline: the
+ * {@value #DEADLINE_FLAG} flag of the call, in milliseconds, or else {@code timeout.call-ms} (0 by default,
+ * no deadline). The deadline covers the whole call, its retries and hedges included, and bounds each of the
+ * timeouts above; an exchange still in progress when it expires is aborted and its connection closed. A
+ * quality check sharing the request of other calls, in a batch or as an identical call in flight, waits no
+ * longer than its own deadline; a batch is sent with the latest deadline of its calls. The
+ * {@value #DEADLINE_FLAG} flag is not sent to the SDK service and is not part of the cache and memo keys.
+ *
+ * @since 1.3.0
+ */
+final class CallTimeouts {
+    private static final String PREFIX = "timeout.";
+
+    /** Flag giving a call its deadline, in milliseconds. */
+    static final String DEADLINE_FLAG = "deadline-ms";
+
+    /** The default timeouts, in effect until init. */
+    static final CallTimeouts DEFAULTS = new CallTimeouts(Map.of());
+
+    private final RequestTimeouts timeouts;
+
+    private final long callTimeoutMillis;
+
+    /**
+     * @param initParams The init parameters, read for the {@code timeout.*} settings.
+     */
+    CallTimeouts(Map<String, String> initParams) {
+        this.timeouts = RequestTimeouts.of(
+                Long.parseLong(initParams.getOrDefault(PREFIX + "lease-ms", "30000").trim()),
+                Long.parseLong(initParams.getOrDefault(PREFIX + "connect-ms", "10000").trim()),
+                Long.parseLong(initParams.getOrDefault(PREFIX + "read-ms", "120000").trim()));
+        this.callTimeoutMillis = Long.parseLong(initParams.getOrDefault(PREFIX + "call-ms", "0").trim());
+    }
+
+    /**
+     * The timeouts of a call starting now, with its deadline.
+     *
+     * @param flags The flags of the call, possibly with a {@value #DEADLINE_FLAG} flag.
+     */
+    RequestTimeouts startCall(Map<String, String> flags) {
+        String deadline = flags == null ? null : flags.get(DEADLINE_FLAG);
+        return timeouts.withDeadline(deadline == null || deadline.isBlank() ? callTimeoutMillis
+                : Long.parseLong(deadline.trim()));
+    }
+
+    /**
+     * The flags of a call as sent to the SDK service and keyed on, without the client-only
+     * {@value #DEADLINE_FLAG} flag, so that calls differing only in their deadline share results.
+     *
+     * @param flags The flags of the call, possibly {@code null}.
+     * @return The flags themselves when they have no deadline, else a copy without it.
+     */
+    static Map<String, String> serviceFlags(Map<String, String> flags) {
+        if (flags == null || !flags.containsKey(DEADLINE_FLAG)) {
+            return flags;
+        }
+        Map<String, String> serviceFlags = new HashMap<>(flags);
+        serviceFlags.remove(DEADLINE_FLAG);
+        return serviceFlags;
+    }
+
+    /**
+     * The timeouts of a call without a deadline of its own, e.g. an init call.
+     */
+    RequestTimeouts getDefaults() {
+        return timeouts;
+    }
+}
@@ -1,14 +1,25 @@
 package io.mosip.biosdk.client.impl.spec_1_0;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.biosdk.client.codec.BdbReferences;
+import io.mosip.biosdk.client.codec.CompressedRequestBody;
+import io.mosip.biosdk.client.codec.Compression;
+import io.mosip.biosdk.client.codec.DecodedResponse;
+import io.mosip.biosdk.client.codec.MultipartRequest;
+import io.mosip.biosdk.client.codec.RecordJsonCache;
+import io.mosip.biosdk.client.codec.RequestEnvelope;
+import io.mosip.biosdk.client.codec.RequestTransport;
+import io.mosip.biosdk.client.codec.ResponseEnvelopeDecoder;
+import io.mosip.biosdk.client.codec.WireFormat;
 import io.mosip.biosdk.client.config.LoggerConfig;
 import io.mosip.biosdk.client.constant.ResponseStatus;
 import io.mosip.biosdk.client.dto.*;
 import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.utils.RequestTimeouts;
+import io.mosip.biosdk.client.utils.SerializedRequestBody;
 import io.mosip.biosdk.client.utils.Util;
 import io.mosip.kernel.biometrics.constant.BiometricType;
 import io.mosip.kernel.biometrics.entities.BiometricRecord;
@@ -18,16 +29,28 @@ import io.mosip.kernel.biometrics.model.Response;
 import io.mosip.kernel.biometrics.model.SDKInfo;
 import io.mosip.kernel.biometrics.spi.IBioApiV2;
 import io.mosip.kernel.core.logger.spi.Logger;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResponseExtractor;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static io.mosip.biosdk.client.constant.AppConstants.LOGGER_IDTYPE;
@@ -44,61 +67,468 @@ import static io.mosip.biosdk.client.constant.AppConstants.LOGGER_SESSIONID;
 public class Client_V_1_0 implements IBioApiV2 {
     private static Logger logger = LoggerConfig.logConfig(Client_V_1_0.class);
 
-    private static final String FORMAT_SUFFIX = ".format";
-
     private static final String DEFAULT = "default";
 
+    private static final String FORMAT_PREFIX = "format.";
+
     private static final String FORMAT_URL_PREFIX = "format.url.";
 
+    private static final String FORMAT_WIRE_PREFIX = "format.wire.";
+
+    private static final String FORMAT_TRANSPORT_PREFIX = "format.transport.";
+
+    private static final String FORMAT_COMPRESSION_PREFIX = "format.compression.";
+
+    private static final String FORMAT_COMPRESSION_THRESHOLD_PREFIX = "format.compression-threshold.";
+
+    private static final String FORMAT_MATCH_SHARD_BYTES_PREFIX = "format.match-shard-bytes.";
+
+    private static final String FORMAT_MATCH_SHARD_RECORDS_PREFIX = "format.match-shard-records.";
+
+    private static final String FORMAT_QUALITY_BATCH_WINDOW_PREFIX = "format.quality-batch-window-us.";
+
+    private static final String FORMAT_QUALITY_BATCH_SIZE_PREFIX = "format.quality-batch-size.";
+
+    /** Key of the SDK info entry in which a service advertises the largest quality check batch it takes. */
+    private static final String QUALITY_BATCH_SIZE_INFO = "check-quality-batch-max-size";
+
+    private static final String FORMAT_BDB_REFERENCES_PREFIX = "format.bdb-references.";
+
+    private static final String GALLERY_CACHE_MAX_BYTES = "gallery-cache.max-bytes";
+
     private static final String PARAMETER_PREFIX = "config.parameter.";
 
     private static final String MOSIP_BIOSDK_SERVICE = "mosip_biosdk_service";
 
     private static final String VERSION = "1.0";
 
-    private TypeReference<List<ErrorDto>> errorDtoListTypeRef = new TypeReference<List<ErrorDto>>() {
-    };
+    /** How often a URL no longer configured is checked for calls still in flight to it. */
+    private static final long DRAIN_CHECK_INTERVAL_MILLIS = 100;
 
     private static final ObjectMapper M = Util.getObjectMapper();
-    private static final ObjectReader ERR_LIST_READER =
-            M.readerFor(new TypeReference<List<ErrorDto>>() {
-            });
     private static final ObjectReader SDKINFO_READER =
             M.readerFor(SDKInfo.class);
-    private static final ObjectReader MATCH_DECISIONS_READER =
+    static final ObjectReader MATCH_DECISIONS_READER =
             M.readerFor(new TypeReference<MatchDecision[]>() {
             });
-    private static final ObjectReader BIOREC_READER =
+    static final ObjectReader BIOREC_READER =
             M.readerFor(BiometricRecord.class);
-    private static final ObjectReader QUALITY_READER =
+    static final ObjectReader QUALITY_READER =
             M.readerFor(QualityCheck.class);
+    private static final ObjectReader GALLERY_REGISTRATION_READER =
+            M.readerFor(GalleryRegistrationDto.class);
+    private static final ObjectReader QUALITY_BATCH_READER =
+            M.readerFor(new TypeReference<List<Response<QualityCheck>>>() {
+            });
+
+    private volatile Map<String, String> sdkUrlsMap;
+
+    private volatile Map<String, List<String>> sdkServiceUrls = new HashMap<>();
+
+    private volatile RoutingTable routingTable = RoutingTable.EMPTY;
+
+    private final SdkServiceBalancer sdkServiceBalancer = new SdkServiceBalancer();
+
+    private volatile SdkServiceHealth sdkServiceHealth = SdkServiceHealth.DISABLED;
+
+    private volatile RequestHedging requestHedging = RequestHedging.DISABLED;
+
+    private volatile RetryPolicy retryPolicy = RetryPolicy.DISABLED;
+
+    private volatile ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.DISABLED;
+
+    private volatile TemplateCache templateCache = TemplateCache.DISABLED;
+
+    private volatile QualityMemo qualityMemo = QualityMemo.DISABLED;
+
+    private volatile CallTimeouts callTimeouts = CallTimeouts.DEFAULTS;
+
+    private volatile RecordJsonCache galleryRecordCache = new RecordJsonCache(0);
+
+    private volatile Warmup warmup = Warmup.DISABLED;
+
+    private volatile SdkMetrics metrics = SdkMetrics.DISABLED;
+
+    private volatile Map<String, SdkEndpoint> sdkEndpoints = new HashMap<>();
+
+    private volatile boolean qualityBatching;
 
-    private Map<String, String> sdkUrlsMap;
+    private volatile SdkServiceInits sdkServiceInits = SdkServiceInits.NONE;
+
+    private volatile SDKInfo aggregatedSdkInfo;
+
+    /** Held by init and reconfigurations, one at a time; the endpoint state below is set under it. */
+    private final ReentrantLock configLock = new ReentrantLock();
+
+    private Map<String, String> initParams = Map.of();
+
+    private Map<String, SdkEndpoint> requestedEndpoints = Map.of();
+
+    private Map<String, SdkEndpoint> negotiatedEndpoints = new ConcurrentHashMap<>();
+
+    /** Options of the URLs no longer configured, kept until their calls in flight finished. */
+    private final Map<String, SdkEndpoint> drainingEndpoints = new ConcurrentHashMap<>();
+
+    private volatile EndpointConfigWatcher endpointConfigWatcher = EndpointConfigWatcher.NONE;
+
+    /** URLs whose service answered a gallery registration with 404, taken as not supporting it. */
+    private final Set<String> galleryRegistrationUnsupported = ConcurrentHashMap.newKeySet();
+
+    private final RequestBatcher<CheckQualityRequestDto, QualityCheck> qualityCheckBatcher =
+            new RequestBatcher<>(this::sendQualityCheckBatch);
 
     private static final String TAG_HTTP_URL = "HTTP url: ";
     private static final String TAG_HTTP_STATUS = "HTTP status: ";
-    private static final String TAG_ERRORS = "errors";
-    private static final String TAG_RESPONSE = "response";
-    private static final String TAG_STATUS_CODE = "statusCode";
-    private static final String TAG_STATUS_MESSAGE = "statusMessage";
     private static final String TAG_RESPONSE_NULL = "Response body is null";
 
 
     /**
      * Initializes the BioSDK client using the provided initialization parameters.
+     * <p>
+     * {@code format.url.<format>} takes one SDK service URL or a comma separated list of replicas, over which
+     * the calls of the format are spread. The URLs are initialized concurrently; init waits at most
+     * {@code init.timeout-ms} (30000 by default) and only fails if no URL answered in time. A URL left
+     * uninitialized is initialized by the first call routed to it. The other parameters are described by
+     * the classes applying them:
+     * <ul>
+     *     <li>{@code format.<option>.<format>}: {@link SdkEndpoint}</li>
+     *     <li>{@code timeout.*}: {@link CallTimeouts}</li>
+     *     <li>{@code retry.*}: {@link RetryPolicy}</li>
+     *     <li>{@code hedge.*}: {@link RequestHedging}</li>
+     *     <li>{@code endpoint.ejection.*}: {@link SdkServiceHealth}</li>
+     *     <li>{@code limit.*}: {@link ConcurrencyLimiter}</li>
+     *     <li>{@code template-cache.*}: {@link TemplateCache}</li>
+     *     <li>{@code quality-memo.*}: {@link QualityMemo}</li>
+     *     <li>{@code gallery-cache.max-bytes}: {@link RecordJsonCache}</li>
+     *     <li>{@code warmup.*}: {@link Warmup}</li>
+     *     <li>{@code endpoint.config.*}: {@link EndpointConfigWatcher}</li>
+     * </ul>
+     * The endpoints can be changed later without a new init, see {@link #reconfigure(Map)}, and metrics are
+     * recorded once a registry is set, see {@link #setMeterRegistry(MeterRegistry)}.
      *
      * @param initParams A map of initialization parameters including SDK URLs and configuration values.
      * @return An aggregated {@link SDKInfo} object containing combined SDK information.
      */
     @Override
     public SDKInfo init(Map<String, String> initParams) {
-        sdkUrlsMap = getSdkUrls(initParams);
+        configLock.lock();
+        try {
+            endpointConfigWatcher.close();
+            endpointConfigWatcher = new EndpointConfigWatcher(initParams);
+            Map<String, String> fileParams = endpointConfigWatcher.read();
+            setFeatures(initParams);
+            SDKInfo sdkInfo = configureEndpoints(
+                    endpointConfigWatcher.isEnabled() ? withEndpointParams(initParams, fileParams) : initParams, false);
+            endpointConfigWatcher.start(this::reconfigure);
+            return sdkInfo;
+        } finally {
+            configLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the SDK service URLs and their options without a new init.
+     * <p>
+     * The URLs that are new, or whose options changed, are initialized as by init, while calls go on to
+     * the URLs configured before; the other URLs keep the options and SDK info of their init. Then the new
+     * routes are switched to at once. Calls already sent to a URL no longer configured finish there; the
+     * URL is only forgotten once it has no call in flight, and its pooled connections are closed as they
+     * idle. The settings other than those of the endpoints keep the values init gave them.
+     *
+     * @param endpointParams The {@code format.*} parameters, replacing all those given to init, and possibly
+     *                       other init parameters, overriding those given to init for the init calls.
+     * @return An aggregated {@link SDKInfo} object of the URLs now configured.
+     * @throws IllegalStateException if no SDK service URL is configured.
+     * @throws BioSdkClientException if none of the URLs could be initialized; the configuration before
+     *                               stays in effect.
+     * @since 1.3.0
+     */
+    public SDKInfo reconfigure(Map<String, String> endpointParams) {
+        configLock.lock();
+        try {
+            return configureEndpoints(withEndpointParams(initParams, endpointParams), true);
+        } finally {
+            configLock.unlock();
+        }
+    }
+
+    /**
+     * Records the calls to the SDK service URLs in a Micrometer registry from now on, see {@link SdkMetrics}
+     * for the meters. The registry is kept across inits.
+     *
+     * @param meterRegistry The registry, {@code null} to stop recording.
+     * @since 1.3.0
+     */
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        metrics = meterRegistry == null ? SdkMetrics.DISABLED : new SdkMetrics(meterRegistry);
+    }
+
+    private void setFeatures(Map<String, String> initParams) {
+        sdkServiceHealth.close();
+        sdkServiceHealth = new SdkServiceHealth(initParams);
+        sdkServiceBalancer.setHealth(sdkServiceHealth);
+        requestHedging = new RequestHedging(initParams);
+        retryPolicy = new RetryPolicy(initParams);
+        concurrencyLimiter = new ConcurrencyLimiter(initParams);
+        templateCache = new TemplateCache(initParams);
+        qualityMemo = new QualityMemo(initParams);
+        callTimeouts = new CallTimeouts(initParams);
+        galleryRegistrationUnsupported.clear();
+        galleryRecordCache = new RecordJsonCache(
+                Long.parseLong(initParams.getOrDefault(GALLERY_CACHE_MAX_BYTES, "0").trim()));
+        warmup = new Warmup(initParams);
         setConfigParameters(initParams);
-        List<SDKInfo> sdkInfos = sdkUrlsMap.values()
+    }
+
+    /**
+     * Initializes the SDK service URLs of the given parameters and switches calls over to them. Called
+     * under the config lock.
+     *
+     * @param initParams  The init parameters, with the {@code format.*} parameters to use.
+     * @param reconfigure Whether the URLs initialized before with the same options are kept as they are.
+     * @return An aggregated {@link SDKInfo} object of the URLs now configured.
+     */
+    private SDKInfo configureEndpoints(Map<String, String> initParams, boolean reconfigure) {
+        Map<String, String> newSdkUrlsMap = getSdkUrls(initParams);
+        Map<String, List<String>> newSdkServiceUrls = newSdkUrlsMap.entrySet()
                 .stream()
-                .map(sdkUrl -> initForSdkUrl(initParams, sdkUrl))
-                .collect(Collectors.toList());
-        return getAggregatedSdkInfo(sdkInfos);
+                .collect(Collectors.toMap(Entry::getKey, entry -> splitSdkServiceUrls(entry.getValue())));
+        Map<String, SdkEndpoint> requested = getRequestedSdkEndpoints(initParams, newSdkServiceUrls);
+        Map<String, SdkEndpoint> negotiated = new ConcurrentHashMap<>();
+        List<String> urls = newSdkServiceUrls.values().stream().flatMap(List::stream).collect(Collectors.toList());
+        SdkServiceInits inits = new SdkServiceInits(urls, initParams, sdkUrl -> initForSdkUrl(initParams, sdkUrl,
+                requested.getOrDefault(sdkUrl, SdkEndpoint.DEFAULTS), negotiated),
+                initialized -> publishInitialized(initialized, negotiated));
+        Set<String> carriedOver = new HashSet<>();
+        if (reconfigure) {
+            for (String sdkUrl : urls) {
+                if (requested.get(sdkUrl).equals(requestedEndpoints.get(sdkUrl))
+                        && inits.carryOver(sdkServiceInits, sdkUrl)) {
+                    negotiated.put(sdkUrl, negotiatedEndpoints.get(sdkUrl));
+                    carriedOver.add(sdkUrl);
+                }
+            }
+        }
+        newSdkServiceUrls.values().forEach(sdkServiceBalancer::register);
+        // Calls go on to the URLs configured before until the new ones are initialized and warmed up
+        inits.initializeAll();
+        Map<String, SdkEndpoint> initialized = new HashMap<>(negotiated);
+        initialized.keySet().removeAll(carriedOver);
+        warmup.run(initialized.keySet(), () -> warmUpCodecs(new HashSet<>(initialized.values())));
+        synchronized (this) {
+            Set<String> configured = new HashSet<>(urls);
+            for (List<String> previousUrls : sdkServiceUrls.values()) {
+                for (String previousUrl : previousUrls) {
+                    if (!configured.contains(previousUrl) && drainingEndpoints.putIfAbsent(previousUrl,
+                            sdkEndpoints.getOrDefault(previousUrl, SdkEndpoint.DEFAULTS)) == null) {
+                        scheduleDrainCheck(previousUrl);
+                    }
+                }
+            }
+            drainingEndpoints.keySet().removeAll(configured);
+            this.initParams = initParams;
+            this.requestedEndpoints = requested;
+            this.negotiatedEndpoints = negotiated;
+            sdkUrlsMap = newSdkUrlsMap;
+            sdkServiceUrls = newSdkServiceUrls;
+            sdkServiceInits = inits;
+            publishInitialized(inits, negotiated);
+            return aggregatedSdkInfo;
+        }
+    }
+
+    /**
+     * Encodes synthetic check quality and match requests as they would be sent with each of the given
+     * options, and decodes synthetic responses, see {@link Warmup}.
+     */
+    private void warmUpCodecs(Collection<SdkEndpoint> endpoints) throws IOException {
+        BiometricRecord sample = Warmup.syntheticRecord(1024);
+        BiometricRecord[] gallery = { Warmup.syntheticRecord(1024), Warmup.syntheticRecord(2048) };
+        List<BiometricType> modalities = List.of(BiometricType.FACE);
+        for (SdkEndpoint endpoint : endpoints) {
+            MediaType contentType = getContentType(endpoint);
+            Util.serializeRequestBody(toHttpBody(endpoint,
+                    checkQualityRequest(sample, modalities, new HashMap<>())), contentType);
+            Util.serializeRequestBody(toHttpBody(endpoint,
+                    matchRequest(sample, gallery, modalities, new HashMap<>())), contentType);
+            WireFormat wireFormat = endpoint.getWireFormat();
+            ResponseEnvelopeDecoder.decode(new ByteArrayInputStream(Warmup.responseEnvelope(wireFormat,
+                    Warmup.syntheticQualityCheck())), QUALITY_READER, wireFormat);
+            ResponseEnvelopeDecoder.decode(new ByteArrayInputStream(Warmup.responseEnvelope(wireFormat,
+                    Warmup.syntheticDecisions(gallery.length))), MATCH_DECISIONS_READER, wireFormat);
+            ResponseEnvelopeDecoder.decode(new ByteArrayInputStream(Warmup.responseEnvelope(wireFormat, sample)),
+                    BIOREC_READER, wireFormat);
+        }
+    }
+
+    /**
+     * The init parameters with the {@code format.*} parameters replaced by the given ones, and the other
+     * given ones added.
+     */
+    private static Map<String, String> withEndpointParams(Map<String, String> initParams,
+                                                          Map<String, String> endpointParams) {
+        Map<String, String> params = new HashMap<>(initParams);
+        params.keySet().removeIf(key -> key.startsWith(FORMAT_PREFIX));
+        params.putAll(endpointParams);
+        return params;
+    }
+
+    private void scheduleDrainCheck(String sdkServiceUrl) {
+        CompletableFuture.runAsync(() -> checkDrained(sdkServiceUrl),
+                CompletableFuture.delayedExecutor(DRAIN_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Forgets a URL no longer configured once it has no call in flight, unless it was configured again.
+     */
+    private synchronized void checkDrained(String sdkServiceUrl) {
+        if (!drainingEndpoints.containsKey(sdkServiceUrl)) {
+            return;
+        }
+        if (sdkServiceBalancer.getInFlight(sdkServiceUrl) > 0) {
+            scheduleDrainCheck(sdkServiceUrl);
+            return;
+        }
+        drainingEndpoints.remove(sdkServiceUrl);
+        sdkServiceBalancer.forget(sdkServiceUrl);
+        sdkServiceHealth.forget(sdkServiceUrl);
+        logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "Drained SDK service URL", sdkServiceUrl);
+        publishInitialized(sdkServiceInits, negotiatedEndpoints);
+    }
+
+    /**
+     * Publishes the options, routes and SDK info of the URLs initialized so far by an init, unless a later
+     * init or reconfiguration replaced it. The options of the URLs being drained are kept.
+     *
+     * @param inits               The init calls of the init.
+     * @param negotiatedEndpoints The options accepted by the URLs initialized so far.
+     */
+    private synchronized void publishInitialized(SdkServiceInits inits,
+                                                 Map<String, SdkEndpoint> negotiatedEndpoints) {
+        if (sdkServiceInits != inits) {
+            return;
+        }
+        Map<String, SdkEndpoint> endpoints = new HashMap<>(drainingEndpoints);
+        endpoints.putAll(negotiatedEndpoints);
+        sdkEndpoints = endpoints;
+        routingTable = new RoutingTable(sdkServiceUrls, sdkEndpoints, inits.getUninitialized());
+        qualityBatching = sdkEndpoints.values().stream().anyMatch(SdkEndpoint::isQualityBatched);
+        aggregatedSdkInfo = getAggregatedSdkInfo(inits.getSdkInfos());
+    }
+
+    /**
+     * The SDK info of the SDK service URLs initialized so far, aggregated as returned by init.
+     *
+     * @return The SDK info, {@code null} before init.
+     * @since 1.3.0
+     */
+    public SDKInfo getSdkInfo() {
+        return aggregatedSdkInfo;
+    }
+
+    /**
+     * The SDK service URLs that did not answer init in time or failed it, and have not been initialized
+     * since, see {@link #init(Map)}.
+     *
+     * @return The URLs, in configured order.
+     * @since 1.3.0
+     */
+    public Set<String> getUninitializedSdkServiceUrls() {
+        return sdkServiceInits.getUninitialized();
+    }
+
+    /**
+     * Resolves the options requested for each SDK service URL from the {@code format.wire.<format>},
+     * {@code format.transport.<format>}, {@code format.compression.<format>},
+     * {@code format.match-shard-*.<format>}, {@code format.quality-batch-*.<format>} and
+     * {@code format.bdb-references.<format>} parameters. When
+     * several formats share a URL, an option set for any of them applies.
+     *
+     * @param initParams     A map of initialization parameters.
+     * @param sdkServiceUrls The URLs of each format.
+     * @return A map of SDK service URLs to the requested {@link SdkEndpoint} options.
+     */
+    private Map<String, SdkEndpoint> getRequestedSdkEndpoints(Map<String, String> initParams,
+                                                              Map<String, List<String>> sdkServiceUrls) {
+        Map<String, SdkEndpoint> requestedEndpoints = new HashMap<>();
+        for (Entry<String, List<String>> sdkUrls : sdkServiceUrls.entrySet()) {
+            String format = sdkUrls.getKey();
+            String compressionThreshold = initParams.get(FORMAT_COMPRESSION_THRESHOLD_PREFIX + format);
+            String matchShardBytes = initParams.get(FORMAT_MATCH_SHARD_BYTES_PREFIX + format);
+            String matchShardRecords = initParams.get(FORMAT_MATCH_SHARD_RECORDS_PREFIX + format);
+            String qualityBatchWindow = initParams.get(FORMAT_QUALITY_BATCH_WINDOW_PREFIX + format);
+            String qualityBatchSize = initParams.get(FORMAT_QUALITY_BATCH_SIZE_PREFIX + format);
+            SdkEndpoint sdkEndpoint = SdkEndpoint.DEFAULTS
+                    .withWireFormat(WireFormat.fromName(initParams.get(FORMAT_WIRE_PREFIX + format)))
+                    .withTransport(RequestTransport.fromName(initParams.get(FORMAT_TRANSPORT_PREFIX + format)))
+                    .withCompression(Compression.fromName(initParams.get(FORMAT_COMPRESSION_PREFIX + format)),
+                            compressionThreshold == null ? SdkEndpoint.DEFAULT_COMPRESSION_THRESHOLD
+                                    : Long.parseLong(compressionThreshold.trim()))
+                    .withMatchSharding(matchShardBytes == null ? 0 : Long.parseLong(matchShardBytes.trim()),
+                            matchShardRecords == null ? 0 : Integer.parseInt(matchShardRecords.trim()))
+                    .withQualityBatching(qualityBatchWindow == null ? 0
+                                    : TimeUnit.MICROSECONDS.toNanos(Long.parseLong(qualityBatchWindow.trim())),
+                            qualityBatchSize == null ? SdkEndpoint.DEFAULT_QUALITY_BATCH_SIZE
+                                    : Integer.parseInt(qualityBatchSize.trim()))
+                    .withBdbReferences(Boolean.parseBoolean(initParams.get(FORMAT_BDB_REFERENCES_PREFIX + format)));
+            for (String sdkUrl : sdkUrls.getValue()) {
+                requestedEndpoints.merge(sdkUrl, sdkEndpoint, SdkEndpoint::merge);
+            }
+        }
+        return requestedEndpoints;
+    }
+
+    /**
+     * Keeps quality check batching requested for a URL only if its service advertises batch support, with
+     * batches no larger than it takes.
+     *
+     * @param sdkServiceUrl The SDK service URL.
+     * @param sdkEndpoint   The options requested for the URL.
+     * @param sdkInfo       The SDK info returned by the init call of the URL.
+     * @return The options to use for the URL.
+     */
+    private SdkEndpoint negotiateQualityBatching(String sdkServiceUrl, SdkEndpoint sdkEndpoint, SDKInfo sdkInfo) {
+        if (!sdkEndpoint.isQualityBatched()) {
+            return sdkEndpoint;
+        }
+        String maxBatchSize = sdkInfo == null || sdkInfo.getOtherInfo() == null ? null
+                : sdkInfo.getOtherInfo().get(QUALITY_BATCH_SIZE_INFO);
+        int batchSize = 0;
+        if (maxBatchSize != null) {
+            try {
+                batchSize = Math.min(sdkEndpoint.getQualityBatchSize(), Integer.parseInt(maxBatchSize.trim()));
+            } catch (NumberFormatException e) {
+                batchSize = 0;
+            }
+        }
+        if (batchSize < 2) {
+            logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "Quality check batches not supported, sending single calls",
+                    sdkServiceUrl);
+            return sdkEndpoint.withQualityBatching(0, 0);
+        }
+        return sdkEndpoint.withQualityBatching(sdkEndpoint.getQualityBatchWindowNanos(), batchSize);
+    }
+
+    /**
+     * Keeps BDB references requested for a URL only if its service advertises them.
+     *
+     * @param sdkServiceUrl The SDK service URL.
+     * @param sdkEndpoint   The options requested for the URL.
+     * @param sdkInfo       The SDK info returned by the init call of the URL.
+     * @return The options to use for the URL.
+     */
+    private SdkEndpoint negotiateBdbReferences(String sdkServiceUrl, SdkEndpoint sdkEndpoint, SDKInfo sdkInfo) {
+        if (!sdkEndpoint.isBdbReferenced()) {
+            return sdkEndpoint;
+        }
+        String supported = sdkInfo == null || sdkInfo.getOtherInfo() == null ? null
+                : sdkInfo.getOtherInfo().get(BdbReferences.SDK_INFO_KEY);
+        if (!Boolean.parseBoolean(supported == null ? null : supported.trim())) {
+            logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "BDB references not supported, sending every BDB",
+                    sdkServiceUrl);
+            return sdkEndpoint.withBdbReferences(false);
+        }
+        return sdkEndpoint;
     }
 
     /**
@@ -180,33 +610,48 @@ public class Client_V_1_0 implements IBioApiV2 {
     /**
      * Initializes the SDK for a specific service URL by sending an init request and parsing the response.
      * Handles any errors encountered during initialization.
+     * <p>
+     * The init request itself is always sent as JSON, since the service may not read binary envelopes.
+     * The format of its response decides the wire format used for the URL from then on.
      *
-     * @param initParams    A map of initialization parameters to be included in the init request.
-     * @param sdkServiceUrl The URL of the SDK service to be initialized.
+     * @param initParams          A map of initialization parameters to be included in the init request.
+     * @param sdkServiceUrl       The URL of the SDK service to be initialized.
+     * @param requestedEndpoint   The options requested for the URL, including the wire format offered.
+     * @param negotiatedEndpoints The map the options accepted by the service are recorded in.
      * @return A {@link SDKInfo} object containing details about the initialized SDK.
      * @throws BioSdkClientException if there is an error during HTTP communication or response parsing.
      */
-    private SDKInfo initForSdkUrl(Map<String, String> initParams, String sdkServiceUrl) {
+    private SDKInfo initForSdkUrl(Map<String, String> initParams, String sdkServiceUrl, SdkEndpoint requestedEndpoint,
+                                  Map<String, SdkEndpoint> negotiatedEndpoints) {
         try {
             InitRequestDto initRequestDto = new InitRequestDto();
             initRequestDto.setInitParams(initParams);
 
-            RequestDto requestDto = generateNewRequestDto(initRequestDto);
-            ResponseEntity<?> responseEntity = Util.restRequest(sdkServiceUrl + "/init", HttpMethod.POST, MediaType.APPLICATION_JSON, requestDto, null, String.class);
-            if (!responseEntity.getStatusCode().is2xxSuccessful()) {
-                logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "HTTP status: ", responseEntity.getStatusCode().toString());
-                throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR + "",
-                        TAG_HTTP_STATUS + responseEntity.getStatusCode().toString());
+            WireFormat requestedWireFormat = requestedEndpoint.getWireFormat();
+            RequestEnvelope requestEnvelope = generateRequestEnvelope(initRequestDto, WireFormat.JSON, false);
+            SdkMetrics.Exchange metered = metrics.start(sdkServiceUrl, "/init");
+            AtomicInteger httpStatus = new AtomicInteger();
+            DecodedResponse<SDKInfo> decodedResponse;
+            try {
+                decodedResponse = postToSdkService(sdkServiceUrl + "/init", WireFormat.JSON.getMediaType(),
+                        requestEnvelope, acceptHeader(requestedWireFormat), recordingStatus(httpStatus,
+                                this.<SDKInfo>responseExtractor(SDKINFO_READER, false)),
+                        callTimeouts.getDefaults(), metered);
+                metered.stop(null, httpStatus.get());
+            } catch (RuntimeException e) {
+                metered.stop(e, httpStatus.get());
+                throw e;
             }
-            String responseBody = (String) Objects.requireNonNull(responseEntity.getBody(), TAG_RESPONSE_NULL);
-            if (responseBody.equalsIgnoreCase(TAG_RESPONSE_NULL)) {
-                throw new NullPointerException(TAG_RESPONSE_NULL);
+            WireFormat wireFormat = decodedResponse.getWireFormat() == requestedWireFormat
+                    ? requestedWireFormat : WireFormat.JSON;
+            if (wireFormat != requestedWireFormat) {
+                logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "Wire format " + requestedWireFormat
+                        + " not supported, using " + wireFormat, sdkServiceUrl);
             }
-            com.fasterxml.jackson.databind.JsonNode root = M.readTree(responseBody);
-            handleErrors(root.path(TAG_ERRORS));
-
-            com.fasterxml.jackson.databind.JsonNode respNode = root.path(TAG_RESPONSE);
-            return SDKINFO_READER.readValue(respNode.traverse());
+            SDKInfo sdkInfo = decodedResponse.getPayload();
+            negotiatedEndpoints.put(sdkServiceUrl, negotiateBdbReferences(sdkServiceUrl, negotiateQualityBatching(
+                    sdkServiceUrl, requestedEndpoint.withWireFormat(wireFormat), sdkInfo), sdkInfo));
+            return sdkInfo;
         } catch (Exception e) {
             logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error", e);
             throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR + "", e.getLocalizedMessage(), e);
@@ -247,37 +692,39 @@ public class Client_V_1_0 implements IBioApiV2 {
         return sdkUrls;
     }
 
+    /**
+     * Splits a configured {@code format.url.<format>} value into its URLs.
+     *
+     * @param configuredUrls One URL or a comma separated list of URLs.
+     * @return The URLs, in configured order.
+     */
+    private static List<String> splitSdkServiceUrls(String configuredUrls) {
+        List<String> urls = Arrays.stream(configuredUrls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .collect(Collectors.toList());
+        return urls.isEmpty() ? List.of(configuredUrls) : List.copyOf(urls);
+    }
+
     /**
      * Retrieves the SDK service URL based on the biometric modality and provided flags.
      * If no specific format URL is found for the modality, the default SDK service URL is returned.
+     * Of several URLs configured for the format, the one chosen by the {@link SdkServiceBalancer} is returned.
      *
      * @param modality The {@link BiometricType} representing the biometric modality.
      * @param flags    A map of flags where keys may indicate the format for the specified modality.
      * @return The corresponding SDK service URL for the modality or the default URL if none found.
      */
-    private String getSdkServiceUrl(BiometricType modality, Map<String, String> flags) {
-        if (modality != null) {
-            String key = modality.name() + FORMAT_SUFFIX;
-            if (flags != null) {
-                Optional<String> formatFromFlag = flags.entrySet()
-                        .stream()
-                        .filter(e -> e.getKey().equalsIgnoreCase(key))
-                        .findAny()
-                        .map(Entry::getValue);
-                if (formatFromFlag.isPresent()) {
-                    String format = formatFromFlag.get();
-                    Optional<String> urlForFormat = sdkUrlsMap.entrySet()
-                            .stream()
-                            .filter(e -> e.getKey().equalsIgnoreCase(format))
-                            .findAny()
-                            .map(Entry::getValue);
-                    if (urlForFormat.isPresent()) {
-                        return urlForFormat.get();
-                    }
-                }
-            }
-        }
-        return getDefaultSdkServiceUrl();
+    String getSdkServiceUrl(BiometricType modality, Map<String, String> flags) {
+        return sdkServiceBalancer.choose(getSdkServiceUrls(modality, flags));
+    }
+
+    /**
+     * Retrieves all SDK service URLs configured for the format of a modality, as
+     * {@link #getSdkServiceUrl(BiometricType, Map)} resolves it, from the {@link RoutingTable} compiled by init.
+     */
+    List<String> getSdkServiceUrls(BiometricType modality, Map<String, String> flags) {
+        return routingTable.getUrls(modality, flags);
     }
 
     /**
@@ -285,8 +732,29 @@ public class Client_V_1_0 implements IBioApiV2 {
      *
      * @return The default SDK service URL, or null if not present.
      */
-    private String getDefaultSdkServiceUrl() {
-        return sdkUrlsMap.get(DEFAULT);
+    String getDefaultSdkServiceUrl() {
+        List<String> defaultSdkServiceUrls = routingTable.getDefaultUrls();
+        return defaultSdkServiceUrls == null ? null : sdkServiceBalancer.choose(defaultSdkServiceUrls);
+    }
+
+    /**
+     * Returns the number of requests currently in flight to each configured SDK service URL.
+     *
+     * @return A snapshot of the in-flight counters, by URL.
+     * @since 1.3.0
+     */
+    public Map<String, Integer> getInFlightRequests() {
+        return sdkServiceBalancer.getInFlightRequests();
+    }
+
+    /**
+     * Returns the SDK service URLs currently ejected from routing because their calls kept failing.
+     *
+     * @return The ejected URLs, empty if all are in use.
+     * @since 1.3.0
+     */
+    public Set<String> getEjectedSdkServiceUrls() {
+        return sdkServiceHealth.getEjected();
     }
 
     /**
@@ -303,6 +771,10 @@ public class Client_V_1_0 implements IBioApiV2 {
 
     /**
      * Checks the quality of a biometric sample for the given modalities.
+     * <p>
+     * If the quality memo is enabled, a result remembered for the same BDBs, modalities and flags is
+     * returned without calling the SDK service, and a call identical to one in flight waits for its result,
+     * no longer than its own deadline.
      *
      * @param sample            The biometric record to check.
      * @param modalitiesToCheck List of biometric modalities to check quality for.
@@ -315,27 +787,31 @@ public class Client_V_1_0 implements IBioApiV2 {
         Response<QualityCheck> response = new Response<>();
         response.setStatusCode(200);
         try {
-            CheckQualityRequestDto checkQualityRequestDto = new CheckQualityRequestDto();
-            checkQualityRequestDto.setSample(sample);
-            checkQualityRequestDto.setModalitiesToCheck(modalitiesToCheck);
-            checkQualityRequestDto.setFlags(flags);
-
-            RequestDto requestDto = generateNewRequestDto(checkQualityRequestDto);
-            String url = getSdkServiceUrl(modalitiesToCheck.get(0), flags) + "/check-quality";
-            ResponseEntity<?> responseEntity = Util.restRequest(url, HttpMethod.POST, MediaType.APPLICATION_JSON, requestDto, null, String.class);
-
-            if (!responseEntity.getStatusCode().is2xxSuccessful()) {
-                logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "HTTP status: ", responseEntity.getStatusCode().toString());
-                throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "",
-                        TAG_HTTP_STATUS + responseEntity.getStatusCode().toString());
+            RequestTimeouts timeouts = callTimeouts.startCall(flags);
+            CheckQualityRequestDto checkQualityRequestDto = checkQualityRequest(sample, modalitiesToCheck, flags);
+            QualityMemo memo = qualityMemo;
+            SampleDigest memoKey = memo.keyFor(sample, modalitiesToCheck, flags);
+            if (memoKey != null) {
+                List<String> sdkServiceUrls = getSdkServiceUrls(modalitiesToCheck.get(0), flags);
+                fillResponse(response, join(withinDeadline(memo.load(memoKey,
+                        () -> sendQualityCheckAsync(sdkServiceUrls, checkQualityRequestDto, timeouts)), timeouts)));
+                return response;
             }
-
-            String responseBody = (String) Objects.requireNonNull(responseEntity.getBody(), TAG_RESPONSE_NULL);
-            if (responseBody.equalsIgnoreCase(TAG_RESPONSE_NULL)) {
-                throw new NullPointerException(TAG_RESPONSE_NULL);
+            CompletableFuture<DecodedResponse<QualityCheck>> batched = batchQualityCheck(
+                    getSdkServiceUrls(modalitiesToCheck.get(0), flags), checkQualityRequestDto, timeouts);
+            if (batched != null) {
+                fillResponse(response, join(batched));
+                return response;
             }
-
-            fillResponse(response, responseBody, QUALITY_READER);
+            if (isHedgingEnabled()) {
+                fillResponse(response, join(this.<QualityCheck>callSdkServiceHedgedAsync(
+                        getSdkServiceUrls(modalitiesToCheck.get(0), flags), "/check-quality", checkQualityRequestDto,
+                        QUALITY_READER, timeouts)));
+                return response;
+            }
+            String sdkServiceUrl = getSdkServiceUrl(modalitiesToCheck.get(0), flags);
+            fillResponse(response, callSdkService(sdkServiceUrl, "/check-quality", checkQualityRequestDto, QUALITY_READER, true,
+                    timeouts));
             return response;
         } catch (Exception e) {
             logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error", e);
@@ -346,6 +822,13 @@ public class Client_V_1_0 implements IBioApiV2 {
 
     /**
      * Matches a biometric sample against a gallery of biometric records for specified modalities.
+     * <p>
+     * If match sharding is configured for the service URL and the gallery does not fit one request, the
+     * gallery is split into shards that are matched concurrently on the non-blocking HTTP client, each on
+     * the URL of the format chosen for it. The
+     * decisions are merged in gallery order, with gallery indexes referring to the positions in
+     * {@code gallery}. The call fails if any shard fails. Unsharded calls are hedged if hedging is enabled;
+     * shards are not.
      *
      * @param sample            The biometric sample to match.
      * @param gallery           Array of biometric records to match against.
@@ -357,30 +840,31 @@ public class Client_V_1_0 implements IBioApiV2 {
     @Override
     public Response<MatchDecision[]> match(BiometricRecord sample, BiometricRecord[] gallery,
                                            List<BiometricType> modalitiesToMatch, Map<String, String> flags) {
+        return match(sample, gallery, modalitiesToMatch, flags, callTimeouts.startCall(flags));
+    }
+
+    private Response<MatchDecision[]> match(BiometricRecord sample, BiometricRecord[] gallery,
+                                            List<BiometricType> modalitiesToMatch, Map<String, String> flags,
+                                            RequestTimeouts timeouts) {
         Response<MatchDecision[]> response = new Response<>();
         try {
-            MatchRequestDto matchRequestDto = new MatchRequestDto();
-            matchRequestDto.setSample(sample);
-            matchRequestDto.setGallery(gallery);
-            matchRequestDto.setModalitiesToMatch(modalitiesToMatch);
-            matchRequestDto.setFlags(flags);
-
-            RequestDto requestDto = generateNewRequestDto(matchRequestDto);
-            String url = getSdkServiceUrl(modalitiesToMatch.get(0), flags) + "/match";
-            ResponseEntity<?> responseEntity = Util.restRequest(url, HttpMethod.POST, MediaType.APPLICATION_JSON, requestDto, null, String.class);
-
-            if (!responseEntity.getStatusCode().is2xxSuccessful()) {
-                logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "HTTP status: ", responseEntity.getStatusCode().toString());
-                throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR + "",
-                        TAG_HTTP_STATUS + responseEntity.getStatusCode().toString());
+            metrics.recordGallery("/match", gallery);
+            List<String> sdkServiceUrls = getSdkServiceUrls(modalitiesToMatch.get(0), flags);
+            String sdkServiceUrl = sdkServiceBalancer.choose(sdkServiceUrls);
+            List<GalleryShards.Shard> shards = getMatchShards(sdkServiceUrl, sample, gallery);
+            if (shards.size() > 1) {
+                fillResponse(response, join(callMatchShardsAsync(sdkServiceUrls, sample, shards, modalitiesToMatch,
+                        flags, timeouts)));
+                return response;
             }
-
-            String responseBody = (String) Objects.requireNonNull(responseEntity.getBody(), TAG_RESPONSE_NULL);
-            if (responseBody.equalsIgnoreCase(TAG_RESPONSE_NULL)) {
-                throw new NullPointerException(TAG_RESPONSE_NULL);
+            MatchRequestDto matchRequestDto = matchRequest(sample, gallery, modalitiesToMatch, flags);
+            if (isHedgingEnabled()) {
+                fillResponse(response, join(this.<MatchDecision[]>callSdkServiceHedgedAsync(sdkServiceUrls, "/match",
+                        matchRequestDto, MATCH_DECISIONS_READER, timeouts)));
+                return response;
             }
-
-            fillResponse(response, responseBody, MATCH_DECISIONS_READER);
+            fillResponse(response, callSdkService(sdkServiceUrl, "/match", matchRequestDto, MATCH_DECISIONS_READER, true,
+                    timeouts));
             return response;
         } catch (Exception e) {
             logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error", e);
@@ -389,8 +873,167 @@ public class Client_V_1_0 implements IBioApiV2 {
         }
     }
 
+    /**
+     * Registers a match gallery with the SDK service, so that matches against it with
+     * {@link #match(BiometricRecord, GalleryHandle, List, Map)} send only the sample and the gallery id.
+     * <p>
+     * The gallery is registered with one of the URLs of the format of the first modality, by a
+     * {@code /register-gallery} call answered with a {@link GalleryRegistrationDto}. Other URLs of the format
+     * get it on their first match. A failed registration is only logged: the matches upload the gallery
+     * until a registration succeeds.
+     *
+     * @param gallery           Array of biometric records to match against.
+     * @param modalitiesToMatch List of biometric modalities the gallery is matched for.
+     * @param flags             Additional configuration flags, sent with the registration.
+     * @return The handle of the gallery.
+     * @since 1.3.0
+     */
+    public GalleryHandle registerGallery(BiometricRecord[] gallery, List<BiometricType> modalitiesToMatch,
+                                         Map<String, String> flags) {
+        GalleryHandle galleryHandle = new GalleryHandle(gallery, flags);
+        try {
+            getGalleryId(getSdkServiceUrl(modalitiesToMatch.get(0), flags), galleryHandle, callTimeouts.startCall(flags));
+        } catch (Exception e) {
+            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error", e);
+            throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "", e.getLocalizedMessage(),
+                    e);
+        }
+        return galleryHandle;
+    }
+
+    /**
+     * Matches a biometric sample against a gallery registered with
+     * {@link #registerGallery(BiometricRecord[], List, Map)}.
+     * <p>
+     * The request carries the sample and the id the chosen URL knows the gallery by, registering the gallery
+     * with the URL first if it is not registered there or its registration expired. If the service reports
+     * the gallery id unknown, with a 404 or 410 status, e.g. because it evicted the gallery, or the gallery
+     * cannot be registered with the URL, the call falls back to
+     * {@link #match(BiometricRecord, BiometricRecord[], List, Map)} with the whole gallery, and the gallery
+     * is registered again on the next call.
+     *
+     * @param sample            The biometric sample to match.
+     * @param gallery           The registered gallery.
+     * @param modalitiesToMatch List of biometric modalities to consider for matching.
+     * @param flags             Additional configuration flags.
+     * @return A response containing an array of match decisions, with gallery indexes referring to the
+     * records of the gallery as registered.
+     * @throws BioSdkClientException if parsing or processing of response fails.
+     * @since 1.3.0
+     */
+    public Response<MatchDecision[]> match(BiometricRecord sample, GalleryHandle gallery,
+                                           List<BiometricType> modalitiesToMatch, Map<String, String> flags) {
+        RequestTimeouts timeouts = callTimeouts.startCall(flags);
+        try {
+            String sdkServiceUrl = getSdkServiceUrl(modalitiesToMatch.get(0), flags);
+            String galleryId = getGalleryId(sdkServiceUrl, gallery, timeouts);
+            if (galleryId != null) {
+                metrics.recordGallery("/match-gallery", gallery.getGallery());
+                MatchGalleryRequestDto matchGalleryRequestDto = new MatchGalleryRequestDto();
+                matchGalleryRequestDto.setSample(sample);
+                matchGalleryRequestDto.setGalleryId(galleryId);
+                matchGalleryRequestDto.setModalitiesToMatch(modalitiesToMatch);
+                matchGalleryRequestDto.setFlags(CallTimeouts.serviceFlags(flags));
+                DecodedResponse<MatchDecision[]> decodedResponse = matchRegisteredGallery(sdkServiceUrl,
+                        matchGalleryRequestDto, timeouts);
+                if (decodedResponse != null) {
+                    Response<MatchDecision[]> response = new Response<>();
+                    fillResponse(response, decodedResponse);
+                    return response;
+                }
+                logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "Registered gallery unknown, uploading it",
+                        sdkServiceUrl);
+                gallery.forget(sdkServiceUrl, galleryId);
+            }
+        } catch (Exception e) {
+            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error", e);
+            throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "", e.getLocalizedMessage(),
+                    e);
+        }
+        return match(sample, gallery.getGallery(), modalitiesToMatch, flags, timeouts);
+    }
+
+    /**
+     * Returns the id a URL knows a gallery by, registering the gallery with it if needed.
+     *
+     * @return The gallery id, {@code null} if the gallery could not be registered with the URL.
+     */
+    private String getGalleryId(String sdkServiceUrl, GalleryHandle gallery, RequestTimeouts timeouts)
+            throws IOException {
+        String galleryId = gallery.getGalleryId(sdkServiceUrl);
+        if (galleryId != null || galleryRegistrationUnsupported.contains(sdkServiceUrl)) {
+            return galleryId;
+        }
+        RegisterGalleryRequestDto registerGalleryRequestDto = new RegisterGalleryRequestDto();
+        registerGalleryRequestDto.setGallery(gallery.getGallery());
+        registerGalleryRequestDto.setFlags(gallery.getFlags());
+        DecodedResponse<GalleryRegistrationDto> decodedResponse;
+        try {
+            decodedResponse = callSdkService(sdkServiceUrl, "/register-gallery", registerGalleryRequestDto,
+                    GALLERY_REGISTRATION_READER, true, timeouts);
+        } catch (RuntimeException e) {
+            if (isNotFound(e)) {
+                logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "Gallery registration not supported", sdkServiceUrl);
+                galleryRegistrationUnsupported.add(sdkServiceUrl);
+            } else {
+                logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "Gallery registration failed", e);
+            }
+            return null;
+        }
+        GalleryRegistrationDto registration = decodedResponse.getPayload();
+        if (registration == null || registration.getGalleryId() == null) {
+            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "Gallery registration failed",
+                    TAG_HTTP_STATUS + decodedResponse.getStatusCode());
+            return null;
+        }
+        gallery.registered(sdkServiceUrl, registration.getGalleryId(), registration.getTtlSeconds());
+        return registration.getGalleryId();
+    }
+
+    /**
+     * Matches a sample against a registered gallery.
+     *
+     * @return The decoded response, {@code null} if the service does not know the gallery id.
+     */
+    private DecodedResponse<MatchDecision[]> matchRegisteredGallery(String sdkServiceUrl,
+                                                                   MatchGalleryRequestDto requestBody,
+                                                                   RequestTimeouts timeouts)
+            throws IOException {
+        DecodedResponse<MatchDecision[]> decodedResponse;
+        try {
+            decodedResponse = callSdkService(sdkServiceUrl, "/match-gallery", requestBody, MATCH_DECISIONS_READER,
+                    true, timeouts);
+        } catch (RuntimeException e) {
+            if (isNotFound(e)) {
+                return null;
+            }
+            throw e;
+        }
+        Integer statusCode = decodedResponse.getStatusCode();
+        return statusCode != null && isNotFound(statusCode) ? null : decodedResponse;
+    }
+
+    /**
+     * Whether a call failed with a 404 or 410 HTTP status.
+     */
+    private static boolean isNotFound(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpStatusCodeException statusCodeException) {
+                return isNotFound(statusCodeException.getStatusCode().value());
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNotFound(int status) {
+        return status == 404 || status == 410;
+    }
+
     /**
      * Extracts a biometric template from the provided biometric record for the given modalities.
+     * <p>
+     * If the template cache is enabled and holds the template of the same BDBs, modalities and flags, it is
+     * returned without calling the SDK service.
      *
      * @param sample              The biometric record from which the template needs to be extracted.
      * @param modalitiesToExtract List of biometric modalities to extract templates for.
@@ -402,22 +1045,19 @@ public class Client_V_1_0 implements IBioApiV2 {
     public Response<BiometricRecord> extractTemplate(BiometricRecord sample, List<BiometricType> modalitiesToExtract, Map<String, String> flags) {
         Response<BiometricRecord> response = new Response<>();
         try {
-            ExtractTemplateRequestDto extractTemplateRequestDto = new ExtractTemplateRequestDto();
-            extractTemplateRequestDto.setSample(sample);
-            extractTemplateRequestDto.setModalitiesToExtract(modalitiesToExtract);
-            extractTemplateRequestDto.setFlags(flags);
-
-            RequestDto requestDto = generateNewRequestDto(extractTemplateRequestDto);
-            String url = getSdkServiceUrl(modalitiesToExtract, flags) + "/extract-template";
-            ResponseEntity<?> responseEntity = Util.restRequest(url, HttpMethod.POST, MediaType.APPLICATION_JSON, requestDto, null, String.class);
-
-            if (!responseEntity.getStatusCode().is2xxSuccessful()) {
-                logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "HTTP status: ", responseEntity.getStatusCode().toString());
-                throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "",
-                        TAG_HTTP_STATUS + responseEntity.getStatusCode().toString());
+            TemplateCache cache = templateCache;
+            SampleDigest cacheKey = cache.keyFor(sample, modalitiesToExtract, flags);
+            DecodedResponse<BiometricRecord> cached = cache.get(cacheKey);
+            if (cached != null) {
+                fillResponse(response, cached);
+                return response;
             }
-
-            convertAndSetResponseObject(response, responseEntity);
+            ExtractTemplateRequestDto extractTemplateRequestDto = extractTemplateRequest(sample, modalitiesToExtract, flags);
+            String sdkServiceUrl = getSdkServiceUrl(modalitiesToExtract, flags);
+            DecodedResponse<BiometricRecord> decodedResponse = callSdkService(sdkServiceUrl, "/extract-template",
+                    extractTemplateRequestDto, BIOREC_READER, true, callTimeouts.startCall(flags));
+            cache.put(cacheKey, decodedResponse);
+            fillResponse(response, decodedResponse);
         } catch (Exception e) {
             logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error", e);
             throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "", e.getLocalizedMessage(),
@@ -434,17 +1074,16 @@ public class Client_V_1_0 implements IBioApiV2 {
      * @param flags               A map of additional parameters to help determine the correct service URL.
      * @return The resolved SDK service URL to use for template extraction.
      */
-    private String getSdkServiceUrl(List<BiometricType> modalitiesToExtract, Map<String, String> flags) {
+    String getSdkServiceUrl(List<BiometricType> modalitiesToExtract, Map<String, String> flags) {
         if (modalitiesToExtract != null && !modalitiesToExtract.isEmpty()) {
             return getSdkServiceUrl(modalitiesToExtract.get(0), flags);
         } else {
-            Set<String> keySet = flags.keySet();
-            for (String key : keySet) {
-                if (key.toLowerCase().contains(BiometricType.FINGER.name().toLowerCase())) {
+            for (String key : flags.keySet()) {
+                if (RoutingTable.mentions(key, BiometricType.FINGER)) {
                     return getSdkServiceUrl(BiometricType.FINGER, flags);
-                } else if (key.toLowerCase().contains(BiometricType.IRIS.name().toLowerCase())) {
+                } else if (RoutingTable.mentions(key, BiometricType.IRIS)) {
                     return getSdkServiceUrl(BiometricType.IRIS, flags);
-                } else if (key.toLowerCase().contains(BiometricType.FACE.name().toLowerCase())) {
+                } else if (RoutingTable.mentions(key, BiometricType.FACE)) {
                     return getSdkServiceUrl(BiometricType.FACE, flags);
                 }
             }
@@ -465,20 +1104,10 @@ public class Client_V_1_0 implements IBioApiV2 {
     public Response<BiometricRecord> segment(BiometricRecord biometricRecord, List<BiometricType> modalitiesToSegment, Map<String, String> flags) {
         Response<BiometricRecord> response = new Response<>();
         try {
-            SegmentRequestDto segmentRequestDto = new SegmentRequestDto();
-            segmentRequestDto.setSample(biometricRecord);
-            segmentRequestDto.setModalitiesToSegment(modalitiesToSegment);
-            segmentRequestDto.setFlags(flags);
-
-            RequestDto requestDto = generateNewRequestDto(segmentRequestDto);
-            String url = getSdkServiceUrl(modalitiesToSegment.get(0), flags) + "/segment";
-            ResponseEntity<?> responseEntity = Util.restRequest(url, HttpMethod.POST, MediaType.APPLICATION_JSON, requestDto, null, String.class);
-            if (!responseEntity.getStatusCode().is2xxSuccessful()) {
-                logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "HTTP status: ", responseEntity.getStatusCode().toString());
-                throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "",
-                        TAG_HTTP_STATUS + responseEntity.getStatusCode().toString());
-            }
-            convertAndSetResponseObject(response, responseEntity);
+            SegmentRequestDto segmentRequestDto = segmentRequest(biometricRecord, modalitiesToSegment, flags);
+            String sdkServiceUrl = getSdkServiceUrl(modalitiesToSegment.get(0), flags);
+            fillResponse(response, callSdkService(sdkServiceUrl, "/segment", segmentRequestDto, BIOREC_READER, true,
+                    callTimeouts.startCall(flags)));
         } catch (Exception e) {
             logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error", e);
             throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "", e.getLocalizedMessage(),
@@ -487,24 +1116,6 @@ public class Client_V_1_0 implements IBioApiV2 {
         return response;
     }
 
-    /**
-     * Converts the HTTP response entity into a {@link Response} object containing a {@link BiometricRecord}.
-     * Extracts status codes, messages, and parsed biometric record information from the response.
-     *
-     * @param response       The response object to populate with parsed data.
-     * @param responseEntity The raw HTTP response entity received from the service call.
-     * @throws ParseException        If there is an error while parsing the JSON response body.
-     * @throws BioSdkClientException If the JSON mapping fails during response conversion.
-     */
-    private void convertAndSetResponseObject(Response<BiometricRecord> response, ResponseEntity<?> responseEntity) throws Exception {
-        String responseBody = (String) Objects.requireNonNull(responseEntity.getBody(), TAG_RESPONSE_NULL);
-        if (responseBody.equalsIgnoreCase(TAG_RESPONSE_NULL)) {
-            throw new NullPointerException(TAG_RESPONSE_NULL);
-        }
-
-        fillResponse(response, responseBody, BIOREC_READER);
-    }
-
     /**
      * Converts biometric data format from sourceFormat to targetFormat using provided parameters.
      * This method is deprecated and replaced by {@link #convertFormatV2}.
@@ -524,36 +1135,12 @@ public class Client_V_1_0 implements IBioApiV2 {
                                          Map<String, String> sourceParams, Map<String, String> targetParams, List<BiometricType> modalitiesToConvert) {
         BiometricRecord resBiometricRecord = null;
         try {
-            ConvertFormatRequestDto convertFormatRequestDto = new ConvertFormatRequestDto();
-            convertFormatRequestDto.setSample(sample);
-            convertFormatRequestDto.setSourceFormat(sourceFormat);
-            convertFormatRequestDto.setTargetFormat(targetFormat);
-            convertFormatRequestDto.setSourceParams(sourceParams);
-            convertFormatRequestDto.setTargetParams(targetParams);
-            convertFormatRequestDto.setModalitiesToConvert(modalitiesToConvert);
-
-            RequestDto requestDto = generateNewRequestDto(convertFormatRequestDto);
-            String url = getDefaultSdkServiceUrl() + "/convert-format";
-            ResponseEntity<?> responseEntity = Util.restRequest(url, HttpMethod.POST, MediaType.APPLICATION_JSON, requestDto, null, String.class);
-            if (!responseEntity.getStatusCode().is2xxSuccessful()) {
-                logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "HTTP status: ", responseEntity.getStatusCode().toString());
-                throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "",
-                        TAG_HTTP_STATUS + responseEntity.getStatusCode().toString());
-            }
-
-            String responseBody = (String) Objects.requireNonNull(responseEntity.getBody(), TAG_RESPONSE_NULL);
-            if (responseBody.equalsIgnoreCase(TAG_RESPONSE_NULL)) {
-                throw new NullPointerException(TAG_RESPONSE_NULL);
-            }
-
-            JSONParser parser = new JSONParser();
-            JSONObject js = (JSONObject) parser.parse(responseBody);
-
-            /* Error handler */
-            errorHandler(js.get("errors") != null ? Util.getObjectMapper().readValue(js.get("errors").toString(), errorDtoListTypeRef) : null);
-
-            resBiometricRecord = Util.getObjectMapper().readValue(js.get("response").toString(), new TypeReference<BiometricRecord>() {
-            });
+            ConvertFormatRequestDto convertFormatRequestDto = convertFormatRequest(sample, sourceFormat, targetFormat,
+                    sourceParams, targetParams, modalitiesToConvert);
+            String sdkServiceUrl = getDefaultSdkServiceUrl();
+            DecodedResponse<BiometricRecord> decodedResponse = callSdkService(sdkServiceUrl, "/convert-format", convertFormatRequestDto, BIOREC_READER, false,
+                    callTimeouts.startCall(Map.of()));
+            resBiometricRecord = decodedResponse.getPayload();
         } catch (Exception e) {
             logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error", e);
             throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "", e.getLocalizedMessage(),
@@ -581,28 +1168,11 @@ public class Client_V_1_0 implements IBioApiV2 {
                                                      List<BiometricType> modalitiesToConvert) {
         Response<BiometricRecord> response = new Response<>();
         try {
-            ConvertFormatRequestDto convertFormatRequestDto = new ConvertFormatRequestDto();
-            convertFormatRequestDto.setSample(sample);
-            convertFormatRequestDto.setSourceFormat(sourceFormat);
-            convertFormatRequestDto.setTargetFormat(targetFormat);
-            convertFormatRequestDto.setSourceParams(sourceParams);
-            convertFormatRequestDto.setTargetParams(targetParams);
-            convertFormatRequestDto.setModalitiesToConvert(modalitiesToConvert);
-
-            RequestDto requestDto = generateNewRequestDto(convertFormatRequestDto);
-            String url = getDefaultSdkServiceUrl() + "/convert-format";
-            ResponseEntity<?> responseEntity = Util.restRequest(url, HttpMethod.POST, MediaType.APPLICATION_JSON, requestDto, null, String.class);
-            if (!responseEntity.getStatusCode().is2xxSuccessful()) {
-                logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "HTTP status: ", responseEntity.getStatusCode().toString());
-                throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "",
-                        TAG_HTTP_STATUS + responseEntity.getStatusCode().toString());
-            }
-            Object body = responseEntity.getBody();
-            if (body == null) {
-                throw new NullPointerException("Response body is null");
-            }
-            String responseBody = body.toString();
-            fillResponse(response, responseBody, BIOREC_READER);
+            ConvertFormatRequestDto convertFormatRequestDto = convertFormatRequest(sample, sourceFormat, targetFormat,
+                    sourceParams, targetParams, modalitiesToConvert);
+            String sdkServiceUrl = getDefaultSdkServiceUrl();
+            fillResponse(response, callSdkService(sdkServiceUrl, "/convert-format", convertFormatRequestDto, BIOREC_READER, true,
+                    callTimeouts.startCall(Map.of())));
         } catch (Exception e) {
             logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error", e);
             throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "", e.getLocalizedMessage(),
@@ -611,19 +1181,71 @@ public class Client_V_1_0 implements IBioApiV2 {
         return response;
     }
 
+    static CheckQualityRequestDto checkQualityRequest(BiometricRecord sample, List<BiometricType> modalitiesToCheck,
+                                                      Map<String, String> flags) {
+        CheckQualityRequestDto checkQualityRequestDto = new CheckQualityRequestDto();
+        checkQualityRequestDto.setSample(sample);
+        checkQualityRequestDto.setModalitiesToCheck(modalitiesToCheck);
+        checkQualityRequestDto.setFlags(CallTimeouts.serviceFlags(flags));
+        return checkQualityRequestDto;
+    }
+
+    static MatchRequestDto matchRequest(BiometricRecord sample, BiometricRecord[] gallery,
+                                        List<BiometricType> modalitiesToMatch, Map<String, String> flags) {
+        MatchRequestDto matchRequestDto = new MatchRequestDto();
+        matchRequestDto.setSample(sample);
+        matchRequestDto.setGallery(gallery);
+        matchRequestDto.setModalitiesToMatch(modalitiesToMatch);
+        matchRequestDto.setFlags(CallTimeouts.serviceFlags(flags));
+        return matchRequestDto;
+    }
+
+    static ExtractTemplateRequestDto extractTemplateRequest(BiometricRecord sample,
+                                                            List<BiometricType> modalitiesToExtract,
+                                                            Map<String, String> flags) {
+        ExtractTemplateRequestDto extractTemplateRequestDto = new ExtractTemplateRequestDto();
+        extractTemplateRequestDto.setSample(sample);
+        extractTemplateRequestDto.setModalitiesToExtract(modalitiesToExtract);
+        extractTemplateRequestDto.setFlags(CallTimeouts.serviceFlags(flags));
+        return extractTemplateRequestDto;
+    }
+
+    static SegmentRequestDto segmentRequest(BiometricRecord biometricRecord, List<BiometricType> modalitiesToSegment,
+                                            Map<String, String> flags) {
+        SegmentRequestDto segmentRequestDto = new SegmentRequestDto();
+        segmentRequestDto.setSample(biometricRecord);
+        segmentRequestDto.setModalitiesToSegment(modalitiesToSegment);
+        segmentRequestDto.setFlags(CallTimeouts.serviceFlags(flags));
+        return segmentRequestDto;
+    }
+
+    static ConvertFormatRequestDto convertFormatRequest(BiometricRecord sample, String sourceFormat, String targetFormat,
+                                                        Map<String, String> sourceParams,
+                                                        Map<String, String> targetParams,
+                                                        List<BiometricType> modalitiesToConvert) {
+        ConvertFormatRequestDto convertFormatRequestDto = new ConvertFormatRequestDto();
+        convertFormatRequestDto.setSample(sample);
+        convertFormatRequestDto.setSourceFormat(sourceFormat);
+        convertFormatRequestDto.setTargetFormat(targetFormat);
+        convertFormatRequestDto.setSourceParams(sourceParams);
+        convertFormatRequestDto.setTargetParams(targetParams);
+        convertFormatRequestDto.setModalitiesToConvert(modalitiesToConvert);
+        return convertFormatRequestDto;
+    }
+
     /**
-     * Generates a new {@link RequestDto} object by encoding the provided body as a Base64 string.
-     * This ensures that the request payload is safely encoded before sending to the SDK service.
+     * Wraps the provided body in a {@link RequestEnvelope}. The body is serialized (and Base64 encoded for
+     * JSON) only when the envelope is written to the request stream, so no intermediate copies are kept.
      *
-     * @param body The request body object to encode.
-     * @return A new {@link RequestDto} containing the encoded request.
-     * @throws JsonProcessingException If the object cannot be converted to a JSON string.
+     * @param body          The request body object to encode.
+     * @param wireFormat    The encoding of the envelope.
+     * @param bdbReferences Whether repeated BDBs are written as references, see {@link BdbReferences}.
+     * @return A new {@link RequestEnvelope} for the request.
      */
-    private RequestDto generateNewRequestDto(Object body) throws JsonProcessingException {
-        RequestDto requestDto = new RequestDto();
-        requestDto.setVersion(VERSION);
-        requestDto.setRequest(Util.base64Encode(Util.getObjectMapper().writeValueAsString(body)));
-        return requestDto;
+    private RequestEnvelope generateRequestEnvelope(Object body, WireFormat wireFormat, boolean bdbReferences) {
+        RecordJsonCache galleryCache = galleryRecordCache;
+        return new RequestEnvelope(VERSION, body, wireFormat, galleryCache.isEnabled() ? galleryCache : null,
+                bdbReferences);
     }
 
     /**
@@ -653,76 +1275,799 @@ public class Client_V_1_0 implements IBioApiV2 {
     }
 
     /**
-     * Populates a {@link Response} object from a raw JSON response string.
+     * Sends a request to an initialized SDK service in the wire format negotiated for it during init, or as
+     * a multipart body if that transport is configured for it. The body is compressed if compression is
+     * configured for the service and the estimated request size reaches its threshold.
      * <p>
-     * This method performs the following steps:
-     * <ol>
-     *     <li>Parses the raw {@code responseBody} into a Jackson {@link JsonNode} tree.</li>
-     *     <li>Invokes {@link #handleErrors(JsonNode)} to process any errors present in the {@code errors} node.</li>
-     *     <li>Extracts the {@code statusCode} and {@code statusMessage} values from either the nested
-     *         {@code response} object or the root node, supporting both endpoint response formats:
-     *         <ul>
-     *             <li>{@code { response: { statusCode, statusMessage, response: {...} } }}</li>
-     *             <li>{@code { statusCode, statusMessage, response: {...} }}</li>
-     *         </ul>
-     *     </li>
-     *     <li>Locates the {@code response} payload node, either nested inside {@code response.response}
-     *         or directly under the root {@code response} field.</li>
-     *     <li>Uses the provided {@link com.fasterxml.jackson.databind.ObjectReader} to deserialize
-     *         the payload into the target type {@code <T>} and assigns it to the {@link Response#setResponse(Object)}.</li>
-     * </ol>
-     *
-     * @param <T>          the type of the response payload.
-     * @param out          the {@link Response} instance to populate.
-     * @param responseBody the raw JSON string returned by the SDK service endpoint.
-     * @param reader       a pre-configured Jackson {@link com.fasterxml.jackson.databind.ObjectReader}
-     *                     for deserializing the payload into the desired type {@code <T>}.
-     * @throws Exception if the JSON parsing or payload mapping fails, or if {@link #handleErrors(JsonNode)} throws due to service errors.
-     * @see #handleErrors(JsonNode)
-     */
-    private <T> void fillResponse(Response<T> out, String responseBody, ObjectReader reader)
-            throws Exception {
-        JsonNode root = M.readTree(responseBody);
-        handleErrors(root.path(TAG_ERRORS));
-
-        JsonNode jsonResponse = root.path(TAG_RESPONSE);
-        // If some endpoints return nested { response: { statusCode, statusMessage, response } }, support both:
-        Integer statusCode = jsonResponse.hasNonNull(TAG_STATUS_CODE)
-                ? Integer.valueOf(jsonResponse.get(TAG_STATUS_CODE).asInt())
-                : root.path(TAG_STATUS_CODE).isNumber() ? root.get(TAG_STATUS_CODE).asInt() : null;
-
-        String statusMessage = jsonResponse.hasNonNull(TAG_STATUS_MESSAGE)
-                ? jsonResponse.get(TAG_STATUS_MESSAGE).asText("")
-                : root.path(TAG_STATUS_MESSAGE).asText("");
-
-        out.setStatusCode(statusCode);
-        out.setStatusMessage(statusMessage);
-
-        JsonNode payload =
-                jsonResponse.has("response") ? jsonResponse.get("response") : root.get("response");
-
-        out.setResponse((payload == null || payload.isNull()) ? null : reader.readValue(payload));
-    }
-
-    /**
-     * Processes an {@code errors} JSON array node returned by the SDK service.
+     * A failed call is retried as the {@link RetryPolicy} allows. The first attempt streams the body; it is
+     * serialized once for the retries, which send the same bytes. A URL not initialized yet is initialized
+     * first, see {@link SdkServiceInits#awaitInitialized(String)}.
+     *
+     * @param <T>           the type of the response payload.
+     * @param sdkServiceUrl the SDK service base URL.
+     * @param path          the endpoint path, appended to the base URL.
+     * @param requestBody   the request DTO.
+     * @param reader        a pre-configured Jackson {@link ObjectReader} for the payload type {@code <T>}.
+     * @param unwrapNested  whether a nested {@code response.response} payload is unwrapped, or the root
+     *                      {@code response} field is bound as is.
+     * @param timeouts      the timeouts of the call, see {@link CallTimeouts}.
+     * @return the decoded response.
+     * @throws BioSdkClientException if the HTTP status is not successful or the service reported errors.
+     * @throws NullPointerException  if the response body is empty.
+     * @throws IOException           if the multipart metadata cannot be serialized.
+     */
+    private <T> DecodedResponse<T> callSdkService(String sdkServiceUrl, String path, Object requestBody,
+                                                  ObjectReader reader, boolean unwrapNested,
+                                                  RequestTimeouts timeouts) throws IOException {
+        sdkServiceInits.awaitInitialized(sdkServiceUrl);
+        SdkEndpoint sdkEndpoint = sdkEndpoints.getOrDefault(sdkServiceUrl, SdkEndpoint.DEFAULTS);
+        Object httpBody = toHttpBody(sdkEndpoint, requestBody);
+        RetryPolicy retry = retryPolicy;
+        Map<String, String> headers = retry.startCall(acceptHeader(sdkEndpoint.getWireFormat()));
+        for (int attempt = 1; ; attempt++) {
+            AtomicInteger httpStatus = new AtomicInteger();
+            try {
+                return sendToSdkService(sdkServiceUrl, path, sdkEndpoint, httpBody, headers, httpStatus, reader,
+                        unwrapNested, timeouts);
+            } catch (RuntimeException e) {
+                long retryDelay = retry.retryDelay(attempt, e, httpStatus.get());
+                // A retry is not sent past the deadline of the call
+                if (retryDelay < 0 || retryDelay >= timeouts.getRemainingNanos()) {
+                    throw e;
+                }
+                if (!(httpBody instanceof SerializedRequestBody)) {
+                    httpBody = Util.serializeRequestBody(httpBody, getContentType(sdkEndpoint));
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(retryDelay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends one attempt of a call on the blocking HTTP client, once the {@link ConcurrencyLimiter} allows it.
+     * The request is counted in flight and its outcome recorded for the health and the concurrency limit of
+     * the URL.
+     */
+    private <T> DecodedResponse<T> sendToSdkService(String sdkServiceUrl, String path, SdkEndpoint sdkEndpoint,
+                                                    Object httpBody, Map<String, String> headers,
+                                                    AtomicInteger httpStatus, ObjectReader reader,
+                                                    boolean unwrapNested, RequestTimeouts timeouts) {
+        ConcurrencyLimiter.Permit permit = join(concurrencyLimiter.acquire(sdkServiceUrl));
+        SdkServiceHealth health = sdkServiceHealth;
+        SdkMetrics.Exchange metered = metrics.start(sdkServiceUrl, path);
+        sdkServiceBalancer.started(sdkServiceUrl);
+        long startTime = System.nanoTime();
+        try {
+            DecodedResponse<T> decodedResponse = postToSdkService(routingTable.getUri(sdkServiceUrl, path), getContentType(sdkEndpoint),
+                    httpBody, headers,
+                    recordingStatus(httpStatus, this.<T>responseExtractor(reader, unwrapNested)),
+                    timeouts, metered);
+            health.record(sdkServiceUrl, null, httpStatus.get(), System.nanoTime() - startTime, timeouts);
+            permit.release(null, httpStatus.get());
+            metered.stop(null, httpStatus.get());
+            return decodedResponse;
+        } catch (RuntimeException e) {
+            health.record(sdkServiceUrl, e, httpStatus.get(), System.nanoTime() - startTime, timeouts);
+            permit.release(e, httpStatus.get());
+            metered.stop(e, httpStatus.get());
+            throw e;
+        } finally {
+            sdkServiceBalancer.finished(sdkServiceUrl);
+        }
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #callSdkService}, sent on the non-blocking HTTP client. The request
+     * is encoded and the response decoded and checked the same way, and retried the same way: the first
+     * attempt streams the body, which is serialized once for the retries, see {@link ReplayableRequestBody}.
+     * Cancelling the returned future aborts the exchange. A URL not initialized yet is initialized first,
+     * without blocking.
+     *
+     * @param <T>           the type of the response payload.
+     * @param sdkServiceUrl the SDK service base URL.
+     * @param path          the endpoint path, appended to the base URL.
+     * @param requestBody   the request DTO.
+     * @param reader        a pre-configured Jackson {@link ObjectReader} for the payload type {@code <T>}.
+     * @param unwrapNested  whether a nested {@code response.response} payload is unwrapped.
+     * @param timeouts      the timeouts of the call, see {@link CallTimeouts}.
+     * @return a future completed with the decoded response.
+     * @throws IOException if the multipart metadata cannot be serialized.
+     */
+    <T> CompletableFuture<DecodedResponse<T>> callSdkServiceAsync(String sdkServiceUrl, String path, Object requestBody,
+                                                                  ObjectReader reader, boolean unwrapNested,
+                                                                  RequestTimeouts timeouts)
+            throws IOException {
+        SdkServiceInits inits = sdkServiceInits;
+        if (inits.needsInit(sdkServiceUrl)) {
+            return inits.initialize(sdkServiceUrl).thenCompose(sdkInfo -> {
+                try {
+                    return callSdkServiceAsync(sdkServiceUrl, path, requestBody, reader, unwrapNested, timeouts);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        }
+        SdkEndpoint sdkEndpoint = sdkEndpoints.getOrDefault(sdkServiceUrl, SdkEndpoint.DEFAULTS);
+        RetryPolicy retry = retryPolicy;
+        ReplayableRequestBody httpBody = new ReplayableRequestBody(toHttpBody(sdkEndpoint, requestBody),
+                getContentType(sdkEndpoint));
+        return sendWithRetriesAsync(sdkServiceUrl, path, sdkEndpoint, httpBody,
+                retry.startCall(acceptHeader(sdkEndpoint.getWireFormat())), reader, unwrapNested, timeouts);
+    }
+
+    /**
+     * Sends a request body, as built by {@link #toHttpBody}, on the non-blocking HTTP client, and sends it
+     * again, serialized, as the {@link RetryPolicy} allows if an attempt fails. Retries wait on a
+     * delayed executor rather than a blocked thread. Cancelling the returned future aborts the current
+     * attempt and any further ones.
+     */
+    private <T> CompletableFuture<DecodedResponse<T>> sendWithRetriesAsync(String sdkServiceUrl, String path,
+                                                                           SdkEndpoint sdkEndpoint,
+                                                                           ReplayableRequestBody httpBody,
+                                                                           Map<String, String> headers,
+                                                                           ObjectReader reader, boolean unwrapNested,
+                                                                           RequestTimeouts timeouts) {
+        Function<AtomicInteger, CompletableFuture<DecodedResponse<T>>> send = httpStatus -> sendToSdkServiceAsync(
+                sdkServiceUrl, path, sdkEndpoint, httpBody.forNextExchange(), headers, httpStatus, reader,
+                unwrapNested, timeouts);
+        RetryPolicy retry = retryPolicy;
+        if (!retry.isEnabled()) {
+            return send.apply(new AtomicInteger());
+        }
+        CompletableFuture<DecodedResponse<T>> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<DecodedResponse<T>>> currentAttempt = new AtomicReference<>();
+        result.whenComplete((decodedResponse, ex) -> {
+            CompletableFuture<DecodedResponse<T>> attempt = currentAttempt.get();
+            if (result.isCancelled() && attempt != null) {
+                attempt.cancel(true);
+            }
+        });
+        sendAttemptAsync(1, send, retry, timeouts, result, currentAttempt);
+        return result;
+    }
+
+    private <T> void sendAttemptAsync(int attempt, Function<AtomicInteger, CompletableFuture<DecodedResponse<T>>> send,
+                                      RetryPolicy retry, RequestTimeouts timeouts,
+                                      CompletableFuture<DecodedResponse<T>> result,
+                                      AtomicReference<CompletableFuture<DecodedResponse<T>>> currentAttempt) {
+        AtomicInteger httpStatus = new AtomicInteger();
+        CompletableFuture<DecodedResponse<T>> exchange;
+        try {
+            exchange = send.apply(httpStatus);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        currentAttempt.set(exchange);
+        if (result.isCancelled()) {
+            exchange.cancel(true);
+        }
+        exchange.whenComplete((decodedResponse, ex) -> {
+            if (ex == null) {
+                result.complete(decodedResponse);
+                return;
+            }
+            long retryDelay = result.isDone() ? -1 : retry.retryDelay(attempt, ex, httpStatus.get());
+            if (retryDelay < 0 || retryDelay >= timeouts.getRemainingNanos()) {
+                result.completeExceptionally(ex);
+                return;
+            }
+            CompletableFuture.delayedExecutor(retryDelay, TimeUnit.NANOSECONDS).execute(() -> {
+                if (!result.isDone()) {
+                    sendAttemptAsync(attempt + 1, send, retry, timeouts, result, currentAttempt);
+                }
+            });
+        });
+    }
+
+    /**
+     * Sends one attempt of a call on the non-blocking HTTP client, once the {@link ConcurrencyLimiter} allows
+     * it. A call queued by the limiter waits without holding a thread.
+     */
+    private <T> CompletableFuture<DecodedResponse<T>> sendToSdkServiceAsync(String sdkServiceUrl, String path,
+                                                                            SdkEndpoint sdkEndpoint, Object httpBody,
+                                                                            Map<String, String> headers,
+                                                                            AtomicInteger httpStatus,
+                                                                            ObjectReader reader, boolean unwrapNested,
+                                                                            RequestTimeouts timeouts) {
+        CompletableFuture<ConcurrencyLimiter.Permit> queued = concurrencyLimiter.acquire(sdkServiceUrl);
+        if (queued.isDone() && !queued.isCompletedExceptionally()) {
+            return exchangeWithSdkServiceAsync(queued.join(), sdkServiceUrl, path, sdkEndpoint, httpBody, headers,
+                    httpStatus, reader, unwrapNested, timeouts);
+        }
+        CompletableFuture<DecodedResponse<T>> result = new CompletableFuture<>();
+        queued.whenComplete((permit, ex) -> {
+            if (ex != null) {
+                result.completeExceptionally(ex);
+                return;
+            }
+            if (result.isDone()) {
+                permit.release(new CancellationException(), 0);
+                return;
+            }
+            CompletableFuture<DecodedResponse<T>> exchange;
+            try {
+                exchange = exchangeWithSdkServiceAsync(permit, sdkServiceUrl, path, sdkEndpoint, httpBody, headers,
+                        httpStatus, reader, unwrapNested, timeouts);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            exchange.whenComplete((decodedResponse, exchangeEx) -> {
+                if (exchangeEx == null) {
+                    result.complete(decodedResponse);
+                } else {
+                    result.completeExceptionally(exchangeEx);
+                }
+            });
+            result.whenComplete((decodedResponse, resultEx) -> {
+                if (result.isCancelled()) {
+                    exchange.cancel(true);
+                }
+            });
+        });
+        result.whenComplete((decodedResponse, ex) -> {
+            if (result.isCancelled()) {
+                queued.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Sends one attempt of a call on the non-blocking HTTP client, with the permit of the concurrency limiter.
+     * The request is counted in flight and its outcome recorded for the health and the concurrency limit of
+     * the URL.
+     */
+    private <T> CompletableFuture<DecodedResponse<T>> exchangeWithSdkServiceAsync(ConcurrencyLimiter.Permit permit,
+                                                                                  String sdkServiceUrl, String path,
+                                                                                  SdkEndpoint sdkEndpoint,
+                                                                                  Object httpBody,
+                                                                                  Map<String, String> headers,
+                                                                                  AtomicInteger httpStatus,
+                                                                                  ObjectReader reader,
+                                                                                  boolean unwrapNested,
+                                                                                  RequestTimeouts timeouts) {
+        SdkServiceHealth health = sdkServiceHealth;
+        SdkMetrics.Exchange metered = metrics.start(sdkServiceUrl, path);
+        sdkServiceBalancer.started(sdkServiceUrl);
+        long startTime = System.nanoTime();
+        CompletableFuture<DecodedResponse<T>> exchange;
+        try {
+            exchange = Util.restRequestAsync(routingTable.getUri(sdkServiceUrl, path), HttpMethod.POST, getContentType(sdkEndpoint),
+                    httpBody, headers,
+                    recordingStatus(httpStatus, this.<T>responseExtractor(reader, unwrapNested)),
+                    timeouts, metered.getSentBytes(), metered.getReceivedBytes());
+        } catch (RuntimeException e) {
+            sdkServiceBalancer.finished(sdkServiceUrl);
+            permit.release(e, 0);
+            metered.stop(e, 0);
+            throw e;
+        }
+        // The request is counted until the exchange completes, before any dependent stage runs
+        CompletableFuture<DecodedResponse<T>> checked = exchange
+                .whenComplete((decodedResponse, ex) -> {
+                    sdkServiceBalancer.finished(sdkServiceUrl);
+                    health.record(sdkServiceUrl, ex, httpStatus.get(), System.nanoTime() - startTime, timeouts);
+                    permit.release(ex, httpStatus.get());
+                })
+                .thenApply(this::checkDecodedResponse);
+        checked.whenComplete((decodedResponse, ex) -> metered.stop(ex, httpStatus.get()));
+        checked.whenComplete((decodedResponse, ex) -> {
+            if (checked.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return checked;
+    }
+
+    /**
+     * Sends a request to one of the given URLs on the non-blocking HTTP client, and hedges it if hedging is
+     * enabled: once the call has been outstanding for longer than the hedging delay of its operation, the
+     * same body is sent to another of the URLs, as the {@link RequestHedging} budget allows. The
+     * first successful response completes the returned future and the other exchange is cancelled; the call
+     * only fails if every exchange sent fails.
      * <p>
-     * This method validates that the {@code errorsNode} is a non-null, non-empty JSON array.
-     * If valid, it deserializes the array into a {@link List} of {@link ErrorDto} objects
-     * using a pre-configured Jackson {@link com.fasterxml.jackson.databind.ObjectReader}.
-     * The resulting list is then passed to the existing {@link #errorHandler(List)} method,
-     * which aggregates the error codes and messages and throws a {@link BioSdkClientException}
-     * if one or more errors are present.
-     *
-     * @param errorsNode the {@link JsonNode} representing the {@code errors} array in the SDK service response.
-     * @throws IOException           if deserialization of the {@code errorsNode} into {@link ErrorDto} objects fails.
-     * @throws BioSdkClientException if {@link #errorHandler(List)} detects any service errors.
-     */
-    private void handleErrors(com.fasterxml.jackson.databind.JsonNode errorsNode) throws IOException {
-        if (errorsNode == null || errorsNode.isNull() || errorsNode.isMissingNode() || !errorsNode.isArray() || errorsNode.isEmpty()) {
+     * A hedge is only sent to a URL with the same request encoding as the first one, since it replays the
+     * body serialized once for the call, see {@link ReplayableRequestBody}.
+     *
+     * @param <T>            the type of the response payload.
+     * @param sdkServiceUrls the URLs configured for the format of the call.
+     * @param path           the endpoint path, appended to the base URL.
+     * @param requestBody    the request DTO.
+     * @param reader         a pre-configured Jackson {@link ObjectReader} for the payload type {@code <T>}.
+     * @param timeouts       the timeouts of the call, shared by its hedges.
+     * @return a future completed with the decoded response.
+     * @throws IOException if the multipart metadata cannot be serialized.
+     */
+    <T> CompletableFuture<DecodedResponse<T>> callSdkServiceHedgedAsync(List<String> sdkServiceUrls, String path,
+                                                                        Object requestBody, ObjectReader reader,
+                                                                        RequestTimeouts timeouts)
+            throws IOException {
+        RequestHedging hedging = requestHedging;
+        String primaryUrl = sdkServiceBalancer.choose(sdkServiceUrls);
+        SdkServiceInits inits = sdkServiceInits;
+        if (!hedging.isEnabled() || inits.needsInit(primaryUrl)) {
+            // A URL just initialized is not hedged: its options were unknown when the hedges were planned
+            return callSdkServiceAsync(primaryUrl, path, requestBody, reader, true, timeouts);
+        }
+        SdkEndpoint sdkEndpoint = sdkEndpoints.getOrDefault(primaryUrl, SdkEndpoint.DEFAULTS);
+        ReplayableRequestBody httpBody = new ReplayableRequestBody(toHttpBody(sdkEndpoint, requestBody),
+                getContentType(sdkEndpoint));
+        Map<String, String> headers = retryPolicy.startCall(acceptHeader(sdkEndpoint.getWireFormat()));
+        long hedgeDelay = hedging.startCall(path);
+        long startTime = System.nanoTime();
+        CompletableFuture<DecodedResponse<T>> result = new CompletableFuture<>();
+        List<CompletableFuture<DecodedResponse<T>>> exchanges = new CopyOnWriteArrayList<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        BiConsumer<DecodedResponse<T>, Throwable> onExchangeDone = (decodedResponse, ex) -> {
+            if (ex == null) {
+                if (result.complete(decodedResponse)) {
+                    hedging.recordLatency(path, System.nanoTime() - startTime);
+                }
+            } else if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(ex);
+            }
+        };
+        CompletableFuture<DecodedResponse<T>> primary = sendWithRetriesAsync(primaryUrl, path, sdkEndpoint, httpBody,
+                headers, reader, true, timeouts);
+        exchanges.add(primary);
+        primary.whenComplete(onExchangeDone);
+        if (hedgeDelay >= 0) {
+            CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.NANOSECONDS).execute(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                String hedgeUrl = chooseHedgeUrl(sdkServiceUrls, primaryUrl, sdkEndpoint);
+                if (hedgeUrl == null || !hedging.tryHedge()) {
+                    return;
+                }
+                outstanding.incrementAndGet();
+                try {
+                    CompletableFuture<DecodedResponse<T>> hedge = sendWithRetriesAsync(hedgeUrl, path,
+                            sdkEndpoints.getOrDefault(hedgeUrl, SdkEndpoint.DEFAULTS), httpBody, headers, reader, true,
+                            timeouts);
+                    exchanges.add(hedge);
+                    hedge.whenComplete(onExchangeDone);
+                    if (result.isDone()) {
+                        hedge.cancel(true);
+                    }
+                } catch (RuntimeException e) {
+                    onExchangeDone.accept(null, e);
+                }
+            });
+        }
+        result.whenComplete((decodedResponse, ex) -> exchanges.forEach(exchange -> exchange.cancel(true)));
+        return result;
+    }
+
+    /**
+     * Chooses the URL a hedge is sent to: another URL of the format, not ejected, with the same request
+     * encoding as the first one.
+     *
+     * @return The URL, or {@code null} if there is none.
+     */
+    private String chooseHedgeUrl(List<String> sdkServiceUrls, String primaryUrl, SdkEndpoint sdkEndpoint) {
+        List<String> candidates = routingTable.getHedgeUrls(sdkServiceUrls, primaryUrl);
+        if (candidates == null) {
+            candidates = sdkServiceUrls.stream()
+                    .filter(url -> !url.equals(primaryUrl)
+                            && sdkEndpoints.getOrDefault(url, SdkEndpoint.DEFAULTS).encodesLike(sdkEndpoint))
+                    .collect(Collectors.toList());
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        try {
+            return sdkServiceBalancer.choose(candidates);
+        } catch (BioSdkClientException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Sends a quality check without blocking: batched if the URL chosen for it batches quality checks,
+     * otherwise hedged if hedging is enabled.
+     *
+     * @param sdkServiceUrls the URLs configured for the format of the call.
+     * @param requestBody    the quality check request.
+     * @param timeouts       the timeouts of the call.
+     * @return a future completed with the result of the quality check.
+     * @throws IOException if the multipart metadata cannot be serialized.
+     */
+    CompletableFuture<DecodedResponse<QualityCheck>> sendQualityCheckAsync(List<String> sdkServiceUrls,
+                                                                           CheckQualityRequestDto requestBody,
+                                                                           RequestTimeouts timeouts)
+            throws IOException {
+        CompletableFuture<DecodedResponse<QualityCheck>> batched = batchQualityCheck(sdkServiceUrls, requestBody,
+                timeouts);
+        return batched != null ? batched
+                : callSdkServiceHedgedAsync(sdkServiceUrls, "/check-quality", requestBody, QUALITY_READER, timeouts);
+    }
+
+    /**
+     * Sends a quality check through the {@link RequestBatcher} if the URL chosen for it batches quality checks.
+     * The call waits for the batch no longer than its own deadline.
+     *
+     * @param sdkServiceUrls the URLs configured for the format of the call.
+     * @param requestBody    the quality check request.
+     * @param timeouts       the timeouts of the call.
+     * @return a future completed with the result of the quality check, or {@code null} if the URL does not
+     * batch quality checks and the call is to be sent on its own.
+     */
+    CompletableFuture<DecodedResponse<QualityCheck>> batchQualityCheck(List<String> sdkServiceUrls,
+                                                                       CheckQualityRequestDto requestBody,
+                                                                       RequestTimeouts timeouts) {
+        if (!qualityBatching) {
+            return null;
+        }
+        String sdkServiceUrl = sdkServiceBalancer.choose(sdkServiceUrls);
+        SdkEndpoint sdkEndpoint = sdkEndpoints.getOrDefault(sdkServiceUrl, SdkEndpoint.DEFAULTS);
+        if (!sdkEndpoint.isQualityBatched()) {
+            return null;
+        }
+        return withinDeadline(qualityCheckBatcher.submit(sdkServiceUrl, sdkEndpoint.getQualityBatchWindowNanos(),
+                sdkEndpoint.getQualityBatchSize(), requestBody, timeouts), timeouts);
+    }
+
+    /**
+     * Sends the quality checks of a batch: a single one as a usual call, several in one
+     * {@code /check-quality-batch} request whose results are returned in the order of the requests.
+     */
+    private CompletableFuture<List<DecodedResponse<QualityCheck>>> sendQualityCheckBatch(
+            String sdkServiceUrl, List<CheckQualityRequestDto> requests, RequestTimeouts timeouts) throws IOException {
+        if (requests.size() == 1) {
+            return this.<QualityCheck>callSdkServiceAsync(sdkServiceUrl, "/check-quality", requests.get(0),
+                    QUALITY_READER, true, timeouts).thenApply(decodedResponse -> List.of(decodedResponse));
+        }
+        CheckQualityBatchRequestDto checkQualityBatchRequestDto = new CheckQualityBatchRequestDto();
+        checkQualityBatchRequestDto.setRequests(requests);
+        return this.<List<Response<QualityCheck>>>callSdkServiceAsync(sdkServiceUrl, "/check-quality-batch",
+                        checkQualityBatchRequestDto, QUALITY_BATCH_READER, true, timeouts)
+                .thenApply(batchResponse -> batchResponse.getPayload() == null ? null
+                        : batchResponse.getPayload().stream()
+                        .map(result -> DecodedResponse.withStatus(batchResponse, result.getStatusCode(),
+                                result.getStatusMessage(), result.getResponse()))
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Returns the number of hedged requests sent since init.
+     *
+     * @return The number of hedges.
+     * @since 1.3.0
+     */
+    public long getHedgedRequests() {
+        return requestHedging.getHedges();
+    }
+
+    /**
+     * Returns the current concurrency limit of each SDK service URL called since init, empty unless limiting
+     * is enabled, see {@link ConcurrencyLimiter}.
+     *
+     * @return The limit per URL.
+     * @since 1.3.0
+     */
+    public Map<String, Integer> getConcurrencyLimits() {
+        return concurrencyLimiter.getLimits();
+    }
+
+    /**
+     * Returns the counters of the template cache since init: {@code hits}, {@code misses}, {@code evictions}
+     * and {@code rejections} by admission, with the number of {@code entries} and the {@code bytes} they
+     * take. All zero unless the cache is enabled, see {@link TemplateCache}.
+     *
+     * @return The counters by name.
+     * @since 1.3.0
+     */
+    public Map<String, Long> getTemplateCacheCounters() {
+        return templateCache.getCounters();
+    }
+
+    /**
+     * Returns the counters of the quality memo since init: {@code hits}, {@code misses} and calls
+     * {@code collapsed} into an identical one in flight. All zero unless the memo is enabled, see
+     * {@link QualityMemo}.
+     *
+     * @return The counters by name.
+     * @since 1.3.0
+     */
+    public Map<String, Long> getQualityMemoCounters() {
+        return qualityMemo.getCounters();
+    }
+
+    /**
+     * Returns the counters of the gallery record JSON cache since init: {@code hits}, {@code misses}, and the
+     * number of {@code entries} with the {@code bytes} they take. All zero unless the cache is enabled, see
+     * {@link RecordJsonCache}.
+     *
+     * @return The counters by name.
+     * @since 1.3.0
+     */
+    public Map<String, Long> getGalleryRecordCacheCounters() {
+        return galleryRecordCache.getCounters();
+    }
+
+    /**
+     * Returns the counters of the warm-up since init: warm-up requests answered ({@code connections}) and
+     * {@code failures}, the {@code codec-rounds} run and the {@code millis} spent. All zero unless warm-up is
+     * enabled, see {@link Warmup}.
+     *
+     * @return The counters by name.
+     * @since 1.3.0
+     */
+    public Map<String, Long> getWarmupCounters() {
+        return warmup.getCounters();
+    }
+
+    /**
+     * Returns the number of retries sent since init, see {@link RetryPolicy}.
+     *
+     * @return The number of retries.
+     * @since 1.3.0
+     */
+    public long getRetriedRequests() {
+        return retryPolicy.getRetries();
+    }
+
+    /**
+     * Whether calls are hedged, see {@link #callSdkServiceHedgedAsync}.
+     */
+    boolean isHedgingEnabled() {
+        return requestHedging.isEnabled();
+    }
+
+    TemplateCache getTemplateCache() {
+        return templateCache;
+    }
+
+    QualityMemo getQualityMemo() {
+        return qualityMemo;
+    }
+
+    CallTimeouts getCallTimeouts() {
+        return callTimeouts;
+    }
+
+    SdkMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Splits a match gallery as configured for the service URL.
+     *
+     * @return The shards; a single one holding the whole gallery if sharding is not configured or the
+     * gallery fits one request.
+     */
+    List<GalleryShards.Shard> getMatchShards(String sdkServiceUrl, BiometricRecord sample, BiometricRecord[] gallery) {
+        sdkServiceInits.awaitInitialized(sdkServiceUrl);
+        SdkEndpoint sdkEndpoint = sdkEndpoints.getOrDefault(sdkServiceUrl, SdkEndpoint.DEFAULTS);
+        if (!sdkEndpoint.isMatchSharded()) {
+            return List.of(new GalleryShards.Shard(0, gallery));
+        }
+        return GalleryShards.split(sample, gallery, sdkEndpoint.getMatchShardBytes(),
+                sdkEndpoint.getMatchShardRecords());
+    }
+
+    /**
+     * Sends one match request per gallery shard on the non-blocking HTTP client, each to one of the given
+     * URLs as chosen by the {@link SdkServiceBalancer}, and merges the responses
+     * with {@link GalleryShards#merge}. Each shard request is built and sent, and the responses merged, on the
+     * {@link Util#getFanOutExecutor() fan-out executor}: on virtual threads of their own if enabled, otherwise
+     * one after the other on the calling thread. When a shard fails, the returned future fails with it and the
+     * other exchanges are cancelled; cancelling the returned future cancels all of them.
+     *
+     * @return a future completed with the merged response, or failed with the {@link IOException} of a shard
+     * whose multipart metadata cannot be serialized.
+     */
+    CompletableFuture<DecodedResponse<MatchDecision[]>> callMatchShardsAsync(List<String> sdkServiceUrls,
+                                                                            BiometricRecord sample,
+                                                                            List<GalleryShards.Shard> shards,
+                                                                            List<BiometricType> modalitiesToMatch,
+                                                                            Map<String, String> flags,
+                                                                            RequestTimeouts timeouts) {
+        Executor executor = Util.getFanOutExecutor();
+        List<CompletableFuture<DecodedResponse<MatchDecision[]>>> shardCalls = new ArrayList<>(shards.size());
+        for (GalleryShards.Shard shard : shards) {
+            CompletableFuture<DecodedResponse<MatchDecision[]>> shardCall = new CompletableFuture<>();
+            shardCalls.add(shardCall);
+            try {
+                executor.execute(() -> sendMatchShard(shardCall, sdkServiceBalancer.choose(sdkServiceUrls),
+                        matchRequest(sample, shard.gallery(), modalitiesToMatch, flags), timeouts));
+            } catch (RuntimeException e) {
+                shardCall.completeExceptionally(e);
+            }
+        }
+        CompletableFuture<DecodedResponse<MatchDecision[]>> merged = CompletableFuture
+                .allOf(shardCalls.toArray(new CompletableFuture[0]))
+                .thenApplyAsync(done -> GalleryShards.merge(shards, shardCalls.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList())), executor);
+        for (CompletableFuture<DecodedResponse<MatchDecision[]>> shardCall : shardCalls) {
+            shardCall.whenComplete((decodedResponse, ex) -> {
+                if (ex != null) {
+                    merged.completeExceptionally(ex);
+                }
+            });
+        }
+        merged.whenComplete((decodedResponse, ex) -> {
+            if (ex != null) {
+                shardCalls.forEach(shardCall -> shardCall.cancel(true));
+            }
+        });
+        return merged;
+    }
+
+    /**
+     * Sends the match request of one gallery shard, unless its call is already done, and completes the call
+     * with the response. Cancelling the call cancels the exchange.
+     */
+    private void sendMatchShard(CompletableFuture<DecodedResponse<MatchDecision[]>> shardCall, String sdkServiceUrl,
+                                MatchRequestDto matchRequestDto, RequestTimeouts timeouts) {
+        if (shardCall.isDone()) {
             return;
         }
-        List<ErrorDto> errors = ERR_LIST_READER.readValue(errorsNode);
-        errorHandler(errors); // your existing method aggregates and throws BioSdkClientException
+        try {
+            CompletableFuture<DecodedResponse<MatchDecision[]>> exchange = callSdkServiceAsync(sdkServiceUrl,
+                    "/match", matchRequestDto, MATCH_DECISIONS_READER, true, timeouts);
+            exchange.whenComplete((decodedResponse, ex) -> {
+                if (ex != null) {
+                    shardCall.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null
+                            ? ex.getCause() : ex);
+                } else {
+                    shardCall.complete(decodedResponse);
+                }
+            });
+            shardCall.whenComplete((decodedResponse, ex) -> {
+                if (shardCall.isCancelled()) {
+                    exchange.cancel(true);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            shardCall.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Bounds the wait of a call for a result it shares with other calls, e.g. of a batch or of an identical
+     * call in flight, by the deadline of the call. The shared result itself is left to the other calls.
+     *
+     * @return a future failing with a {@link java.util.concurrent.TimeoutException} once the deadline expired.
+     */
+    static <T> CompletableFuture<T> withinDeadline(CompletableFuture<T> shared, RequestTimeouts timeouts) {
+        if (!timeouts.hasDeadline()) {
+            return shared;
+        }
+        return shared.copy().orTimeout(timeouts.getRemainingNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Waits for a future, rethrowing the unchecked exception it failed with as is.
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static MediaType getContentType(SdkEndpoint sdkEndpoint) {
+        return sdkEndpoint.getTransport() == RequestTransport.MULTIPART
+                ? MediaType.MULTIPART_FORM_DATA : sdkEndpoint.getWireFormat().getMediaType();
+    }
+
+    /**
+     * Wraps a request DTO in the body written for an SDK service: an envelope in its wire format or multipart
+     * parts, compressed if the estimated request size reaches the compression threshold of the service.
+     */
+    private Object toHttpBody(SdkEndpoint sdkEndpoint, Object requestBody) throws IOException {
+        Object body = sdkEndpoint.getTransport() == RequestTransport.MULTIPART
+                ? MultipartRequest.toParts(VERSION, requestBody)
+                : generateRequestEnvelope(requestBody, sdkEndpoint.getWireFormat(), sdkEndpoint.isBdbReferenced());
+        if (sdkEndpoint.isCompressed(CompressedRequestBody.estimateSize(requestBody))) {
+            body = new CompressedRequestBody(body, sdkEndpoint.getCompression());
+        }
+        return body;
+    }
+
+    /**
+     * Sends the request body to the SDK service and decodes the streamed response.
+     * <p>
+     * The response body is read once with a {@link ResponseEnvelopeDecoder}, in the format given by its
+     * content type; any errors reported by the service are passed to {@link #errorHandler(List)}.
+     *
+     * @param <T>             the type of the response payload.
+     * @param url             the SDK service endpoint URL.
+     * @param contentType     the content type of the request body.
+     * @param requestBody     the request to send, a {@link RequestEnvelope} or multipart parts, possibly
+     *                        wrapped in a {@link CompressedRequestBody}, or such a body serialized once.
+     * @param headers         the request headers, with the {@code Accept} header for the preferred format of
+     *                        the response, see {@link #acceptHeader}.
+     * @param extractor       the extractor decoding the response, see {@link #responseExtractor}.
+     * @param timeouts        the timeouts of the call, see {@link CallTimeouts}.
+     * @param metered         the exchange as recorded by the {@link SdkMetrics}, counting the bytes sent and received.
+     * @return the decoded response.
+     * @throws BioSdkClientException if the HTTP status is not successful or the service reported errors.
+     * @throws NullPointerException  if the response body is empty.
+     */
+    private <T> DecodedResponse<T> postToSdkService(String url, MediaType contentType, Object requestBody,
+                                                    Map<String, String> headers,
+                                                    ResponseExtractor<DecodedResponse<T>> extractor,
+                                                    RequestTimeouts timeouts, SdkMetrics.Exchange metered) {
+        DecodedResponse<T> decodedResponse = Util.restRequest(url, HttpMethod.POST, contentType, requestBody,
+                headers, extractor, timeouts, metered.getSentBytes(), metered.getReceivedBytes());
+        return checkDecodedResponse(decodedResponse);
+    }
+
+    /**
+     * The headers asking for a response in the given format.
+     */
+    private static Map<String, String> acceptHeader(WireFormat acceptFormat) {
+        return Map.of(HttpHeaders.ACCEPT, acceptFormat.getAcceptHeader());
+    }
+
+    /**
+     * Wraps an extractor so that the HTTP status of the response it reads is recorded, for
+     * {@link SdkServiceHealth#record}.
+     */
+    private static <T> ResponseExtractor<T> recordingStatus(AtomicInteger httpStatus, ResponseExtractor<T> extractor) {
+        return clientHttpResponse -> {
+            httpStatus.set(clientHttpResponse.getStatusCode().value());
+            return extractor.extractData(clientHttpResponse);
+        };
+    }
+
+    /**
+     * Builds the extractor decoding an SDK service response in the format given by its content type. Responses
+     * with an unsuccessful HTTP status are rejected with a {@link BioSdkClientException}.
+     */
+    private <T> ResponseExtractor<DecodedResponse<T>> responseExtractor(ObjectReader reader, boolean unwrapNested) {
+        return clientHttpResponse -> {
+            if (!clientHttpResponse.getStatusCode().is2xxSuccessful()) {
+                logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, TAG_HTTP_STATUS, clientHttpResponse.getStatusCode().toString());
+                throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "",
+                        TAG_HTTP_STATUS + clientHttpResponse.getStatusCode().toString());
+            }
+            WireFormat responseFormat = WireFormat.forContentType(clientHttpResponse.getHeaders().getContentType());
+            return unwrapNested
+                    ? ResponseEnvelopeDecoder.<T>decode(clientHttpResponse.getBody(), reader, responseFormat)
+                    : ResponseEnvelopeDecoder.<T>decodeRootPayload(clientHttpResponse.getBody(), reader, responseFormat);
+        };
+    }
+
+    /**
+     * Rejects an empty response or one in which the service reported errors.
+     *
+     * @throws BioSdkClientException if the service reported errors.
+     * @throws NullPointerException  if the response body is empty.
+     */
+    private <T> DecodedResponse<T> checkDecodedResponse(DecodedResponse<T> decodedResponse) {
+        if (decodedResponse == null) {
+            throw new NullPointerException(TAG_RESPONSE_NULL);
+        }
+        errorHandler(decodedResponse.getErrors());
+        return decodedResponse;
+    }
+
+    /**
+     * Populates a {@link Response} object from a decoded SDK service response.
+     *
+     * @param <T>             the type of the response payload.
+     * @param out             the {@link Response} instance to populate.
+     * @param decodedResponse the decoded status fields and payload.
+     */
+    <T> void fillResponse(Response<T> out, DecodedResponse<T> decodedResponse) {
+        out.setStatusCode(decodedResponse.getStatusCode());
+        out.setStatusMessage(decodedResponse.getStatusMessage());
+        out.setResponse(decodedResponse.getPayload());
     }
-}
\ No newline at end of file
+}
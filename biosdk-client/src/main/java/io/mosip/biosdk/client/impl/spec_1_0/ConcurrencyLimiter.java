@@ -0,0 +1,277 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.mosip.biosdk.client.constant.ResponseStatus;
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of requests in flight to each SDK service URL, with a limit adapted to the latency the
+ * URL shows.
+ * <p>
+ * The limit follows a gradient: a short average of the recent round trip times is compared to the lowest
+ * round trip time seen over the last {@value #RTT_WINDOW} calls, taken as the latency of the unloaded service.
+ * While the average stays within {@code limit.rtt-tolerance} (1.5 by default) times the lowest, the limit
+ * grows by about its square root, otherwise it shrinks in proportion, by at most half. A call that got
+ * no response or a 5xx response cuts the limit by a tenth. The limit is only raised while at least half of
+ * it is in use, and always stays between {@code limit.min} (1) and {@code limit.max} (200); it starts at
+ * {@code limit.initial} (20).
+ * <p>
+ * A call above the limit waits up to {@code limit.queue-timeout-ms} (100 by default) for another call to the
+ * URL to finish, first come first served, and is then rejected with a {@link BioSdkClientException} instead
+ * of adding to the load of an overloaded service. Limiting is off unless {@code limit.enabled=true}.
+ *
+ * @since 1.3.0
+ */
+final class ConcurrencyLimiter {
+    private static final String PREFIX = "limit.";
+
+    private static final double SMOOTHING = 0.2;
+
+    private static final double SHORT_RTT_WEIGHT = 0.2;
+
+    /** Number of calls the lowest round trip time is taken over. */
+    static final int RTT_WINDOW = 500;
+
+    private static final double DROP_FACTOR = 0.9;
+
+    /** Limiter that never limits, in effect until init. */
+    static final ConcurrencyLimiter DISABLED = new ConcurrencyLimiter(Map.of());
+
+    private static final Permit UNLIMITED = new Permit(null, 0);
+
+    private final boolean enabled;
+
+    private final int initialLimit;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long queueTimeoutNanos;
+
+    private final double rttTolerance;
+
+    private final Map<String, EndpointLimit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * @param initParams The init parameters, read for the {@code limit.*} settings.
+     */
+    ConcurrencyLimiter(Map<String, String> initParams) {
+        this.enabled = "true".equalsIgnoreCase(initParams.getOrDefault(PREFIX + "enabled", "false").trim());
+        this.minLimit = Math.max(1, Integer.parseInt(initParams.getOrDefault(PREFIX + "min", "1").trim()));
+        this.maxLimit = Math.max(minLimit, Integer.parseInt(initParams.getOrDefault(PREFIX + "max", "200").trim()));
+        this.initialLimit = Math.min(maxLimit, Math.max(minLimit,
+                Integer.parseInt(initParams.getOrDefault(PREFIX + "initial", "20").trim())));
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.parseLong(initParams.getOrDefault(PREFIX + "queue-timeout-ms", "100").trim()));
+        this.rttTolerance = Double.parseDouble(initParams.getOrDefault(PREFIX + "rtt-tolerance", "1.5").trim());
+    }
+
+    /**
+     * Takes a permit to send a request to the URL. The returned future is completed at once if the URL is
+     * below its limit, otherwise once a permit is released, or fails with a {@link BioSdkClientException}
+     * when the queue timeout passes first. Cancelling it gives up the place in the queue.
+     *
+     * @param sdkServiceUrl The URL the request is sent to.
+     * @return A future completed with the permit, to be released once the request is done.
+     */
+    CompletableFuture<Permit> acquire(String sdkServiceUrl) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(UNLIMITED);
+        }
+        return limits.computeIfAbsent(sdkServiceUrl, url -> new EndpointLimit(url, initialLimit)).acquire();
+    }
+
+    /**
+     * The current limit per URL, for the URLs called so far.
+     */
+    Map<String, Integer> getLimits() {
+        Map<String, Integer> snapshot = new LinkedHashMap<>();
+        limits.forEach((sdkServiceUrl, limit) -> snapshot.put(sdkServiceUrl, limit.getLimit()));
+        return snapshot;
+    }
+
+    /**
+     * Whether an outcome shows the service overloaded: no response at all, or a 5xx one.
+     */
+    private static boolean isDrop(Throwable failure, int httpStatus) {
+        if (failure == null) {
+            return false;
+        }
+        if (httpStatus > 0) {
+            return httpStatus >= 500;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpStatusCodeException statusCodeException) {
+                return statusCodeException.getStatusCode().is5xxServerError();
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCancellation(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Leave to send one request, released with the outcome of the request.
+     */
+    static final class Permit {
+        private final EndpointLimit limit;
+
+        private final int inFlight;
+
+        private final long startTime = System.nanoTime();
+
+        private boolean released;
+
+        private Permit(EndpointLimit limit, int inFlight) {
+            this.limit = limit;
+            this.inFlight = inFlight;
+        }
+
+        /**
+         * Releases the permit and adapts the limit to the outcome of the request. A cancelled request
+         * only releases the permit.
+         *
+         * @param failure    The exception the request failed with, {@code null} if it succeeded.
+         * @param httpStatus The HTTP status of the response, {@code 0} if none was seen.
+         */
+        void release(Throwable failure, int httpStatus) {
+            if (limit == null) {
+                return;
+            }
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            limit.release(this, failure, httpStatus, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Limit, requests in flight and queue of one URL.
+     */
+    private final class EndpointLimit {
+        private final String sdkServiceUrl;
+
+        private final ArrayDeque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+
+        private double limit;
+
+        private int inFlight;
+
+        private double shortRtt;
+
+        private long minRtt = Long.MAX_VALUE;
+
+        private long windowMinRtt = Long.MAX_VALUE;
+
+        private int windowSamples;
+
+        EndpointLimit(String sdkServiceUrl, int initialLimit) {
+            this.sdkServiceUrl = sdkServiceUrl;
+            this.limit = initialLimit;
+        }
+
+        synchronized int getLimit() {
+            return (int) limit;
+        }
+
+        CompletableFuture<Permit> acquire() {
+            CompletableFuture<Permit> waiter;
+            synchronized (this) {
+                if (inFlight < (int) limit && waiters.isEmpty()) {
+                    inFlight++;
+                    return CompletableFuture.completedFuture(new Permit(this, inFlight));
+                }
+                if (queueTimeoutNanos <= 0) {
+                    return CompletableFuture.failedFuture(rejection());
+                }
+                waiter = new CompletableFuture<>();
+                waiters.add(waiter);
+            }
+            CompletableFuture.delayedExecutor(queueTimeoutNanos, TimeUnit.NANOSECONDS).execute(() -> {
+                boolean timedOut;
+                synchronized (this) {
+                    timedOut = waiters.remove(waiter);
+                }
+                if (timedOut) {
+                    waiter.completeExceptionally(rejection());
+                }
+            });
+            return waiter;
+        }
+
+        void release(Permit permit, Throwable failure, int httpStatus, long rttNanos) {
+            List<CompletableFuture<Permit>> granted = new ArrayList<>();
+            List<Permit> permits = new ArrayList<>();
+            synchronized (this) {
+                inFlight--;
+                if (!isCancellation(failure)) {
+                    adapt(permit.inFlight, isDrop(failure, httpStatus), rttNanos);
+                }
+                while (inFlight < (int) limit && !waiters.isEmpty()) {
+                    CompletableFuture<Permit> waiter = waiters.poll();
+                    if (!waiter.isDone()) {
+                        inFlight++;
+                        granted.add(waiter);
+                        permits.add(new Permit(this, inFlight));
+                    }
+                }
+            }
+            for (int i = 0; i < granted.size(); i++) {
+                // A waiter cancelled in the meantime hands its permit back
+                if (!granted.get(i).complete(permits.get(i))) {
+                    permits.get(i).release(new CancellationException(), 0);
+                }
+            }
+        }
+
+        private void adapt(int inFlightAtStart, boolean drop, long rttNanos) {
+            double newLimit;
+            if (drop) {
+                newLimit = limit * DROP_FACTOR;
+            } else {
+                shortRtt = shortRtt == 0 ? rttNanos : shortRtt + (rttNanos - shortRtt) * SHORT_RTT_WEIGHT;
+                // The lowest round trip time of a full window replaces the previous one, so that it follows a
+                // service that got slower for good
+                minRtt = Math.min(minRtt, rttNanos);
+                windowMinRtt = Math.min(windowMinRtt, rttNanos);
+                if (++windowSamples == RTT_WINDOW) {
+                    minRtt = windowMinRtt;
+                    windowMinRtt = Long.MAX_VALUE;
+                    windowSamples = 0;
+                }
+                if (inFlightAtStart < limit / 2) {
+                    return;
+                }
+                double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * minRtt / shortRtt));
+                newLimit = limit * (1 - SMOOTHING) + (limit * gradient + Math.sqrt(limit)) * SMOOTHING;
+            }
+            limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        }
+
+        private BioSdkClientException rejection() {
+            return new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "",
+                    "Concurrency limit reached for SDK service URL: " + sdkServiceUrl);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.mosip.biosdk.client.config.LoggerConfig;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static io.mosip.biosdk.client.constant.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.client.constant.AppConstants.LOGGER_SESSIONID;
+
+/**
+ * Watches a properties file with the SDK service endpoint configuration, the {@code format.*} parameters.
+ * <p>
+ * The file is named by {@code endpoint.config.file}. It is read at init, and its modification time and size
+ * are polled every {@code endpoint.config.poll-interval-ms} (5000 by default) afterwards; when they change,
+ * the file is read again and handed to the client to reconfigure with. A file that cannot be read, or a
+ * configuration that cannot be applied, is logged and leaves the configuration in effect as it was. Polling
+ * stops once the client is initialized again.
+ *
+ * @since 1.3.0
+ */
+final class EndpointConfigWatcher {
+    private static Logger logger = LoggerConfig.logConfig(EndpointConfigWatcher.class);
+
+    private static final String PREFIX = "endpoint.config.";
+
+    /** Watcher of no file, in effect until init. */
+    static final EndpointConfigWatcher NONE = new EndpointConfigWatcher(Map.of());
+
+    private final Path file;
+
+    private final long pollIntervalMillis;
+
+    private volatile Consumer<Map<String, String>> onChange;
+
+    private volatile Stamp lastRead;
+
+    private volatile boolean closed;
+
+    /**
+     * @param initParams The init parameters, read for the {@code endpoint.config.*} settings.
+     */
+    EndpointConfigWatcher(Map<String, String> initParams) {
+        String fileName = initParams.get(PREFIX + "file");
+        this.file = fileName == null || fileName.isBlank() ? null : Paths.get(fileName.trim());
+        this.pollIntervalMillis = Long.parseLong(initParams.getOrDefault(PREFIX + "poll-interval-ms", "5000").trim());
+    }
+
+    boolean isEnabled() {
+        return file != null;
+    }
+
+    /**
+     * Reads the file, as it is at init.
+     *
+     * @return The parameters in the file, empty if no file is configured or it does not exist.
+     * @throws IllegalStateException if the file exists but cannot be read.
+     */
+    Map<String, String> read() {
+        if (file == null) {
+            return Map.of();
+        }
+        Stamp stamp = Stamp.of(file);
+        Map<String, String> params = stamp == null ? Map.of() : load();
+        lastRead = stamp;
+        return params;
+    }
+
+    /**
+     * Starts polling the file for changes.
+     *
+     * @param onChange Called with the parameters in the file whenever it changed.
+     */
+    void start(Consumer<Map<String, String>> onChange) {
+        if (file == null) {
+            return;
+        }
+        this.onChange = onChange;
+        schedulePoll();
+    }
+
+    /**
+     * Stops polling, once the client has been initialized again.
+     */
+    void close() {
+        closed = true;
+    }
+
+    private void schedulePoll() {
+        CompletableFuture.runAsync(this::poll,
+                CompletableFuture.delayedExecutor(pollIntervalMillis, TimeUnit.MILLISECONDS));
+    }
+
+    private void poll() {
+        if (closed) {
+            return;
+        }
+        try {
+            Stamp stamp = Stamp.of(file);
+            if (stamp != null && !stamp.equals(lastRead)) {
+                Map<String, String> params = load();
+                lastRead = stamp;
+                logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "Reconfiguring SDK service endpoints from",
+                        file.toString());
+                onChange.accept(params);
+            }
+        } catch (RuntimeException e) {
+            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error", e);
+        } finally {
+            if (!closed) {
+                schedulePoll();
+            }
+        }
+    }
+
+    private Map<String, String> load() {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read the SDK service endpoint configuration " + file, e);
+        }
+        Map<String, String> params = new HashMap<>();
+        properties.stringPropertyNames().forEach(name -> params.put(name, properties.getProperty(name)));
+        return params;
+    }
+
+    /**
+     * The modification time and size of the file when read.
+     */
+    private record Stamp(long lastModifiedMillis, long size) {
+        /**
+         * @return The stamp of the file, {@code null} if it does not exist.
+         */
+        static Stamp of(Path file) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return new Stamp(attributes.lastModifiedTime().toMillis(), attributes.size());
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+}
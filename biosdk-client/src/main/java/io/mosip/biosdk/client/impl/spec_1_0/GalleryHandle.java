@@ -0,0 +1,106 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A match gallery registered with the SDK services, returned by
+ * {@link Client_V_1_0#registerGallery(BiometricRecord[], java.util.List, Map)}.
+ * <p>
+ * The handle keeps the gallery records, to upload them again where the gallery is not registered, and the
+ * id each SDK service URL knows the gallery by. A registration is given up once 90% of the lifetime the
+ * service reported for it has passed, or as soon as the service reports the id unknown, and the gallery is
+ * registered again on its next match. Galleries are matched as they were when registered; the array passed
+ * in is copied, but not the records.
+ *
+ * @since 1.3.0
+ */
+public final class GalleryHandle {
+    private final BiometricRecord[] gallery;
+
+    private final Map<String, String> flags;
+
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+
+    GalleryHandle(BiometricRecord[] gallery, Map<String, String> flags) {
+        this.gallery = gallery.clone();
+        this.flags = flags == null ? new HashMap<>() : new HashMap<>(CallTimeouts.serviceFlags(flags));
+    }
+
+    /**
+     * The number of records in the gallery.
+     */
+    public int size() {
+        return gallery.length;
+    }
+
+    /**
+     * The ids of the gallery with the SDK service URLs it is currently registered with.
+     *
+     * @return The gallery id by URL.
+     */
+    public Map<String, String> getGalleryIds() {
+        Map<String, String> galleryIds = new LinkedHashMap<>();
+        registrations.forEach((sdkServiceUrl, registration) -> {
+            if (!registration.isExpired()) {
+                galleryIds.put(sdkServiceUrl, registration.galleryId());
+            }
+        });
+        return galleryIds;
+    }
+
+    BiometricRecord[] getGallery() {
+        return gallery.clone();
+    }
+
+    Map<String, String> getFlags() {
+        return flags;
+    }
+
+    /**
+     * The id of the gallery with a URL.
+     *
+     * @return The id, {@code null} if the gallery is not registered with the URL or its registration expired.
+     */
+    String getGalleryId(String sdkServiceUrl) {
+        Registration registration = registrations.get(sdkServiceUrl);
+        if (registration == null) {
+            return null;
+        }
+        if (registration.isExpired()) {
+            registrations.remove(sdkServiceUrl, registration);
+            return null;
+        }
+        return registration.galleryId();
+    }
+
+    /**
+     * Records a registration of the gallery.
+     *
+     * @param ttlSeconds The lifetime reported by the service, {@code null} if it reported none.
+     */
+    void registered(String sdkServiceUrl, String galleryId, Long ttlSeconds) {
+        long expiresAt = ttlSeconds == null ? Long.MAX_VALUE
+                : System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds) / 10 * 9;
+        registrations.put(sdkServiceUrl, new Registration(galleryId, expiresAt));
+    }
+
+    /**
+     * Gives up a registration the service no longer knows, unless the gallery was registered again since.
+     */
+    void forget(String sdkServiceUrl, String galleryId) {
+        registrations.computeIfPresent(sdkServiceUrl,
+                (url, registration) -> registration.galleryId().equals(galleryId) ? null : registration);
+    }
+
+    private record Registration(String galleryId, long expiresAt) {
+        boolean isExpired() {
+            return expiresAt != Long.MAX_VALUE && expiresAt - System.nanoTime() <= 0;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.mosip.biosdk.client.codec.CompressedRequestBody;
+import io.mosip.biosdk.client.codec.DecodedResponse;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits the gallery of a 1:N match into consecutive shards, each sent in a request of its own, and merges
+ * the decisions returned for the shards back into one result.
+ * <p>
+ * Shards are filled in gallery order until the estimated request size, the sample included, would exceed
+ * the byte limit or the shard holds the maximum number of records. A shard always holds at least one record,
+ * so a record larger than the byte limit is sent alone.
+ *
+ * @since 1.3.0
+ */
+final class GalleryShards {
+    private GalleryShards() {
+    }
+
+    /**
+     * Consecutive gallery records sent in one match request.
+     *
+     * @param offset  The position of the first record in the caller's gallery.
+     * @param gallery The records of the shard.
+     */
+    record Shard(int offset, BiometricRecord[] gallery) {
+    }
+
+    /**
+     * Splits a gallery into shards.
+     *
+     * @param sample     The sample sent along with every shard.
+     * @param gallery    The gallery to split.
+     * @param maxBytes   The estimated request size up to which a shard is filled; {@code 0} if not limited.
+     * @param maxRecords The number of records up to which a shard is filled; {@code 0} if not limited.
+     * @return The shards, in gallery order; a single shard if the gallery fits one request.
+     */
+    static List<Shard> split(BiometricRecord sample, BiometricRecord[] gallery, long maxBytes, int maxRecords) {
+        List<Shard> shards = new ArrayList<>();
+        if (gallery == null || gallery.length == 0) {
+            shards.add(new Shard(0, gallery));
+            return shards;
+        }
+        long sampleBytes = CompressedRequestBody.estimateSize(sample);
+        int start = 0;
+        long bytes = sampleBytes;
+        for (int i = 0; i < gallery.length; i++) {
+            long recordBytes = CompressedRequestBody.estimateSize(gallery[i]);
+            boolean full = (maxBytes > 0 && bytes + recordBytes > maxBytes)
+                    || (maxRecords > 0 && i - start >= maxRecords);
+            if (i > start && full) {
+                shards.add(new Shard(start, Arrays.copyOfRange(gallery, start, i)));
+                start = i;
+                bytes = sampleBytes;
+            }
+            bytes += recordBytes;
+        }
+        shards.add(start == 0 ? new Shard(0, gallery) : new Shard(start, Arrays.copyOfRange(gallery, start,
+                gallery.length)));
+        return shards;
+    }
+
+    /**
+     * Merges the responses to the shards of a gallery. The gallery index of each decision is shifted by the
+     * offset of its shard, so that it refers to the caller's gallery again, and the decisions are returned in
+     * shard order. The status of the merged response is that of the first shard not answered with status
+     * 200, or of the first shard if all were.
+     *
+     * @param shards    The shards, as returned by {@link #split}.
+     * @param responses The response to each shard, in the same order.
+     * @return The merged response.
+     */
+    static DecodedResponse<MatchDecision[]> merge(List<Shard> shards, List<DecodedResponse<MatchDecision[]>> responses) {
+        DecodedResponse<MatchDecision[]> status = responses.get(0);
+        List<MatchDecision> decisions = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            DecodedResponse<MatchDecision[]> response = responses.get(i);
+            if (isSuccessful(status) && !isSuccessful(response)) {
+                status = response;
+            }
+            if (response.getPayload() == null) {
+                continue;
+            }
+            int offset = shards.get(i).offset();
+            for (MatchDecision decision : response.getPayload()) {
+                if (decision != null) {
+                    decision.setGalleryIndex(decision.getGalleryIndex() + offset);
+                }
+                decisions.add(decision);
+            }
+        }
+        return DecodedResponse.withPayload(status, decisions.toArray(new MatchDecision[0]));
+    }
+
+    private static boolean isSuccessful(DecodedResponse<?> response) {
+        return response.getStatusCode() != null && response.getStatusCode() == 200;
+    }
+}
@@ -0,0 +1,193 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.mosip.biosdk.client.codec.DecodedResponse;
+import io.mosip.biosdk.client.codec.WireFormat;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the results of {@code checkQuality} calls for a while, so that a sample checked again is
+ * answered without a call to the SDK service, and lets identical calls in flight share one request.
+ * <p>
+ * Results are keyed by the {@link SampleDigest} of the BDBs of the sample, the modalities to check and the
+ * flags. Successful results are kept for {@code quality-memo.ttl-ms} milliseconds, for at most
+ * {@code quality-memo.max-entries} samples (10000 by default), the least recently used being dropped first.
+ * They are kept in Smile encoding and each hit decodes a fresh copy. The memo is off unless the TTL is set.
+ * <p>
+ * A call arriving while an identical one is in flight waits for the outcome of that one, success or
+ * failure, instead of sending its own request.
+ *
+ * @since 1.3.0
+ */
+final class QualityMemo {
+    private static final String PREFIX = "quality-memo.";
+
+    /** Memo that never remembers, in effect until init. */
+    static final QualityMemo DISABLED = new QualityMemo(Map.of());
+
+    private static final ObjectWriter QUALITY_WRITER = WireFormat.SMILE.getMapper().writerFor(QualityCheck.class);
+
+    private static final ObjectReader QUALITY_READER = WireFormat.SMILE.getMapper().readerFor(QualityCheck.class);
+
+    /**
+     * Starts the quality check of a call sent to the SDK service.
+     */
+    @FunctionalInterface
+    interface QualityCheckCall {
+        CompletableFuture<DecodedResponse<QualityCheck>> start() throws Exception;
+    }
+
+    private final long ttlNanos;
+
+    private final Map<SampleDigest, Entry> entries;
+
+    private final Map<SampleDigest, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong collapsed = new AtomicLong();
+
+    /**
+     * @param initParams The init parameters, read for the {@code quality-memo.*} settings.
+     */
+    QualityMemo(Map<String, String> initParams) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.parseLong(initParams.getOrDefault(PREFIX + "ttl-ms", "0").trim()));
+        int maxEntries = Integer.parseInt(initParams.getOrDefault(PREFIX + "max-entries", "10000").trim());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SampleDigest, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    boolean isEnabled() {
+        return ttlNanos > 0;
+    }
+
+    /**
+     * Computes the key of a quality check.
+     *
+     * @return The key, {@code null} if the memo is off.
+     */
+    SampleDigest keyFor(BiometricRecord sample, List<BiometricType> modalitiesToCheck, Map<String, String> flags) {
+        return isEnabled() ? SampleDigest.of(sample, modalitiesToCheck, flags) : null;
+    }
+
+    /**
+     * Returns the remembered result of a quality check, joins an identical check in flight, or starts the
+     * check.
+     *
+     * @param key  The key of the check, {@code null} if the memo is off, in which case the check is started.
+     * @param call Starts the check.
+     * @return A future completed with a copy of the result.
+     */
+    CompletableFuture<DecodedResponse<QualityCheck>> load(SampleDigest key, QualityCheckCall call) {
+        if (key == null) {
+            return start(call);
+        }
+        Entry remembered;
+        synchronized (entries) {
+            remembered = entries.get(key);
+            if (remembered != null && remembered.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(key);
+                remembered = null;
+            }
+        }
+        if (remembered != null) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(decode(remembered));
+        }
+        CompletableFuture<Entry> flight = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            collapsed.incrementAndGet();
+            return existing.thenApply(QualityMemo::decode);
+        }
+        misses.incrementAndGet();
+        start(call).whenComplete((decodedResponse, ex) -> {
+            Entry entry = null;
+            Throwable failure = ex;
+            if (failure == null) {
+                try {
+                    entry = encode(decodedResponse);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (entry != null && entry.isSuccess()) {
+                synchronized (entries) {
+                    entries.put(key, entry);
+                }
+            }
+            // Only once remembered, so that a call in between finds one or the other
+            inFlight.remove(key, flight);
+            if (failure != null) {
+                flight.completeExceptionally(failure);
+            } else {
+                flight.complete(entry);
+            }
+        });
+        return flight.thenApply(QualityMemo::decode);
+    }
+
+    /**
+     * The number of checks answered from the memo, sent to the SDK service, and collapsed into an identical
+     * check in flight.
+     */
+    Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("hits", hits.get());
+        counters.put("misses", misses.get());
+        counters.put("collapsed", collapsed.get());
+        return counters;
+    }
+
+    private static CompletableFuture<DecodedResponse<QualityCheck>> start(QualityCheckCall call) {
+        try {
+            return call.start();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Entry encode(DecodedResponse<QualityCheck> decodedResponse) throws IOException {
+        byte[] payload = decodedResponse.getPayload() == null ? null
+                : QUALITY_WRITER.writeValueAsBytes(decodedResponse.getPayload());
+        return new Entry(payload, DecodedResponse.withPayload(decodedResponse, null), System.nanoTime() + ttlNanos);
+    }
+
+    private static DecodedResponse<QualityCheck> decode(Entry entry) {
+        try {
+            return DecodedResponse.withPayload(entry.status,
+                    entry.payload == null ? null : QUALITY_READER.<QualityCheck>readValue(entry.payload));
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * An encoded result, the status of the response it came with, and when it expires.
+     */
+    private record Entry(byte[] payload, DecodedResponse<QualityCheck> status, long expiresAt) {
+        boolean isSuccess() {
+            return payload != null && Integer.valueOf(200).equals(status.getStatusCode());
+        }
+    }
+}
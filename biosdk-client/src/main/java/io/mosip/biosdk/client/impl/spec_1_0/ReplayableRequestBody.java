@@ -0,0 +1,50 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.mosip.biosdk.client.utils.SerializedRequestBody;
+import io.mosip.biosdk.client.utils.Util;
+import org.springframework.http.MediaType;
+
+/**
+ * The body of an asynchronous call, shared by its retries and hedges.
+ * <p>
+ * The first exchange of the call streams the body as built. Once a second exchange is sent, a retry or a
+ * hedge, the body is serialized once, and that exchange and all later ones replay the same bytes rather than
+ * encoding the body again.
+ *
+ * @since 1.3.0
+ */
+final class ReplayableRequestBody {
+    private final Object httpBody;
+
+    private final MediaType contentType;
+
+    private boolean streamed;
+
+    private SerializedRequestBody serialized;
+
+    /**
+     * @param httpBody    The body as built for the HTTP client, or a body already serialized.
+     * @param contentType The content type the body is serialized with.
+     */
+    ReplayableRequestBody(Object httpBody, MediaType contentType) {
+        this.httpBody = httpBody;
+        this.contentType = contentType;
+    }
+
+    /**
+     * The body to send in the next exchange of the call: the body as built for the first one, the serialized
+     * body for the others.
+     *
+     * @throws org.springframework.web.client.RestClientException if the body cannot be serialized.
+     */
+    synchronized Object forNextExchange() {
+        if (!streamed || httpBody instanceof SerializedRequestBody) {
+            streamed = true;
+            return httpBody;
+        }
+        if (serialized == null) {
+            serialized = Util.serializeRequestBody(httpBody, contentType);
+        }
+        return serialized;
+    }
+}
@@ -0,0 +1,129 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.mosip.biosdk.client.codec.DecodedResponse;
+import io.mosip.biosdk.client.constant.ResponseStatus;
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.utils.RequestTimeouts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gathers requests to the same SDK service URL into batches, so that calls arriving close together are sent
+ * as one request.
+ * <p>
+ * A batch is sent once it holds the maximum number of requests, or when the window opened by its first
+ * request has passed, whichever comes first. The results of the batch request are handed back to the callers
+ * in the order of their requests; if the batch request fails, every call of the batch fails with it. The
+ * batch is sent with the latest deadline of its requests, so that it is not aborted while one of them still
+ * waits for it.
+ *
+ * @param <Q> the type of the requests.
+ * @param <P> the type of the result payloads.
+ * @since 1.3.0
+ */
+final class RequestBatcher<Q, P> {
+    /**
+     * Sends the requests of a batch, one or more, and returns their results in the same order.
+     */
+    @FunctionalInterface
+    interface BatchSender<Q, P> {
+        CompletableFuture<List<DecodedResponse<P>>> send(String sdkServiceUrl, List<Q> requests,
+                                                         RequestTimeouts timeouts) throws Exception;
+    }
+
+    private final BatchSender<Q, P> sender;
+
+    private final Map<String, Batch<Q, P>> pending = new ConcurrentHashMap<>();
+
+    RequestBatcher(BatchSender<Q, P> sender) {
+        this.sender = sender;
+    }
+
+    /**
+     * Adds a request to the open batch of the URL.
+     *
+     * @param sdkServiceUrl The URL the request is sent to.
+     * @param windowNanos   How long the first request of a batch waits for others.
+     * @param maxSize       The number of requests at which a batch is sent at once.
+     * @param request       The request.
+     * @param timeouts      The timeouts of the call of the request.
+     * @return A future completed with the result of the request.
+     */
+    CompletableFuture<DecodedResponse<P>> submit(String sdkServiceUrl, long windowNanos, int maxSize, Q request,
+                                                 RequestTimeouts timeouts) {
+        CompletableFuture<DecodedResponse<P>> result = new CompletableFuture<>();
+        List<Batch<Q, P>> opened = new ArrayList<>(1);
+        List<Batch<Q, P>> full = new ArrayList<>(1);
+        pending.compute(sdkServiceUrl, (url, open) -> {
+            Batch<Q, P> current = open;
+            if (current == null) {
+                current = new Batch<>();
+                opened.add(current);
+            }
+            current.requests.add(request);
+            current.results.add(result);
+            if (current.timeouts == null || timeouts.getRemainingNanos() > current.timeouts.getRemainingNanos()) {
+                current.timeouts = timeouts;
+            }
+            if (current.requests.size() >= maxSize) {
+                full.add(current);
+                return null;
+            }
+            return current;
+        });
+        if (!full.isEmpty()) {
+            send(sdkServiceUrl, full.get(0));
+        } else if (!opened.isEmpty()) {
+            Batch<Q, P> batch = opened.get(0);
+            CompletableFuture.delayedExecutor(windowNanos, TimeUnit.NANOSECONDS).execute(() -> {
+                // Unless the batch filled up and was sent in the meantime
+                if (pending.remove(sdkServiceUrl, batch)) {
+                    send(sdkServiceUrl, batch);
+                }
+            });
+        }
+        return result;
+    }
+
+    private void send(String sdkServiceUrl, Batch<Q, P> batch) {
+        CompletableFuture<List<DecodedResponse<P>>> exchange;
+        try {
+            exchange = sender.send(sdkServiceUrl, batch.requests, batch.timeouts);
+        } catch (Exception e) {
+            batch.results.forEach(result -> result.completeExceptionally(e));
+            return;
+        }
+        exchange.whenComplete((responses, ex) -> {
+            Throwable failure = ex;
+            if (failure == null && (responses == null || responses.size() != batch.results.size())) {
+                failure = new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "",
+                        "Batch response has " + (responses == null ? 0 : responses.size()) + " results for "
+                                + batch.results.size() + " requests");
+            }
+            for (int i = 0; i < batch.results.size(); i++) {
+                if (failure == null) {
+                    batch.results.get(i).complete(responses.get(i));
+                } else {
+                    batch.results.get(i).completeExceptionally(failure);
+                }
+            }
+        });
+    }
+
+    /**
+     * Requests gathered for one URL, only changed while open, under the lock of {@link #pending}.
+     */
+    private static final class Batch<Q, P> {
+        private final List<Q> requests = new ArrayList<>();
+
+        private final List<CompletableFuture<DecodedResponse<P>>> results = new ArrayList<>();
+
+        /** The timeouts of the request with the latest deadline. */
+        private RequestTimeouts timeouts;
+    }
+}
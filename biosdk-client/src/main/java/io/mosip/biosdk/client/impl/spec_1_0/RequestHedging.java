@@ -0,0 +1,144 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when a call is hedged, i.e. sent a second time to another SDK service URL of its format.
+ * <p>
+ * Hedging is off unless {@code hedge.enabled=true}. A call is hedged once it has been outstanding for longer
+ * than the {@code hedge.percentile} (95 by default) of the recent latencies of its operation, measured over
+ * the last {@value #WINDOW} calls and only once {@value #MIN_SAMPLES} have been seen. Each call earns
+ * {@code hedge.budget-percent} (5 by default) percent of a hedge, and a hedge is only sent if a whole one has
+ * been earned, so hedges add at most that share of extra requests. Unused budget is kept for up to
+ * {@value #MAX_BURST} hedges.
+ *
+ * @since 1.3.0
+ */
+final class RequestHedging {
+    private static final String PREFIX = "hedge.";
+
+    /** Number of recent latencies the percentile is taken over. */
+    static final int WINDOW = 256;
+
+    /** Number of latencies needed before calls are hedged. */
+    static final int MIN_SAMPLES = 20;
+
+    /** Number of hedges the unused budget is capped at. */
+    static final int MAX_BURST = 10;
+
+    private static final long HEDGE_COST = 1000;
+
+    /** Hedging that never hedges, in effect until init. */
+    static final RequestHedging DISABLED = new RequestHedging(Map.of());
+
+    private final boolean enabled;
+
+    private final int percentile;
+
+    private final int budgetPercent;
+
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    /** Budget earned, in thousandths of a hedge. */
+    private final AtomicLong budget = new AtomicLong();
+
+    private final AtomicLong hedges = new AtomicLong();
+
+    /**
+     * @param initParams The init parameters, read for the {@code hedge.*} settings.
+     */
+    RequestHedging(Map<String, String> initParams) {
+        this.enabled = "true".equalsIgnoreCase(initParams.getOrDefault(PREFIX + "enabled", "false").trim());
+        this.percentile = Integer.parseInt(initParams.getOrDefault(PREFIX + "percentile", "95").trim());
+        this.budgetPercent = Integer.parseInt(initParams.getOrDefault(PREFIX + "budget-percent", "5").trim());
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns how long a call of the operation may be outstanding before it is hedged, and earns the call's
+     * share of the hedge budget.
+     *
+     * @param operation The operation, e.g. the request path.
+     * @return The delay in nanoseconds, or {@code -1} if too few latencies are known yet.
+     */
+    long startCall(String operation) {
+        budget.getAndUpdate(earned -> Math.min(earned + budgetPercent * HEDGE_COST / 100, MAX_BURST * HEDGE_COST));
+        LatencyWindow window = latencies.get(operation);
+        return window == null ? -1 : window.getThreshold();
+    }
+
+    /**
+     * Takes one hedge from the budget.
+     *
+     * @return {@code true} if the hedge may be sent.
+     */
+    boolean tryHedge() {
+        long earned;
+        do {
+            earned = budget.get();
+            if (earned < HEDGE_COST) {
+                return false;
+            }
+        } while (!budget.compareAndSet(earned, earned - HEDGE_COST));
+        hedges.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Records the latency of a completed call of the operation.
+     */
+    void recordLatency(String operation, long latencyNanos) {
+        latencies.computeIfAbsent(operation, key -> new LatencyWindow(percentile)).record(latencyNanos);
+    }
+
+    /**
+     * The number of hedges sent.
+     */
+    long getHedges() {
+        return hedges.get();
+    }
+
+    /**
+     * Recent latencies of one operation. The percentile is recomputed every few samples rather than on
+     * every call.
+     */
+    private static final class LatencyWindow {
+        private static final int RECOMPUTE_INTERVAL = 16;
+
+        private final int percentile;
+
+        private final long[] samples = new long[WINDOW];
+
+        private int count;
+
+        private int next;
+
+        private volatile long threshold = -1;
+
+        LatencyWindow(int percentile) {
+            this.percentile = percentile;
+        }
+
+        synchronized void record(long latencyNanos) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (count >= MIN_SAMPLES && (count == MIN_SAMPLES || next % RECOMPUTE_INTERVAL == 0)) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+                threshold = sorted[Math.max(0, Math.min(index, count - 1))];
+            }
+        }
+
+        long getThreshold() {
+            return threshold;
+        }
+    }
+}
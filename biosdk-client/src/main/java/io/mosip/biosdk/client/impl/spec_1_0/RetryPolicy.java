@@ -0,0 +1,165 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import com.fasterxml.jackson.core.JacksonException;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Decides whether and when a failed call to an SDK service URL is sent again.
+ * <p>
+ * A call is retried, up to {@code retry.max-attempts} attempts in all (3 by default, {@code 1} switches
+ * retries off), when it got no response because the connection was refused, reset or closed, or when the
+ * response has one of the {@code retry.statuses} (502, 503 and 504 by default). Timeouts are not retried,
+ * since the service may still be working on the request. Retries wait for an exponential backoff with full
+ * jitter: a random delay of up to {@code retry.initial-backoff-ms} (50), doubled on each retry up to
+ * {@code retry.max-backoff-ms} (1000).
+ * <p>
+ * Retries are taken from a token bucket, so that they cannot multiply the load on a failing service: each
+ * call adds {@code retry.budget-percent} (10 by default) percent of a token, each retry takes a whole token,
+ * and the bucket holds at most {@value #MAX_TOKENS} tokens, which it starts with. Once the bucket is empty,
+ * failures are returned at once.
+ * <p>
+ * Each call carries a {@code retry.idempotency-header} ({@code Idempotency-Key} by default, empty for none)
+ * with a random key, the same for all attempts of the call, so that the service can recognize a request it
+ * has already seen.
+ *
+ * @since 1.3.0
+ */
+final class RetryPolicy {
+    private static final String PREFIX = "retry.";
+
+    /** Number of retries the bucket holds. */
+    static final int MAX_TOKENS = 10;
+
+    private static final long TOKEN = 1000;
+
+    /** Policy that never retries, in effect until init. */
+    static final RetryPolicy DISABLED = new RetryPolicy(Map.of(PREFIX + "max-attempts", "1"));
+
+    private final int maxAttempts;
+
+    private final long initialBackoffNanos;
+
+    private final long maxBackoffNanos;
+
+    private final int budgetPercent;
+
+    private final Set<Integer> statuses;
+
+    private final String idempotencyHeader;
+
+    /** Tokens in the bucket, in thousandths of a retry. */
+    private final AtomicLong tokens = new AtomicLong(MAX_TOKENS * TOKEN);
+
+    private final AtomicLong retries = new AtomicLong();
+
+    /**
+     * @param initParams The init parameters, read for the {@code retry.*} settings.
+     */
+    RetryPolicy(Map<String, String> initParams) {
+        this.maxAttempts = Integer.parseInt(initParams.getOrDefault(PREFIX + "max-attempts", "3").trim());
+        this.initialBackoffNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.parseLong(initParams.getOrDefault(PREFIX + "initial-backoff-ms", "50").trim()));
+        this.maxBackoffNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.parseLong(initParams.getOrDefault(PREFIX + "max-backoff-ms", "1000").trim()));
+        this.budgetPercent = Integer.parseInt(initParams.getOrDefault(PREFIX + "budget-percent", "10").trim());
+        this.statuses = Arrays.stream(initParams.getOrDefault(PREFIX + "statuses", "502,503,504").split(","))
+                .map(String::trim)
+                .filter(status -> !status.isEmpty())
+                .map(Integer::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+        this.idempotencyHeader = initParams.getOrDefault(PREFIX + "idempotency-header", "Idempotency-Key").trim();
+    }
+
+    boolean isEnabled() {
+        return maxAttempts > 1;
+    }
+
+    /**
+     * Returns the headers of a new call, with its idempotency key, and earns the call's share of the retry
+     * budget.
+     *
+     * @param headers The headers of the call.
+     * @return The headers to send with every attempt of the call.
+     */
+    Map<String, String> startCall(Map<String, String> headers) {
+        if (!isEnabled()) {
+            return headers;
+        }
+        tokens.getAndUpdate(available -> Math.min(available + budgetPercent * TOKEN / 100, MAX_TOKENS * TOKEN));
+        if (idempotencyHeader.isEmpty()) {
+            return headers;
+        }
+        Map<String, String> callHeaders = new HashMap<>(headers);
+        callHeaders.put(idempotencyHeader, UUID.randomUUID().toString());
+        return callHeaders;
+    }
+
+    /**
+     * Decides whether a failed attempt is retried, and takes the retry from the budget if so.
+     *
+     * @param attempt    The number of the attempt that failed, from {@code 1}.
+     * @param failure    The exception the attempt failed with.
+     * @param httpStatus The HTTP status of the response, {@code 0} if none was seen.
+     * @return The delay before the retry in nanoseconds, or {@code -1} if the failure is final.
+     */
+    long retryDelay(int attempt, Throwable failure, int httpStatus) {
+        if (attempt >= maxAttempts || !isRetryable(failure, httpStatus) || !tryTakeToken()) {
+            return -1;
+        }
+        retries.incrementAndGet();
+        long backoff = initialBackoffNanos << Math.min(attempt - 1, 30);
+        if (backoff <= 0 || backoff > maxBackoffNanos) {
+            backoff = maxBackoffNanos;
+        }
+        return backoff <= 0 ? 0 : ThreadLocalRandom.current().nextLong(backoff + 1);
+    }
+
+    /**
+     * The number of retries sent.
+     */
+    long getRetries() {
+        return retries.get();
+    }
+
+    private boolean isRetryable(Throwable failure, int httpStatus) {
+        if (httpStatus > 0) {
+            return statuses.contains(httpStatus);
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpStatusCodeException statusCodeException) {
+                return statuses.contains(statusCodeException.getStatusCode().value());
+            }
+            // Timeouts and malformed responses are not transient connection failures
+            if (cause instanceof InterruptedIOException || cause instanceof JacksonException) {
+                return false;
+            }
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean tryTakeToken() {
+        long available;
+        do {
+            available = tokens.get();
+            if (available < TOKEN) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(available, available - TOKEN));
+        return true;
+    }
+}
@@ -0,0 +1,177 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The SDK service URLs calls are routed to, compiled by init from the {@code format.url.<format>} parameters.
+ * <p>
+ * Routing a call looks up the {@code <MODALITY>.format} flag and then the URLs of the format, with
+ * precomputed keys and a case-insensitive map, so that it allocates nothing. The URIs of the service
+ * endpoints and the URLs a call to each URL may be hedged to are computed up front as well. Calls are only
+ * routed to the URLs of a format not initialized yet while none of them is. Instances are immutable and
+ * replaced as a whole by init, and whenever a URL is initialized.
+ *
+ * @since 1.3.0
+ */
+final class RoutingTable {
+    /** Table routing nowhere, in effect until init. */
+    static final RoutingTable EMPTY = new RoutingTable(Map.of(), Map.of(), Set.of());
+
+    private static final String FORMAT_SUFFIX = ".format";
+
+    private static final String DEFAULT = "default";
+
+    private static final List<String> ENDPOINT_PATHS = List.of("/check-quality", "/check-quality-batch", "/match",
+            "/match-gallery", "/register-gallery", "/extract-template", "/convert-format", "/segment");
+
+    private static final BiometricType[] MODALITIES = BiometricType.values();
+
+    /** The flag naming the format of each modality, by ordinal, as spelled in the API and in lower case. */
+    private static final String[][] FORMAT_KEYS = new String[MODALITIES.length][];
+
+    static {
+        for (BiometricType modality : MODALITIES) {
+            String key = modality.name() + FORMAT_SUFFIX;
+            FORMAT_KEYS[modality.ordinal()] = new String[] { key, key.toLowerCase(Locale.ROOT) };
+        }
+    }
+
+    private final Map<String, List<String>> urlsByFormat = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    private final List<String> defaultUrls;
+
+    private final Map<String, Map<String, String>> endpointUris = new HashMap<>();
+
+    private final Map<List<String>, Map<String, List<String>>> hedgeUrls = new IdentityHashMap<>();
+
+    /**
+     * @param sdkServiceUrls The URLs of each format, with those of the {@code default} format.
+     * @param sdkEndpoints   The options of the URLs; URLs without any use the defaults.
+     * @param uninitialized  The URLs not initialized yet.
+     */
+    RoutingTable(Map<String, List<String>> sdkServiceUrls, Map<String, SdkEndpoint> sdkEndpoints,
+                 Set<String> uninitialized) {
+        sdkServiceUrls.forEach((format, urls) -> urlsByFormat.putIfAbsent(format, initialized(urls, uninitialized)));
+        this.defaultUrls = sdkServiceUrls.containsKey(DEFAULT) ? urlsByFormat.get(DEFAULT) : null;
+        for (List<String> urls : urlsByFormat.values()) {
+            Map<String, List<String>> hedgeUrlsByPrimary = new HashMap<>();
+            for (String primaryUrl : urls) {
+                SdkEndpoint primaryEndpoint = sdkEndpoints.getOrDefault(primaryUrl, SdkEndpoint.DEFAULTS);
+                List<String> candidates = new ArrayList<>();
+                for (String url : urls) {
+                    if (!url.equals(primaryUrl)
+                            && sdkEndpoints.getOrDefault(url, SdkEndpoint.DEFAULTS).encodesLike(primaryEndpoint)) {
+                        candidates.add(url);
+                    }
+                }
+                hedgeUrlsByPrimary.put(primaryUrl, List.copyOf(candidates));
+                endpointUris.computeIfAbsent(primaryUrl, RoutingTable::endpointUris);
+            }
+            hedgeUrls.put(urls, hedgeUrlsByPrimary);
+        }
+    }
+
+    /**
+     * The URLs of the format the flags name for a modality, or of the default format if they name none or
+     * one without URLs. Flag keys and formats are matched ignoring case.
+     *
+     * @return The URLs, {@code null} before init.
+     */
+    List<String> getUrls(BiometricType modality, Map<String, String> flags) {
+        if (modality != null && flags != null && !flags.isEmpty()) {
+            String format = getFormat(FORMAT_KEYS[modality.ordinal()], flags);
+            if (format != null) {
+                List<String> urls = urlsByFormat.get(format);
+                if (urls != null) {
+                    return urls;
+                }
+            }
+        }
+        return defaultUrls;
+    }
+
+    /**
+     * The URLs of the default format, {@code null} before init.
+     */
+    List<String> getDefaultUrls() {
+        return defaultUrls;
+    }
+
+    /**
+     * The URLs a call to a URL of a format may be hedged to: the other URLs of the format with the same
+     * request encoding.
+     *
+     * @param urls       The URLs of the format, as returned by this table.
+     * @param primaryUrl The URL the call was sent to first.
+     * @return The candidate URLs, {@code null} if the URLs are not from this table.
+     */
+    List<String> getHedgeUrls(List<String> urls, String primaryUrl) {
+        Map<String, List<String>> hedgeUrlsByPrimary = hedgeUrls.get(urls);
+        return hedgeUrlsByPrimary == null ? null : hedgeUrlsByPrimary.get(primaryUrl);
+    }
+
+    /**
+     * The URI of an endpoint of a URL.
+     *
+     * @param sdkServiceUrl The SDK service URL.
+     * @param path          The endpoint path, such as {@code /match}.
+     * @return The URI, precomputed for the URLs and endpoints known to this table.
+     */
+    String getUri(String sdkServiceUrl, String path) {
+        Map<String, String> uris = endpointUris.get(sdkServiceUrl);
+        String uri = uris == null ? null : uris.get(path);
+        return uri != null ? uri : sdkServiceUrl + path;
+    }
+
+    /**
+     * Whether a flag key names a modality, such as {@code fingerTemplate} for {@link BiometricType#FINGER},
+     * ignoring case.
+     */
+    static boolean mentions(String key, BiometricType modality) {
+        String name = modality.name();
+        for (int i = 0, last = key.length() - name.length(); i <= last; i++) {
+            if (key.regionMatches(true, i, name, 0, name.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getFormat(String[] formatKeys, Map<String, String> flags) {
+        for (String formatKey : formatKeys) {
+            String format = flags.get(formatKey);
+            if (format != null) {
+                return format;
+            }
+        }
+        for (Map.Entry<String, String> flag : flags.entrySet()) {
+            if (formatKeys[0].equalsIgnoreCase(flag.getKey()) && flag.getValue() != null) {
+                return flag.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static List<String> initialized(List<String> urls, Set<String> uninitialized) {
+        List<String> initialized = new ArrayList<>(urls);
+        initialized.removeAll(uninitialized);
+        return List.copyOf(initialized.isEmpty() ? urls : initialized);
+    }
+
+    private static Map<String, String> endpointUris(String sdkServiceUrl) {
+        Map<String, String> uris = new HashMap<>();
+        for (String path : ENDPOINT_PATHS) {
+            uris.put(path, sdkServiceUrl + path);
+        }
+        return uris;
+    }
+}
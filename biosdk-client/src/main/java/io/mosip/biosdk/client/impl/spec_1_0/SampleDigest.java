@@ -0,0 +1,107 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SHA-256 digest of the BDBs of a sample, the modalities of a call and its flags but its deadline, identifying
+ * calls whose results can stand in for each other. The flags also select the SDK service format, so calls with
+ * the same digest go to the same service.
+ *
+ * @since 1.3.0
+ */
+final class SampleDigest {
+    private final byte[] digest;
+
+    private final int hash;
+
+    private SampleDigest(byte[] digest) {
+        this.digest = digest;
+        this.hash = Arrays.hashCode(digest);
+    }
+
+    /**
+     * Computes the digest of a call.
+     *
+     * @param sample     The sample of the call.
+     * @param modalities The modalities of the call.
+     * @param flags      The flags of the call.
+     * @return The digest.
+     */
+    static SampleDigest of(BiometricRecord sample, List<BiometricType> modalities, Map<String, String> flags) {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        List<BIR> segments = sample == null ? null : sample.getSegments();
+        if (segments != null) {
+            for (BIR segment : segments) {
+                byte[] bdb = segment == null ? null : segment.getBdb();
+                update(messageDigest, bdb == null ? -1 : bdb.length);
+                if (bdb != null) {
+                    messageDigest.update(bdb);
+                }
+            }
+        }
+        update(messageDigest, -2);
+        if (modalities != null) {
+            for (BiometricType modality : modalities) {
+                update(messageDigest, String.valueOf(modality));
+            }
+        }
+        update(messageDigest, -3);
+        if (flags != null) {
+            for (Map.Entry<String, String> flag : new TreeMap<>(flags).entrySet()) {
+                if (!CallTimeouts.DEADLINE_FLAG.equals(flag.getKey())) {
+                    update(messageDigest, flag.getKey());
+                    update(messageDigest, String.valueOf(flag.getValue()));
+                }
+            }
+        }
+        return new SampleDigest(messageDigest.digest());
+    }
+
+    /**
+     * One of the 32-bit words of the digest, which are uniformly distributed and can serve as independent
+     * hashes.
+     *
+     * @param index The index of the word, from {@code 0} to {@code 7}.
+     */
+    int word(int index) {
+        int offset = index * 4;
+        return (digest[offset] & 0xff) << 24 | (digest[offset + 1] & 0xff) << 16
+                | (digest[offset + 2] & 0xff) << 8 | digest[offset + 3] & 0xff;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof SampleDigest sampleDigest && Arrays.equals(digest, sampleDigest.digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    private static void update(MessageDigest messageDigest, int value) {
+        messageDigest.update(new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8),
+                (byte) value});
+    }
+
+    private static void update(MessageDigest messageDigest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        update(messageDigest, bytes.length);
+        messageDigest.update(bytes);
+    }
+}
@@ -0,0 +1,236 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.mosip.biosdk.client.codec.Compression;
+import io.mosip.biosdk.client.codec.RequestTransport;
+import io.mosip.biosdk.client.codec.WireFormat;
+
+import java.util.Objects;
+
+/**
+ * Options of one SDK service URL, resolved from the {@code format.<option>.<format>} init parameters.
+ * Instances are immutable and equal if all their options are.
+ * <ul>
+ *     <li>{@code wire}: {@code cbor} or {@code smile} offers a binary envelope to the service at init; it is
+ *     used if the service answers in it, JSON otherwise.</li>
+ *     <li>{@code transport}: {@code multipart} sends the BDBs in binary parts, see
+ *     {@link io.mosip.biosdk.client.codec.MultipartRequest}.</li>
+ *     <li>{@code compression}: {@code gzip} compresses requests whose estimated size reaches
+ *     {@code compression-threshold} bytes (16 KiB by default).</li>
+ *     <li>{@code match-shard-bytes} and {@code match-shard-records}: the estimated size or number of gallery
+ *     records up to which a match request is filled; the rest of the gallery goes into further requests,
+ *     sent concurrently.</li>
+ *     <li>{@code quality-batch-window-us}: how long quality checks to a URL are gathered into one batch
+ *     request of up to {@code quality-batch-size} checks (16 by default), if the service advertises
+ *     batching.</li>
+ *     <li>{@code bdb-references}: {@code true} writes a BDB repeated in an envelope once, if the service
+ *     advertises it, see {@link io.mosip.biosdk.client.codec.BdbReferences}.</li>
+ * </ul>
+ *
+ * @since 1.3.0
+ */
+final class SdkEndpoint {
+    /** Estimated request size, in bytes, from which compression applies unless configured otherwise. */
+    static final long DEFAULT_COMPRESSION_THRESHOLD = 16 * 1024L;
+
+    /** Number of quality checks up to which a batch request is filled unless configured otherwise. */
+    static final int DEFAULT_QUALITY_BATCH_SIZE = 16;
+
+    /** Options used for URLs without any configured option. */
+    static final SdkEndpoint DEFAULTS = new SdkEndpoint(WireFormat.JSON, RequestTransport.ENVELOPE, Compression.NONE,
+            DEFAULT_COMPRESSION_THRESHOLD, 0, 0, 0, 0, false);
+
+    private final WireFormat wireFormat;
+
+    private final RequestTransport transport;
+
+    private final Compression compression;
+
+    private final long compressionThreshold;
+
+    private final long matchShardBytes;
+
+    private final int matchShardRecords;
+
+    private final long qualityBatchWindowNanos;
+
+    private final int qualityBatchSize;
+
+    private final boolean bdbReferences;
+
+    private SdkEndpoint(WireFormat wireFormat, RequestTransport transport, Compression compression,
+                        long compressionThreshold, long matchShardBytes, int matchShardRecords,
+                        long qualityBatchWindowNanos, int qualityBatchSize, boolean bdbReferences) {
+        this.wireFormat = wireFormat;
+        this.transport = transport;
+        this.compression = compression;
+        this.compressionThreshold = compressionThreshold;
+        this.matchShardBytes = matchShardBytes;
+        this.matchShardRecords = matchShardRecords;
+        this.qualityBatchWindowNanos = qualityBatchWindowNanos;
+        this.qualityBatchSize = qualityBatchSize;
+        this.bdbReferences = bdbReferences;
+    }
+
+    /**
+     * The envelope format; before init this is the requested format, afterwards the negotiated one.
+     */
+    WireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+    RequestTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * The coding of request bodies whose estimated size reaches {@link #getCompressionThreshold()}.
+     */
+    Compression getCompression() {
+        return compression;
+    }
+
+    long getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * The estimated size, in bytes, up to which a match request is filled with gallery records before the
+     * rest of the gallery goes into further requests; {@code 0} if not limited.
+     */
+    long getMatchShardBytes() {
+        return matchShardBytes;
+    }
+
+    /**
+     * The number of gallery records up to which a match request is filled; {@code 0} if not limited.
+     */
+    int getMatchShardRecords() {
+        return matchShardRecords;
+    }
+
+    boolean isMatchSharded() {
+        return matchShardBytes > 0 || matchShardRecords > 0;
+    }
+
+    /**
+     * How long a quality check waits for others to the same URL to be sent with it in one batch request.
+     */
+    long getQualityBatchWindowNanos() {
+        return qualityBatchWindowNanos;
+    }
+
+    /**
+     * The number of quality checks up to which a batch request is filled; before init the requested number,
+     * afterwards the one agreed with the service, {@code 0} if quality checks are not batched.
+     */
+    int getQualityBatchSize() {
+        return qualityBatchSize;
+    }
+
+    boolean isQualityBatched() {
+        return qualityBatchWindowNanos > 0 && qualityBatchSize > 1;
+    }
+
+    /**
+     * Whether repeated BDBs are written as references in request envelopes; before init whether this is
+     * requested, afterwards whether the service also advertises it. See
+     * {@link io.mosip.biosdk.client.codec.BdbReferences}.
+     */
+    boolean isBdbReferenced() {
+        return bdbReferences;
+    }
+
+    /**
+     * Whether a request body built for this URL can be sent as is to a URL with the other options.
+     */
+    boolean encodesLike(SdkEndpoint other) {
+        return wireFormat == other.wireFormat && transport == other.transport && compression == other.compression
+                && compressionThreshold == other.compressionThreshold && bdbReferences == other.bdbReferences;
+    }
+
+    /**
+     * Whether a request of the given estimated size is compressed.
+     */
+    boolean isCompressed(long estimatedSize) {
+        return compression != Compression.NONE && estimatedSize >= compressionThreshold;
+    }
+
+    SdkEndpoint withWireFormat(WireFormat wireFormat) {
+        return new SdkEndpoint(wireFormat, transport, compression, compressionThreshold, matchShardBytes,
+                matchShardRecords, qualityBatchWindowNanos, qualityBatchSize, bdbReferences);
+    }
+
+    SdkEndpoint withTransport(RequestTransport transport) {
+        return new SdkEndpoint(wireFormat, transport, compression, compressionThreshold, matchShardBytes,
+                matchShardRecords, qualityBatchWindowNanos, qualityBatchSize, bdbReferences);
+    }
+
+    SdkEndpoint withCompression(Compression compression, long compressionThreshold) {
+        return new SdkEndpoint(wireFormat, transport, compression, compressionThreshold, matchShardBytes,
+                matchShardRecords, qualityBatchWindowNanos, qualityBatchSize, bdbReferences);
+    }
+
+    SdkEndpoint withMatchSharding(long matchShardBytes, int matchShardRecords) {
+        return new SdkEndpoint(wireFormat, transport, compression, compressionThreshold, matchShardBytes,
+                matchShardRecords, qualityBatchWindowNanos, qualityBatchSize, bdbReferences);
+    }
+
+    SdkEndpoint withQualityBatching(long qualityBatchWindowNanos, int qualityBatchSize) {
+        return new SdkEndpoint(wireFormat, transport, compression, compressionThreshold, matchShardBytes,
+                matchShardRecords, qualityBatchWindowNanos, qualityBatchSize, bdbReferences);
+    }
+
+    SdkEndpoint withBdbReferences(boolean bdbReferences) {
+        return new SdkEndpoint(wireFormat, transport, compression, compressionThreshold, matchShardBytes,
+                matchShardRecords, qualityBatchWindowNanos, qualityBatchSize, bdbReferences);
+    }
+
+    /**
+     * Combines the options of two formats sharing a URL; a non-default option of either one applies.
+     *
+     * @param other The options of another format for the same URL.
+     * @return The combined options.
+     */
+    SdkEndpoint merge(SdkEndpoint other) {
+        SdkEndpoint merged = this;
+        if (!wireFormat.isBinary() && other.wireFormat.isBinary()) {
+            merged = merged.withWireFormat(other.wireFormat);
+        }
+        if (transport == RequestTransport.ENVELOPE) {
+            merged = merged.withTransport(other.transport);
+        }
+        if (compression == Compression.NONE) {
+            merged = merged.withCompression(other.compression, other.compressionThreshold);
+        }
+        if (!isMatchSharded()) {
+            merged = merged.withMatchSharding(other.matchShardBytes, other.matchShardRecords);
+        }
+        if (!isQualityBatched()) {
+            merged = merged.withQualityBatching(other.qualityBatchWindowNanos, other.qualityBatchSize);
+        }
+        if (!bdbReferences) {
+            merged = merged.withBdbReferences(other.bdbReferences);
+        }
+        return merged;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SdkEndpoint other)) {
+            return false;
+        }
+        return encodesLike(other) && matchShardBytes == other.matchShardBytes
+                && matchShardRecords == other.matchShardRecords
+                && qualityBatchWindowNanos == other.qualityBatchWindowNanos
+                && qualityBatchSize == other.qualityBatchSize;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(wireFormat, transport, compression, compressionThreshold, matchShardBytes,
+                matchShardRecords, qualityBatchWindowNanos, qualityBatchSize, bdbReferences);
+    }
+}
@@ -0,0 +1,216 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.biosdk.client.utils.Util;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Micrometer metrics of the calls to the SDK service URLs, recorded once a {@link MeterRegistry} is set.
+ * <p>
+ * Each exchange with a URL, retries and hedges included, is timed by {@code biosdk.client.requests}, with
+ * the 50th, 95th and 99th percentiles, and the bytes of its request and response bodies are recorded by
+ * {@code biosdk.client.request.size} and {@code biosdk.client.response.size}; all are tagged with the
+ * {@code operation}, e.g. {@code check-quality} or {@code init}, and the {@code url}, and the timer with the
+ * {@code outcome}: {@code success}, {@code error}, or {@code cancelled}. Both sizes are measured on the wire,
+ * compressed when the body is: a request after it is compressed, a response before it is decompressed. A
+ * failed exchange is also counted by {@code biosdk.client.errors}, tagged with its {@code cause}:
+ * {@code http-<status>} for an unsuccessful status, {@code TimeoutException} for an expired deadline,
+ * otherwise the class of the root cause. {@code biosdk.client.match.gallery.records} records the records of
+ * each match gallery, and the {@code biosdk.client.connections.leased}, {@code .pending} and
+ * {@code .available} gauges read the connection pools of the blocking and non-blocking HTTP clients, tagged
+ * {@code client}.
+ * <p>
+ * Without a registry nothing is timed, counted or allocated per call.
+ *
+ * @since 1.3.0
+ */
+final class SdkMetrics {
+    private static final String PREFIX = "biosdk.client.";
+
+    /** No metrics, in effect until a registry is set. */
+    static final SdkMetrics DISABLED = new SdkMetrics(null);
+
+    private final MeterRegistry registry;
+
+    /**
+     * @param registry The registry the meters are registered with, {@code null} for no metrics.
+     */
+    SdkMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        if (registry != null) {
+            registerPoolGauges("blocking", Util::getConnectionPoolStats);
+            registerPoolGauges("non-blocking", Util::getAsyncConnectionPoolStats);
+        }
+    }
+
+    boolean isEnabled() {
+        return registry != null;
+    }
+
+    /**
+     * Starts timing an exchange with a URL.
+     *
+     * @param sdkServiceUrl The SDK service base URL.
+     * @param path          The endpoint path, naming the operation.
+     * @return The exchange, {@link Exchange#NONE} without a registry.
+     */
+    Exchange start(String sdkServiceUrl, String path) {
+        return registry == null ? Exchange.NONE : new Exchange(this, sdkServiceUrl, operation(path));
+    }
+
+    /**
+     * Records the size of a match gallery.
+     *
+     * @param path    The endpoint path of the match.
+     * @param gallery The gallery, counted as empty if {@code null}.
+     */
+    void recordGallery(String path, BiometricRecord[] gallery) {
+        if (registry == null) {
+            return;
+        }
+        DistributionSummary.builder(PREFIX + "match.gallery.records")
+                .tag("operation", operation(path))
+                .register(registry)
+                .record(gallery == null ? 0 : gallery.length);
+    }
+
+    private void registerPoolGauges(String client, Supplier<PoolStats> stats) {
+        registerPoolGauge("leased", client, stats, PoolStats::getLeased);
+        registerPoolGauge("pending", client, stats, PoolStats::getPending);
+        registerPoolGauge("available", client, stats, PoolStats::getAvailable);
+    }
+
+    private void registerPoolGauge(String name, String client, Supplier<PoolStats> stats,
+                                   ToIntFunction<PoolStats> value) {
+        Gauge.builder(PREFIX + "connections." + name, () -> value.applyAsInt(stats.get()))
+                .tag("client", client)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    private static String operation(String path) {
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    /**
+     * The cause a failed exchange is counted under.
+     */
+    static String causeOf(Throwable failure, int httpStatus) {
+        if (httpStatus != 0 && !HttpStatusCode.valueOf(httpStatus).is2xxSuccessful()) {
+            return "http-" + httpStatus;
+        }
+        Throwable cause = failure;
+        for (Throwable next = failure; next != null; next = next.getCause()) {
+            if (next instanceof TimeoutException) {
+                return TimeoutException.class.getSimpleName();
+            }
+            // Rejected by the error handler of the RestTemplate before the status was recorded
+            if (next instanceof RestClientResponseException responseException) {
+                return "http-" + responseException.getStatusCode().value();
+            }
+            cause = next;
+        }
+        return cause.getClass().getSimpleName();
+    }
+
+    /**
+     * One exchange with an SDK service URL being timed, counting the bytes of its bodies.
+     */
+    static final class Exchange {
+        /** An exchange not recorded. */
+        static final Exchange NONE = new Exchange(null, null, null);
+
+        private final SdkMetrics metrics;
+
+        private final String sdkServiceUrl;
+
+        private final String operation;
+
+        private final long startTime;
+
+        private final AtomicLong sentBytes;
+
+        private final AtomicLong receivedBytes;
+
+        private Exchange(SdkMetrics metrics, String sdkServiceUrl, String operation) {
+            this.metrics = metrics;
+            this.sdkServiceUrl = sdkServiceUrl;
+            this.operation = operation;
+            this.startTime = metrics == null ? 0 : System.nanoTime();
+            this.sentBytes = metrics == null ? null : new AtomicLong();
+            this.receivedBytes = metrics == null ? null : new AtomicLong();
+        }
+
+        /**
+         * The counter the bytes of the request body are added to, for {@link Util#restRequest} and
+         * {@link Util#restRequestAsync}.
+         *
+         * @return The counter, {@code null} if the exchange is not recorded.
+         */
+        AtomicLong getSentBytes() {
+            return sentBytes;
+        }
+
+        /**
+         * The counter the bytes of the response body are added to, for {@link Util#restRequest} and
+         * {@link Util#restRequestAsync}.
+         *
+         * @return The counter, {@code null} if the exchange is not recorded.
+         */
+        AtomicLong getReceivedBytes() {
+            return receivedBytes;
+        }
+
+        /**
+         * Records the exchange once it completed.
+         *
+         * @param failure    The failure of the exchange, {@code null} if it succeeded.
+         * @param httpStatus The HTTP status of the response, {@code 0} if there was none.
+         */
+        void stop(Throwable failure, int httpStatus) {
+            if (metrics == null) {
+                return;
+            }
+            long duration = System.nanoTime() - startTime;
+            MeterRegistry registry = metrics.registry;
+            // An exchange cancelled, e.g. a hedge that lost, did not fail
+            boolean cancelled = failure instanceof CancellationException;
+            Timer.builder(PREFIX + "requests")
+                    .tag("operation", operation)
+                    .tag("url", sdkServiceUrl)
+                    .tag("outcome", failure == null ? "success" : cancelled ? "cancelled" : "error")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry)
+                    .record(duration, TimeUnit.NANOSECONDS);
+            DistributionSummary.builder(PREFIX + "request.size")
+                    .baseUnit("bytes")
+                    .tag("operation", operation)
+                    .tag("url", sdkServiceUrl)
+                    .register(registry)
+                    .record(sentBytes.get());
+            DistributionSummary.builder(PREFIX + "response.size")
+                    .baseUnit("bytes")
+                    .tag("operation", operation)
+                    .tag("url", sdkServiceUrl)
+                    .register(registry)
+                    .record(receivedBytes.get());
+            if (failure != null && !cancelled) {
+                registry.counter(PREFIX + "errors", "operation", operation, "url", sdkServiceUrl,
+                        "cause", causeOf(failure, httpStatus)).increment();
+            }
+        }
+    }
+}
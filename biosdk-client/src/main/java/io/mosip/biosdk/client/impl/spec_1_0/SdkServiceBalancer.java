@@ -0,0 +1,125 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.mosip.biosdk.client.constant.ResponseStatus;
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Spreads calls over the SDK service URLs configured for a format, by the number of requests each one has
+ * in flight.
+ * <p>
+ * A URL is chosen with the power of two choices: of two URLs drawn at random, the one with fewer requests in
+ * flight is taken. With two URLs this is always the least loaded one; with more it avoids a scan of all
+ * counters while still steering away from slow replicas. The counters are per URL, shared by all formats
+ * served by it.
+ * <p>
+ * URLs ejected by the {@link SdkServiceHealth} are left out; if all URLs of a format are ejected, calls fail
+ * at once instead of waiting for a connection or response timeout.
+ *
+ * @since 1.3.0
+ */
+final class SdkServiceBalancer {
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    private volatile SdkServiceHealth health = SdkServiceHealth.DISABLED;
+
+    void setHealth(SdkServiceHealth health) {
+        this.health = health;
+    }
+
+    /**
+     * Makes the given URLs known, so that they are reported before their first request.
+     */
+    void register(List<String> sdkServiceUrls) {
+        sdkServiceUrls.forEach(this::counter);
+    }
+
+    /**
+     * Chooses the URL to send a request to.
+     *
+     * @param sdkServiceUrls The URLs configured for the format, not empty.
+     * @return One of the URLs.
+     * @throws BioSdkClientException if all the URLs are ejected.
+     */
+    String choose(List<String> sdkServiceUrls) {
+        SdkServiceHealth currentHealth = health;
+        // Only a list with ejected URLs is copied, all available is the common case
+        for (int i = 0, size = sdkServiceUrls.size(); i < size; i++) {
+            if (!currentHealth.isAvailable(sdkServiceUrls.get(i))) {
+                return chooseAvailable(sdkServiceUrls, currentHealth);
+            }
+        }
+        return chooseLeastLoaded(sdkServiceUrls);
+    }
+
+    private String chooseAvailable(List<String> sdkServiceUrls, SdkServiceHealth currentHealth) {
+        List<String> candidates = sdkServiceUrls.stream().filter(currentHealth::isAvailable).collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "",
+                    "No available SDK service URL, ejected: " + sdkServiceUrls);
+        }
+        return chooseLeastLoaded(candidates);
+    }
+
+    private String chooseLeastLoaded(List<String> sdkServiceUrls) {
+        int size = sdkServiceUrls.size();
+        if (size == 1) {
+            return sdkServiceUrls.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        String firstUrl = sdkServiceUrls.get(first);
+        String secondUrl = sdkServiceUrls.get(second);
+        return counter(secondUrl).get() < counter(firstUrl).get() ? secondUrl : firstUrl;
+    }
+
+    /**
+     * Counts a request sent to the URL, until {@link #finished(String)} is called for it.
+     */
+    void started(String sdkServiceUrl) {
+        counter(sdkServiceUrl).incrementAndGet();
+    }
+
+    void finished(String sdkServiceUrl) {
+        counter(sdkServiceUrl).decrementAndGet();
+    }
+
+    /**
+     * The number of requests in flight to a URL.
+     */
+    int getInFlight(String sdkServiceUrl) {
+        AtomicInteger counter = inFlight.get(sdkServiceUrl);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * Drops the counter of a URL no longer configured, once it has no request in flight.
+     */
+    void forget(String sdkServiceUrl) {
+        inFlight.computeIfPresent(sdkServiceUrl, (url, counter) -> counter.get() == 0 ? null : counter);
+    }
+
+    /**
+     * The number of requests in flight per URL.
+     */
+    Map<String, Integer> getInFlightRequests() {
+        Map<String, Integer> snapshot = new LinkedHashMap<>();
+        inFlight.forEach((sdkServiceUrl, count) -> snapshot.put(sdkServiceUrl, count.get()));
+        return snapshot;
+    }
+
+    private AtomicInteger counter(String sdkServiceUrl) {
+        return inFlight.computeIfAbsent(sdkServiceUrl, url -> new AtomicInteger());
+    }
+}
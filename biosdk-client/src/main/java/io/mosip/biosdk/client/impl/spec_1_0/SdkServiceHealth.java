@@ -0,0 +1,242 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.mosip.biosdk.client.config.LoggerConfig;
+import io.mosip.biosdk.client.utils.RequestTimeouts;
+import io.mosip.biosdk.client.utils.Util;
+import io.mosip.kernel.core.logger.spi.Logger;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static io.mosip.biosdk.client.constant.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.client.constant.AppConstants.LOGGER_SESSIONID;
+
+/**
+ * Health of the SDK service URLs, from the outcome of the calls sent to them.
+ * <p>
+ * A URL is ejected from routing when the last {@code endpoint.ejection.consecutive-failures} calls to it
+ * failed, or when at least half a window of {@code endpoint.ejection.window} calls has been seen and the
+ * share of failures in it reaches {@code endpoint.ejection.failure-rate} percent. A failure is a call that
+ * got no response at all (connection refused or reset, connect or read timeout), a 5xx response, or, if
+ * {@code endpoint.ejection.slow-call-ms} is set, any call slower than that. Responses in which the service
+ * reports an error for the request itself do not count against the URL, nor do calls that failed because
+ * their own deadline expired, see {@link CallTimeouts}.
+ * <p>
+ * An ejected URL is probed every {@code endpoint.ejection.probe-interval-ms} with a {@code GET} of its base
+ * path on the non-blocking HTTP client, and reinstated with a fresh window as soon as it answers with any
+ * status below 500. Ejection is off by default and is switched on with
+ * {@code endpoint.ejection.enabled=true}.
+ *
+ * @since 1.3.0
+ */
+final class SdkServiceHealth {
+    private static Logger logger = LoggerConfig.logConfig(SdkServiceHealth.class);
+
+    private static final String PREFIX = "endpoint.ejection.";
+
+    /** Health that never ejects a URL, in effect until init. */
+    static final SdkServiceHealth DISABLED = new SdkServiceHealth(Map.of(PREFIX + "enabled", "false"));
+
+    private final boolean enabled;
+
+    private final int consecutiveFailures;
+
+    private final int window;
+
+    private final int failureRate;
+
+    private final long slowCallNanos;
+
+    private final long probeIntervalMillis;
+
+    private final Map<String, UrlHealth> urls = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
+    /**
+     * @param initParams The init parameters, read for the {@code endpoint.ejection.*} settings.
+     */
+    SdkServiceHealth(Map<String, String> initParams) {
+        this.enabled = Boolean.parseBoolean(initParams.getOrDefault(PREFIX + "enabled", "false").trim());
+        this.consecutiveFailures = Integer.parseInt(initParams.getOrDefault(PREFIX + "consecutive-failures", "5").trim());
+        this.window = Integer.parseInt(initParams.getOrDefault(PREFIX + "window", "20").trim());
+        this.failureRate = Integer.parseInt(initParams.getOrDefault(PREFIX + "failure-rate", "50").trim());
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.parseLong(initParams.getOrDefault(PREFIX + "slow-call-ms", "0").trim()));
+        this.probeIntervalMillis = Long.parseLong(initParams.getOrDefault(PREFIX + "probe-interval-ms", "5000").trim());
+    }
+
+    /**
+     * Whether calls may be routed to the URL.
+     */
+    boolean isAvailable(String sdkServiceUrl) {
+        UrlHealth health = urls.get(sdkServiceUrl);
+        return health == null || !health.ejected;
+    }
+
+    /**
+     * The URLs currently ejected from routing.
+     */
+    Set<String> getEjected() {
+        Set<String> ejected = new TreeSet<>();
+        urls.forEach((sdkServiceUrl, health) -> {
+            if (health.ejected) {
+                ejected.add(sdkServiceUrl);
+            }
+        });
+        return ejected;
+    }
+
+    /**
+     * Records the outcome of a call.
+     *
+     * @param sdkServiceUrl The URL the call was sent to.
+     * @param failure       The exception the call failed with, {@code null} if it succeeded.
+     * @param httpStatus    The HTTP status of the response, {@code 0} if none was seen.
+     * @param durationNanos The duration of the call.
+     * @param timeouts      The timeouts of the call.
+     */
+    void record(String sdkServiceUrl, Throwable failure, int httpStatus, long durationNanos,
+                RequestTimeouts timeouts) {
+        if (!enabled) {
+            return;
+        }
+        boolean failed = isFailure(failure, httpStatus, durationNanos, timeouts);
+        UrlHealth health = urls.computeIfAbsent(sdkServiceUrl, url -> new UrlHealth(window));
+        if (health.record(failed, consecutiveFailures, failureRate)) {
+            logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "Ejecting SDK service URL", sdkServiceUrl);
+            scheduleProbe(sdkServiceUrl, health);
+        }
+    }
+
+    /**
+     * Drops the health of a URL no longer configured, and stops probing it.
+     */
+    void forget(String sdkServiceUrl) {
+        urls.remove(sdkServiceUrl);
+    }
+
+    /**
+     * Stops probing, once the client has been initialized again.
+     */
+    void close() {
+        closed = true;
+    }
+
+    private boolean isFailure(Throwable failure, int httpStatus, long durationNanos, RequestTimeouts timeouts) {
+        if (slowCallNanos > 0 && durationNanos > slowCallNanos) {
+            return true;
+        }
+        if (failure == null) {
+            return false;
+        }
+        if (httpStatus > 0) {
+            return httpStatus >= 500;
+        }
+        // Timeouts bounded by the deadline of the call fire as it expires, whatever the health of the URL
+        if (timeouts.hasDeadline() && timeouts.isExpired()) {
+            return false;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            // The deadline of the call expired, the exchange was aborted by the client itself
+            if (cause instanceof TimeoutException) {
+                return false;
+            }
+            if (cause instanceof HttpStatusCodeException statusCodeException) {
+                return statusCodeException.getStatusCode().is5xxServerError();
+            }
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void scheduleProbe(String sdkServiceUrl, UrlHealth health) {
+        CompletableFuture.runAsync(() -> probe(sdkServiceUrl, health),
+                CompletableFuture.delayedExecutor(probeIntervalMillis, TimeUnit.MILLISECONDS));
+    }
+
+    private void probe(String sdkServiceUrl, UrlHealth health) {
+        if (closed || urls.get(sdkServiceUrl) != health) {
+            return;
+        }
+        Util.restRequestAsync(sdkServiceUrl + "/", HttpMethod.GET, null, null, null,
+                        response -> response.getStatusCode().value())
+                .orTimeout(probeIntervalMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((status, ex) -> {
+                    if (ex == null && status < 500) {
+                        logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "Reinstating SDK service URL", sdkServiceUrl);
+                        health.reinstate();
+                    } else {
+                        scheduleProbe(sdkServiceUrl, health);
+                    }
+                });
+    }
+
+    /**
+     * Outcomes of the last calls to one URL.
+     */
+    private static final class UrlHealth {
+        private final boolean[] outcomes;
+
+        private int calls;
+
+        private int next;
+
+        private int failures;
+
+        private int failuresInRow;
+
+        private volatile boolean ejected;
+
+        UrlHealth(int window) {
+            this.outcomes = new boolean[Math.max(window, 1)];
+        }
+
+        /**
+         * Adds an outcome to the window.
+         *
+         * @return {@code true} if the URL is ejected by it.
+         */
+        synchronized boolean record(boolean failed, int consecutiveFailures, int failureRate) {
+            if (ejected) {
+                return false;
+            }
+            if (calls == outcomes.length && outcomes[next]) {
+                failures--;
+            }
+            outcomes[next] = failed;
+            next = (next + 1) % outcomes.length;
+            calls = Math.min(calls + 1, outcomes.length);
+            failuresInRow = failed ? failuresInRow + 1 : 0;
+            if (failed) {
+                failures++;
+            }
+            boolean eject = (consecutiveFailures > 0 && failuresInRow >= consecutiveFailures)
+                    || (failureRate > 0 && calls * 2 >= outcomes.length && failures * 100 >= failureRate * calls);
+            if (eject) {
+                ejected = true;
+            }
+            return eject;
+        }
+
+        synchronized void reinstate() {
+            Arrays.fill(outcomes, false);
+            calls = 0;
+            next = 0;
+            failures = 0;
+            failuresInRow = 0;
+            ejected = false;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.mosip.biosdk.client.constant.ResponseStatus;
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.utils.Util;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The init calls of the SDK service URLs of one init.
+ * <p>
+ * Every distinct URL is initialized once, all of them concurrently: on virtual threads if enabled, see
+ * {@link Util#getFanOutExecutor()}, otherwise on daemon threads of their own. Init waits for them for at most
+ * {@code init.timeout-ms} milliseconds (30000 by default) and goes on with the URLs that answered. The
+ * others are left uninitialized; an init call still running completes them when it succeeds, and a failed
+ * one is sent again by the first call routed to the URL, see {@link #initialize(String)}. On a
+ * reconfiguration the URLs whose options did not change are carried over from the init calls before, see
+ * {@link #carryOver(SdkServiceInits, String)}.
+ *
+ * @since 1.3.0
+ */
+final class SdkServiceInits {
+    private static final String PREFIX = "init.";
+
+    /** No URLs, in effect until init. */
+    static final SdkServiceInits NONE = new SdkServiceInits(List.of(), Map.of(), url -> null, inits -> {
+    });
+
+    private static final ThreadFactory INIT_THREADS = Thread.ofPlatform().daemon().name("biosdk-init-", 0).factory();
+
+    private final Set<String> sdkServiceUrls;
+
+    private final long timeoutMillis;
+
+    private final Function<String, SDKInfo> initCall;
+
+    private final Consumer<SdkServiceInits> onInitialized;
+
+    private final Set<String> initialized = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, SDKInfo> sdkInfos = new ConcurrentHashMap<>();
+
+    private final Map<String, CompletableFuture<SDKInfo>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param sdkServiceUrls The URLs, in configured order, possibly repeated.
+     * @param initParams     The init parameters, read for the {@code init.*} settings.
+     * @param initCall       Initializes a URL, returning its SDK info or throwing.
+     * @param onInitialized  Called with these init calls after each URL initialized, possibly concurrently.
+     */
+    SdkServiceInits(List<String> sdkServiceUrls, Map<String, String> initParams, Function<String, SDKInfo> initCall,
+                    Consumer<SdkServiceInits> onInitialized) {
+        this.sdkServiceUrls = new LinkedHashSet<>(sdkServiceUrls);
+        this.timeoutMillis = Long.parseLong(initParams.getOrDefault(PREFIX + "timeout-ms", "30000").trim());
+        this.initCall = initCall;
+        this.onInitialized = onInitialized;
+    }
+
+    /**
+     * Initializes every URL concurrently, waiting for at most the init timeout in all.
+     *
+     * @throws BioSdkClientException The failure of the first URL, if none could be initialized.
+     */
+    void initializeAll() {
+        Map<String, CompletableFuture<SDKInfo>> calls = new LinkedHashMap<>();
+        sdkServiceUrls.forEach(sdkServiceUrl -> calls.put(sdkServiceUrl, initialize(sdkServiceUrl)));
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        RuntimeException firstFailure = null;
+        for (CompletableFuture<SDKInfo> call : calls.values()) {
+            try {
+                call.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "",
+                        "Interrupted while initializing SDK service URLs", e);
+            } catch (ExecutionException | TimeoutException e) {
+                if (firstFailure == null) {
+                    firstFailure = failure(e);
+                }
+            }
+        }
+        if (initialized.isEmpty() && firstFailure != null) {
+            throw firstFailure;
+        }
+    }
+
+    /**
+     * Initializes a URL unless it is initialized already, joining its init call if one is in flight.
+     *
+     * @return A future completed with the SDK info of the URL.
+     */
+    CompletableFuture<SDKInfo> initialize(String sdkServiceUrl) {
+        if (initialized.contains(sdkServiceUrl)) {
+            return CompletableFuture.completedFuture(sdkInfos.get(sdkServiceUrl));
+        }
+        CompletableFuture<SDKInfo> call = new CompletableFuture<>();
+        CompletableFuture<SDKInfo> existing = inFlight.putIfAbsent(sdkServiceUrl, call);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture.supplyAsync(() -> initCall.apply(sdkServiceUrl), executor()).whenComplete((info, ex) -> {
+            if (ex == null) {
+                if (info != null) {
+                    sdkInfos.put(sdkServiceUrl, info);
+                }
+                initialized.add(sdkServiceUrl);
+            }
+            // Only once recorded, so that a call in between finds one or the other
+            inFlight.remove(sdkServiceUrl, call);
+            if (ex != null) {
+                call.completeExceptionally(ex);
+                return;
+            }
+            // Published before the waiting calls go on
+            onInitialized.accept(this);
+            call.complete(info);
+        });
+        return call;
+    }
+
+    /**
+     * Takes over a URL initialized by earlier init calls, so that it is not initialized again.
+     *
+     * @return Whether the URL was initialized by the earlier calls.
+     */
+    boolean carryOver(SdkServiceInits previous, String sdkServiceUrl) {
+        if (!sdkServiceUrls.contains(sdkServiceUrl) || !previous.initialized.contains(sdkServiceUrl)) {
+            return false;
+        }
+        SDKInfo sdkInfo = previous.sdkInfos.get(sdkServiceUrl);
+        if (sdkInfo != null) {
+            sdkInfos.put(sdkServiceUrl, sdkInfo);
+        }
+        initialized.add(sdkServiceUrl);
+        return true;
+    }
+
+    /**
+     * Waits for a URL to be initialized, initializing it if needed, for at most the init timeout.
+     *
+     * @throws BioSdkClientException if the URL could not be initialized in time.
+     */
+    void awaitInitialized(String sdkServiceUrl) {
+        if (!needsInit(sdkServiceUrl)) {
+            return;
+        }
+        try {
+            initialize(sdkServiceUrl).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "",
+                    "Interrupted while initializing " + sdkServiceUrl, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Whether a URL of this init has not been initialized yet.
+     */
+    boolean needsInit(String sdkServiceUrl) {
+        return sdkServiceUrls.contains(sdkServiceUrl) && !initialized.contains(sdkServiceUrl);
+    }
+
+    /**
+     * The URLs not initialized yet, in configured order.
+     */
+    Set<String> getUninitialized() {
+        Set<String> uninitialized = new LinkedHashSet<>();
+        for (String sdkServiceUrl : sdkServiceUrls) {
+            if (!initialized.contains(sdkServiceUrl)) {
+                uninitialized.add(sdkServiceUrl);
+            }
+        }
+        return uninitialized;
+    }
+
+    /**
+     * The SDK info of the URLs initialized so far, in configured order.
+     */
+    List<SDKInfo> getSdkInfos() {
+        List<SDKInfo> infos = new ArrayList<>();
+        for (String sdkServiceUrl : sdkServiceUrls) {
+            SDKInfo sdkInfo = sdkInfos.get(sdkServiceUrl);
+            if (sdkInfo != null) {
+                infos.add(sdkInfo);
+            }
+        }
+        return infos;
+    }
+
+    private RuntimeException failure(Exception e) {
+        if (e instanceof TimeoutException) {
+            return new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "",
+                    "SDK service init timed out after " + timeoutMillis + " ms", e);
+        }
+        Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+        return cause instanceof RuntimeException runtimeException ? runtimeException
+                : new BioSdkClientException(ResponseStatus.UNKNOWN_ERROR.getStatusCode() + "",
+                        String.valueOf(cause), cause);
+    }
+
+    private static Executor executor() {
+        return Util.isVirtualThreadsEnabled() ? Util.getFanOutExecutor()
+                : runnable -> INIT_THREADS.newThread(runnable).start();
+    }
+}
@@ -0,0 +1,237 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.mosip.biosdk.client.codec.DecodedResponse;
+import io.mosip.biosdk.client.codec.WireFormat;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the templates returned by {@code extractTemplate}, so that extracting the same sample again is
+ * answered without a call to the SDK service.
+ * <p>
+ * Entries are keyed by the {@link SampleDigest} of the BDBs of the sample, the modalities to extract and the
+ * flags. The templates are kept in Smile encoding in direct buffers, outside of the Java heap, and each hit
+ * decodes a fresh copy, so that callers may change what they get.
+ * The cache holds at most {@code template-cache.max-bytes} bytes of encoded templates; it is off unless
+ * that is set.
+ * <p>
+ * When the cache is full, the least recently used entries are evicted to make room, but only if the new
+ * template was asked for more often than each of them: the frequencies of the keys looked up are kept in a
+ * count-min sketch of 4-bit counters, halved every {@value #SAMPLE_FACTOR} lookups per counter, as in
+ * TinyLFU. This keeps templates used again and again in the cache while one-off extractions pass through.
+ *
+ * @since 1.3.0
+ */
+final class TemplateCache {
+    private static final String PREFIX = "template-cache.";
+
+    /** Number of lookups per counter of the sketch after which the counters are halved. */
+    static final int SAMPLE_FACTOR = 10;
+
+    /** Cache that never caches, in effect until init. */
+    static final TemplateCache DISABLED = new TemplateCache(Map.of());
+
+    private static final ObjectWriter TEMPLATE_WRITER = WireFormat.SMILE.getMapper().writerFor(BiometricRecord.class);
+
+    private static final ObjectReader TEMPLATE_READER = WireFormat.SMILE.getMapper().readerFor(BiometricRecord.class);
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<SampleDigest, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final FrequencySketch sketch;
+
+    private long usedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong rejections = new AtomicLong();
+
+    /**
+     * @param initParams The init parameters, read for the {@code template-cache.*} settings.
+     */
+    TemplateCache(Map<String, String> initParams) {
+        this.maxBytes = Long.parseLong(initParams.getOrDefault(PREFIX + "max-bytes", "0").trim());
+        // About one counter per KiB of templates, as templates are seldom much smaller
+        this.sketch = maxBytes > 0 ? new FrequencySketch(maxBytes / 1024) : null;
+    }
+
+    boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Computes the key of an extraction.
+     *
+     * @return The key, {@code null} if the cache is off.
+     */
+    SampleDigest keyFor(BiometricRecord sample, List<BiometricType> modalitiesToExtract, Map<String, String> flags) {
+        return isEnabled() ? SampleDigest.of(sample, modalitiesToExtract, flags) : null;
+    }
+
+    /**
+     * Looks an extraction up.
+     *
+     * @param key The key of the extraction, {@code null} if the cache is off.
+     * @return A copy of the cached response, {@code null} on a miss.
+     */
+    DecodedResponse<BiometricRecord> get(SampleDigest key) throws IOException {
+        if (key == null) {
+            return null;
+        }
+        Entry entry;
+        synchronized (this) {
+            sketch.increment(key);
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        ByteBuffer template = entry.template.duplicate();
+        byte[] encoded = new byte[template.remaining()];
+        template.get(encoded);
+        return DecodedResponse.withPayload(entry.status, TEMPLATE_READER.<BiometricRecord>readValue(encoded));
+    }
+
+    /**
+     * Adds the response of an extraction if it succeeded and is admitted.
+     *
+     * @param key      The key of the extraction, {@code null} if the cache is off.
+     * @param response The response of the SDK service.
+     */
+    void put(SampleDigest key, DecodedResponse<BiometricRecord> response) throws IOException {
+        if (key == null || response.getPayload() == null || !Integer.valueOf(200).equals(response.getStatusCode())) {
+            return;
+        }
+        byte[] encoded = TEMPLATE_WRITER.writeValueAsBytes(response.getPayload());
+        if (encoded.length > maxBytes) {
+            rejections.incrementAndGet();
+            return;
+        }
+        synchronized (this) {
+            Entry previous = entries.remove(key);
+            if (previous != null) {
+                usedBytes -= previous.size();
+            }
+            List<SampleDigest> victims = new ArrayList<>();
+            long freed = 0;
+            int frequency = sketch.frequency(key);
+            for (Iterator<Map.Entry<SampleDigest, Entry>> it = entries.entrySet().iterator();
+                 usedBytes - freed + encoded.length > maxBytes && it.hasNext(); ) {
+                Map.Entry<SampleDigest, Entry> eldest = it.next();
+                if (sketch.frequency(eldest.getKey()) >= frequency) {
+                    rejections.incrementAndGet();
+                    return;
+                }
+                victims.add(eldest.getKey());
+                freed += eldest.getValue().size();
+            }
+            for (SampleDigest victim : victims) {
+                entries.remove(victim);
+                evictions.incrementAndGet();
+            }
+            usedBytes -= freed;
+            ByteBuffer template = ByteBuffer.allocateDirect(encoded.length).put(encoded).flip();
+            entries.put(key, new Entry(template.asReadOnlyBuffer(), DecodedResponse.withPayload(response, null)));
+            usedBytes += encoded.length;
+        }
+    }
+
+    /**
+     * The hit, miss, eviction and admission rejection counters, with the number of entries and the bytes
+     * they take.
+     */
+    Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("hits", hits.get());
+        counters.put("misses", misses.get());
+        counters.put("evictions", evictions.get());
+        counters.put("rejections", rejections.get());
+        synchronized (this) {
+            counters.put("entries", (long) entries.size());
+            counters.put("bytes", usedBytes);
+        }
+        return counters;
+    }
+
+    /**
+     * An encoded template and the status of the response it came with.
+     */
+    private record Entry(ByteBuffer template, DecodedResponse<BiometricRecord> status) {
+        long size() {
+            return template.capacity();
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters, with 4 counters per key. Only used under the lock of the cache.
+     */
+    private static final class FrequencySketch {
+        private static final int DEPTH = 4;
+
+        private static final int MAX_COUNT = 15;
+
+        private final byte[][] counters;
+
+        private final int mask;
+
+        private final int sampleSize;
+
+        private int additions;
+
+        FrequencySketch(long expectedEntries) {
+            int width = Integer.highestOneBit((int) Math.max(64, Math.min(expectedEntries, 1 << 20)) * 2 - 1);
+            this.counters = new byte[DEPTH][width];
+            this.mask = width - 1;
+            this.sampleSize = SAMPLE_FACTOR * width;
+        }
+
+        void increment(SampleDigest key) {
+            boolean added = false;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(key, row);
+                if (counters[row][index] < MAX_COUNT) {
+                    counters[row][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                for (byte[] row : counters) {
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] >>= 1;
+                    }
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(SampleDigest key) {
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                frequency = Math.min(frequency, counters[row][index(key, row)]);
+            }
+            return frequency;
+        }
+
+        private int index(SampleDigest key, int row) {
+            return key.word(row) & mask;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package io.mosip.biosdk.client.impl.spec_1_0;
+
+import io.mosip.biosdk.client.codec.WireFormat;
+import io.mosip.biosdk.client.config.LoggerConfig;
+import io.mosip.biosdk.client.utils.Util;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.constant.ProcessedLevelType;
+import io.mosip.kernel.biometrics.constant.PurposeType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.QualityScore;
+import io.mosip.kernel.core.logger.spi.Logger;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.mosip.biosdk.client.constant.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.client.constant.AppConstants.LOGGER_SESSIONID;
+
+/**
+ * Warm-up of the SDK service URLs at the end of init, so that the first calls are not slowed down by work
+ * the client only does once.
+ * <p>
+ * With {@code warmup.enabled=true}, {@code warmup.connections} requests (4 by default) are sent at once to
+ * each initialized URL on each of the blocking and the non-blocking HTTP clients, a {@code GET} of its base
+ * path as for the health probes, so that as many pooled connections are opened and their TLS handshakes
+ * done. Meanwhile {@code warmup.codec-rounds} rounds (200 by default) of synthetic check quality and match
+ * requests are encoded as they would be sent to each URL, and synthetic responses decoded, so that the
+ * serializers are generated and compiled. Init waits for the warm-up for at most {@code warmup.timeout-ms}
+ * (10000 by default). A warm-up that fails or times out is logged and does not fail init.
+ *
+ * @since 1.3.0
+ */
+final class Warmup {
+    private static Logger logger = LoggerConfig.logConfig(Warmup.class);
+
+    private static final String PREFIX = "warmup.";
+
+    /** No warm-up, in effect until init. */
+    static final Warmup DISABLED = new Warmup(Map.of());
+
+    private static final ThreadFactory WARMUP_THREADS =
+            Thread.ofPlatform().daemon().name("biosdk-warmup-", 0).factory();
+
+    private static final ResponseExtractor<Integer> STATUS = response -> response.getStatusCode().value();
+
+    private final boolean enabled;
+
+    private final int connections;
+
+    private final int codecRounds;
+
+    private final long timeoutMillis;
+
+    private final AtomicLong connected = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final AtomicLong rounds = new AtomicLong();
+
+    private final AtomicLong millis = new AtomicLong();
+
+    /**
+     * @param initParams The init parameters, read for the {@code warmup.*} settings.
+     */
+    Warmup(Map<String, String> initParams) {
+        this.enabled = Boolean.parseBoolean(initParams.getOrDefault(PREFIX + "enabled", "false").trim());
+        this.connections = Integer.parseInt(initParams.getOrDefault(PREFIX + "connections", "4").trim());
+        this.codecRounds = Integer.parseInt(initParams.getOrDefault(PREFIX + "codec-rounds", "200").trim());
+        this.timeoutMillis = Long.parseLong(initParams.getOrDefault(PREFIX + "timeout-ms", "10000").trim());
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * One round trip of synthetic requests and responses through the codecs.
+     */
+    @FunctionalInterface
+    interface CodecRound {
+        void run() throws IOException;
+    }
+
+    /**
+     * Opens connections to the URLs while running the codec rounds, and waits for the connections.
+     *
+     * @param sdkServiceUrls The URLs to open connections to.
+     * @param codecRound     A round trip through the codecs used for the URLs.
+     */
+    void run(Collection<String> sdkServiceUrls, CodecRound codecRound) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<CompletableFuture<Void>> requests = new ArrayList<>();
+        Executor executor = Util.isVirtualThreadsEnabled() ? Util.getFanOutExecutor()
+                : runnable -> WARMUP_THREADS.newThread(runnable).start();
+        for (String sdkServiceUrl : sdkServiceUrls) {
+            for (int i = 0; i < connections; i++) {
+                requests.add(count(Util.restRequestAsync(sdkServiceUrl + "/", HttpMethod.GET, null, null, null,
+                        STATUS)));
+                requests.add(count(CompletableFuture.supplyAsync(() -> Util.restRequest(sdkServiceUrl + "/",
+                        HttpMethod.GET, null, null, null, STATUS), executor)));
+            }
+        }
+        try {
+            for (int i = 0; i < codecRounds && System.nanoTime() < deadline; i++) {
+                codecRound.run();
+                rounds.incrementAndGet();
+            }
+            CompletableFuture.allOf(requests.toArray(new CompletableFuture[0]))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "Warm-up timed out after " + timeoutMillis + " ms",
+                    String.valueOf(sdkServiceUrls));
+        } catch (Exception e) {
+            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error", e);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        millis.addAndGet(elapsedMillis);
+        logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "Warmed up in " + elapsedMillis + " ms",
+                String.valueOf(sdkServiceUrls));
+    }
+
+    /**
+     * The warm-up requests answered and failed, the codec rounds run, and the time spent warming up, since
+     * init.
+     */
+    Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("connections", connected.get());
+        counters.put("failures", failures.get());
+        counters.put("codec-rounds", rounds.get());
+        counters.put("millis", millis.get());
+        return counters;
+    }
+
+    /**
+     * A record with one face segment of the given BDB size, as sent in requests.
+     */
+    static BiometricRecord syntheticRecord(int bdbSize) {
+        byte[] bdb = new byte[bdbSize];
+        for (int i = 0; i < bdb.length; i++) {
+            bdb[i] = (byte) i;
+        }
+        BDBInfo bdbInfo = new BDBInfo.BDBInfoBuilder()
+                .withType(List.of(BiometricType.FACE))
+                .withSubtype(List.of())
+                .withLevel(ProcessedLevelType.RAW)
+                .withPurpose(PurposeType.VERIFY)
+                .build();
+        BiometricRecord record = new BiometricRecord();
+        record.setSegments(new ArrayList<>(List.of(new BIR.BIRBuilder().withBdbInfo(bdbInfo).withBdb(bdb).build())));
+        return record;
+    }
+
+    /**
+     * Match decisions for a gallery of the given size, as received in responses.
+     */
+    static MatchDecision[] syntheticDecisions(int gallerySize) {
+        MatchDecision[] decisions = new MatchDecision[gallerySize];
+        for (int i = 0; i < gallerySize; i++) {
+            Decision decision = new Decision();
+            decision.setMatch(Match.NOT_MATCHED);
+            decisions[i] = new MatchDecision(i);
+            decisions[i].setDecisions(Map.of(BiometricType.FACE, decision));
+        }
+        return decisions;
+    }
+
+    /**
+     * A quality check result, as received in responses.
+     */
+    static QualityCheck syntheticQualityCheck() {
+        QualityScore score = new QualityScore();
+        score.setScore(90);
+        QualityCheck qualityCheck = new QualityCheck();
+        qualityCheck.setScores(Map.of(BiometricType.FACE, score));
+        return qualityCheck;
+    }
+
+    /**
+     * A response envelope in a wire format, with the payload nested as the SDK service sends it.
+     */
+    static byte[] responseEnvelope(WireFormat wireFormat, Object payload) throws IOException {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("statusCode", 200);
+        response.put("statusMessage", "OK");
+        response.put("response", payload);
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("version", "1.0");
+        envelope.put("response", response);
+        envelope.put("errors", List.of());
+        return wireFormat.getMapper().writeValueAsBytes(envelope);
+    }
+
+    private CompletableFuture<Void> count(CompletableFuture<Integer> request) {
+        return request.handle((status, ex) -> {
+            if (ex == null || isHttpStatus(ex)) {
+                connected.incrementAndGet();
+            } else {
+                failures.incrementAndGet();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Whether a request failed on the status of its response, so that its connection was opened all the same.
+     */
+    private static boolean isHttpStatus(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpStatusCodeException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,115 @@
+package io.mosip.biosdk.client.utils;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+
+/**
+ * Admits blocking HTTP exchanges up to the connection limits of the pool.
+ *
+ * <p>
+ * The blocking HttpComponents pool waits for a free connection inside a
+ * {@code synchronized} lease, which pins the carrier of a virtual thread for as
+ * long as the pool is exhausted. Virtual threads therefore queue here first, on
+ * fair semaphores sized like the pool, and only reach the pool when a
+ * connection is available for them. Platform threads are admitted without a
+ * permit, as before.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+final class ConnectionPermits {
+	/** Permit of an exchange admitted without waiting. */
+	static final Permit NONE = () -> {
+	};
+
+	private final int maxPerRoute;
+
+	private final Semaphore total;
+
+	private final Map<String, Semaphore> perRoute = new ConcurrentHashMap<>();
+
+	ConnectionPermits(int maxPerRoute, int maxTotal) {
+		this.maxPerRoute = maxPerRoute;
+		this.total = new Semaphore(maxTotal, true);
+	}
+
+	/**
+	 * Waits until the current thread may use a pooled connection to the route of
+	 * the given URL.
+	 *
+	 * @param url The request URL.
+	 * @return The permit to release once the exchange is complete.
+	 * @throws InterruptedException If the thread is interrupted while waiting.
+	 */
+	Permit acquire(String url) throws InterruptedException {
+		if (!Thread.currentThread().isVirtual()) {
+			return NONE;
+		}
+		Semaphore route = perRoute.computeIfAbsent(routeOf(url), key -> new Semaphore(maxPerRoute, true));
+		route.acquire();
+		try {
+			total.acquire();
+		} catch (InterruptedException e) {
+			route.release();
+			throw e;
+		}
+		return permit(route);
+	}
+
+	/**
+	 * Waits for at most the given time until the current thread may use a
+	 * pooled connection to the route of the given URL.
+	 *
+	 * @param url          The request URL.
+	 * @param timeoutNanos How long to wait, in nanoseconds.
+	 * @return The permit to release once the exchange is complete.
+	 * @throws InterruptedException              If the thread is interrupted while waiting.
+	 * @throws ConnectionRequestTimeoutException If no permit was available in time, like a
+	 *                                           connection lease timing out.
+	 */
+	Permit acquire(String url, long timeoutNanos) throws InterruptedException, ConnectionRequestTimeoutException {
+		if (!Thread.currentThread().isVirtual()) {
+			return NONE;
+		}
+		long deadline = System.nanoTime() + timeoutNanos;
+		Semaphore route = perRoute.computeIfAbsent(routeOf(url), key -> new Semaphore(maxPerRoute, true));
+		if (!route.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+			throw new ConnectionRequestTimeoutException("Timeout waiting for a connection to " + routeOf(url));
+		}
+		try {
+			if (!total.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+				throw new ConnectionRequestTimeoutException("Timeout waiting for a connection");
+			}
+		} catch (InterruptedException | ConnectionRequestTimeoutException e) {
+			route.release();
+			throw e;
+		}
+		return permit(route);
+	}
+
+	private Permit permit(Semaphore route) {
+		return () -> {
+			total.release();
+			route.release();
+		};
+	}
+
+	private static String routeOf(String url) {
+		URI uri = URI.create(url);
+		return uri.getScheme() + "://" + uri.getRawAuthority();
+	}
+
+	/**
+	 * An admitted exchange; closing it lets the next one in.
+	 */
+	@FunctionalInterface
+	interface Permit extends AutoCloseable {
+		@Override
+		void close();
+	}
+}
@@ -0,0 +1,139 @@
+package io.mosip.biosdk.client.utils;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Timeouts of an HTTP exchange: how long to wait for a pooled connection
+ * (lease), to connect, and for response data (read), and optionally a deadline
+ * for the whole call the exchange is part of.
+ * <p>
+ * A timeout of {@code 0} leaves it to the HTTP client. The deadline bounds the
+ * other timeouts: an exchange waits no longer than the time left for a
+ * connection, to connect or for data, and is aborted when the deadline expires,
+ * closing its connection rather than leaving it to complete in the background.
+ * The same instance is passed to every exchange of a call, e.g. its retries, so
+ * that they share the deadline. Accepted by {@link Util#restRequestAsync} and
+ * by the {@code Util.restRequest} variant taking a response extractor.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public final class RequestTimeouts {
+	/** No timeouts and no deadline, as for exchanges sent without timeouts. */
+	public static final RequestTimeouts NONE = new RequestTimeouts(0, 0, 0, 0, 0);
+
+	private final long leaseTimeoutMillis;
+
+	private final long connectTimeoutMillis;
+
+	private final long readTimeoutMillis;
+
+	private final long callTimeoutMillis;
+
+	/** The {@link System#nanoTime()} the deadline expires at, if there is one. */
+	private final long deadlineNanos;
+
+	private RequestTimeouts(long leaseTimeoutMillis, long connectTimeoutMillis, long readTimeoutMillis,
+			long callTimeoutMillis, long deadlineNanos) {
+		this.leaseTimeoutMillis = leaseTimeoutMillis;
+		this.connectTimeoutMillis = connectTimeoutMillis;
+		this.readTimeoutMillis = readTimeoutMillis;
+		this.callTimeoutMillis = callTimeoutMillis;
+		this.deadlineNanos = deadlineNanos;
+	}
+
+	/**
+	 * Timeouts without a deadline.
+	 *
+	 * @param leaseTimeoutMillis   How long to wait for a pooled connection, {@code 0} for the client default.
+	 * @param connectTimeoutMillis How long to wait to connect, {@code 0} for the client default.
+	 * @param readTimeoutMillis    How long to wait for response data, {@code 0} for the client default.
+	 * @return The timeouts.
+	 */
+	public static RequestTimeouts of(long leaseTimeoutMillis, long connectTimeoutMillis, long readTimeoutMillis) {
+		return new RequestTimeouts(leaseTimeoutMillis, connectTimeoutMillis, readTimeoutMillis, 0, 0);
+	}
+
+	/**
+	 * The same timeouts with a deadline starting now.
+	 *
+	 * @param callTimeoutMillis The time the call may take, {@code 0} for no deadline.
+	 * @return The timeouts with the deadline.
+	 */
+	public RequestTimeouts withDeadline(long callTimeoutMillis) {
+		if (callTimeoutMillis <= 0) {
+			return hasDeadline() ? of(leaseTimeoutMillis, connectTimeoutMillis, readTimeoutMillis) : this;
+		}
+		return new RequestTimeouts(leaseTimeoutMillis, connectTimeoutMillis, readTimeoutMillis, callTimeoutMillis,
+				System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(callTimeoutMillis));
+	}
+
+	public boolean hasDeadline() {
+		return callTimeoutMillis > 0;
+	}
+
+	/**
+	 * The time left until the deadline, in nanoseconds.
+	 *
+	 * @return The time left, not positive once the deadline expired, and
+	 *         {@link Long#MAX_VALUE} without a deadline.
+	 */
+	public long getRemainingNanos() {
+		return hasDeadline() ? deadlineNanos - System.nanoTime() : Long.MAX_VALUE;
+	}
+
+	public boolean isExpired() {
+		return getRemainingNanos() <= 0;
+	}
+
+	/**
+	 * The exception a call fails with once its deadline expired.
+	 *
+	 * @param cause The failure of the exchange aborted at the deadline, if any.
+	 * @return The exception, not thrown.
+	 */
+	public TimeoutException deadlineExpired(Throwable cause) {
+		TimeoutException timeout = new TimeoutException("Deadline of " + callTimeoutMillis + " ms expired");
+		timeout.initCause(cause);
+		return timeout;
+	}
+
+	/**
+	 * The request configuration of an exchange started now, with each timeout
+	 * bounded by the time left until the deadline.
+	 */
+	@SuppressWarnings("deprecation")
+	RequestConfig toRequestConfig() {
+		long remainingMillis = hasDeadline()
+				? Math.max(1, TimeUnit.NANOSECONDS.toMillis(getRemainingNanos() + 999_999)) : 0;
+		RequestConfig.Builder config = RequestConfig.custom();
+		Timeout lease = bounded(leaseTimeoutMillis, remainingMillis);
+		if (lease != null) {
+			config.setConnectionRequestTimeout(lease);
+		}
+		// Only the pool wide connection config replaces the connect timeout of the request config, and that
+		// cannot vary by exchange
+		Timeout connect = bounded(connectTimeoutMillis, remainingMillis);
+		if (connect != null) {
+			config.setConnectTimeout(connect);
+		}
+		Timeout read = bounded(readTimeoutMillis, remainingMillis);
+		if (read != null) {
+			config.setResponseTimeout(read);
+		}
+		return config.build();
+	}
+
+	private static Timeout bounded(long timeoutMillis, long remainingMillis) {
+		if (timeoutMillis <= 0 && remainingMillis <= 0) {
+			return null;
+		}
+		long bounded = timeoutMillis <= 0 ? remainingMillis
+				: remainingMillis <= 0 ? timeoutMillis : Math.min(timeoutMillis, remainingMillis);
+		return Timeout.ofMilliseconds(bounded);
+	}
+}
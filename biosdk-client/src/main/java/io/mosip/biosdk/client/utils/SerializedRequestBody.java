@@ -0,0 +1,37 @@
+package io.mosip.biosdk.client.utils;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A request body written to bytes once, with the headers its converter set,
+ * so that it can be sent several times without being serialized again.
+ * Created with {@link Util#serializeRequestBody}, and accepted as body by
+ * {@link Util#restRequestAsync} and by the {@code Util.restRequest} variant
+ * taking a response extractor.
+ *
+ * @since 1.3.0
+ */
+public final class SerializedRequestBody {
+	private final byte[] body;
+
+	private final HttpHeaders headers;
+
+	SerializedRequestBody(byte[] body, HttpHeaders headers) {
+		this.body = body;
+		this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+	}
+
+	/**
+	 * The serialized body. It must not be modified.
+	 */
+	public byte[] getBody() {
+		return body;
+	}
+
+	/**
+	 * The content headers of the body, e.g. its content type and coding.
+	 */
+	public HttpHeaders getHeaders() {
+		return headers;
+	}
+}
@@ -5,31 +5,94 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import io.mosip.biosdk.client.codec.CompressingHttpMessageConverter;
+import io.mosip.biosdk.client.codec.RequestEnvelopeHttpMessageConverter;
 import io.mosip.biosdk.client.config.LoggerConfig;
 import io.mosip.kernel.core.exception.ExceptionUtils;
 import io.mosip.kernel.core.logger.spi.Logger;
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
 import org.apache.hc.client5.http.ssl.DefaultHostnameVerifier;
 import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.entity.AsyncEntityProducers;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
+import org.apache.hc.core5.http.nio.support.classic.AbstractClassicEntityConsumer;
+import org.apache.hc.core5.http.nio.support.classic.AbstractClassicEntityProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
 import org.apache.hc.core5.http.ssl.TLS;
+import org.apache.hc.core5.pool.PoolStats;
 import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 import org.springframework.http.*;
 import org.springframework.web.client.RestClientException;
 
 import javax.net.ssl.SSLContext;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import static io.mosip.biosdk.client.constant.AppConstants.LOGGER_IDTYPE;
 import static io.mosip.biosdk.client.constant.AppConstants.LOGGER_SESSIONID;
@@ -48,12 +111,24 @@ import static io.mosip.biosdk.client.constant.AppConstants.LOGGER_SESSIONID;
 public class Util {
 
 	private static Logger utilLogger = LoggerConfig.logConfig(Util.class);
-	private static RestTemplate REST_TEMPLATE = null;
+	private static volatile RestTemplate REST_TEMPLATE = null;
+	private static volatile CloseableHttpAsyncClient ASYNC_HTTP_CLIENT = null;
+	private static volatile ConnectionPermits CONNECTION_PERMITS = null;
+	private static volatile PoolingHttpClientConnectionManager CONNECTION_MANAGER = null;
+	private static volatile PoolingAsyncClientConnectionManager ASYNC_CONNECTION_MANAGER = null;
+	private static volatile ExecutorService VIRTUAL_THREAD_EXECUTOR = null;
+	private static volatile ExecutorService BODY_STREAM_EXECUTOR = null;
+	/** Guards the lazy creation of the HTTP clients; a lock rather than a monitor so virtual threads are not pinned. */
+	private static final ReentrantLock CLIENT_LOCK = new ReentrantLock();
 
 	private static final String debugRequestResponse = System.getenv("mosip_biosdk_request_response_debug");
 	private static final String MAX_CONN_PER_ROUTE = "restTemplate-max-connection-per-route";
 	private static final String MAX_TOT_CONN = "restTemplate-total-max-connections";
 	private static final String SSL_BYPASS = "restTemplate-ssl-bypass";
+	private static final String IDLE_CONN_TIMEOUT = "restTemplate-idle-connection-timeout-seconds";
+	private static final String ACCEPT_ENCODING = "gzip, x-gzip, deflate";
+	private static final String VIRTUAL_THREADS = "mosip_biosdk_virtual_threads";
+	private static final int ASYNC_BODY_BUFFER_SIZE = 64 * 1024;
 	private static boolean sslBypass = true;
 	private static ObjectMapper mapper;
 
@@ -112,70 +187,645 @@ public class Util {
 						getObjectMapper().writeValueAsString(request.getBody()));
 			}
 
-			response = restTemplate.exchange(url, httpMethodType, request, responseClass);
+			try (ConnectionPermits.Permit permit = CONNECTION_PERMITS.acquire(url)) {
+				response = restTemplate.exchange(url, httpMethodType, request, responseClass);
+			}
 
 			if ("y".equalsIgnoreCase(debugRequestResponse)) {
 				utilLogger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "Response: ",
 						getObjectMapper().writeValueAsString(response.getBody()));
 			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			utilLogger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error ", ex);
+			throw new RestClientException("rest call failed" + ExceptionUtils.getStackTrace(ex), ex);
 		} catch (Exception ex) {
 			utilLogger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error ", ex);
-			throw new RestClientException("rest call failed" + ExceptionUtils.getStackTrace(ex));
+			throw new RestClientException("rest call failed" + ExceptionUtils.getStackTrace(ex), ex);
 		}
 		return response;
 	}
 
+	/**
+	 * Executes an HTTP REST request and hands the response stream to the given
+	 * extractor, so the body can be decoded without first being read into a
+	 * {@code String}.
+	 * <p>
+	 * When debugging is enabled using the environment variable
+	 * <code>mosip_biosdk_request_response_debug=y</code>, the response body is
+	 * buffered so that it can be logged before it is extracted.
+	 * </p>
+	 *
+	 * @param <T>               Type returned by the extractor.
+	 * @param url               Target API endpoint URL.
+	 * @param httpMethodType    HTTP method (GET, POST, PUT, DELETE, etc.).
+	 * @param mediaType         Content type of the request body.
+	 * @param body              Request payload (nullable for GET requests), or a
+	 *                          {@link SerializedRequestBody} sent as is.
+	 * @param headersMap        Additional request headers (nullable).
+	 * @param responseExtractor Extractor reading the streamed response.
+	 * @return The value returned by the extractor.
+	 * @throws RestClientException If the REST call fails due to connection or server errors.
+	 */
+	public static <T> T restRequest(String url, HttpMethod httpMethodType, MediaType mediaType, Object body,
+									Map<String, String> headersMap, ResponseExtractor<T> responseExtractor) {
+		return restRequest(url, httpMethodType, mediaType, body, headersMap, responseExtractor, RequestTimeouts.NONE);
+	}
+
+	/**
+	 * Variant of
+	 * {@link #restRequest(String, HttpMethod, MediaType, Object, Map, ResponseExtractor)}
+	 * sent with the given timeouts. If they have a deadline, the wait for a
+	 * connection, the connect and each read are bounded by the time left, and the
+	 * exchange is aborted, closing its connection, if the deadline expires before
+	 * the response is extracted; the call then fails with a
+	 * {@link java.util.concurrent.TimeoutException} as cause.
+	 *
+	 * @param <T>               Type returned by the extractor.
+	 * @param url               Target API endpoint URL.
+	 * @param httpMethodType    HTTP method (GET, POST, PUT, DELETE, etc.).
+	 * @param mediaType         Content type of the request body.
+	 * @param body              Request payload (nullable for GET requests), or a
+	 *                          {@link SerializedRequestBody} sent as is.
+	 * @param headersMap        Additional request headers (nullable).
+	 * @param responseExtractor Extractor reading the streamed response.
+	 * @param timeouts          Timeouts and deadline of the exchange.
+	 * @return The value returned by the extractor.
+	 * @throws RestClientException If the REST call fails due to connection or server errors, or times out.
+	 * @since 1.3.0
+	 */
+	public static <T> T restRequest(String url, HttpMethod httpMethodType, MediaType mediaType, Object body,
+									Map<String, String> headersMap, ResponseExtractor<T> responseExtractor,
+									RequestTimeouts timeouts) {
+		return restRequest(url, httpMethodType, mediaType, body, headersMap, responseExtractor, timeouts, null, null);
+	}
+
+	/**
+	 * Variant of
+	 * {@link #restRequest(String, HttpMethod, MediaType, Object, Map, ResponseExtractor, RequestTimeouts)}
+	 * counting the bytes of the request and response bodies as they go over the
+	 * wire: the request after any compression, the response before it is
+	 * decompressed.
+	 *
+	 * @param <T>               Type returned by the extractor.
+	 * @param url               Target API endpoint URL.
+	 * @param httpMethodType    HTTP method (GET, POST, PUT, DELETE, etc.).
+	 * @param mediaType         Content type of the request body.
+	 * @param body              Request payload (nullable for GET requests), or a
+	 *                          {@link SerializedRequestBody} sent as is.
+	 * @param headersMap        Additional request headers (nullable).
+	 * @param responseExtractor Extractor reading the streamed response.
+	 * @param timeouts          Timeouts and deadline of the exchange.
+	 * @param sentBytes         Counter the bytes of the request body are added to,
+	 *                          {@code null} not to count them.
+	 * @param receivedBytes     Counter the bytes of the response body are added to
+	 *                          as they are read, {@code null} not to count them.
+	 * @return The value returned by the extractor.
+	 * @throws RestClientException If the REST call fails due to connection or server errors, or times out.
+	 * @since 1.3.0
+	 */
+	public static <T> T restRequest(String url, HttpMethod httpMethodType, MediaType mediaType, Object body,
+									Map<String, String> headersMap, ResponseExtractor<T> responseExtractor,
+									RequestTimeouts timeouts, AtomicLong sentBytes, AtomicLong receivedBytes) {
+		TimedExchange exchange = new TimedExchange(timeouts, receivedBytes);
+		try {
+			RestTemplate restTemplate = getRestTemplate();
+			HttpHeaders headers = new HttpHeaders();
+			headers.setContentType(mediaType);
+			Object requestBody = body;
+			if (body instanceof SerializedRequestBody serializedBody) {
+				headers.putAll(serializedBody.getHeaders());
+				requestBody = serializedBody.getBody();
+			}
+			HttpEntity<?> request = (requestBody != null) ? new HttpEntity<>(requestBody, headers) : new HttpEntity<>(headers);
+			if (headersMap != null) {
+				headersMap.forEach(headers::add);
+			}
+
+			ResponseExtractor<T> extractor = responseExtractor;
+			if ("y".equalsIgnoreCase(debugRequestResponse)) {
+				utilLogger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "Request: ",
+						getObjectMapper().writeValueAsString(request.getBody()));
+				extractor = clientHttpResponse -> {
+					byte[] responseBody = StreamUtils.copyToByteArray(clientHttpResponse.getBody());
+					utilLogger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "Response: ",
+							new String(responseBody, StandardCharsets.UTF_8));
+					return responseExtractor.extractData(new BufferedClientHttpResponse(clientHttpResponse, responseBody));
+				};
+			}
+
+			if (timeouts.isExpired()) {
+				throw timeouts.deadlineExpired(null);
+			}
+			ResponseExtractor<T> sentExtractor = extractor;
+			RequestCallback entityCallback = restTemplate.httpEntityCallback(request);
+			RequestCallback callback = sentBytes == null ? entityCallback
+					: clientHttpRequest -> entityCallback.doWithRequest(
+							new CountingClientHttpRequest(clientHttpRequest, sentBytes));
+			try (ConnectionPermits.Permit permit = CONNECTION_PERMITS.acquire(url, timeouts.getRemainingNanos())) {
+				return exchange.send(() -> restTemplate.execute(url, httpMethodType, callback, sentExtractor));
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			utilLogger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error ", ex);
+			throw new RestClientException("rest call failed" + ExceptionUtils.getStackTrace(ex), ex);
+		} catch (Exception ex) {
+			Exception failure = exchange.isAborted() ? timeouts.deadlineExpired(ex) : ex;
+			utilLogger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error ", failure);
+			throw new RestClientException("rest call failed" + ExceptionUtils.getStackTrace(failure), failure);
+		}
+	}
+
+	/**
+	 * Asynchronous counterpart of
+	 * {@link #restRequest(String, HttpMethod, MediaType, Object, Map, ResponseExtractor)},
+	 * executed on a pooled non-blocking HTTP client so that no thread waits for
+	 * the response.
+	 * <p>
+	 * The body is written by the same message converters as for synchronous
+	 * requests, streamed by a writer thread through a buffer of
+	 * {@value #ASYNC_BODY_BUFFER_SIZE} bytes that the non-blocking client drains,
+	 * so that a request body, e.g. a match gallery, is not copied in memory
+	 * whole. A {@link SerializedRequestBody} is sent from its bytes. The response
+	 * body is streamed the same way: the extractor reads it on a reader thread
+	 * as it arrives, through a buffer of {@value #ASYNC_BODY_BUFFER_SIZE} bytes
+	 * that the non-blocking client fills, so a response is decoded without
+	 * being held in memory whole. Gzip and deflate responses are accepted and
+	 * decompressed, like on the synchronous client.
+	 * </p>
+	 * <p>
+	 * The returned future fails with a {@link RestClientException} if the call
+	 * fails, including when the extractor throws. Cancelling the future aborts
+	 * the exchange.
+	 * </p>
+	 *
+	 * @param <T>               Type returned by the extractor.
+	 * @param url               Target API endpoint URL.
+	 * @param httpMethodType    HTTP method (GET, POST, PUT, DELETE, etc.).
+	 * @param mediaType         Content type of the request body.
+	 * @param body              Request payload (nullable for GET requests), or a
+	 *                          {@link SerializedRequestBody} sent as is.
+	 * @param headersMap        Additional request headers (nullable).
+	 * @param responseExtractor Extractor reading the response.
+	 * @return A future completed with the value returned by the extractor.
+	 * @since 1.3.0
+	 */
+	public static <T> CompletableFuture<T> restRequestAsync(String url, HttpMethod httpMethodType, MediaType mediaType,
+			Object body, Map<String, String> headersMap, ResponseExtractor<T> responseExtractor) {
+		return restRequestAsync(url, httpMethodType, mediaType, body, headersMap, responseExtractor,
+				RequestTimeouts.NONE);
+	}
+
+	/**
+	 * Variant of
+	 * {@link #restRequestAsync(String, HttpMethod, MediaType, Object, Map, ResponseExtractor)}
+	 * sent with the given timeouts. If they have a deadline, the wait for a
+	 * connection, the connect and each read are bounded by the time left, and
+	 * the returned future fails with a {@link java.util.concurrent.TimeoutException}
+	 * as cause once the deadline expires, aborting the exchange.
+	 *
+	 * @param <T>               Type returned by the extractor.
+	 * @param url               Target API endpoint URL.
+	 * @param httpMethodType    HTTP method (GET, POST, PUT, DELETE, etc.).
+	 * @param mediaType         Content type of the request body.
+	 * @param body              Request payload (nullable for GET requests), or a
+	 *                          {@link SerializedRequestBody} sent as is.
+	 * @param headersMap        Additional request headers (nullable).
+	 * @param responseExtractor Extractor reading the response.
+	 * @param timeouts          Timeouts and deadline of the exchange.
+	 * @return A future completed with the value returned by the extractor.
+	 * @since 1.3.0
+	 */
+	public static <T> CompletableFuture<T> restRequestAsync(String url, HttpMethod httpMethodType, MediaType mediaType,
+			Object body, Map<String, String> headersMap, ResponseExtractor<T> responseExtractor,
+			RequestTimeouts timeouts) {
+		return restRequestAsync(url, httpMethodType, mediaType, body, headersMap, responseExtractor, timeouts, null,
+				null);
+	}
+
+	/**
+	 * Variant of
+	 * {@link #restRequestAsync(String, HttpMethod, MediaType, Object, Map, ResponseExtractor, RequestTimeouts)}
+	 * counting the bytes of the request and response bodies as they go over the
+	 * wire: the request after any compression, the response before it is
+	 * decompressed.
+	 *
+	 * @param <T>               Type returned by the extractor.
+	 * @param url               Target API endpoint URL.
+	 * @param httpMethodType    HTTP method (GET, POST, PUT, DELETE, etc.).
+	 * @param mediaType         Content type of the request body.
+	 * @param body              Request payload (nullable for GET requests), or a
+	 *                          {@link SerializedRequestBody} sent as is.
+	 * @param headersMap        Additional request headers (nullable).
+	 * @param responseExtractor Extractor reading the response.
+	 * @param timeouts          Timeouts and deadline of the exchange.
+	 * @param sentBytes         Counter the bytes of the request body are added to,
+	 *                          {@code null} not to count them.
+	 * @param receivedBytes     Counter the bytes of the response body are added to
+	 *                          once it is received, {@code null} not to count them.
+	 * @return A future completed with the value returned by the extractor.
+	 * @since 1.3.0
+	 */
+	public static <T> CompletableFuture<T> restRequestAsync(String url, HttpMethod httpMethodType, MediaType mediaType,
+			Object body, Map<String, String> headersMap, ResponseExtractor<T> responseExtractor,
+			RequestTimeouts timeouts, AtomicLong sentBytes, AtomicLong receivedBytes) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		try {
+			if (timeouts.isExpired()) {
+				throw timeouts.deadlineExpired(null);
+			}
+			HttpHeaders headers = new HttpHeaders();
+			headers.setContentType(mediaType);
+			if (headersMap != null) {
+				headersMap.forEach(headers::add);
+			}
+			if ("y".equalsIgnoreCase(debugRequestResponse)) {
+				utilLogger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "Request: ", getObjectMapper().writeValueAsString(body));
+			}
+
+			ResponseExtractor<T> extractor = responseExtractor;
+			if ("y".equalsIgnoreCase(debugRequestResponse)) {
+				extractor = clientHttpResponse -> {
+					byte[] responseBody = StreamUtils.copyToByteArray(clientHttpResponse.getBody());
+					utilLogger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "Response: ",
+							new String(responseBody, StandardCharsets.UTF_8));
+					return responseExtractor.extractData(new BufferedClientHttpResponse(clientHttpResponse, responseBody));
+				};
+			}
+
+			FutureCallback<T> callback = new FutureCallback<>() {
+				@Override
+				public void completed(T value) {
+					future.complete(value);
+				}
+
+				@Override
+				public void failed(Exception ex) {
+					utilLogger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error ", ex);
+					future.completeExceptionally(
+							new RestClientException("rest call failed" + ExceptionUtils.getStackTrace(ex), ex));
+				}
+
+				@Override
+				public void cancelled() {
+					future.cancel(false);
+				}
+			};
+
+			AsyncEntityProducer entityProducer = null;
+			if (body instanceof SerializedRequestBody serializedBody) {
+				headers.putAll(serializedBody.getHeaders());
+				byte[] requestBody = serializedBody.getBody();
+				entityProducer = AsyncEntityProducers.create(requestBody,
+						ContentType.parse(String.valueOf(headers.getContentType())));
+				if (sentBytes != null) {
+					sentBytes.addAndGet(requestBody.length);
+				}
+			} else if (body != null) {
+				// The converter sets the content headers before the body is written
+				StreamingHttpOutputMessage.Body requestBody = prepareRequestBody(body, headers);
+				entityProducer = new StreamingEntityProducer(requestBody,
+						ContentType.parse(String.valueOf(headers.getContentType())), sentBytes, callback::failed);
+			}
+			BasicHttpRequest request = new BasicHttpRequest(httpMethodType.name(), URI.create(url));
+			// Content headers are derived from the entity by the client itself
+			headers.forEach((name, values) -> {
+				if (!HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name) && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+					values.forEach(value -> request.addHeader(name, value));
+				}
+			});
+			if (!headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+				request.addHeader(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING);
+			}
+
+			HttpClientContext context = HttpClientContext.create();
+			context.setRequestConfig(timeouts.toRequestConfig());
+			Future<T> exchange = getAsyncHttpClient().execute(new BasicRequestProducer(request, entityProducer),
+					new StreamingResponseConsumer<>(extractor, receivedBytes), context, callback);
+			if (timeouts.hasDeadline()) {
+				CompletableFuture<Void> expiry = CompletableFuture.runAsync(() -> {
+					Exception timeout = timeouts.deadlineExpired(null);
+					if (future.completeExceptionally(new RestClientException(
+							"rest call failed" + ExceptionUtils.getStackTrace(timeout), timeout))) {
+						utilLogger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error ", timeout);
+					}
+				}, CompletableFuture.delayedExecutor(timeouts.getRemainingNanos(), TimeUnit.NANOSECONDS));
+				future.whenComplete((value, ex) -> expiry.cancel(false));
+			}
+			// Cancelled or past its deadline, the exchange is aborted
+			future.whenComplete((value, ex) -> {
+				if (ex != null) {
+					exchange.cancel(true);
+				}
+			});
+		} catch (Exception ex) {
+			utilLogger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error ", ex);
+			future.completeExceptionally(new RestClientException("rest call failed" + ExceptionUtils.getStackTrace(ex), ex));
+		}
+		return future;
+	}
+
+	/**
+	 * Serializes a request body the way {@link #restRequestAsync} would, so that
+	 * the result can be sent several times, e.g. to more than one URL or again
+	 * when a call is retried.
+	 *
+	 * @param body      Request payload.
+	 * @param mediaType Content type of the request body.
+	 * @return The serialized body with its content headers.
+	 * @throws RestClientException If the body cannot be serialized.
+	 * @since 1.3.0
+	 */
+	public static SerializedRequestBody serializeRequestBody(Object body, MediaType mediaType) {
+		try {
+			HttpHeaders headers = new HttpHeaders();
+			headers.setContentType(mediaType);
+			byte[] serializedBody = writeRequestBody(body, headers);
+			return new SerializedRequestBody(serializedBody, headers);
+		} catch (Exception ex) {
+			utilLogger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "error ", ex);
+			throw new RestClientException("rest call failed" + ExceptionUtils.getStackTrace(ex), ex);
+		}
+	}
+
+	/**
+	 * Writes a request body into memory with the message converters of the
+	 * {@link RestTemplate}, the way it would be written to a request stream.
+	 * Headers set by the converter, such as a multipart boundary, are added to
+	 * the given headers.
+	 */
+	private static byte[] writeRequestBody(Object body, HttpHeaders headers)
+			throws IOException, NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		prepareRequestBody(body, headers).writeTo(buffer);
+		return buffer.toByteArray();
+	}
+
+	/**
+	 * Hands a request body to the message converters of the {@link RestTemplate}
+	 * and returns it as the body they stream, to be written later. Headers set
+	 * by the converter, such as a multipart boundary, are added to the given
+	 * headers. A converter that does not stream writes the body into memory at
+	 * once.
+	 */
+	@SuppressWarnings("unchecked")
+	private static StreamingHttpOutputMessage.Body prepareRequestBody(Object body, HttpHeaders headers)
+			throws IOException, NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+		MediaType contentType = headers.getContentType();
+		for (HttpMessageConverter<?> converter : getRestTemplate().getMessageConverters()) {
+			if (converter.canWrite(body.getClass(), contentType)) {
+				PreparedOutputMessage outputMessage = new PreparedOutputMessage(headers);
+				((HttpMessageConverter<Object>) converter).write(body, contentType, outputMessage);
+				return outputMessage.getPreparedBody();
+			}
+		}
+		throw new HttpMessageNotWritableException(
+				"No converter for [" + body.getClass().getName() + "] with content type [" + contentType + "]");
+	}
+
 	/**
 	 * Returns a singleton {@link RestTemplate} instance configured with:
 	 * <ul>
 	 *     <li>Connection pooling.</li>
 	 *     <li>Optional SSL certificate validation bypass (for dev/test).</li>
 	 * </ul>
+	 * The instance is created once, under a lock, and read without locking afterwards.
 	 *
 	 * @return Configured {@link RestTemplate} instance.
 	 * @throws NoSuchAlgorithmException If SSL algorithm is unavailable.
 	 * @throws KeyStoreException        If keystore initialization fails.
 	 * @throws KeyManagementException   If SSL context initialization fails.
 	 */
-	private static synchronized RestTemplate getRestTemplate() throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
-		if (REST_TEMPLATE == null) {
-			// Configure connection manager for pooling
-			PoolingHttpClientConnectionManager connectionManager;
-			if (getSSLBypassFromEnv()) {
-				// Create an SSL context that trusts all certificates
-				SSLContext sslContext = SSLContexts.custom()
-						.loadTrustMaterial(null, (chain, authType) -> true)
-						.build();
-				SSLConnectionSocketFactory socketFactory = new SSLConnectionSocketFactory(
-						sslContext, new String[]{TLS.V_1_3.toString(), TLS.V_1_2.toString()}, null, NoopHostnameVerifier.INSTANCE);
-				connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
-						.setSSLSocketFactory(socketFactory)
-						.setMaxConnPerRoute(getMaxConnectionPerRouteFromEnv())
-						.setMaxConnTotal(getTotalMaxConnectionsFromEnv())
-						.build();
-			} else {
-				SSLConnectionSocketFactory csf = new SSLConnectionSocketFactory(
-						SSLContexts.createSystemDefault(),
-						new DefaultHostnameVerifier()
-				);
-
-				connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
-						.setSSLSocketFactory(csf)
-						.setMaxConnPerRoute(getMaxConnectionPerRouteFromEnv())
-						.setMaxConnTotal(getTotalMaxConnectionsFromEnv())
-						.build();
-			}
-
-			// Configure HttpClient
-			CloseableHttpClient httpClient = HttpClients.custom()
-					.setConnectionManager(connectionManager)
-					.disableCookieManagement()
+	private static RestTemplate getRestTemplate() throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+		RestTemplate restTemplate = REST_TEMPLATE;
+		if (restTemplate == null) {
+			CLIENT_LOCK.lock();
+			try {
+				if (REST_TEMPLATE == null) {
+					int maxConnectionPerRoute = getMaxConnectionPerRouteFromEnv();
+					int totalMaxConnections = getTotalMaxConnectionsFromEnv();
+					CONNECTION_PERMITS = new ConnectionPermits(maxConnectionPerRoute, totalMaxConnections);
+					REST_TEMPLATE = createRestTemplate(maxConnectionPerRoute, totalMaxConnections);
+				}
+				restTemplate = REST_TEMPLATE;
+			} finally {
+				CLIENT_LOCK.unlock();
+			}
+		}
+		return restTemplate;
+	}
+
+	private static RestTemplate createRestTemplate(int maxConnectionPerRoute, int totalMaxConnections)
+			throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+		// Configure connection manager for pooling
+		PoolingHttpClientConnectionManager connectionManager;
+		if (getSSLBypassFromEnv()) {
+			// Create an SSL context that trusts all certificates
+			SSLContext sslContext = SSLContexts.custom()
+					.loadTrustMaterial(null, (chain, authType) -> true)
 					.build();
+			SSLConnectionSocketFactory socketFactory = new SSLConnectionSocketFactory(
+					sslContext, new String[]{TLS.V_1_3.toString(), TLS.V_1_2.toString()}, null, NoopHostnameVerifier.INSTANCE);
+			connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+					.setSSLSocketFactory(socketFactory)
+					.setMaxConnPerRoute(maxConnectionPerRoute)
+					.setMaxConnTotal(totalMaxConnections)
+					.build();
+		} else {
+			SSLConnectionSocketFactory csf = new SSLConnectionSocketFactory(
+					SSLContexts.createSystemDefault(),
+					new DefaultHostnameVerifier()
+			);
+
+			connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+					.setSSLSocketFactory(csf)
+					.setMaxConnPerRoute(maxConnectionPerRoute)
+					.setMaxConnTotal(totalMaxConnections)
+					.build();
+		}
+
+		CONNECTION_MANAGER = connectionManager;
+
+		// Configure HttpClient
+		// Failed calls are retried by the client, within its retry budget
+		// Connections idle for long, e.g. to SDK service URLs no longer configured, are closed
+		// Response bodies are counted as received, below the stage decompressing them
+		CloseableHttpClient httpClient = HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.disableCookieManagement()
+				.disableAutomaticRetries()
+				.evictIdleConnections(TimeValue.ofSeconds(getIdleConnectionTimeoutFromEnv()))
+				.addExecInterceptorBefore(ChainElement.PROTOCOL.name(), "count-received-bytes",
+						TimedExchange::countReceivedBytes)
+				.build();
+
+		HttpComponentsClientHttpRequestFactory requestFactory = new TimedRequestFactory(httpClient);
+		RestTemplate restTemplate = new RestTemplate(requestFactory);
+		// Request envelopes are streamed to the socket instead of being built in memory
+		restTemplate.getMessageConverters().add(0, new RequestEnvelopeHttpMessageConverter());
+		// Compressed bodies are written by the other converters through a compressing stream
+		restTemplate.getMessageConverters().add(0,
+				new CompressingHttpMessageConverter(restTemplate.getMessageConverters()));
+		return restTemplate;
+	}
+
+	/**
+	 * Returns the started singleton non-blocking HTTP client, with the same
+	 * connection limits and SSL certificate validation setting as the
+	 * {@link RestTemplate}.
+	 *
+	 * @return Configured {@link CloseableHttpAsyncClient} instance.
+	 * @throws NoSuchAlgorithmException If SSL algorithm is unavailable.
+	 * @throws KeyStoreException        If keystore initialization fails.
+	 * @throws KeyManagementException   If SSL context initialization fails.
+	 */
+	private static CloseableHttpAsyncClient getAsyncHttpClient()
+			throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+		CloseableHttpAsyncClient asyncHttpClient = ASYNC_HTTP_CLIENT;
+		if (asyncHttpClient == null) {
+			CLIENT_LOCK.lock();
+			try {
+				if (ASYNC_HTTP_CLIENT == null) {
+					ASYNC_HTTP_CLIENT = createAsyncHttpClient();
+				}
+				asyncHttpClient = ASYNC_HTTP_CLIENT;
+			} finally {
+				CLIENT_LOCK.unlock();
+			}
+		}
+		return asyncHttpClient;
+	}
+
+	private static CloseableHttpAsyncClient createAsyncHttpClient()
+			throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+		TlsStrategy tlsStrategy;
+		if (getSSLBypassFromEnv()) {
+			tlsStrategy = ClientTlsStrategyBuilder.create()
+					.setSslContext(SSLContexts.custom().loadTrustMaterial(null, (chain, authType) -> true).build())
+					.setTlsVersions(TLS.V_1_3, TLS.V_1_2)
+					.setHostnameVerifier(NoopHostnameVerifier.INSTANCE)
+					.build();
+		} else {
+			tlsStrategy = ClientTlsStrategyBuilder.create()
+					.setSslContext(SSLContexts.createSystemDefault())
+					.setHostnameVerifier(new DefaultHostnameVerifier())
+					.build();
+		}
+		PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+				.setTlsStrategy(tlsStrategy)
+				.setMaxConnPerRoute(getMaxConnectionPerRouteFromEnv())
+				.setMaxConnTotal(getTotalMaxConnectionsFromEnv())
+				.build();
+		ASYNC_CONNECTION_MANAGER = connectionManager;
+
+		CloseableHttpAsyncClient asyncHttpClient = HttpAsyncClients.custom()
+				.setConnectionManager(connectionManager)
+				.disableCookieManagement()
+				.disableAutomaticRetries()
+				.evictIdleConnections(TimeValue.ofSeconds(getIdleConnectionTimeoutFromEnv()))
+				.build();
+		asyncHttpClient.start();
+		return asyncHttpClient;
+	}
+
+	/**
+	 * Returns the totals of the connection pool of the blocking HTTP client: the
+	 * connections leased, the requests waiting for a connection, and the idle
+	 * connections available. All zero until the client is created by a first
+	 * request.
+	 *
+	 * @return The pool totals.
+	 * @since 1.3.0
+	 */
+	public static PoolStats getConnectionPoolStats() {
+		PoolingHttpClientConnectionManager connectionManager = CONNECTION_MANAGER;
+		return connectionManager == null ? new PoolStats(0, 0, 0, 0) : connectionManager.getTotalStats();
+	}
+
+	/**
+	 * Returns the totals of the connection pool of the non-blocking HTTP client,
+	 * as {@link #getConnectionPoolStats()} does for the blocking one.
+	 *
+	 * @return The pool totals.
+	 * @since 1.3.0
+	 */
+	public static PoolStats getAsyncConnectionPoolStats() {
+		PoolingAsyncClientConnectionManager connectionManager = ASYNC_CONNECTION_MANAGER;
+		return connectionManager == null ? new PoolStats(0, 0, 0, 0) : connectionManager.getTotalStats();
+	}
 
-			HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
-			REST_TEMPLATE = new RestTemplate(requestFactory);
+	/**
+	 * Returns the executor the client fans work out on, e.g. the init calls to
+	 * several SDK service URLs or the shards of a match gallery.
+	 * <p>
+	 * With virtual threads enabled, through the system property or environment
+	 * variable <code>mosip_biosdk_virtual_threads=true</code> (or the init
+	 * parameter <code>config.parameter.mosip_biosdk_virtual_threads</code>), each
+	 * task runs on its own virtual thread. Otherwise tasks run one after the other
+	 * on the calling thread, as they always have.
+	 * </p>
+	 *
+	 * @return The fan-out executor.
+	 * @since 1.3.0
+	 */
+	public static Executor getFanOutExecutor() {
+		if (!isVirtualThreadsEnabled()) {
+			return Runnable::run;
 		}
-		return REST_TEMPLATE;
+		ExecutorService executor = VIRTUAL_THREAD_EXECUTOR;
+		if (executor == null) {
+			CLIENT_LOCK.lock();
+			try {
+				if (VIRTUAL_THREAD_EXECUTOR == null) {
+					VIRTUAL_THREAD_EXECUTOR = Executors.newThreadPerTaskExecutor(
+							Thread.ofVirtual().name("biosdk-client-", 0).factory());
+				}
+				executor = VIRTUAL_THREAD_EXECUTOR;
+			} finally {
+				CLIENT_LOCK.unlock();
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Returns the executor writing the request bodies streamed to the
+	 * non-blocking HTTP client and decoding the response bodies it streams: the
+	 * fan-out executor with virtual threads enabled, otherwise a pool of daemon
+	 * threads, since a writer blocks while its buffer is full and a reader while
+	 * it is empty.
+	 */
+	private static Executor getBodyStreamExecutor() {
+		if (isVirtualThreadsEnabled()) {
+			return getFanOutExecutor();
+		}
+		ExecutorService executor = BODY_STREAM_EXECUTOR;
+		if (executor == null) {
+			CLIENT_LOCK.lock();
+			try {
+				if (BODY_STREAM_EXECUTOR == null) {
+					BODY_STREAM_EXECUTOR = Executors.newCachedThreadPool(
+							Thread.ofPlatform().name("biosdk-client-body-stream-", 0).daemon().factory());
+				}
+				executor = BODY_STREAM_EXECUTOR;
+			} finally {
+				CLIENT_LOCK.unlock();
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Flag enabling virtual threads for fan-out work. Set as system property or
+	 * environment variable 'mosip_biosdk_virtual_threads'.
+	 *
+	 * @return true if virtual threads are enabled, otherwise false.
+	 * @since 1.3.0
+	 */
+	public static boolean isVirtualThreadsEnabled() {
+		String value = System.getProperty(VIRTUAL_THREADS) != null ? System.getProperty(VIRTUAL_THREADS)
+				: System.getenv(VIRTUAL_THREADS);
+		return BooleanUtils.toBoolean(value);
 	}
 
 	/**
@@ -204,6 +854,20 @@ public class Util {
 		return value;
 	}
 
+	/**
+	 * Reads from system properties how long a pooled connection may stay idle
+	 * before it is closed. Defaults to 60 seconds if not set.
+	 *
+	 * @return Idle connection timeout, in seconds.
+	 * @since 1.3.0
+	 */
+	private static Long getIdleConnectionTimeoutFromEnv() {
+		Long value = System.getProperty(IDLE_CONN_TIMEOUT) != null ?
+				Long.parseLong(System.getProperty(IDLE_CONN_TIMEOUT)) : 60L;
+		utilLogger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "Idle Connection Timeout: ", value.toString());
+		return value;
+	}
+
 	/**
 	 * Determines whether SSL certificate validation should be bypassed.
 	 * Defaults to true for non-production environments.
@@ -237,4 +901,527 @@ public class Util {
 
 		return System.getenv("mosip_biosdk_request_response_debug");
 	}
-}
\ No newline at end of file
+
+	/**
+	 * A blocking exchange sent with {@link RequestTimeouts}. While it is sent, the
+	 * {@link TimedRequestFactory} finds it on the sending thread, gives its request
+	 * the request configuration of the timeouts and hands the request over, so that
+	 * it can be aborted when the deadline expires.
+	 */
+	private static final class TimedExchange {
+		private static final ThreadLocal<TimedExchange> SENDING = new ThreadLocal<>();
+
+		/** Context attribute holding the counter of the bytes received. */
+		private static final String RECEIVED_BYTES = TimedExchange.class.getName() + ".receivedBytes";
+
+		private final RequestTimeouts timeouts;
+
+		private final AtomicLong receivedBytes;
+
+		private volatile Cancellable request;
+
+		private volatile boolean done;
+
+		private volatile boolean aborted;
+
+		TimedExchange(RequestTimeouts timeouts, AtomicLong receivedBytes) {
+			this.timeouts = timeouts;
+			this.receivedBytes = receivedBytes;
+		}
+
+		<T> T send(Supplier<T> exchange) {
+			if (timeouts == RequestTimeouts.NONE && receivedBytes == null) {
+				return exchange.get();
+			}
+			CompletableFuture<Void> expiry = !timeouts.hasDeadline() ? null
+					: CompletableFuture.runAsync(this::abort,
+							CompletableFuture.delayedExecutor(timeouts.getRemainingNanos(), TimeUnit.NANOSECONDS));
+			SENDING.set(this);
+			try {
+				return exchange.get();
+			} finally {
+				done = true;
+				SENDING.remove();
+				if (expiry != null) {
+					expiry.cancel(false);
+				}
+			}
+		}
+
+		void attach(ClassicHttpRequest request) {
+			if (request instanceof Cancellable cancellable) {
+				this.request = cancellable;
+				// Expired before the request was created
+				if (aborted) {
+					cancellable.cancel();
+				}
+			}
+		}
+
+		boolean isAborted() {
+			return aborted;
+		}
+
+		/**
+		 * Step of the exec chain of the blocking client wrapping the response
+		 * entity so that its bytes are counted, if the exchange counts them.
+		 */
+		private static ClassicHttpResponse countReceivedBytes(ClassicHttpRequest request, ExecChain.Scope scope,
+				ExecChain chain) throws IOException, HttpException {
+			ClassicHttpResponse response = chain.proceed(request, scope);
+			org.apache.hc.core5.http.HttpEntity entity = response.getEntity();
+			if (entity != null && scope.clientContext.getAttribute(RECEIVED_BYTES) instanceof AtomicLong counter) {
+				response.setEntity(new CountingHttpEntity(entity, counter));
+			}
+			return response;
+		}
+
+		private void abort() {
+			if (done) {
+				return;
+			}
+			aborted = true;
+			Cancellable cancellable = request;
+			if (cancellable != null) {
+				cancellable.cancel();
+			}
+		}
+	}
+
+	/**
+	 * Request factory of the {@link RestTemplate}, applying the timeouts and the
+	 * counter of the bytes received of the {@link TimedExchange} being sent on
+	 * the current thread, if any.
+	 */
+	private static final class TimedRequestFactory extends HttpComponentsClientHttpRequestFactory {
+		TimedRequestFactory(HttpClient httpClient) {
+			super(httpClient);
+		}
+
+		@Override
+		protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+			ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+			TimedExchange exchange = TimedExchange.SENDING.get();
+			if (exchange != null) {
+				exchange.attach(request);
+			}
+			return request;
+		}
+
+		@Override
+		protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+			TimedExchange exchange = TimedExchange.SENDING.get();
+			if (exchange == null) {
+				return super.createHttpContext(httpMethod, uri);
+			}
+			HttpClientContext context = HttpClientContext.create();
+			if (exchange.timeouts != RequestTimeouts.NONE) {
+				context.setRequestConfig(exchange.timeouts.toRequestConfig());
+			}
+			if (exchange.receivedBytes != null) {
+				context.setAttribute(TimedExchange.RECEIVED_BYTES, exchange.receivedBytes);
+			}
+			return context;
+		}
+	}
+
+	/**
+	 * Output message keeping the body a converter streams, or else buffering
+	 * what it writes, until the body is sent.
+	 */
+	private static final class PreparedOutputMessage implements StreamingHttpOutputMessage {
+		private final HttpHeaders headers;
+		private Body body;
+		private ByteArrayOutputStream buffer;
+
+		private PreparedOutputMessage(HttpHeaders headers) {
+			this.headers = headers;
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return headers;
+		}
+
+		@Override
+		public void setBody(Body body) {
+			this.body = body;
+		}
+
+		@Override
+		public OutputStream getBody() {
+			if (buffer == null) {
+				buffer = new ByteArrayOutputStream();
+			}
+			return buffer;
+		}
+
+		private Body getPreparedBody() {
+			if (body != null) {
+				return body;
+			}
+			ByteArrayOutputStream written = buffer;
+			return out -> {
+				if (written != null) {
+					written.writeTo(out);
+				}
+			};
+		}
+	}
+
+	/**
+	 * Entity producer of the non-blocking client writing a streamed body on a
+	 * writer thread. The writer blocks while the buffer is full, so a body takes
+	 * no more memory than the buffer however large it is. A failure to write
+	 * the body is reported to the given handler, to fail the exchange.
+	 */
+	private static final class StreamingEntityProducer extends AbstractClassicEntityProducer {
+		private final StreamingHttpOutputMessage.Body body;
+		private final AtomicLong sentBytes;
+		private final Consumer<Exception> failureHandler;
+
+		private StreamingEntityProducer(StreamingHttpOutputMessage.Body body, ContentType contentType,
+				AtomicLong sentBytes, Consumer<Exception> failureHandler) {
+			super(ASYNC_BODY_BUFFER_SIZE, contentType, getBodyStreamExecutor());
+			this.body = body;
+			this.sentBytes = sentBytes;
+			this.failureHandler = failureHandler;
+		}
+
+		@Override
+		protected void produceData(ContentType contentType, OutputStream outputStream) throws IOException {
+			try {
+				body.writeTo(sentBytes == null ? outputStream : new CountingOutputStream(outputStream, sentBytes));
+			} catch (IOException | RuntimeException ex) {
+				failureHandler.accept(ex);
+				throw ex;
+			}
+		}
+	}
+
+	/**
+	 * {@link ClientHttpRequest} counting the bytes of the body written to it,
+	 * whether the body is streamed or written to {@link #getBody()}.
+	 */
+	private static final class CountingClientHttpRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+		private final ClientHttpRequest delegate;
+		private final AtomicLong sentBytes;
+
+		private CountingClientHttpRequest(ClientHttpRequest delegate, AtomicLong sentBytes) {
+			this.delegate = delegate;
+			this.sentBytes = sentBytes;
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return delegate.getMethod();
+		}
+
+		@Override
+		public URI getURI() {
+			return delegate.getURI();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return delegate.getHeaders();
+		}
+
+		@Override
+		public OutputStream getBody() throws IOException {
+			return new CountingOutputStream(delegate.getBody(), sentBytes);
+		}
+
+		@Override
+		public void setBody(Body body) {
+			Body counted = new Body() {
+				@Override
+				public void writeTo(OutputStream out) throws IOException {
+					body.writeTo(new CountingOutputStream(out, sentBytes));
+				}
+
+				@Override
+				public boolean repeatable() {
+					return body.repeatable();
+				}
+			};
+			if (delegate instanceof StreamingHttpOutputMessage streamingRequest) {
+				streamingRequest.setBody(counted);
+			} else {
+				try {
+					counted.writeTo(delegate.getBody());
+				} catch (IOException e) {
+					throw new HttpMessageNotWritableException("Could not write request body", e);
+				}
+			}
+		}
+
+		@Override
+		public ClientHttpResponse execute() throws IOException {
+			// Only written to by the request callback, the original request is executed
+			return delegate.execute();
+		}
+	}
+
+	/**
+	 * Response entity of the blocking client adding the number of bytes read
+	 * from it to a counter.
+	 */
+	private static final class CountingHttpEntity extends HttpEntityWrapper {
+		private final AtomicLong count;
+
+		private CountingHttpEntity(org.apache.hc.core5.http.HttpEntity entity, AtomicLong count) {
+			super(entity);
+			this.count = count;
+		}
+
+		@Override
+		public InputStream getContent() throws IOException {
+			return new CountingInputStream(super.getContent(), count);
+		}
+
+		@Override
+		public void writeTo(OutputStream outStream) throws IOException {
+			super.writeTo(new CountingOutputStream(outStream, count));
+		}
+	}
+
+	/**
+	 * Stream adding the number of bytes read through it to a counter.
+	 */
+	private static final class CountingInputStream extends FilterInputStream {
+		private final AtomicLong count;
+
+		private CountingInputStream(InputStream in, AtomicLong count) {
+			super(in);
+			this.count = count;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if (b >= 0) {
+				count.incrementAndGet();
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = in.read(b, off, len);
+			if (read > 0) {
+				count.addAndGet(read);
+			}
+			return read;
+		}
+	}
+
+	/**
+	 * Stream adding the number of bytes written through it to a counter.
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+		private final AtomicLong count;
+
+		private CountingOutputStream(OutputStream out, AtomicLong count) {
+			super(out);
+			this.count = count;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count.incrementAndGet();
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count.addAndGet(len);
+		}
+	}
+
+	/**
+	 * {@link ClientHttpResponse} whose body has already been read into memory,
+	 * used when the response is logged before being extracted.
+	 */
+	private static final class BufferedClientHttpResponse implements ClientHttpResponse {
+		private final ClientHttpResponse delegate;
+		private final byte[] body;
+
+		private BufferedClientHttpResponse(ClientHttpResponse delegate, byte[] body) {
+			this.delegate = delegate;
+			this.body = body;
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return delegate.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return delegate.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return delegate.getHeaders();
+		}
+
+		@Override
+		public InputStream getBody() {
+			return new ByteArrayInputStream(body);
+		}
+
+		@Override
+		public void close() {
+			delegate.close();
+		}
+	}
+
+	/**
+	 * Response consumer of the non-blocking client streaming the response body
+	 * to the extractor, which reads it on a reader thread. The client reads no
+	 * more of the body than the buffer holds until the extractor has read it,
+	 * so a response takes no more memory than the buffer however large it is.
+	 * The bytes of the body are counted as they arrive, before decompression.
+	 */
+	private static final class StreamingResponseConsumer<T> implements AsyncResponseConsumer<T> {
+		private final ResponseExtractor<T> extractor;
+		private final AtomicLong receivedBytes;
+		private volatile AbstractClassicEntityConsumer<T> entityConsumer;
+
+		private StreamingResponseConsumer(ResponseExtractor<T> extractor, AtomicLong receivedBytes) {
+			this.extractor = extractor;
+			this.receivedBytes = receivedBytes;
+		}
+
+		@Override
+		public void consumeResponse(HttpResponse response, EntityDetails entityDetails, HttpContext context,
+				FutureCallback<T> resultCallback) throws HttpException, IOException {
+			if (entityDetails == null) {
+				T result;
+				try {
+					result = extractor.extractData(
+							new AsyncClientHttpResponse(response, null, InputStream.nullInputStream()));
+				} catch (IOException | RuntimeException ex) {
+					resultCallback.failed(ex);
+					return;
+				}
+				resultCallback.completed(result);
+				return;
+			}
+			AbstractClassicEntityConsumer<T> consumer = new AbstractClassicEntityConsumer<>(ASYNC_BODY_BUFFER_SIZE,
+					getBodyStreamExecutor()) {
+				@Override
+				protected T consumeData(ContentType contentType, InputStream inputStream) throws IOException {
+					T result = extractor.extractData(new AsyncClientHttpResponse(response, contentType, inputStream));
+					// Whatever the extractor left unread is drained, so the exchange completes
+					StreamUtils.drain(inputStream);
+					return result;
+				}
+			};
+			entityConsumer = consumer;
+			consumer.streamStart(entityDetails, resultCallback);
+		}
+
+		@Override
+		public void informationResponse(HttpResponse response, HttpContext context) {
+			// Interim responses carry no body
+		}
+
+		@Override
+		public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+			entityConsumer.updateCapacity(capacityChannel);
+		}
+
+		@Override
+		public void consume(ByteBuffer src) throws IOException {
+			if (receivedBytes != null) {
+				receivedBytes.addAndGet(src.remaining());
+			}
+			entityConsumer.consume(src);
+		}
+
+		@Override
+		public void streamEnd(List<? extends Header> trailers) throws HttpException, IOException {
+			entityConsumer.streamEnd(trailers);
+		}
+
+		@Override
+		public void failed(Exception cause) {
+			AbstractClassicEntityConsumer<T> consumer = entityConsumer;
+			if (consumer != null) {
+				consumer.failed(cause);
+			}
+		}
+
+		@Override
+		public void releaseResources() {
+			AbstractClassicEntityConsumer<T> consumer = entityConsumer;
+			if (consumer != null) {
+				consumer.releaseResources();
+			}
+		}
+	}
+
+	/**
+	 * {@link ClientHttpResponse} view of a response of the non-blocking client
+	 * and of its streamed body. Gzip and deflate bodies are decompressed as they
+	 * are read.
+	 */
+	private static final class AsyncClientHttpResponse implements ClientHttpResponse {
+		private final HttpResponse response;
+		private final InputStream body;
+		private final HttpHeaders headers = new HttpHeaders();
+		private final String contentEncoding;
+
+		private AsyncClientHttpResponse(HttpResponse response, ContentType contentType, InputStream body) {
+			this.response = response;
+			this.body = body;
+			for (Header header : response.getHeaders()) {
+				headers.add(header.getName(), header.getValue());
+			}
+			this.contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+			if (contentEncoding != null) {
+				headers.remove(HttpHeaders.CONTENT_ENCODING);
+				headers.remove(HttpHeaders.CONTENT_LENGTH);
+			}
+			if (contentType != null && !headers.containsKey(HttpHeaders.CONTENT_TYPE)) {
+				headers.set(HttpHeaders.CONTENT_TYPE, contentType.toString());
+			}
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() {
+			return HttpStatusCode.valueOf(response.getCode());
+		}
+
+		@Override
+		public String getStatusText() {
+			return response.getReasonPhrase();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return headers;
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			if (contentEncoding == null || "identity".equalsIgnoreCase(contentEncoding)) {
+				return body;
+			} else if ("gzip".equalsIgnoreCase(contentEncoding) || "x-gzip".equalsIgnoreCase(contentEncoding)) {
+				return new GZIPInputStream(body);
+			} else if ("deflate".equalsIgnoreCase(contentEncoding)) {
+				return new InflaterInputStream(body);
+			}
+			throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+		}
+
+		@Override
+		public void close() {
+			// The body stream belongs to the response consumer, which drains it
+		}
+	}
+}
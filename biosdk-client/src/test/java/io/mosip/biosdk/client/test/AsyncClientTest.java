@@ -0,0 +1,192 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.impl.spec_1_0.AsyncClient_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn.Encoding;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn.ReceivedRequest;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class AsyncClientTest {
+	private MockWebServer server;
+
+	private SdkServiceStandIn service;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		service = new SdkServiceStandIn(Encoding.CBOR);
+		server = new MockWebServer();
+		server.setDispatcher(service);
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		server.shutdown();
+	}
+
+	@Test
+	void checkQualityAsync_ReturnsSameResponseAsSync() throws Exception {
+		AsyncClient_V_1_0 client = initClient(Map.of());
+		BiometricRecord sample = getFaceSample();
+
+		Response<QualityCheck> response = client.checkQualityAsync(sample, List.of(BiometricType.FACE), new HashMap<>())
+				.get(10, TimeUnit.SECONDS);
+		Response<QualityCheck> syncResponse = client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(syncResponse.getStatusCode(), response.getStatusCode());
+		assertEquals(syncResponse.getResponse().getScores().get(BiometricType.FACE).getScore(),
+				response.getResponse().getScores().get(BiometricType.FACE).getScore());
+	}
+
+	@Test
+	void matchAsync_ManyConcurrentCalls() throws Exception {
+		AsyncClient_V_1_0 client = initClient(Map.of());
+		BiometricRecord sample = getFaceSample();
+		BiometricRecord other = getFaceSample();
+		List<CompletableFuture<Response<MatchDecision[]>>> futures = new ArrayList<>();
+
+		for (int i = 0; i < 50; i++) {
+			futures.add(client.matchAsync(sample, new BiometricRecord[] { other, sample },
+					List.of(BiometricType.FACE), new HashMap<>()));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+		for (CompletableFuture<Response<MatchDecision[]>> future : futures) {
+			MatchDecision[] decisions = future.join().getResponse();
+			assertEquals(2, decisions.length);
+			assertEquals(Match.MATCHED, decisions[1].getDecisions().get(BiometricType.FACE).getMatch());
+		}
+	}
+
+	@Test
+	void asyncCalls_UseConfiguredWireFormatTransportAndCompression() throws Exception {
+		BiometricRecord sample = getFaceSample();
+		AsyncClient_V_1_0 cborClient = initClient(Map.of("format.wire.test", "cbor"));
+
+		Response<BiometricRecord> response = cborClient.extractTemplateAsync(sample, List.of(BiometricType.FACE),
+				new HashMap<>()).get(10, TimeUnit.SECONDS);
+
+		assertEquals(Encoding.CBOR, service.getLastReceived("/extract-template").encoding());
+		assertArrayEquals(sample.getSegments().get(0).getBdb(), response.getResponse().getSegments().get(0).getBdb());
+
+		AsyncClient_V_1_0 multipartClient = initClient(Map.of("format.transport.test", "multipart",
+				"format.compression.test", "gzip", "format.compression-threshold.test", "1"));
+
+		multipartClient.segmentAsync(sample, List.of(BiometricType.FACE), new HashMap<>()).get(10, TimeUnit.SECONDS);
+
+		ReceivedRequest received = service.getLastReceived("/segment");
+		assertEquals(Encoding.MULTIPART, received.encoding());
+		assertTrue(received.compressed());
+		assertArrayEquals(sample.getSegments().get(0).getBdb(),
+				received.request().at("/sample/segments/0/bdb").binaryValue());
+	}
+
+	@Test
+	void largeRequestBody_IsStreamed() throws Exception {
+		AsyncClient_V_1_0 client = initClient(Map.of());
+		BiometricRecord sample = getFaceSample(128 * 1024, 1);
+
+		MatchDecision[] decisions = client.matchAsync(sample,
+				new BiometricRecord[] { getFaceSample(128 * 1024, 2), sample }, List.of(BiometricType.FACE),
+				new HashMap<>()).get(10, TimeUnit.SECONDS).getResponse();
+
+		assertEquals(Match.MATCHED, decisions[1].getDecisions().get(BiometricType.FACE).getMatch());
+		RecordedRequest match = server.takeRequest();
+		while (!match.getPath().endsWith("/match")) {
+			match = server.takeRequest();
+		}
+		assertEquals("chunked", match.getHeader("Transfer-Encoding"));
+		assertTrue(match.getBodySize() > 3 * 128 * 1024);
+	}
+
+	@Test
+	void gzipResponse_IsDecompressed() throws Exception {
+		service.setGzipResponses(true);
+		AsyncClient_V_1_0 client = initClient(Map.of());
+		BiometricRecord sample = getFaceSample();
+
+		Response<BiometricRecord> response = client.convertFormatV2Async(sample, "ISO19794_5_2011", "IMAGE/JPEG",
+				new HashMap<>(), new HashMap<>(), List.of(BiometricType.FACE)).get(10, TimeUnit.SECONDS);
+
+		assertArrayEquals(sample.getSegments().get(0).getBdb(), response.getResponse().getSegments().get(0).getBdb());
+	}
+
+	@Test
+	void largeResponseBody_IsStreamedToTheDecoder() throws Exception {
+		service.setGzipResponses(true);
+		AsyncClient_V_1_0 client = initClient(Map.of());
+		BiometricRecord sample = getFaceSample(512 * 1024, 1);
+
+		Response<BiometricRecord> response = client.convertFormatV2Async(sample, "ISO19794_5_2011", "IMAGE/JPEG",
+				new HashMap<>(), new HashMap<>(), List.of(BiometricType.FACE)).get(10, TimeUnit.SECONDS);
+
+		assertArrayEquals(sample.getSegments().get(0).getBdb(), response.getResponse().getSegments().get(0).getBdb());
+	}
+
+	@Test
+	void unsuccessfulStatus_FailsFutureWithClientException() throws Exception {
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest recordedRequest) throws InterruptedException {
+				if (recordedRequest.getPath().endsWith("/match")) {
+					return new MockResponse().setResponseCode(500);
+				}
+				return service.dispatch(recordedRequest);
+			}
+		});
+		AsyncClient_V_1_0 client = initClient(Map.of());
+		BiometricRecord sample = getFaceSample();
+
+		CompletableFuture<Response<MatchDecision[]>> future = client.matchAsync(sample, new BiometricRecord[] { sample },
+				List.of(BiometricType.FACE), new HashMap<>());
+
+		ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+		assertInstanceOf(BioSdkClientException.class, e.getCause());
+	}
+
+	@Test
+	void invalidArguments_FailFutureInsteadOfThrowing() {
+		AsyncClient_V_1_0 client = initClient(Map.of());
+
+		CompletableFuture<Response<QualityCheck>> future = client.checkQualityAsync(new BiometricRecord(), List.of(),
+				new HashMap<>());
+
+		ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+		assertInstanceOf(BioSdkClientException.class, e.getCause());
+	}
+
+	private AsyncClient_V_1_0 initClient(Map<String, String> options) {
+		return TestUtil.initClient(new AsyncClient_V_1_0(), server.url("/biosdk-service").toString(), options);
+	}
+}
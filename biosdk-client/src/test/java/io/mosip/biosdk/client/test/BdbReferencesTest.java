@@ -0,0 +1,116 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn.Encoding;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn.ReceivedRequest;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.MockWebServer;
+
+class BdbReferencesTest {
+	private MockWebServer server;
+
+	private SdkServiceStandIn service;
+
+	@AfterEach
+	void stopServer() throws IOException {
+		server.shutdown();
+	}
+
+	@Test
+	void repeatedBdbs_AreSentOnce() throws Exception {
+		Client_V_1_0 client = initClient(true, Map.of("format.bdb-references.test", "true"));
+
+		assertMatchesFirstTwo(client.match(getFaceSample(64, 1), getGallery(), List.of(BiometricType.FACE),
+				new HashMap<>()));
+
+		// The sample is written in full, both copies of it in the gallery refer to it
+		assertEquals(2, service.getLastReceived("/match").bdbReferences());
+	}
+
+	@Test
+	void binaryEnvelope_RefersToRepeatedBdbs() throws Exception {
+		Client_V_1_0 client = initClient(true,
+				Map.of("format.bdb-references.test", "true", "format.wire.test", "cbor"), Encoding.CBOR);
+
+		assertMatchesFirstTwo(client.match(getFaceSample(64, 1), getGallery(), List.of(BiometricType.FACE),
+				new HashMap<>()));
+
+		ReceivedRequest received = service.getLastReceived("/match");
+		assertEquals(Encoding.CBOR, received.encoding());
+		assertEquals(2, received.bdbReferences());
+	}
+
+	@Test
+	void serviceWithoutReferences_GetsEveryBdb() throws Exception {
+		Client_V_1_0 client = initClient(false, Map.of("format.bdb-references.test", "true"));
+
+		assertMatchesFirstTwo(client.match(getFaceSample(64, 1), getGallery(), List.of(BiometricType.FACE),
+				new HashMap<>()));
+
+		assertEquals(0, service.getLastReceived("/match").bdbReferences());
+	}
+
+	@Test
+	void references_AreOffUnlessRequested() throws Exception {
+		Client_V_1_0 client = initClient(true, Map.of());
+
+		assertMatchesFirstTwo(client.match(getFaceSample(64, 1), getGallery(), List.of(BiometricType.FACE),
+				new HashMap<>()));
+
+		assertEquals(0, service.getLastReceived("/match").bdbReferences());
+	}
+
+	@Test
+	void multipart_SendsEqualBdbsAsOnePart() throws Exception {
+		Client_V_1_0 client = initClient(false, Map.of("format.transport.test", "multipart"));
+
+		assertMatchesFirstTwo(client.match(getFaceSample(64, 1), getGallery(), List.of(BiometricType.FACE),
+				new HashMap<>()));
+
+		assertEquals(2, service.getLastReceived("/match").bdbParts());
+	}
+
+	private Client_V_1_0 initClient(boolean advertised, Map<String, String> params, Encoding... binaryEncodings)
+			throws IOException {
+		service = new SdkServiceStandIn(binaryEncodings);
+		service.setBdbReferences(advertised);
+		server = new MockWebServer();
+		server.setDispatcher(service);
+		server.start();
+		return TestUtil.initClient(new Client_V_1_0(), server.url("/biosdk-service").toString(), params);
+	}
+
+	private void assertMatchesFirstTwo(Response<MatchDecision[]> response) {
+		assertEquals(200, response.getStatusCode());
+		assertEquals(3, response.getResponse().length);
+		for (MatchDecision decision : response.getResponse()) {
+			assertEquals(decision.getGalleryIndex() < 2 ? Match.MATCHED : Match.NOT_MATCHED,
+					decision.getDecisions().get(BiometricType.FACE).getMatch());
+		}
+	}
+
+	/**
+	 * Two records with equal BDBs in separate arrays, as read from two packets,
+	 * and another record.
+	 */
+	private BiometricRecord[] getGallery() throws Exception {
+		return new BiometricRecord[] { getFaceSample(64, 1), getFaceSample(64, 1), getFaceSample(64, 2) };
+	}
+}
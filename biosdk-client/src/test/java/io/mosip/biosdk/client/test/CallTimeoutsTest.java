@@ -0,0 +1,203 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.impl.spec_1_0.AsyncClient_V_1_0;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class CallTimeoutsTest {
+	private final List<MockWebServer> servers = new ArrayList<>();
+
+	@AfterEach
+	void stopServers() throws IOException {
+		for (MockWebServer server : servers) {
+			server.shutdown();
+		}
+	}
+
+	@Test
+	void deadlineFlag_AbortsTheCallInProgress() throws Exception {
+		String url = start(3000);
+		Client_V_1_0 client = new Client_V_1_0();
+		client.init(Map.of("format.url.default", url));
+
+		long start = System.nanoTime();
+		BioSdkClientException e = assertThrows(BioSdkClientException.class, () -> client.checkQuality(getFaceSample(),
+				List.of(BiometricType.FACE), new HashMap<>(Map.of("deadline-ms", "300"))));
+
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+		assertTrue(hasCause(e, TimeoutException.class));
+		assertEquals(0, client.getInFlightRequests().get(url));
+	}
+
+	@Test
+	void defaultDeadline_AppliesToCallsWithoutTheFlag() throws Exception {
+		String url = start(3000);
+		Client_V_1_0 client = new Client_V_1_0();
+		client.init(Map.of("format.url.default", url, "timeout.call-ms", "300"));
+
+		long start = System.nanoTime();
+		BioSdkClientException e = assertThrows(BioSdkClientException.class,
+				() -> client.segment(getFaceSample(), List.of(BiometricType.FACE), new HashMap<>()));
+
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+		assertTrue(hasCause(e, TimeoutException.class));
+	}
+
+	@Test
+	void readTimeout_FailsASlowResponse() throws Exception {
+		String url = start(3000);
+		Client_V_1_0 client = new Client_V_1_0();
+		client.init(Map.of("format.url.default", url, "timeout.read-ms", "300"));
+
+		long start = System.nanoTime();
+		BioSdkClientException e = assertThrows(BioSdkClientException.class,
+				() -> client.checkQuality(getFaceSample(), List.of(BiometricType.FACE), new HashMap<>()));
+
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+		assertTrue(hasCause(e, SocketTimeoutException.class));
+	}
+
+	@Test
+	void asyncDeadline_FailsTheFuture() throws Exception {
+		String url = start(3000);
+		AsyncClient_V_1_0 client = new AsyncClient_V_1_0();
+		client.init(Map.of("format.url.default", url));
+
+		long start = System.nanoTime();
+		ExecutionException e = assertThrows(ExecutionException.class, () -> client.checkQualityAsync(getFaceSample(),
+				List.of(BiometricType.FACE), new HashMap<>(Map.of("deadline-ms", "300"))).get(10, TimeUnit.SECONDS));
+
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+		assertTrue(e.getCause() instanceof BioSdkClientException);
+		assertTrue(hasCause(e, TimeoutException.class));
+	}
+
+	@Test
+	void callWithinDeadline_Succeeds() throws Exception {
+		String url = start(0);
+		Client_V_1_0 client = new Client_V_1_0();
+		client.init(Map.of("format.url.default", url, "timeout.read-ms", "5000"));
+
+		Response<QualityCheck> response = client.checkQuality(getFaceSample(), List.of(BiometricType.FACE),
+				new HashMap<>(Map.of("deadline-ms", "5000")));
+
+		assertEquals(200, response.getStatusCode());
+	}
+
+	@Test
+	void batchedCalls_WaitNoLongerThanTheirOwnDeadline() throws Exception {
+		SdkServiceStandIn service = new SdkServiceStandIn();
+		service.setQualityBatchSize(50);
+		String url = start(service, 1000);
+		AsyncClient_V_1_0 client = new AsyncClient_V_1_0();
+		client.init(Map.of("format.url.default", url, "format.quality-batch-window-us.default", "200000"));
+
+		long start = System.nanoTime();
+		CompletableFuture<Response<QualityCheck>> shortCall = client.checkQualityAsync(getFaceSample(256, 1),
+				List.of(BiometricType.FACE), new HashMap<>(Map.of("deadline-ms", "300")));
+		CompletableFuture<Response<QualityCheck>> longCall = client.checkQualityAsync(getFaceSample(256, 2),
+				List.of(BiometricType.FACE), new HashMap<>(Map.of("deadline-ms", "5000")));
+
+		ExecutionException e = assertThrows(ExecutionException.class, () -> shortCall.get(10, TimeUnit.SECONDS));
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+		assertTrue(hasCause(e, TimeoutException.class));
+		// The batch is sent with the latest deadline of its calls
+		assertEquals(200, longCall.get(10, TimeUnit.SECONDS).getStatusCode());
+		assertEquals(1, service.getReceived().stream()
+				.filter(request -> request.path().endsWith("/check-quality-batch")).count());
+	}
+
+	@Test
+	void syncBatchedCall_IsBoundedByItsDeadline() throws Exception {
+		SdkServiceStandIn service = new SdkServiceStandIn();
+		service.setQualityBatchSize(50);
+		String url = start(service, 3000);
+		Client_V_1_0 client = new Client_V_1_0();
+		client.init(Map.of("format.url.default", url, "format.quality-batch-window-us.default", "1000"));
+
+		long start = System.nanoTime();
+		BioSdkClientException e = assertThrows(BioSdkClientException.class, () -> client.checkQuality(getFaceSample(),
+				List.of(BiometricType.FACE), new HashMap<>(Map.of("deadline-ms", "300"))));
+
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+		assertTrue(hasCause(e, TimeoutException.class));
+	}
+
+	@Test
+	void callJoiningAnIdenticalOneInFlight_WaitsNoLongerThanItsOwnDeadline() throws Exception {
+		String url = start(1000);
+		AsyncClient_V_1_0 client = new AsyncClient_V_1_0();
+		client.init(Map.of("format.url.default", url, "quality-memo.ttl-ms", "60000"));
+		BiometricRecord sample = getFaceSample(256, 1);
+
+		long start = System.nanoTime();
+		CompletableFuture<Response<QualityCheck>> first = client.checkQualityAsync(sample,
+				List.of(BiometricType.FACE), new HashMap<>());
+		CompletableFuture<Response<QualityCheck>> joining = client.checkQualityAsync(sample,
+				List.of(BiometricType.FACE), new HashMap<>(Map.of("deadline-ms", "300")));
+
+		ExecutionException e = assertThrows(ExecutionException.class, () -> joining.get(10, TimeUnit.SECONDS));
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+		assertTrue(hasCause(e, TimeoutException.class));
+		assertEquals(200, first.get(10, TimeUnit.SECONDS).getStatusCode());
+	}
+
+	private static boolean hasCause(Throwable failure, Class<? extends Throwable> type) {
+		for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+			if (type.isInstance(cause)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Starts a stand-in answering init at once and the other calls late.
+	 */
+	private String start(long delayMillis) throws IOException {
+		return start(new SdkServiceStandIn(), delayMillis);
+	}
+
+	private String start(SdkServiceStandIn service, long delayMillis) throws IOException {
+		MockWebServer server = new MockWebServer();
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest recordedRequest) throws InterruptedException {
+				MockResponse response = service.dispatch(recordedRequest);
+				return recordedRequest.getPath().endsWith("/init") ? response
+						: response.setHeadersDelay(delayMillis, TimeUnit.MILLISECONDS);
+			}
+		});
+		server.start();
+		servers.add(server);
+		return server.url("/biosdk-service").toString();
+	}
+}
@@ -0,0 +1,145 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.codec.CompressedRequestBody;
+import io.mosip.biosdk.client.codec.Compression;
+import io.mosip.biosdk.client.dto.CheckQualityRequestDto;
+import io.mosip.biosdk.client.dto.MatchRequestDto;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn.Encoding;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn.ReceivedRequest;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.MockWebServer;
+
+class CompressionTest {
+	private MockWebServer server;
+
+	private SdkServiceStandIn service;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		service = new SdkServiceStandIn(Encoding.CBOR);
+		server = new MockWebServer();
+		server.setDispatcher(service);
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		server.shutdown();
+	}
+
+	@Test
+	void requestAboveThreshold_IsSentCompressed() throws Exception {
+		Client_V_1_0 client = initClient(Map.of("format.compression.test", "gzip",
+				"format.compression-threshold.test", "1"));
+		BiometricRecord sample = getFaceSample();
+
+		Response<MatchDecision[]> response = client.match(sample, new BiometricRecord[] { getFaceSample(), sample },
+				List.of(BiometricType.FACE), new HashMap<>());
+
+		ReceivedRequest received = service.getLastReceived("/match");
+		assertTrue(received.compressed());
+		assertEquals(2, received.request().get("gallery").size());
+		assertEquals(Match.MATCHED, response.getResponse()[1].getDecisions().get(BiometricType.FACE).getMatch());
+	}
+
+	@Test
+	void requestBelowThreshold_IsSentAsIs() throws Exception {
+		Client_V_1_0 client = initClient(Map.of("format.compression.test", "gzip",
+				"format.compression-threshold.test", String.valueOf(Long.MAX_VALUE)));
+
+		client.checkQuality(getFaceSample(), List.of(BiometricType.FACE), new HashMap<>());
+
+		assertFalse(service.getLastReceived("/check-quality").compressed());
+	}
+
+	@Test
+	void compressedBinaryAndMultipartRequests_AreDecoded() throws Exception {
+		BiometricRecord sample = getFaceSample();
+		Client_V_1_0 cborClient = initClient(Map.of("format.compression.test", "gzip",
+				"format.compression-threshold.test", "1", "format.wire.test", "cbor"));
+
+		Response<BiometricRecord> response = cborClient.extractTemplate(sample, List.of(BiometricType.FACE),
+				new HashMap<>());
+
+		ReceivedRequest received = service.getLastReceived("/extract-template");
+		assertEquals(Encoding.CBOR, received.encoding());
+		assertTrue(received.compressed());
+		assertArrayEquals(sample.getSegments().get(0).getBdb(), response.getResponse().getSegments().get(0).getBdb());
+
+		Client_V_1_0 multipartClient = initClient(Map.of("format.compression.test", "gzip",
+				"format.compression-threshold.test", "1", "format.transport.test", "multipart"));
+
+		multipartClient.extractTemplate(sample, List.of(BiometricType.FACE), new HashMap<>());
+
+		received = service.getLastReceived("/extract-template");
+		assertEquals(Encoding.MULTIPART, received.encoding());
+		assertTrue(received.compressed());
+		assertArrayEquals(sample.getSegments().get(0).getBdb(),
+				received.request().at("/sample/segments/0/bdb").binaryValue());
+	}
+
+	@Test
+	void gzipResponse_IsDecompressed() throws Exception {
+		service.setGzipResponses(true);
+		Client_V_1_0 client = initClient(Map.of());
+		BiometricRecord sample = getFaceSample();
+
+		Response<BiometricRecord> response = client.extractTemplate(sample, List.of(BiometricType.FACE),
+				new HashMap<>());
+
+		assertEquals(200, response.getStatusCode());
+		assertArrayEquals(sample.getSegments().get(0).getBdb(), response.getResponse().getSegments().get(0).getBdb());
+		server.takeRequest();
+		assertTrue(server.takeRequest().getHeader("Accept-Encoding").contains("gzip"));
+	}
+
+	@Test
+	void estimateSize_CountsBiometricData() throws Exception {
+		BiometricRecord sample = getFaceSample();
+		CheckQualityRequestDto checkQualityRequestDto = new CheckQualityRequestDto();
+		checkQualityRequestDto.setSample(sample);
+		MatchRequestDto matchRequestDto = new MatchRequestDto();
+		matchRequestDto.setSample(sample);
+		matchRequestDto.setGallery(new BiometricRecord[] { sample, sample });
+
+		long sampleSize = CompressedRequestBody.estimateSize(checkQualityRequestDto);
+
+		assertTrue(sampleSize > sample.getSegments().get(0).getBdb().length);
+		assertEquals(3 * sampleSize, CompressedRequestBody.estimateSize(matchRequestDto));
+		assertEquals(0, CompressedRequestBody.estimateSize(new Object()));
+	}
+
+	@Test
+	void fromName_ResolvesConfiguredNames() {
+		assertEquals(Compression.NONE, Compression.fromName(null));
+		assertEquals(Compression.GZIP, Compression.fromName(" GZip "));
+		assertThrows(IllegalArgumentException.class, () -> Compression.fromName("zstd"));
+	}
+
+	private Client_V_1_0 initClient(Map<String, String> options) {
+		return TestUtil.initClient(new Client_V_1_0(), server.url("/biosdk-service").toString(), options);
+	}
+}
@@ -0,0 +1,177 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.impl.spec_1_0.AsyncClient_V_1_0;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class ConcurrencyLimitTest {
+	private MockWebServer server;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	private volatile long millisPerConcurrentCall;
+
+	private volatile CountDownLatch hold;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		SdkServiceStandIn service = new SdkServiceStandIn();
+		server = new MockWebServer();
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest recordedRequest) throws InterruptedException {
+				if (recordedRequest.getPath().endsWith("/init")) {
+					return service.dispatch(recordedRequest);
+				}
+				calls.incrementAndGet();
+				// The service slows down with the number of calls it works on
+				int concurrent = inFlight.incrementAndGet();
+				try {
+					Thread.sleep(millisPerConcurrentCall * concurrent);
+					CountDownLatch latch = hold;
+					if (latch != null) {
+						latch.await(30, TimeUnit.SECONDS);
+					}
+					return service.dispatch(recordedRequest);
+				} finally {
+					inFlight.decrementAndGet();
+				}
+			}
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		CountDownLatch latch = hold;
+		if (latch != null) {
+			latch.countDown();
+		}
+		server.shutdown();
+	}
+
+	@Test
+	void limit_ShrinksWhenLatencyGrowsWithLoad() throws Exception {
+		AsyncClient_V_1_0 client = initClient(Map.of("limit.queue-timeout-ms", "30000"));
+		BiometricRecord sample = getFaceSample(256, 0);
+		millisPerConcurrentCall = 2;
+		for (int i = 0; i < 50; i++) {
+			assertEquals(200, client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>()).getStatusCode());
+		}
+
+		for (int round = 0; round < 10; round++) {
+			List<CompletableFuture<Response<QualityCheck>>> futures = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				futures.add(client.checkQualityAsync(sample, List.of(BiometricType.FACE), new HashMap<>()));
+			}
+			for (CompletableFuture<Response<QualityCheck>> future : futures) {
+				assertEquals(200, future.get(60, TimeUnit.SECONDS).getStatusCode());
+			}
+		}
+
+		int limit = client.getConcurrencyLimits().get(url());
+		assertTrue(limit < 20, "limit " + limit);
+	}
+
+	@Test
+	void callAboveTheLimit_WaitsForAPermit() throws Exception {
+		AsyncClient_V_1_0 client = initClient(
+				Map.of("limit.initial", "1", "limit.max", "1", "limit.queue-timeout-ms", "30000"));
+		BiometricRecord sample = getFaceSample(256, 0);
+		hold = new CountDownLatch(1);
+
+		CompletableFuture<Response<QualityCheck>> first = client.checkQualityAsync(sample,
+				List.of(BiometricType.FACE), new HashMap<>());
+		CompletableFuture<Response<QualityCheck>> second = client.checkQualityAsync(sample,
+				List.of(BiometricType.FACE), new HashMap<>());
+		Thread.sleep(500);
+
+		assertEquals(1, calls.get());
+		assertFalse(second.isDone());
+		hold.countDown();
+		assertEquals(200, first.get(10, TimeUnit.SECONDS).getStatusCode());
+		assertEquals(200, second.get(10, TimeUnit.SECONDS).getStatusCode());
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void callAboveTheLimit_IsRejectedAfterTheQueueTimeout() throws Exception {
+		AsyncClient_V_1_0 client = initClient(
+				Map.of("limit.initial", "1", "limit.max", "1", "limit.queue-timeout-ms", "100"));
+		BiometricRecord sample = getFaceSample(256, 0);
+		hold = new CountDownLatch(1);
+		CompletableFuture<Response<QualityCheck>> first = client.checkQualityAsync(sample,
+				List.of(BiometricType.FACE), new HashMap<>());
+		Thread.sleep(200);
+
+		ExecutionException async = assertThrows(ExecutionException.class,
+				() -> client.checkQualityAsync(sample, List.of(BiometricType.FACE), new HashMap<>())
+						.get(10, TimeUnit.SECONDS));
+		BioSdkClientException sync = assertThrows(BioSdkClientException.class,
+				() -> client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>()));
+
+		assertInstanceOf(BioSdkClientException.class, async.getCause());
+		assertTrue(async.getCause().getMessage().contains("Concurrency limit reached"));
+		assertTrue(sync.getMessage().contains("Concurrency limit reached"));
+		assertEquals(1, calls.get());
+		hold.countDown();
+		assertEquals(200, first.get(10, TimeUnit.SECONDS).getStatusCode());
+		hold = null;
+		assertEquals(200, client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>()).getStatusCode());
+	}
+
+	@Test
+	void limiting_IsOffByDefault() throws Exception {
+		Client_V_1_0 client = new Client_V_1_0();
+		client.init(Map.of("format.url.test", url()));
+
+		assertEquals(200, client.checkQuality(getFaceSample(256, 0), List.of(BiometricType.FACE),
+				new HashMap<>()).getStatusCode());
+
+		assertTrue(client.getConcurrencyLimits().isEmpty());
+	}
+
+	private AsyncClient_V_1_0 initClient(Map<String, String> options) {
+		Map<String, String> initParams = new HashMap<>(options);
+		initParams.put("limit.enabled", "true");
+		return TestUtil.initClient(new AsyncClient_V_1_0(), url(), initParams);
+	}
+
+	private String url() {
+		return server.url("/biosdk-service").toString();
+	}
+}
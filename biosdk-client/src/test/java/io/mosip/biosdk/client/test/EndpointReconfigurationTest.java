@@ -0,0 +1,214 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class EndpointReconfigurationTest {
+	private final List<MockWebServer> servers = new ArrayList<>();
+
+	private Client_V_1_0 client;
+
+	@AfterEach
+	void stopServers() throws IOException {
+		if (client != null) {
+			// Stops watching the configuration file
+			client.init(Map.of("format.url.default", servers.get(0).url("/biosdk-service").toString()));
+		}
+		for (MockWebServer server : servers) {
+			server.shutdown();
+		}
+	}
+
+	@Test
+	void addedUrl_IsTheOnlyOneInitialized() throws Exception {
+		Counting first = new Counting();
+		Counting second = new Counting();
+		String firstUrl = start(first);
+		String secondUrl = start(second);
+		client = new Client_V_1_0();
+		client.init(Map.of("format.url.default", firstUrl));
+
+		client.reconfigure(Map.of("format.url.default", firstUrl + "," + secondUrl));
+
+		assertEquals(1, first.count("/init"));
+		assertEquals(1, second.count("/init"));
+		for (int i = 0; i < 20; i++) {
+			assertEquals(200, checkQuality(new HashMap<>()).getStatusCode());
+		}
+		assertTrue(first.count("/check-quality") > 0);
+		assertTrue(second.count("/check-quality") > 0);
+	}
+
+	@Test
+	void changedOptions_InitializeTheUrlAgain() throws Exception {
+		Counting service = new Counting();
+		String url = start(service);
+		client = new Client_V_1_0();
+		client.init(Map.of("format.url.default", url, "format.url.face", url));
+
+		client.reconfigure(Map.of("format.url.default", url, "format.url.face", url));
+		assertEquals(1, service.count("/init"));
+
+		client.reconfigure(Map.of("format.url.default", url, "format.url.face", url, "format.compression.face", "gzip"));
+		assertEquals(2, service.count("/init"));
+	}
+
+	@Test
+	void removedUrl_FinishesItsCallsInFlight() throws Exception {
+		Counting removed = new Counting();
+		removed.setDelayMillis(1500);
+		Counting added = new Counting();
+		String removedUrl = start(removed);
+		String addedUrl = start(added);
+		client = new Client_V_1_0();
+		client.init(Map.of("format.url.default", removedUrl));
+
+		CompletableFuture<Response<QualityCheck>> inFlight = CompletableFuture
+				.supplyAsync(() -> checkQuality(new HashMap<>()));
+		await(() -> removed.count("/check-quality") == 1);
+		client.reconfigure(Map.of("format.url.default", addedUrl));
+
+		assertEquals(200, checkQuality(new HashMap<>()).getStatusCode());
+		assertEquals(1, added.count("/check-quality"));
+		assertFalse(inFlight.isDone());
+		assertEquals(200, inFlight.get(10, TimeUnit.SECONDS).getStatusCode());
+		await(() -> !client.getInFlightRequests().containsKey(removedUrl));
+		assertEquals(1, removed.count("/check-quality"));
+	}
+
+	@Test
+	void failedReconfiguration_KeepsTheUrlsBefore() throws Exception {
+		Counting service = new Counting();
+		Counting failing = new Counting();
+		failing.setFailingInit(true);
+		String url = start(service);
+		String failingUrl = start(failing);
+		client = new Client_V_1_0();
+		client.init(Map.of("format.url.default", url));
+
+		assertThrows(BioSdkClientException.class,
+				() -> client.reconfigure(Map.of("format.url.default", failingUrl)));
+
+		assertEquals(200, checkQuality(new HashMap<>()).getStatusCode());
+		assertEquals(1, service.count("/check-quality"));
+	}
+
+	@Test
+	void watchedFile_ReconfiguresOnChange(@TempDir Path dir) throws Exception {
+		Counting first = new Counting();
+		Counting second = new Counting();
+		String firstUrl = start(first);
+		String secondUrl = start(second);
+		Path file = dir.resolve("endpoints.properties");
+		Files.writeString(file, "format.url.default=" + firstUrl + "\n", StandardCharsets.UTF_8);
+		client = new Client_V_1_0();
+
+		// The file takes precedence over the init parameters
+		client.init(Map.of("format.url.default", secondUrl, "endpoint.config.file", file.toString(),
+				"endpoint.config.poll-interval-ms", "50"));
+		assertEquals(200, checkQuality(new HashMap<>()).getStatusCode());
+		assertEquals(1, first.count("/check-quality"));
+
+		Files.writeString(file, "# moved\nformat.url.default=" + secondUrl + "\n", StandardCharsets.UTF_8);
+		await(() -> second.count("/init") == 1);
+		await(() -> client.getInFlightRequests().keySet().equals(Set.of(secondUrl)));
+
+		assertEquals(200, checkQuality(new HashMap<>()).getStatusCode());
+		assertEquals(1, second.count("/check-quality"));
+	}
+
+	private Response<QualityCheck> checkQuality(Map<String, String> flags) {
+		try {
+			return client.checkQuality(getFaceSample(), List.of(BiometricType.FACE), flags);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		assertTrue(condition.getAsBoolean());
+	}
+
+	private String start(Dispatcher dispatcher) throws IOException {
+		MockWebServer server = new MockWebServer();
+		server.setDispatcher(dispatcher);
+		server.start();
+		servers.add(server);
+		return server.url("/biosdk-service").toString();
+	}
+
+	/**
+	 * A stand-in counting the requests received by path, optionally failing init
+	 * or answering the other requests late.
+	 */
+	private static final class Counting extends Dispatcher {
+		private final SdkServiceStandIn service = new SdkServiceStandIn();
+
+		private final List<String> paths = new ArrayList<>();
+
+		private volatile boolean failingInit;
+
+		private volatile long delayMillis;
+
+		void setFailingInit(boolean failingInit) {
+			this.failingInit = failingInit;
+		}
+
+		void setDelayMillis(long delayMillis) {
+			this.delayMillis = delayMillis;
+		}
+
+		@Override
+		public MockResponse dispatch(RecordedRequest recordedRequest) throws InterruptedException {
+			String path = recordedRequest.getPath();
+			synchronized (paths) {
+				paths.add(path);
+			}
+			if (path.endsWith("/init")) {
+				return failingInit ? new MockResponse().setResponseCode(500) : service.dispatch(recordedRequest);
+			}
+			return service.dispatch(recordedRequest).setHeadersDelay(delayMillis, TimeUnit.MILLISECONDS);
+		}
+
+		long count(String path) {
+			synchronized (paths) {
+				return paths.stream().filter(received -> received.endsWith(path)).count();
+			}
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.impl.spec_1_0.GalleryHandle;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.MockWebServer;
+
+class GalleryRegistrationTest {
+	private MockWebServer server;
+
+	private SdkServiceStandIn service;
+
+	private Client_V_1_0 client;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		service = new SdkServiceStandIn();
+		server = new MockWebServer();
+		server.setDispatcher(service);
+		server.start();
+		client = new Client_V_1_0();
+		client.init(Map.of("format.url.test", server.url("/biosdk-service").toString()));
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		server.shutdown();
+	}
+
+	@Test
+	void matches_SendOnlyTheGalleryId() throws Exception {
+		BiometricRecord[] gallery = getGallery();
+		GalleryHandle handle = client.registerGallery(gallery, List.of(BiometricType.FACE), new HashMap<>());
+
+		assertMatchesRecord(1, client.match(getFaceSample(64, 2), handle, List.of(BiometricType.FACE),
+				new HashMap<>()));
+		assertMatchesRecord(0, client.match(getFaceSample(64, 1), handle, List.of(BiometricType.FACE),
+				new HashMap<>()));
+
+		assertEquals(1, count("/register-gallery"));
+		assertEquals(2, count("/match-gallery"));
+		assertEquals(0, count("/match"));
+		assertEquals(1, handle.getGalleryIds().size());
+		assertTrue(service.getLastReceived("/match-gallery").request().path("gallery").isMissingNode());
+	}
+
+	@Test
+	void evictedGallery_IsUploadedThenRegisteredAgain() throws Exception {
+		GalleryHandle handle = client.registerGallery(getGallery(), List.of(BiometricType.FACE), new HashMap<>());
+		service.evictGalleries();
+
+		assertMatchesRecord(1, client.match(getFaceSample(64, 2), handle, List.of(BiometricType.FACE),
+				new HashMap<>()));
+		assertEquals(1, count("/match"));
+		assertTrue(handle.getGalleryIds().isEmpty());
+
+		assertMatchesRecord(1, client.match(getFaceSample(64, 2), handle, List.of(BiometricType.FACE),
+				new HashMap<>()));
+		assertEquals(2, count("/register-gallery"));
+		assertEquals(2, count("/match-gallery"));
+		assertEquals(1, count("/match"));
+	}
+
+	@Test
+	void expiredRegistration_IsRenewed() throws Exception {
+		service.setGalleryTtlSeconds(1L);
+		GalleryHandle handle = client.registerGallery(getGallery(), List.of(BiometricType.FACE), new HashMap<>());
+		String galleryId = handle.getGalleryIds().values().iterator().next();
+
+		// Renewed once 90% of the lifetime has passed
+		Thread.sleep(1000);
+		client.match(getFaceSample(64, 2), handle, List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(2, count("/register-gallery"));
+		assertNotEquals(galleryId, handle.getGalleryIds().values().iterator().next());
+	}
+
+	@Test
+	void serviceWithoutRegistration_GetsTheWholeGallery() throws Exception {
+		service.setGalleryRegistration(false);
+		GalleryHandle handle = client.registerGallery(getGallery(), List.of(BiometricType.FACE), new HashMap<>());
+
+		assertMatchesRecord(1, client.match(getFaceSample(64, 2), handle, List.of(BiometricType.FACE),
+				new HashMap<>()));
+		assertMatchesRecord(1, client.match(getFaceSample(64, 2), handle, List.of(BiometricType.FACE),
+				new HashMap<>()));
+
+		assertTrue(handle.getGalleryIds().isEmpty());
+		assertEquals(1, count("/register-gallery"));
+		assertEquals(0, count("/match-gallery"));
+		assertEquals(2, count("/match"));
+	}
+
+	private void assertMatchesRecord(int galleryIndex, Response<MatchDecision[]> response) {
+		assertEquals(200, response.getStatusCode());
+		assertEquals(3, response.getResponse().length);
+		for (MatchDecision decision : response.getResponse()) {
+			assertEquals(decision.getGalleryIndex() == galleryIndex ? Match.MATCHED : Match.NOT_MATCHED,
+					decision.getDecisions().get(BiometricType.FACE).getMatch());
+		}
+	}
+
+	private long count(String path) {
+		synchronized (service.getReceived()) {
+			return service.getReceived().stream().filter(request -> request.path().endsWith(path)).count();
+		}
+	}
+
+	private BiometricRecord[] getGallery() throws Exception {
+		return new BiometricRecord[] { getFaceSample(64, 1), getFaceSample(64, 2), getFaceSample(64, 3) };
+	}
+}
@@ -0,0 +1,160 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class LazySdkServiceInitTest {
+	private final List<MockWebServer> servers = new ArrayList<>();
+
+	@AfterEach
+	void stopServers() throws IOException {
+		for (MockWebServer server : servers) {
+			server.shutdown();
+		}
+	}
+
+	@Test
+	void slowUrl_IsLeftUninitializedAndInitializedInTheBackground() throws Exception {
+		SdkServiceStandIn service = new SdkServiceStandIn();
+		InitFaults slow = new InitFaults(service, 0, 1500);
+		String fastUrl = start(service).url("/biosdk-service").toString();
+		String slowUrl = start(slow).url("/biosdk-service").toString();
+		Client_V_1_0 client = new Client_V_1_0();
+
+		long start = System.nanoTime();
+		client.init(Map.of("format.url.default", fastUrl + "," + slowUrl, "init.timeout-ms", "300"));
+
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1500);
+		assertEquals(Set.of(slowUrl), client.getUninitializedSdkServiceUrls());
+		// Routed to the URL that answered while the other one is not initialized
+		for (int i = 0; i < 4; i++) {
+			assertEquals(200, client.checkQuality(getFaceSample(), List.of(BiometricType.FACE), new HashMap<>())
+					.getStatusCode());
+		}
+		assertEquals(0, slow.count("/check-quality"));
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!client.getUninitializedSdkServiceUrls().isEmpty() && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+		}
+		assertTrue(client.getUninitializedSdkServiceUrls().isEmpty());
+		assertEquals(1, slow.count("/init"));
+	}
+
+	@Test
+	void failedUrl_IsInitializedOnFirstUse() throws Exception {
+		SdkServiceStandIn referencing = new SdkServiceStandIn();
+		referencing.setBdbReferences(true);
+		InitFaults flaky = new InitFaults(referencing, 1, 0);
+		String defaultUrl = start(new SdkServiceStandIn()).url("/biosdk-service").toString();
+		String flakyUrl = start(flaky).url("/biosdk-service").toString();
+		Client_V_1_0 client = new Client_V_1_0();
+
+		client.init(Map.of("format.url.default", defaultUrl, "format.url.flaky", flakyUrl));
+
+		assertEquals(Set.of(flakyUrl), client.getUninitializedSdkServiceUrls());
+		assertFalse(client.getSdkInfo().getOtherInfo().containsKey("bdb-references"));
+
+		assertEquals(200, client.checkQuality(getFaceSample(), List.of(BiometricType.FACE),
+				new HashMap<>(Map.of("FACE.format", "flaky"))).getStatusCode());
+
+		assertEquals(2, flaky.count("/init"));
+		assertEquals(1, flaky.count("/check-quality"));
+		assertTrue(client.getUninitializedSdkServiceUrls().isEmpty());
+		assertTrue(client.getSdkInfo().getOtherInfo().containsKey("bdb-references"));
+	}
+
+	@Test
+	void noUrlInitialized_InitThrows() throws Exception {
+		String url = start(new InitFaults(new SdkServiceStandIn(), Integer.MAX_VALUE, 0)).url("/biosdk-service")
+				.toString();
+		Client_V_1_0 client = new Client_V_1_0();
+
+		assertThrows(BioSdkClientException.class, () -> client.init(Map.of("format.url.default", url)));
+	}
+
+	@Test
+	void urlOfSeveralFormats_IsInitializedOnce() throws Exception {
+		SdkServiceStandIn service = new SdkServiceStandIn();
+		InitFaults counting = new InitFaults(service, 0, 0);
+		String url = start(counting).url("/biosdk-service").toString();
+		Client_V_1_0 client = new Client_V_1_0();
+
+		client.init(Map.of("format.url.default", url, "format.url.a", url, "format.url.b", url + "," + url));
+
+		assertEquals(1, counting.count("/init"));
+	}
+
+	private MockWebServer start(Dispatcher dispatcher) throws IOException {
+		MockWebServer server = new MockWebServer();
+		server.setDispatcher(dispatcher);
+		server.start();
+		servers.add(server);
+		return server;
+	}
+
+	/**
+	 * Fails the first init calls with a 500 and delays the others, counting the
+	 * requests received by path.
+	 */
+	private static final class InitFaults extends Dispatcher {
+		private final SdkServiceStandIn service;
+
+		private final AtomicInteger failures;
+
+		private final long delayMillis;
+
+		private final List<String> paths = new ArrayList<>();
+
+		InitFaults(SdkServiceStandIn service, int failures, long delayMillis) {
+			this.service = service;
+			this.failures = new AtomicInteger(failures);
+			this.delayMillis = delayMillis;
+		}
+
+		@Override
+		public MockResponse dispatch(RecordedRequest recordedRequest) throws InterruptedException {
+			String path = recordedRequest.getPath();
+			synchronized (paths) {
+				paths.add(path);
+			}
+			if (!path.endsWith("/init")) {
+				return service.dispatch(recordedRequest);
+			}
+			if (failures.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+				return new MockResponse().setResponseCode(500);
+			}
+			return service.dispatch(recordedRequest).setHeadersDelay(delayMillis, TimeUnit.MILLISECONDS);
+		}
+
+		long count(String path) {
+			synchronized (paths) {
+				return paths.stream().filter(received -> received.endsWith(path)).count();
+			}
+		}
+	}
+}
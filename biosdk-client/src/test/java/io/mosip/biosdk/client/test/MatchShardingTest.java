@@ -0,0 +1,182 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.impl.spec_1_0.AsyncClient_V_1_0;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class MatchShardingTest {
+	private MockWebServer server;
+
+	private SdkServiceStandIn service;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		service = new SdkServiceStandIn();
+		server = new MockWebServer();
+		server.setDispatcher(service);
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		System.clearProperty("mosip_biosdk_virtual_threads");
+		server.shutdown();
+	}
+
+	@Test
+	void match_ShardedByRecords_KeepsGalleryIndexes() throws Exception {
+		Client_V_1_0 client = initClient(Map.of("format.match-shard-records.test", "3"));
+		BiometricRecord sample = getSample(100);
+		BiometricRecord[] gallery = getGallery(sample, 10, 7);
+
+		Response<MatchDecision[]> response = client.match(sample, gallery, List.of(BiometricType.FACE),
+				new HashMap<>());
+
+		assertEquals(List.of(1, 3, 3, 3), galleryCounts());
+		assertDecisions(response.getResponse(), 10, 7);
+		assertEquals(200, response.getStatusCode());
+	}
+
+	@Test
+	void match_ShardedByBytes_AdaptsToRecordSizes() throws Exception {
+		Client_V_1_0 client = initClient(Map.of("format.match-shard-bytes.test", "12000"));
+		BiometricRecord sample = getSample(1000);
+		BiometricRecord[] gallery = new BiometricRecord[] { getSample(4000), getSample(4000), getSample(500),
+				getSample(500), getSample(500), getSample(20000), sample, getSample(100) };
+
+		Response<MatchDecision[]> response = client.match(sample, gallery, List.of(BiometricType.FACE),
+				new HashMap<>());
+
+		// Estimated with ~0.5k of metadata per record and the sample in every
+		// request: 4.5k + 4.5k + 1k, 1k + 1k, 20.5k alone, 1.5k + 0.6k
+		assertEquals(List.of(1, 2, 2, 3), galleryCounts());
+		assertDecisions(response.getResponse(), 8, 6);
+	}
+
+	@Test
+	void match_GalleryWithinLimits_SentInOneRequest() throws Exception {
+		Client_V_1_0 client = initClient(Map.of("format.match-shard-records.test", "10"));
+		BiometricRecord sample = getSample(100);
+
+		Response<MatchDecision[]> response = client.match(sample, getGallery(sample, 10, 2),
+				List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(List.of(10), galleryCounts());
+		assertDecisions(response.getResponse(), 10, 2);
+	}
+
+	@Test
+	void matchAsync_Sharded_KeepsGalleryIndexes() throws Exception {
+		Map<String, String> initParams = new HashMap<>();
+		initParams.put("format.url.test", server.url("/biosdk-service").toString());
+		initParams.put("format.match-shard-records.test", "4");
+		AsyncClient_V_1_0 client = new AsyncClient_V_1_0();
+		client.init(initParams);
+		BiometricRecord sample = getSample(100);
+
+		Response<MatchDecision[]> response = client.matchAsync(sample, getGallery(sample, 9, 8),
+				List.of(BiometricType.FACE), new HashMap<>()).get(10, TimeUnit.SECONDS);
+
+		assertEquals(3, galleryCounts().size());
+		assertDecisions(response.getResponse(), 9, 8);
+	}
+
+	@Test
+	void match_ShardedOnVirtualThreads_KeepsGalleryIndexes() throws Exception {
+		System.setProperty("mosip_biosdk_virtual_threads", "true");
+		Client_V_1_0 client = initClient(Map.of("format.match-shard-records.test", "2"));
+		BiometricRecord sample = getSample(100);
+
+		Response<MatchDecision[]> response = client.match(sample, getGallery(sample, 7, 5),
+				List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(List.of(1, 2, 2, 2), galleryCounts());
+		assertDecisions(response.getResponse(), 7, 5);
+	}
+
+	@Test
+	void match_FailingShard_FailsTheCall() throws Exception {
+		AtomicInteger matchCalls = new AtomicInteger();
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest recordedRequest) {
+				if (recordedRequest.getPath().endsWith("/match") && matchCalls.incrementAndGet() == 2) {
+					return new MockResponse().setResponseCode(500);
+				}
+				return service.dispatch(recordedRequest);
+			}
+		});
+		Client_V_1_0 client = initClient(Map.of("format.match-shard-records.test", "2"));
+		BiometricRecord sample = getSample(100);
+
+		assertThrows(BioSdkClientException.class, () -> client.match(sample, getGallery(sample, 6, 0),
+				List.of(BiometricType.FACE), new HashMap<>()));
+	}
+
+	private void assertDecisions(MatchDecision[] decisions, int gallerySize, int matchedIndex) {
+		assertEquals(gallerySize, decisions.length);
+		for (int i = 0; i < gallerySize; i++) {
+			assertEquals(i, decisions[i].getGalleryIndex());
+			assertEquals(i == matchedIndex ? Match.MATCHED : Match.NOT_MATCHED,
+					decisions[i].getDecisions().get(BiometricType.FACE).getMatch());
+		}
+	}
+
+	/**
+	 * The number of gallery records in each match request, smallest first; the
+	 * shards are sent concurrently, so they arrive in any order.
+	 */
+	private List<Integer> galleryCounts() {
+		return service.getReceived()
+				.stream()
+				.filter(received -> received.path().endsWith("/match"))
+				.map(received -> received.request().get("gallery").size())
+				.sorted()
+				.toList();
+	}
+
+	private BiometricRecord[] getGallery(BiometricRecord sample, int size, int sampleIndex) throws Exception {
+		BiometricRecord[] gallery = new BiometricRecord[size];
+		for (int i = 0; i < size; i++) {
+			gallery[i] = i == sampleIndex ? sample : getSample(200 + i);
+		}
+		return gallery;
+	}
+
+	private Client_V_1_0 initClient(Map<String, String> options) {
+		return TestUtil.initClient(new Client_V_1_0(), server.url("/biosdk-service").toString(), options);
+	}
+
+	private BiometricRecord getSample(int bdbLength) throws Exception {
+		byte[] bdb = new byte[bdbLength];
+		bdb[0] = (byte) bdbLength;
+		bdb[bdbLength - 1] = (byte) (bdbLength >> 8);
+		return getFaceSample(bdb);
+	}
+}
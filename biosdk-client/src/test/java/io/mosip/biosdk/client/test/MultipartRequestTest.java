@@ -0,0 +1,132 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.MediaType;
+import org.springframework.util.MultiValueMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.mosip.biosdk.client.codec.MultipartRequest;
+import io.mosip.biosdk.client.codec.RequestTransport;
+import io.mosip.biosdk.client.dto.MatchRequestDto;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn.Encoding;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn.ReceivedRequest;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.biosdk.client.utils.Util;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.MockWebServer;
+
+class MultipartRequestTest {
+	private MockWebServer server;
+
+	private SdkServiceStandIn service;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		service = new SdkServiceStandIn();
+		server = new MockWebServer();
+		server.setDispatcher(service);
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		server.shutdown();
+	}
+
+	@Test
+	void toParts_ReplacesBdbsWithPartIndexes() throws Exception {
+		BiometricRecord sample = getFaceSample();
+		BiometricRecord other = getFaceSample();
+		other.getSegments().get(0).setBdb(new byte[] { 1, 2, 3 });
+		MatchRequestDto matchRequestDto = new MatchRequestDto();
+		matchRequestDto.setSample(sample);
+		matchRequestDto.setGallery(new BiometricRecord[] { other, sample });
+
+		MultiValueMap<String, Object> parts = MultipartRequest.toParts("1.0", matchRequestDto);
+
+		HttpEntity<?> metadataPart = (HttpEntity<?>) parts.getFirst(MultipartRequest.METADATA_PART);
+		assertEquals(MediaType.APPLICATION_JSON, metadataPart.getHeaders().getContentType());
+		JsonNode metadata = Util.getObjectMapper().readTree((byte[]) metadataPart.getBody());
+		assertEquals("1.0", metadata.get("version").asText());
+		JsonNode request = metadata.get("request");
+		assertEquals(0, request.at("/sample/segments/0/bdb").asInt());
+		assertEquals(1, request.at("/gallery/0/segments/0/bdb").asInt());
+		assertEquals(0, request.at("/gallery/1/segments/0/bdb").asInt());
+
+		List<Object> bdbParts = parts.get(MultipartRequest.BDB_PART);
+		assertEquals(2, bdbParts.size());
+		HttpEntity<?> firstBdb = (HttpEntity<?>) bdbParts.get(0);
+		assertEquals(MediaType.APPLICATION_OCTET_STREAM, firstBdb.getHeaders().getContentType());
+		assertSame(sample.getSegments().get(0).getBdb(), firstBdb.getBody());
+	}
+
+	@Test
+	void multipartTransport_SendsBdbsAsParts() throws Exception {
+		Client_V_1_0 client = initClient("multipart");
+		BiometricRecord sample = getFaceSample();
+		BiometricRecord other = getFaceSample();
+		other.getSegments().get(0).setBdb(new byte[] { 1, 2, 3 });
+
+		Response<MatchDecision[]> response = client.match(sample, new BiometricRecord[] { other, sample, sample },
+				List.of(BiometricType.FACE), new HashMap<>());
+
+		ReceivedRequest received = service.getLastReceived("/match");
+		assertEquals(Encoding.MULTIPART, received.encoding());
+		assertEquals(2, received.bdbParts());
+		assertArrayEquals(sample.getSegments().get(0).getBdb(),
+				received.request().at("/sample/segments/0/bdb").binaryValue());
+		assertEquals(3, response.getResponse().length);
+		assertEquals(Match.MATCHED, response.getResponse()[2].getDecisions().get(BiometricType.FACE).getMatch());
+	}
+
+	@Test
+	void multipartTransport_ResponseRoundTripsBdb() throws Exception {
+		Client_V_1_0 client = initClient("multipart");
+		BiometricRecord sample = getFaceSample();
+
+		Response<BiometricRecord> response = client.extractTemplate(sample, List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(Encoding.MULTIPART, service.getLastReceived("/extract-template").encoding());
+		assertArrayEquals(sample.getSegments().get(0).getBdb(), response.getResponse().getSegments().get(0).getBdb());
+	}
+
+	@Test
+	void initRequest_IsAlwaysAnEnvelope() {
+		initClient("multipart");
+
+		assertEquals(Encoding.JSON, service.getLastReceived("/init").encoding());
+	}
+
+	@Test
+	void fromName_ResolvesConfiguredNames() {
+		assertEquals(RequestTransport.ENVELOPE, RequestTransport.fromName(""));
+		assertEquals(RequestTransport.MULTIPART, RequestTransport.fromName("Multipart"));
+		assertThrows(IllegalArgumentException.class, () -> RequestTransport.fromName("grpc"));
+	}
+
+	private Client_V_1_0 initClient(String transport) {
+		return TestUtil.initClient(new Client_V_1_0(), server.url("/biosdk-service").toString(),
+				Map.of("format.transport.test", transport));
+	}
+}
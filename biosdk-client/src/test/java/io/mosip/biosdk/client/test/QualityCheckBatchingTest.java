@@ -0,0 +1,150 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.impl.spec_1_0.AsyncClient_V_1_0;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn.ReceivedRequest;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.MockWebServer;
+
+class QualityCheckBatchingTest {
+	private MockWebServer server;
+
+	private SdkServiceStandIn service;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		service = new SdkServiceStandIn();
+		server = new MockWebServer();
+		server.setDispatcher(service);
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		server.shutdown();
+	}
+
+	@Test
+	void concurrentCalls_AreSentAsOneBatch() throws Exception {
+		service.setQualityBatchSize(50);
+		AsyncClient_V_1_0 client = initClient(Map.of("format.quality-batch-window-us.test", "200000"));
+
+		List<Response<QualityCheck>> responses = checkQualityConcurrently(client, 10);
+
+		for (int i = 0; i < responses.size(); i++) {
+			assertEquals(200, responses.get(i).getStatusCode());
+			assertEquals(100, responses.get(i).getResponse().getScores().get(BiometricType.FACE).getScore());
+			// Each caller gets the result of its own request
+			assertEquals(String.valueOf(i), responses.get(i).getResponse().getAnalyticsInfo().get("call"));
+		}
+		assertEquals(1, count("/check-quality-batch"));
+		assertEquals(10, service.getLastReceived("/check-quality-batch").request().get("requests").size());
+		assertEquals(0, count("/check-quality"));
+	}
+
+	@Test
+	void batches_AreCappedAtTheSmallerSize() throws Exception {
+		service.setQualityBatchSize(4);
+		AsyncClient_V_1_0 client = initClient(Map.of("format.quality-batch-window-us.test", "200000",
+				"format.quality-batch-size.test", "8"));
+
+		List<Response<QualityCheck>> responses = checkQualityConcurrently(client, 10);
+
+		responses.forEach(response -> assertEquals(200, response.getStatusCode()));
+		assertEquals(3, count("/check-quality-batch"));
+		synchronized (service.getReceived()) {
+			for (ReceivedRequest request : service.getReceived()) {
+				if (request.path().endsWith("/check-quality-batch")) {
+					assertTrue(request.request().get("requests").size() <= 4);
+				}
+			}
+		}
+	}
+
+	@Test
+	void serviceWithoutBatches_GetsSingleCalls() throws Exception {
+		AsyncClient_V_1_0 client = initClient(Map.of("format.quality-batch-window-us.test", "200000"));
+
+		List<Response<QualityCheck>> responses = checkQualityConcurrently(client, 5);
+
+		responses.forEach(response -> assertEquals(200, response.getStatusCode()));
+		assertEquals(0, count("/check-quality-batch"));
+		assertEquals(5, count("/check-quality"));
+	}
+
+	@Test
+	void syncCall_AloneInItsWindow_IsSentSingle() throws Exception {
+		service.setQualityBatchSize(50);
+		Client_V_1_0 client = new Client_V_1_0();
+		client.init(Map.of("format.url.test", url(), "format.quality-batch-window-us.test", "1000"));
+
+		Response<QualityCheck> response = client.checkQuality(getFaceSample(256, 0), List.of(BiometricType.FACE),
+				new HashMap<>());
+
+		assertEquals(200, response.getStatusCode());
+		assertEquals(0, count("/check-quality-batch"));
+		assertEquals(1, count("/check-quality"));
+	}
+
+	@Test
+	void batching_IsOffByDefault() throws Exception {
+		service.setQualityBatchSize(50);
+		AsyncClient_V_1_0 client = initClient(Map.of());
+
+		checkQualityConcurrently(client, 5);
+
+		assertEquals(0, count("/check-quality-batch"));
+		assertEquals(5, count("/check-quality"));
+	}
+
+	private List<Response<QualityCheck>> checkQualityConcurrently(AsyncClient_V_1_0 client, int calls)
+			throws Exception {
+		BiometricRecord sample = getFaceSample(256, 0);
+		List<CompletableFuture<Response<QualityCheck>>> futures = new ArrayList<>();
+		for (int i = 0; i < calls; i++) {
+			Map<String, String> flags = new HashMap<>();
+			flags.put("call", String.valueOf(i));
+			futures.add(client.checkQualityAsync(sample, List.of(BiometricType.FACE), flags));
+		}
+		List<Response<QualityCheck>> responses = new ArrayList<>();
+		for (CompletableFuture<Response<QualityCheck>> future : futures) {
+			responses.add(future.get(10, TimeUnit.SECONDS));
+		}
+		return responses;
+	}
+
+	private long count(String path) {
+		synchronized (service.getReceived()) {
+			return service.getReceived().stream().filter(request -> request.path().endsWith(path)).count();
+		}
+	}
+
+	private AsyncClient_V_1_0 initClient(Map<String, String> options) {
+		return TestUtil.initClient(new AsyncClient_V_1_0(), url(), options);
+	}
+
+	private String url() {
+		return server.url("/biosdk-service").toString();
+	}
+}
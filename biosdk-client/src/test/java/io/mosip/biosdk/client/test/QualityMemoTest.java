@@ -0,0 +1,191 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.impl.spec_1_0.AsyncClient_V_1_0;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class QualityMemoTest {
+	private MockWebServer server;
+
+	private SdkServiceStandIn service;
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	private volatile CountDownLatch hold;
+
+	private volatile MockResponse failure;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		service = new SdkServiceStandIn();
+		server = new MockWebServer();
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest recordedRequest) throws InterruptedException {
+				if (recordedRequest.getPath().endsWith("/init")) {
+					return service.dispatch(recordedRequest);
+				}
+				calls.incrementAndGet();
+				CountDownLatch latch = hold;
+				if (latch != null) {
+					latch.await(30, TimeUnit.SECONDS);
+				}
+				MockResponse failed = failure;
+				failure = null;
+				return failed != null ? failed : service.dispatch(recordedRequest);
+			}
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		CountDownLatch latch = hold;
+		if (latch != null) {
+			latch.countDown();
+		}
+		server.shutdown();
+	}
+
+	@Test
+	void sameCheck_IsAnsweredFromTheMemo() throws Exception {
+		AsyncClient_V_1_0 client = initClient("60000");
+
+		Response<QualityCheck> first = client.checkQuality(getFaceSample(256, 1), List.of(BiometricType.FACE),
+				new HashMap<>());
+		Response<QualityCheck> second = client.checkQuality(getFaceSample(256, 1), List.of(BiometricType.FACE),
+				new HashMap<>());
+		Response<QualityCheck> async = client
+				.checkQualityAsync(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>())
+				.get(10, TimeUnit.SECONDS);
+
+		assertEquals(1, calls.get());
+		assertEquals(first.getStatusCode(), second.getStatusCode());
+		assertEquals(100, second.getResponse().getScores().get(BiometricType.FACE).getScore());
+		assertEquals(100, async.getResponse().getScores().get(BiometricType.FACE).getScore());
+		assertEquals(2, client.getQualityMemoCounters().get("hits"));
+		assertEquals(1, client.getQualityMemoCounters().get("misses"));
+	}
+
+	@Test
+	void otherBdbsOrFlags_AreCheckedAgain() throws Exception {
+		Client_V_1_0 client = initClient("60000");
+
+		client.checkQuality(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>());
+		client.checkQuality(getFaceSample(256, 2), List.of(BiometricType.FACE), new HashMap<>());
+		Map<String, String> flags = new HashMap<>();
+		flags.put("FACE_FORMAT", "other");
+		client.checkQuality(getFaceSample(256, 1), List.of(BiometricType.FACE), flags);
+
+		assertEquals(3, calls.get());
+	}
+
+	@Test
+	void callsDifferingOnlyInDeadline_ShareTheMemo() throws Exception {
+		Client_V_1_0 client = initClient("60000");
+
+		Map<String, String> flags = new HashMap<>();
+		flags.put("FACE_FORMAT", "other");
+		flags.put("deadline-ms", "10000");
+		client.checkQuality(getFaceSample(256, 1), List.of(BiometricType.FACE), flags);
+		flags.put("deadline-ms", "20000");
+		client.checkQuality(getFaceSample(256, 1), List.of(BiometricType.FACE), flags);
+
+		assertEquals(1, calls.get());
+		assertEquals(1, client.getQualityMemoCounters().get("hits"));
+		JsonNode sentFlags = service.getLastReceived("/check-quality").request().get("flags");
+		assertEquals("other", sentFlags.path("FACE_FORMAT").asText());
+		assertFalse(sentFlags.has("deadline-ms"));
+	}
+
+	@Test
+	void expiredResult_IsCheckedAgain() throws Exception {
+		Client_V_1_0 client = initClient("100");
+
+		client.checkQuality(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>());
+		Thread.sleep(200);
+		client.checkQuality(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void identicalCallsInFlight_ShareOneRequest() throws Exception {
+		AsyncClient_V_1_0 client = initClient("60000");
+		hold = new CountDownLatch(1);
+
+		List<CompletableFuture<Response<QualityCheck>>> futures = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			futures.add(client.checkQualityAsync(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>()));
+		}
+		Thread.sleep(200);
+		hold.countDown();
+
+		for (CompletableFuture<Response<QualityCheck>> future : futures) {
+			assertEquals(200, future.get(10, TimeUnit.SECONDS).getStatusCode());
+		}
+		assertEquals(1, calls.get());
+		assertEquals(4, client.getQualityMemoCounters().get("collapsed"));
+	}
+
+	@Test
+	void failure_IsNotRemembered() throws Exception {
+		Client_V_1_0 client = initClient("60000");
+		failure = new MockResponse().setResponseCode(500);
+
+		assertThrows(BioSdkClientException.class,
+				() -> client.checkQuality(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>()));
+		assertEquals(200,
+				client.checkQuality(getFaceSample(256, 1), List.of(BiometricType.FACE),
+						new HashMap<>()).getStatusCode());
+
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void memo_IsOffByDefault() throws Exception {
+		Client_V_1_0 client = new Client_V_1_0();
+		client.init(Map.of("format.url.test", server.url("/biosdk-service").toString()));
+
+		client.checkQuality(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>());
+		client.checkQuality(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(2, calls.get());
+		assertEquals(0, client.getQualityMemoCounters().get("misses"));
+	}
+
+	private AsyncClient_V_1_0 initClient(String ttlMillis) {
+		return TestUtil.initClient(new AsyncClient_V_1_0(), server.url("/biosdk-service").toString(),
+				Map.of("quality-memo.ttl-ms", ttlMillis));
+	}
+}
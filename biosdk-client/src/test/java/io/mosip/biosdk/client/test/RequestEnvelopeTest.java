@@ -0,0 +1,145 @@
+package io.mosip.biosdk.client.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import io.mosip.biosdk.client.codec.RecordJsonCache;
+import io.mosip.biosdk.client.codec.RequestEnvelope;
+import io.mosip.biosdk.client.codec.RequestEnvelopeHttpMessageConverter;
+import io.mosip.biosdk.client.codec.WireFormat;
+import io.mosip.biosdk.client.dto.MatchRequestDto;
+import io.mosip.biosdk.client.dto.RequestDto;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.biosdk.client.utils.Util;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+class RequestEnvelopeTest {
+
+	@Test
+	void writeTo_ProducesSameWireFormatAsRequestDto() throws Exception {
+		MatchRequestDto matchRequestDto = getMatchRequestDto();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new RequestEnvelope("1.0", matchRequestDto).writeTo(out);
+
+		RequestDto written = Util.getObjectMapper().readValue(out.toByteArray(), RequestDto.class);
+		assertEquals("1.0", written.getVersion());
+		String json = new String(Base64.getDecoder().decode(written.getRequest()), StandardCharsets.UTF_8);
+		assertEquals(Util.getObjectMapper().writeValueAsString(matchRequestDto), json);
+	}
+
+	@Test
+	void writeTo_DoesNotCloseTargetStream() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream() {
+			@Override
+			public void close() {
+				throw new IllegalStateException("target stream must stay open");
+			}
+		};
+		new RequestEnvelope("1.0", new HashMap<>()).writeTo(out);
+
+		assertEquals("{\"version\":\"1.0\",\"request\":\"e30=\"}", out.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void toRequestDto_MatchesStreamedEnvelope() throws Exception {
+		MatchRequestDto matchRequestDto = getMatchRequestDto();
+		RequestEnvelope envelope = new RequestEnvelope("1.0", matchRequestDto);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		envelope.writeTo(out);
+
+		assertEquals(Util.getObjectMapper().writeValueAsString(envelope), out.toString(StandardCharsets.UTF_8));
+		assertEquals(Util.getObjectMapper().readValue(out.toByteArray(), RequestDto.class), envelope.toRequestDto());
+	}
+
+	@Test
+	void cachedGalleryRecords_ProduceSameWireFormat() throws Exception {
+		MatchRequestDto matchRequestDto = getMatchRequestDto();
+		RecordJsonCache cache = new RecordJsonCache(10_000_000);
+
+		String first = writeJson(new RequestEnvelope("1.0", matchRequestDto, WireFormat.JSON, cache));
+		String second = writeJson(new RequestEnvelope("1.0", matchRequestDto, WireFormat.JSON, cache));
+
+		assertEquals(Util.getObjectMapper().writeValueAsString(matchRequestDto), first);
+		assertEquals(first, second);
+		// Both writes carry the same record twice
+		assertEquals(3, cache.getCounters().get("hits"));
+		assertEquals(1, cache.getCounters().get("misses"));
+		assertEquals(1, cache.getCounters().get("entries"));
+	}
+
+	@Test
+	void changedBdb_IsSerializedAgain() throws Exception {
+		MatchRequestDto matchRequestDto = getMatchRequestDto();
+		RecordJsonCache cache = new RecordJsonCache(10_000_000);
+		writeJson(new RequestEnvelope("1.0", matchRequestDto, WireFormat.JSON, cache));
+
+		matchRequestDto.getGallery()[0].getSegments().get(0).setBdb(new byte[] { 1, 2, 3 });
+		String json = writeJson(new RequestEnvelope("1.0", matchRequestDto, WireFormat.JSON, cache));
+
+		assertEquals(Util.getObjectMapper().writeValueAsString(matchRequestDto), json);
+		assertEquals(2, cache.getCounters().get("misses"));
+	}
+
+	@Test
+	void recordsLargerThanTheCache_AreNotKept() throws Exception {
+		MatchRequestDto matchRequestDto = getMatchRequestDto();
+		RecordJsonCache cache = new RecordJsonCache(16);
+
+		String json = writeJson(new RequestEnvelope("1.0", matchRequestDto, WireFormat.JSON, cache));
+
+		assertEquals(Util.getObjectMapper().writeValueAsString(matchRequestDto), json);
+		assertEquals(2, cache.getCounters().get("misses"));
+		assertEquals(0, cache.getCounters().get("bytes"));
+	}
+
+	@Test
+	void converter_IsWriteOnly() {
+		RequestEnvelopeHttpMessageConverter converter = new RequestEnvelopeHttpMessageConverter();
+
+		assertTrue(converter.canWrite(RequestEnvelope.class, MediaType.APPLICATION_JSON));
+		assertFalse(converter.canRead(RequestEnvelope.class, MediaType.APPLICATION_JSON));
+		assertFalse(converter.canWrite(RequestDto.class, MediaType.APPLICATION_JSON));
+	}
+
+	private String writeJson(RequestEnvelope envelope) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		envelope.writeTo(out);
+		RequestDto written = Util.getObjectMapper().readValue(out.toByteArray(), RequestDto.class);
+		return new String(Base64.getDecoder().decode(written.getRequest()), StandardCharsets.UTF_8);
+	}
+
+	private MatchRequestDto getMatchRequestDto() throws Exception {
+		BiometricRecord sample = new BiometricRecord();
+		sample.setSegments(TestUtil.getBIRDataFromXMLType(
+				TestUtil.readXmlFileAsBytes("matcher_request_probe.xml", Client_V_1_0.class), "Face"));
+		BiometricRecord galleryRecord = new BiometricRecord();
+		galleryRecord.setSegments(TestUtil.getBIRDataFromXMLType(
+				TestUtil.readXmlFileAsBytes("matcher_request_gallery.xml", Client_V_1_0.class), "Face"));
+
+		Map<String, String> flags = new HashMap<>();
+		flags.put("FACE.format", "test");
+
+		MatchRequestDto matchRequestDto = new MatchRequestDto();
+		matchRequestDto.setSample(sample);
+		matchRequestDto.setGallery(new BiometricRecord[] { galleryRecord, galleryRecord });
+		matchRequestDto.setModalitiesToMatch(Arrays.asList(BiometricType.FACE));
+		matchRequestDto.setFlags(flags);
+		return matchRequestDto;
+	}
+}
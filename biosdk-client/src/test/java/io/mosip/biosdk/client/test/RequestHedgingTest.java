@@ -0,0 +1,148 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.impl.spec_1_0.AsyncClient_V_1_0;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class RequestHedgingTest {
+	private MockWebServer slow;
+
+	private MockWebServer fast;
+
+	private volatile long slowDelayMillis;
+
+	@BeforeEach
+	void startServers() throws IOException {
+		SdkServiceStandIn service = new SdkServiceStandIn();
+		slow = new MockWebServer();
+		slow.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest recordedRequest) throws InterruptedException {
+				if (!recordedRequest.getPath().endsWith("/init")) {
+					Thread.sleep(slowDelayMillis);
+				}
+				return service.dispatch(recordedRequest);
+			}
+		});
+		slow.start();
+		fast = new MockWebServer();
+		fast.setDispatcher(service);
+		fast.start();
+	}
+
+	@AfterEach
+	void stopServers() throws IOException {
+		slow.shutdown();
+		fast.shutdown();
+	}
+
+	@Test
+	void slowCall_IsAnsweredByTheHedge() throws Exception {
+		AsyncClient_V_1_0 client = initClient(Map.of("hedge.budget-percent", "100"));
+		BiometricRecord sample = getFaceSample(256, 0);
+		warmUp(client, sample);
+		slowDelayMillis = 2000;
+
+		for (int i = 0; i < 10; i++) {
+			long start = System.nanoTime();
+			assertEquals(200, client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>()).getStatusCode());
+			Response<MatchDecision[]> response = client.matchAsync(sample, new BiometricRecord[] { sample },
+					List.of(BiometricType.FACE), new HashMap<>()).get(10, TimeUnit.SECONDS);
+			assertEquals(200, response.getStatusCode());
+			assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1500));
+		}
+
+		assertTrue(client.getHedgedRequests() > 0);
+	}
+
+	@Test
+	void losingExchange_IsCancelled() throws Exception {
+		AsyncClient_V_1_0 client = initClient(Map.of("hedge.budget-percent", "100"));
+		BiometricRecord sample = getFaceSample(256, 0);
+		warmUp(client, sample);
+		slowDelayMillis = 5000;
+
+		for (int i = 0; i < 10; i++) {
+			client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>());
+		}
+
+		assertTrue(client.getHedgedRequests() > 0);
+		long deadline = System.currentTimeMillis() + 1000;
+		while (!client.getInFlightRequests().values().stream().allMatch(count -> count == 0)
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue(client.getInFlightRequests().values().stream().allMatch(count -> count == 0));
+	}
+
+	@Test
+	void hedges_AreCappedByTheBudget() throws Exception {
+		AsyncClient_V_1_0 client = initClient(Map.of());
+		BiometricRecord sample = getFaceSample(256, 0);
+		warmUp(client, sample);
+		slowDelayMillis = 200;
+
+		for (int i = 0; i < 20; i++) {
+			client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>());
+		}
+
+		// 60 warm-up and 20 slow calls earn 5% of 80 calls, about half of the slow calls need a hedge
+		assertTrue(client.getHedgedRequests() >= 1);
+		assertTrue(client.getHedgedRequests() <= 4);
+	}
+
+	@Test
+	void hedging_IsOffByDefault() throws Exception {
+		Client_V_1_0 client = TestUtil.initClient(new Client_V_1_0(), urls(), Map.of());
+		BiometricRecord sample = getFaceSample(256, 0);
+		warmUp(client, sample);
+		slowDelayMillis = 200;
+
+		for (int i = 0; i < 10; i++) {
+			client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>());
+		}
+
+		assertEquals(0, client.getHedgedRequests());
+	}
+
+	private void warmUp(Client_V_1_0 client, BiometricRecord sample) {
+		for (int i = 0; i < 30; i++) {
+			assertEquals(200, client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>()).getStatusCode());
+			assertEquals(200, client.match(sample, new BiometricRecord[] { sample }, List.of(BiometricType.FACE),
+					new HashMap<>()).getStatusCode());
+		}
+	}
+
+	private AsyncClient_V_1_0 initClient(Map<String, String> options) {
+		Map<String, String> initParams = new HashMap<>(options);
+		initParams.put("hedge.enabled", "true");
+		return TestUtil.initClient(new AsyncClient_V_1_0(), urls(), initParams);
+	}
+
+	private String urls() {
+		return slow.url("/biosdk-service").toString() + "," + fast.url("/biosdk-service").toString();
+	}
+}
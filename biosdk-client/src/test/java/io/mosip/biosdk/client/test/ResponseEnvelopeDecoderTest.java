@@ -0,0 +1,89 @@
+package io.mosip.biosdk.client.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.mosip.biosdk.client.codec.DecodedResponse;
+import io.mosip.biosdk.client.codec.ResponseEnvelopeDecoder;
+import io.mosip.biosdk.client.utils.Util;
+
+class ResponseEnvelopeDecoderTest {
+	private static final ObjectReader MAP_READER = Util.getObjectMapper().readerFor(Map.class);
+
+	@Test
+	void decode_NestedPayload_UsesNestedStatus() throws IOException {
+		DecodedResponse<Map<String, Object>> decoded = ResponseEnvelopeDecoder.decode(body(
+				"{\"statusCode\":500,\"response\":{\"statusCode\":200,\"statusMessage\":\"OK\",\"response\":{\"a\":1}},\"errors\":[]}"),
+				MAP_READER);
+
+		assertEquals(200, decoded.getStatusCode());
+		assertEquals("OK", decoded.getStatusMessage());
+		assertEquals(Map.of("a", 1), decoded.getPayload());
+		assertEquals(0, decoded.getErrors().size());
+	}
+
+	@Test
+	void decode_NoNestedPayload_BindsResponseObject() throws IOException {
+		DecodedResponse<Map<String, Object>> decoded = ResponseEnvelopeDecoder
+				.decode(body("{\"statusCode\":200,\"statusMessage\":\"done\",\"response\":{\"a\":1,\"b\":\"x\"}}"), MAP_READER);
+
+		assertEquals(200, decoded.getStatusCode());
+		assertEquals("done", decoded.getStatusMessage());
+		assertEquals(Map.of("a", 1, "b", "x"), decoded.getPayload());
+	}
+
+	@Test
+	void decodeRootPayload_DoesNotUnwrap() throws IOException {
+		DecodedResponse<Map<String, Object>> decoded = ResponseEnvelopeDecoder
+				.decodeRootPayload(body("{\"response\":{\"response\":{\"a\":1}}}"), MAP_READER);
+
+		assertNull(decoded.getStatusCode());
+		assertEquals("", decoded.getStatusMessage());
+		assertEquals(Map.of("response", Map.of("a", 1)), decoded.getPayload());
+	}
+
+	@Test
+	void decode_NullResponse_ReturnsNullPayload() throws IOException {
+		DecodedResponse<Map<String, Object>> decoded = ResponseEnvelopeDecoder
+				.decode(body("{\"response\":null,\"errors\":null}"), MAP_READER);
+
+		assertNull(decoded.getPayload());
+		assertNull(decoded.getErrors());
+		assertEquals("", decoded.getStatusMessage());
+	}
+
+	@Test
+	void decode_EmptyBody_ReturnsNull() throws IOException {
+		assertNull(ResponseEnvelopeDecoder.decode(body(""), MAP_READER));
+	}
+
+	@Test
+	void decode_ScalarResponseWithErrors_KeepsErrors() throws IOException {
+		DecodedResponse<Map<String, Object>> decoded = ResponseEnvelopeDecoder.decode(
+				body("{\"response\":\"\",\"errors\":[{\"code\":\"E1\",\"message\":\"failed\"}]}"), MAP_READER);
+
+		assertEquals(1, decoded.getErrors().size());
+		assertEquals("E1", decoded.getErrors().get(0).getCode());
+	}
+
+	@Test
+	void decode_ScalarResponseWithoutErrors_Throws() {
+		assertThrows(IOException.class,
+				() -> ResponseEnvelopeDecoder.decode(body("{\"response\":\"x\"}"), MAP_READER));
+	}
+
+	private static InputStream body(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,181 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.impl.spec_1_0.AsyncClient_V_1_0;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+class RetryTest {
+	private MockWebServer server;
+
+	private final Queue<MockResponse> failures = new ConcurrentLinkedQueue<>();
+
+	private volatile MockResponse alwaysFail;
+
+	private final List<RecordedRequest> calls = new CopyOnWriteArrayList<>();
+
+	private final List<byte[]> bodies = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void startServer() throws IOException {
+		SdkServiceStandIn service = new SdkServiceStandIn();
+		server = new MockWebServer();
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest recordedRequest) {
+				if (recordedRequest.getPath().endsWith("/init")) {
+					return service.dispatch(recordedRequest);
+				}
+				calls.add(recordedRequest);
+				bodies.add(recordedRequest.getBody().clone().readByteArray());
+				MockResponse failure = alwaysFail != null ? alwaysFail : failures.poll();
+				return failure != null ? failure : service.dispatch(recordedRequest);
+			}
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		server.shutdown();
+	}
+
+	@Test
+	void unavailableService_IsRetriedWithTheSameBodyAndKey() throws Exception {
+		failures.add(new MockResponse().setResponseCode(503));
+		failures.add(new MockResponse().setResponseCode(504));
+		Client_V_1_0 client = initClient(Map.of());
+
+		assertEquals(200, client.checkQuality(getFaceSample(256, 0), List.of(BiometricType.FACE),
+				new HashMap<>()).getStatusCode());
+
+		assertEquals(3, calls.size());
+		assertEquals(2, client.getRetriedRequests());
+		String idempotencyKey = calls.get(0).getHeader("Idempotency-Key");
+		assertNotNull(idempotencyKey);
+		for (int i = 1; i < calls.size(); i++) {
+			assertEquals(idempotencyKey, calls.get(i).getHeader("Idempotency-Key"));
+			assertArrayEquals(bodies.get(0), bodies.get(i));
+		}
+	}
+
+	@Test
+	void resetConnection_IsRetried() throws Exception {
+		failures.add(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+		Client_V_1_0 client = initClient(Map.of());
+
+		assertEquals(200, client.checkQuality(getFaceSample(256, 0), List.of(BiometricType.FACE),
+				new HashMap<>()).getStatusCode());
+
+		assertEquals(2, calls.size());
+	}
+
+	@Test
+	void asyncCall_IsRetried() throws Exception {
+		failures.add(new MockResponse().setResponseCode(502));
+		failures.add(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+		AsyncClient_V_1_0 client = initClient(new AsyncClient_V_1_0(), Map.of());
+
+		assertEquals(200, client.checkQualityAsync(getFaceSample(256, 0), List.of(BiometricType.FACE), new HashMap<>())
+				.get(10, TimeUnit.SECONDS).getStatusCode());
+
+		assertEquals(3, calls.size());
+		assertEquals(calls.get(0).getHeader("Idempotency-Key"), calls.get(2).getHeader("Idempotency-Key"));
+		assertArrayEquals(bodies.get(0), bodies.get(2));
+	}
+
+	@Test
+	void asyncRetries_ReplayTheBodySerializedOnce() throws Exception {
+		failures.add(new MockResponse().setResponseCode(503));
+		failures.add(new MockResponse().setResponseCode(503));
+		AsyncClient_V_1_0 client = initClient(new AsyncClient_V_1_0(), Map.of());
+
+		assertEquals(200, client.checkQualityAsync(getFaceSample(256, 0), List.of(BiometricType.FACE), new HashMap<>())
+				.get(10, TimeUnit.SECONDS).getStatusCode());
+
+		// The first attempt streams the body, the retries send the serialized bytes
+		assertEquals(3, calls.size());
+		assertEquals("chunked", calls.get(0).getHeader("Transfer-Encoding"));
+		for (int i = 1; i < calls.size(); i++) {
+			assertEquals(String.valueOf(bodies.get(0).length), calls.get(i).getHeader("Content-Length"));
+			assertArrayEquals(bodies.get(0), bodies.get(i));
+		}
+	}
+
+	@Test
+	void otherErrors_AreNotRetried() throws Exception {
+		failures.add(new MockResponse().setResponseCode(500));
+		Client_V_1_0 client = initClient(Map.of());
+
+		assertThrows(BioSdkClientException.class,
+				() -> client.checkQuality(getFaceSample(256, 0), List.of(BiometricType.FACE), new HashMap<>()));
+
+		assertEquals(1, calls.size());
+	}
+
+	@Test
+	void retries_AreCappedByTheBudget() throws Exception {
+		alwaysFail = new MockResponse().setResponseCode(503);
+		Client_V_1_0 client = initClient(Map.of("retry.budget-percent", "0", "retry.max-attempts", "2"));
+		BiometricRecord sample = getFaceSample(256, 0);
+
+		for (int i = 0; i < 20; i++) {
+			assertThrows(BioSdkClientException.class,
+					() -> client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>()));
+		}
+
+		// The bucket starts with 10 retries and earns none
+		assertEquals(10, client.getRetriedRequests());
+		assertEquals(30, calls.size());
+	}
+
+	@Test
+	void singleAttempt_DisablesRetries() throws Exception {
+		failures.add(new MockResponse().setResponseCode(503));
+		Client_V_1_0 client = initClient(Map.of("retry.max-attempts", "1"));
+
+		assertThrows(BioSdkClientException.class,
+				() -> client.checkQuality(getFaceSample(256, 0), List.of(BiometricType.FACE), new HashMap<>()));
+
+		assertEquals(1, calls.size());
+		assertNull(calls.get(0).getHeader("Idempotency-Key"));
+	}
+
+	private Client_V_1_0 initClient(Map<String, String> options) {
+		return initClient(new Client_V_1_0(), options);
+	}
+
+	private <C extends Client_V_1_0> C initClient(C client, Map<String, String> options) {
+		Map<String, String> initParams = new HashMap<>(options);
+		initParams.put("endpoint.ejection.enabled", "false");
+		return TestUtil.initClient(client, server.url("/biosdk-service").toString(), initParams);
+	}
+}
@@ -0,0 +1,84 @@
+package io.mosip.biosdk.client.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import okhttp3.mockwebserver.MockWebServer;
+
+class RoutingTableTest {
+	private MockWebServer server;
+
+	private Client_V_1_0 client;
+
+	private String defaultUrl;
+
+	private String fingerUrl;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = new MockWebServer();
+		server.setDispatcher(new SdkServiceStandIn());
+		server.start();
+		defaultUrl = server.url("/default-service").toString();
+		fingerUrl = server.url("/finger-service").toString();
+		client = new Client_V_1_0();
+		client.init(Map.of("format.url.default", defaultUrl, "format.url.Finger-ISO", fingerUrl));
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		server.shutdown();
+	}
+
+	@Test
+	void formatFlag_IsMatchedIgnoringCase() throws Exception {
+		assertEquals(fingerUrl, route(BiometricType.FINGER, Map.of("FINGER.format", "finger-iso")));
+		assertEquals(fingerUrl, route(BiometricType.FINGER, Map.of("finger.format", "FINGER-ISO")));
+		assertEquals(fingerUrl, route(BiometricType.FINGER, Map.of("Finger.Format", "Finger-ISO")));
+	}
+
+	@Test
+	void otherModalitiesAndUnknownFormats_UseTheDefault() throws Exception {
+		assertEquals(defaultUrl, route(BiometricType.IRIS, Map.of("FINGER.format", "finger-iso")));
+		assertEquals(defaultUrl, route(BiometricType.FINGER, Map.of("FINGER.format", "other")));
+		assertEquals(defaultUrl, route(BiometricType.FINGER, new HashMap<>()));
+		assertEquals(defaultUrl, route(null, Map.of("FINGER.format", "finger-iso")));
+	}
+
+	@Test
+	void modalityNamedInFlags_PicksTheFormatFlag() throws Exception {
+		Method getSdkServiceUrl = Client_V_1_0.class.getDeclaredMethod("getSdkServiceUrl", List.class, Map.class);
+		getSdkServiceUrl.setAccessible(true);
+
+		assertEquals(fingerUrl,
+				getSdkServiceUrl.invoke(client, List.of(), Map.of("Finger.Format", "finger-iso")));
+		assertEquals(defaultUrl, getSdkServiceUrl.invoke(client, List.of(), Map.of("quality", "high")));
+	}
+
+	@Test
+	void init_ReplacesTheRoutes() throws Exception {
+		client.init(Map.of("format.url.default", fingerUrl));
+
+		assertEquals(fingerUrl, route(BiometricType.FINGER, Map.of("FINGER.format", "finger-iso")));
+		assertEquals(fingerUrl, route(BiometricType.IRIS, new HashMap<>()));
+	}
+
+	private Object route(BiometricType modality, Map<String, String> flags) throws Exception {
+		Method getSdkServiceUrl = Client_V_1_0.class.getDeclaredMethod("getSdkServiceUrl", BiometricType.class,
+				Map.class);
+		getSdkServiceUrl.setAccessible(true);
+		return getSdkServiceUrl.invoke(client, modality, flags);
+	}
+}
@@ -0,0 +1,197 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.impl.spec_1_0.AsyncClient_V_1_0;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class SdkMetricsTest {
+	private final List<MockWebServer> servers = new ArrayList<>();
+
+	@AfterEach
+	void stopServers() throws IOException {
+		for (MockWebServer server : servers) {
+			server.shutdown();
+		}
+	}
+
+	@Test
+	void registry_RecordsExchangesByOperationAndUrl() throws Exception {
+		String url = start(false);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		Client_V_1_0 client = new Client_V_1_0();
+		client.setMeterRegistry(registry);
+		client.init(Map.of("format.url.default", url));
+
+		client.checkQuality(getFaceSample(), List.of(BiometricType.FACE), new HashMap<>());
+		client.checkQuality(getFaceSample(), List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(1, requests(registry, "init", url, "success").count());
+		Timer checkQuality = requests(registry, "check-quality", url, "success");
+		assertEquals(2, checkQuality.count());
+		assertTrue(checkQuality.totalTime(TimeUnit.NANOSECONDS) > 0);
+		DistributionSummary sent = registry.get("biosdk.client.request.size").tag("operation", "check-quality")
+				.summary();
+		DistributionSummary received = registry.get("biosdk.client.response.size").tag("operation", "check-quality")
+				.summary();
+		assertEquals(2, sent.count());
+		assertTrue(sent.totalAmount() > 1000);
+		assertTrue(received.totalAmount() > 0);
+		assertNotNull(registry.get("biosdk.client.connections.leased").tag("client", "blocking").gauge());
+		assertTrue(registry.get("biosdk.client.connections.available").tag("client", "blocking").gauge().value() >= 1);
+	}
+
+	@Test
+	void failedExchange_CountsTheErrorByCause() throws Exception {
+		String url = start(true);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		Client_V_1_0 client = new Client_V_1_0();
+		client.setMeterRegistry(registry);
+		client.init(Map.of("format.url.default", url));
+
+		assertThrows(BioSdkClientException.class,
+				() -> client.segment(getFaceSample(), List.of(BiometricType.FACE), new HashMap<>()));
+
+		assertEquals(1, requests(registry, "segment", url, "error").count());
+		assertEquals(1, registry.get("biosdk.client.errors").tag("operation", "segment").tag("cause", "http-500")
+				.counter().count());
+	}
+
+	@Test
+	void match_RecordsTheGallerySize() throws Exception {
+		String url = start(false);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		AsyncClient_V_1_0 client = new AsyncClient_V_1_0();
+		client.setMeterRegistry(registry);
+		client.init(Map.of("format.url.default", url));
+		BiometricRecord[] gallery = new BiometricRecord[] { getFaceSample(), getFaceSample(), getFaceSample() };
+
+		client.matchAsync(getFaceSample(), gallery, List.of(BiometricType.FACE), new HashMap<>()).get(10,
+				TimeUnit.SECONDS);
+
+		DistributionSummary records = registry.get("biosdk.client.match.gallery.records").summary();
+		assertEquals(1, records.count());
+		assertEquals(3, records.totalAmount());
+		DistributionSummary sent = registry.get("biosdk.client.request.size").tag("operation", "match").summary();
+		assertTrue(sent.totalAmount() > 0);
+		assertEquals(1, requests(registry, "match", url, "success").count());
+	}
+
+	@Test
+	void bodySizes_AreMeasuredOnTheWire() throws Exception {
+		SdkServiceStandIn service = new SdkServiceStandIn();
+		service.setGzipResponses(true);
+		AtomicLong requestBytes = new AtomicLong();
+		AtomicLong responseBytes = new AtomicLong();
+		MockWebServer server = new MockWebServer();
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest recordedRequest) throws InterruptedException {
+				MockResponse response = service.dispatch(recordedRequest);
+				if (recordedRequest.getPath().endsWith("/check-quality")) {
+					requestBytes.addAndGet(recordedRequest.getBodySize());
+					responseBytes.addAndGet(response.getBody().size());
+				}
+				return response;
+			}
+		});
+		server.start();
+		servers.add(server);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		AsyncClient_V_1_0 client = new AsyncClient_V_1_0();
+		client.setMeterRegistry(registry);
+		TestUtil.initClient(client, server.url("/biosdk-service").toString(),
+				Map.of("format.compression.test", "gzip", "format.compression-threshold.test", "1"));
+
+		client.checkQuality(getFaceSample(4096, 1), List.of(BiometricType.FACE), new HashMap<>());
+		client.checkQualityAsync(getFaceSample(4096, 2), List.of(BiometricType.FACE), new HashMap<>()).get(10,
+				TimeUnit.SECONDS);
+
+		// Both compressed, a request as sent and a response as received
+		DistributionSummary sent = registry.get("biosdk.client.request.size").tag("operation", "check-quality")
+				.summary();
+		DistributionSummary received = registry.get("biosdk.client.response.size").tag("operation", "check-quality")
+				.summary();
+		assertEquals(2, sent.count());
+		assertEquals(requestBytes.get(), (long) sent.totalAmount());
+		assertEquals(responseBytes.get(), (long) received.totalAmount());
+	}
+
+	@Test
+	void nullGallery_IsStillSentWithoutRegistry() throws Exception {
+		String url = start(false);
+		Client_V_1_0 client = new Client_V_1_0();
+		client.init(Map.of("format.url.default", url));
+		int requestsBefore = servers.get(0).getRequestCount();
+
+		client.match(getFaceSample(), (BiometricRecord[]) null, List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(requestsBefore + 1, servers.get(0).getRequestCount());
+	}
+
+	@Test
+	void noRegistry_RecordsNothing() throws Exception {
+		String url = start(false);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		Client_V_1_0 client = new Client_V_1_0();
+		client.setMeterRegistry(registry);
+		client.setMeterRegistry(null);
+		client.init(Map.of("format.url.default", url));
+
+		client.checkQuality(getFaceSample(), List.of(BiometricType.FACE), new HashMap<>());
+
+		assertNull(registry.find("biosdk.client.requests").timer());
+	}
+
+	private static Timer requests(SimpleMeterRegistry registry, String operation, String url, String outcome) {
+		return registry.get("biosdk.client.requests").tag("operation", operation).tag("url", url)
+				.tag("outcome", outcome).timer();
+	}
+
+	/**
+	 * Starts a stand-in, failing the calls other than init with a 500 status if
+	 * asked to.
+	 */
+	private String start(boolean failing) throws IOException {
+		SdkServiceStandIn service = new SdkServiceStandIn();
+		MockWebServer server = new MockWebServer();
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest recordedRequest) throws InterruptedException {
+				return failing && !recordedRequest.getPath().endsWith("/init") ? new MockResponse().setResponseCode(500)
+						: service.dispatch(recordedRequest);
+			}
+		});
+		server.start();
+		servers.add(server);
+		return server.url("/biosdk-service").toString();
+	}
+}
@@ -0,0 +1,153 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.impl.spec_1_0.AsyncClient_V_1_0;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class SdkServiceBalancingTest {
+	private MockWebServer first;
+
+	private MockWebServer second;
+
+	private SdkServiceStandIn service;
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private final AtomicBoolean holdFirst = new AtomicBoolean();
+
+	@BeforeEach
+	void startServers() throws IOException {
+		service = new SdkServiceStandIn();
+		first = new MockWebServer();
+		first.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest recordedRequest) throws InterruptedException {
+				if (holdFirst.get() && recordedRequest.getPath().endsWith("/check-quality")) {
+					release.await(30, TimeUnit.SECONDS);
+				}
+				return service.dispatch(recordedRequest);
+			}
+		});
+		first.start();
+		second = new MockWebServer();
+		second.setDispatcher(service);
+		second.start();
+	}
+
+	@AfterEach
+	void stopServers() throws IOException {
+		release.countDown();
+		first.shutdown();
+		second.shutdown();
+	}
+
+	@Test
+	void init_InitializesEveryUrlOfTheList() {
+		initClient();
+
+		assertTrue(first.getRequestCount() >= 1);
+		assertTrue(second.getRequestCount() >= 1);
+	}
+
+	@Test
+	void calls_AreSpreadOverTheUrls() throws Exception {
+		Client_V_1_0 client = initClient();
+		int initRequests = first.getRequestCount() + second.getRequestCount();
+		BiometricRecord sample = getFaceSample(256, 0);
+
+		for (int i = 0; i < 40; i++) {
+			assertEquals(200, client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>()).getStatusCode());
+		}
+
+		assertEquals(40, first.getRequestCount() + second.getRequestCount() - initRequests);
+		assertTrue(first.getRequestCount() > 1);
+		assertTrue(second.getRequestCount() > 1);
+	}
+
+	@Test
+	void busyUrl_IsAvoidedWhileItHasRequestsInFlight() throws Exception {
+		AsyncClient_V_1_0 client = initClient();
+		BiometricRecord sample = getFaceSample(256, 0);
+		String firstUrl = first.url("/biosdk-service").toString();
+		String secondUrl = second.url("/biosdk-service").toString();
+		assertEquals(Map.of(firstUrl, 0, secondUrl, 0), client.getInFlightRequests());
+		client.checkQualityAsync(sample, List.of(BiometricType.FACE), new HashMap<>()).get(10, TimeUnit.SECONDS);
+		holdFirst.set(true);
+
+		List<CompletableFuture<Response<QualityCheck>>> held = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			CompletableFuture<Response<QualityCheck>> future = client.checkQualityAsync(sample,
+					List.of(BiometricType.FACE), new HashMap<>());
+			try {
+				future.get(1, TimeUnit.SECONDS);
+			} catch (TimeoutException e) {
+				held.add(future);
+			}
+		}
+
+		// Once a call is held by the first URL, all others go to the second one
+		assertEquals(1, held.size());
+		assertEquals(Map.of(firstUrl, 1, secondUrl, 0), client.getInFlightRequests());
+		release.countDown();
+		assertEquals(200, held.get(0).get(10, TimeUnit.SECONDS).getStatusCode());
+		assertEquals(Map.of(firstUrl, 0, secondUrl, 0), client.getInFlightRequests());
+	}
+
+	@Test
+	void shardedMatch_SpreadsShardsOverTheUrls() throws Exception {
+		Client_V_1_0 client = TestUtil.initClient(new Client_V_1_0(), urls(),
+				Map.of("format.match-shard-records.test", "1"));
+		int initRequests = first.getRequestCount() + second.getRequestCount();
+		BiometricRecord sample = getFaceSample(256, 0);
+		BiometricRecord[] gallery = new BiometricRecord[20];
+		for (int i = 0; i < gallery.length; i++) {
+			gallery[i] = sample;
+		}
+
+		Response<MatchDecision[]> response = client.match(sample, gallery, List.of(BiometricType.FACE),
+				new HashMap<>());
+
+		assertEquals(20, response.getResponse().length);
+		assertEquals(19, response.getResponse()[19].getGalleryIndex());
+		assertEquals(20, first.getRequestCount() + second.getRequestCount() - initRequests);
+		assertTrue(first.getRequestCount() > 1);
+		assertTrue(second.getRequestCount() > 1);
+	}
+
+	private AsyncClient_V_1_0 initClient() {
+		return TestUtil.initClient(new AsyncClient_V_1_0(), urls(), Map.of());
+	}
+
+	private String urls() {
+		return first.url("/biosdk-service").toString() + ", " + second.url("/biosdk-service").toString();
+	}
+}
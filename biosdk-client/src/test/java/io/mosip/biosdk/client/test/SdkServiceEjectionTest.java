@@ -0,0 +1,192 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class SdkServiceEjectionTest {
+	private MockWebServer healthy;
+
+	private MockWebServer failing;
+
+	private final AtomicBoolean failingResponseCode = new AtomicBoolean(true);
+
+	private volatile int failureCode = 500;
+
+	private final AtomicInteger failingCalls = new AtomicInteger();
+
+	private volatile long delayMillis;
+
+	@BeforeEach
+	void startServers() throws IOException {
+		SdkServiceStandIn service = new SdkServiceStandIn();
+		healthy = new MockWebServer();
+		healthy.setDispatcher(service);
+		healthy.start();
+		failing = new MockWebServer();
+		failing.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest recordedRequest) throws InterruptedException {
+				if ("GET".equals(recordedRequest.getMethod())) {
+					return new MockResponse().setResponseCode(failingResponseCode.get() ? failureCode : 404);
+				}
+				failingCalls.incrementAndGet();
+				if (!recordedRequest.getPath().endsWith("/init")) {
+					Thread.sleep(delayMillis);
+				}
+				if (failingResponseCode.get() && !recordedRequest.getPath().endsWith("/init")) {
+					return new MockResponse().setResponseCode(failureCode);
+				}
+				return service.dispatch(recordedRequest);
+			}
+		});
+		failing.start();
+	}
+
+	@AfterEach
+	void stopServers() throws IOException {
+		healthy.shutdown();
+		failing.shutdown();
+	}
+
+	@Test
+	void failingUrl_IsEjectedAndSkipped() throws Exception {
+		Client_V_1_0 client = initClient(Map.of());
+		BiometricRecord sample = getFaceSample(256, 0);
+
+		callRepeatedly(client, sample, 30);
+		int callsBefore = failingCalls.get();
+		callRepeatedly(client, sample, 20);
+
+		assertEquals(Set.of(url(failing)), client.getEjectedSdkServiceUrls());
+		assertEquals(callsBefore, failingCalls.get());
+	}
+
+	@Test
+	void ejectedUrl_IsReinstatedOnceProbeSucceeds() throws Exception {
+		Client_V_1_0 client = initClient(Map.of("endpoint.ejection.probe-interval-ms", "100"));
+		BiometricRecord sample = getFaceSample(256, 0);
+		callRepeatedly(client, sample, 30);
+		assertEquals(Set.of(url(failing)), client.getEjectedSdkServiceUrls());
+
+		failingResponseCode.set(false);
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!client.getEjectedSdkServiceUrls().isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+
+		assertTrue(client.getEjectedSdkServiceUrls().isEmpty());
+		int callsBefore = failingCalls.get();
+		callRepeatedly(client, sample, 20);
+		assertTrue(failingCalls.get() > callsBefore);
+	}
+
+	@Test
+	void allUrlsEjected_CallsFailFast() throws Exception {
+		Map<String, String> initParams = new HashMap<>();
+		initParams.put("format.url.test", url(failing));
+		initParams.put("endpoint.ejection.enabled", "true");
+		Client_V_1_0 client = new Client_V_1_0();
+		client.init(initParams);
+		BiometricRecord sample = getFaceSample(256, 0);
+		for (int i = 0; i < 5; i++) {
+			assertThrows(BioSdkClientException.class,
+					() -> client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>()));
+		}
+		int callsBefore = failingCalls.get();
+
+		BioSdkClientException e = assertThrows(BioSdkClientException.class,
+				() -> client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>()));
+
+		assertTrue(e.getMessage().contains("No available SDK service URL"));
+		assertEquals(callsBefore, failingCalls.get());
+	}
+
+	@Test
+	void clientErrors_DoNotEject() throws Exception {
+		failureCode = 400;
+		Client_V_1_0 client = initClient(Map.of());
+
+		callRepeatedly(client, getFaceSample(256, 0), 30);
+
+		assertTrue(client.getEjectedSdkServiceUrls().isEmpty());
+	}
+
+	@Test
+	void expiredDeadlines_DoNotEject() throws Exception {
+		failingResponseCode.set(false);
+		delayMillis = 300;
+		Client_V_1_0 client = initClient(Map.of());
+
+		callRepeatedly(client, getFaceSample(256, 0), 30, Map.of("deadline-ms", "50"));
+
+		assertTrue(client.getEjectedSdkServiceUrls().isEmpty());
+	}
+
+	@Test
+	void ejectionDisabled_KeepsFailingUrl() throws Exception {
+		Client_V_1_0 client = initClient(Map.of("endpoint.ejection.enabled", "false"));
+
+		callRepeatedly(client, getFaceSample(256, 0), 30);
+
+		assertTrue(client.getEjectedSdkServiceUrls().isEmpty());
+	}
+
+	@Test
+	void ejection_IsOffByDefault() throws Exception {
+		Client_V_1_0 client = TestUtil.initClient(new Client_V_1_0(), url(healthy) + "," + url(failing), Map.of());
+
+		callRepeatedly(client, getFaceSample(256, 0), 30);
+
+		assertTrue(client.getEjectedSdkServiceUrls().isEmpty());
+	}
+
+	private void callRepeatedly(Client_V_1_0 client, BiometricRecord sample, int calls) {
+		callRepeatedly(client, sample, calls, Map.of());
+	}
+
+	private void callRepeatedly(Client_V_1_0 client, BiometricRecord sample, int calls, Map<String, String> flags) {
+		for (int i = 0; i < calls; i++) {
+			try {
+				client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>(flags));
+			} catch (BioSdkClientException e) {
+				// Calls sent to the failing URL
+			}
+		}
+	}
+
+	private Client_V_1_0 initClient(Map<String, String> options) {
+		Map<String, String> initParams = new HashMap<>();
+		initParams.put("endpoint.ejection.enabled", "true");
+		initParams.putAll(options);
+		return TestUtil.initClient(new Client_V_1_0(), url(healthy) + "," + url(failing), initParams);
+	}
+
+	private String url(MockWebServer server) {
+		return server.url("/biosdk-service").toString();
+	}
+}
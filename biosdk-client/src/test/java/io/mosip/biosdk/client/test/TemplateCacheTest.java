@@ -0,0 +1,148 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.impl.spec_1_0.AsyncClient_V_1_0;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.MockWebServer;
+
+class TemplateCacheTest {
+	private MockWebServer server;
+
+	private SdkServiceStandIn service;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		service = new SdkServiceStandIn();
+		server = new MockWebServer();
+		server.setDispatcher(service);
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		server.shutdown();
+	}
+
+	@Test
+	void sameExtraction_IsAnsweredFromTheCache() throws Exception {
+		AsyncClient_V_1_0 client = initClient("1048576");
+		BiometricRecord sample = getFaceSample(256, 1);
+
+		Response<BiometricRecord> first = client.extractTemplate(sample, List.of(BiometricType.FACE), new HashMap<>());
+		Response<BiometricRecord> second = client.extractTemplate(getFaceSample(256, 1), List.of(BiometricType.FACE),
+				new HashMap<>());
+		Response<BiometricRecord> async = client
+				.extractTemplateAsync(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>())
+				.get(10, TimeUnit.SECONDS);
+
+		assertEquals(1, extractCalls());
+		assertEquals(200, second.getStatusCode());
+		assertEquals(first.getStatusMessage(), second.getStatusMessage());
+		assertArrayEquals(first.getResponse().getSegments().get(0).getBdb(),
+				second.getResponse().getSegments().get(0).getBdb());
+		assertArrayEquals(first.getResponse().getSegments().get(0).getBdb(),
+				async.getResponse().getSegments().get(0).getBdb());
+		Map<String, Long> counters = client.getTemplateCacheCounters();
+		assertEquals(2, counters.get("hits"));
+		assertEquals(1, counters.get("misses"));
+		assertEquals(1, counters.get("entries"));
+		assertTrue(counters.get("bytes") > 0);
+	}
+
+	@Test
+	void hits_AreCopies() throws Exception {
+		Client_V_1_0 client = initClient("1048576");
+		client.extractTemplate(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>());
+
+		Response<BiometricRecord> hit = client.extractTemplate(getFaceSample(256, 1), List.of(BiometricType.FACE),
+				new HashMap<>());
+		hit.getResponse().getSegments().get(0).setBdb(new byte[] { 9 });
+
+		assertEquals(256, client.extractTemplate(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>())
+				.getResponse().getSegments().get(0).getBdb().length);
+	}
+
+	@Test
+	void otherBdbsOrFlags_AreExtractedAgain() throws Exception {
+		Client_V_1_0 client = initClient("1048576");
+
+		client.extractTemplate(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>());
+		client.extractTemplate(getFaceSample(256, 2), List.of(BiometricType.FACE), new HashMap<>());
+		Map<String, String> flags = new HashMap<>();
+		flags.put("quality", "high");
+		client.extractTemplate(getFaceSample(256, 1), List.of(BiometricType.FACE), flags);
+
+		assertEquals(3, extractCalls());
+		assertEquals(3, client.getTemplateCacheCounters().get("misses"));
+	}
+
+	@Test
+	void fullCache_OnlyAdmitsTemplatesUsedMoreOften() throws Exception {
+		Client_V_1_0 sizing = initClient("1048576");
+		sizing.extractTemplate(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>());
+		long templateBytes = sizing.getTemplateCacheCounters().get("bytes");
+		service.getReceived().clear();
+
+		// Room for a single template
+		Client_V_1_0 client = initClient(String.valueOf(templateBytes * 3 / 2));
+		for (int i = 0; i < 3; i++) {
+			client.extractTemplate(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>());
+		}
+
+		// A one-off extraction does not displace the frequent one
+		client.extractTemplate(getFaceSample(256, 2), List.of(BiometricType.FACE), new HashMap<>());
+		client.extractTemplate(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>());
+		assertEquals(2, extractCalls());
+		assertEquals(1, client.getTemplateCacheCounters().get("rejections"));
+
+		// Once asked for more often, it does
+		for (int i = 0; i < 5; i++) {
+			client.extractTemplate(getFaceSample(256, 2), List.of(BiometricType.FACE), new HashMap<>());
+		}
+		assertEquals(1, client.getTemplateCacheCounters().get("evictions"));
+		assertEquals(1, client.getTemplateCacheCounters().get("entries"));
+	}
+
+	@Test
+	void cache_IsOffByDefault() throws Exception {
+		Client_V_1_0 client = new Client_V_1_0();
+		client.init(Map.of("format.url.test", server.url("/biosdk-service").toString()));
+
+		client.extractTemplate(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>());
+		client.extractTemplate(getFaceSample(256, 1), List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(2, extractCalls());
+		assertEquals(0, client.getTemplateCacheCounters().get("misses"));
+	}
+
+	private long extractCalls() {
+		synchronized (service.getReceived()) {
+			return service.getReceived().stream().filter(request -> request.path().endsWith("/extract-template"))
+					.count();
+		}
+	}
+
+	private AsyncClient_V_1_0 initClient(String maxBytes) {
+		return TestUtil.initClient(new AsyncClient_V_1_0(), server.url("/biosdk-service").toString(),
+				Map.of("template-cache.max-bytes", maxBytes));
+	}
+}
@@ -0,0 +1,196 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import io.mosip.biosdk.client.exception.BioSdkClientException;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.Util;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class VirtualThreadTest {
+	private static final String VIRTUAL_THREADS = "mosip_biosdk_virtual_threads";
+
+	private final List<MockWebServer> servers = new ArrayList<>();
+
+	private SdkServiceStandIn service;
+
+	@BeforeEach
+	void startServers() throws IOException {
+		service = new SdkServiceStandIn();
+		for (int i = 0; i < 3; i++) {
+			MockWebServer server = new MockWebServer();
+			server.setDispatcher(service);
+			server.start();
+			servers.add(server);
+		}
+	}
+
+	@AfterEach
+	void stopServers() throws IOException {
+		System.clearProperty(VIRTUAL_THREADS);
+		for (MockWebServer server : servers) {
+			server.shutdown();
+		}
+	}
+
+	@Test
+	void fanOutExecutor_RunsOnCallerThreadByDefault() {
+		Thread caller = Thread.currentThread();
+		Thread[] ranOn = new Thread[1];
+
+		Util.getFanOutExecutor().execute(() -> ranOn[0] = Thread.currentThread());
+
+		assertEquals(caller, ranOn[0]);
+	}
+
+	@Test
+	void fanOutExecutor_RunsOnVirtualThreadsWhenEnabled() throws Exception {
+		System.setProperty(VIRTUAL_THREADS, "true");
+
+		boolean virtual = CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(),
+				Util.getFanOutExecutor()).get(10, TimeUnit.SECONDS);
+
+		assertTrue(virtual);
+	}
+
+	@Test
+	void init_WithVirtualThreads_InitializesEveryUrl() {
+		Client_V_1_0 client = new Client_V_1_0();
+
+		SDKInfo sdkInfo = client.init(initParams());
+
+		assertNotNull(sdkInfo);
+		assertTrue(Util.isVirtualThreadsEnabled());
+		for (MockWebServer server : servers) {
+			assertTrue(server.getRequestCount() >= 1);
+		}
+	}
+
+	@Test
+	void init_WithVirtualThreads_FailingUrlIsLeftUninitialized() {
+		failWith500(servers.get(1));
+		Client_V_1_0 client = new Client_V_1_0();
+
+		assertNotNull(client.init(initParams()));
+		assertEquals(Set.of(servers.get(1).url("/biosdk-service").toString()),
+				client.getUninitializedSdkServiceUrls());
+	}
+
+	@Test
+	void init_WithVirtualThreads_AllUrlsFailingThrowsClientException() {
+		servers.forEach(VirtualThreadTest::failWith500);
+		Client_V_1_0 client = new Client_V_1_0();
+
+		assertThrows(BioSdkClientException.class, () -> client.init(initParams()));
+	}
+
+	@Test
+	void virtualThreadCallers_MoreThanPoolSize_AllComplete() throws Exception {
+		Client_V_1_0 client = new Client_V_1_0();
+		client.init(initParams());
+		BiometricRecord sample = getFaceSample(256, 0);
+
+		try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<Response<QualityCheck>>> responses = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				responses.add(callers.submit(
+						() -> client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>())));
+			}
+			for (Future<Response<QualityCheck>> response : responses) {
+				assertEquals(200, response.get(60, TimeUnit.SECONDS).getStatusCode());
+			}
+		}
+	}
+
+	/**
+	 * Compares the throughput of 10k concurrent callers on platform threads with
+	 * the same callers on virtual threads. Run with
+	 * <code>mvn test -Dtest=VirtualThreadTest -Dbiosdk.benchmark=true</code>.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "biosdk.benchmark", matches = "true")
+	void benchmark_TenThousandCallers() throws Exception {
+		Client_V_1_0 client = new Client_V_1_0();
+		client.init(initParams());
+		BiometricRecord sample = getFaceSample(256, 0);
+		int callers = Integer.getInteger("biosdk.benchmark.callers", 10_000);
+
+		// Warm up the pool and the codecs
+		runCallers(client, sample, 200, Thread.ofVirtual().factory());
+
+		double platform = runCallers(client, sample, callers, Thread.ofPlatform().stackSize(256 * 1024).factory());
+		double virtual = runCallers(client, sample, callers, Thread.ofVirtual().factory());
+
+		System.out.printf("%d callers: platform threads %.0f calls/s, virtual threads %.0f calls/s%n", callers,
+				platform, virtual);
+	}
+
+	private double runCallers(Client_V_1_0 client, BiometricRecord sample, int callers, ThreadFactory threadFactory)
+			throws InterruptedException {
+		AtomicInteger failures = new AtomicInteger();
+		long start = System.nanoTime();
+		try (ExecutorService executor = Executors.newThreadPerTaskExecutor(threadFactory)) {
+			for (int i = 0; i < callers; i++) {
+				executor.execute(() -> {
+					if (client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>()).getStatusCode() != 200) {
+						failures.incrementAndGet();
+					}
+				});
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		assertFalse(failures.get() > 0, failures.get() + " calls failed");
+		return callers / seconds;
+	}
+
+	private Map<String, String> initParams() {
+		Map<String, String> initParams = new HashMap<>();
+		initParams.put("config.parameter." + VIRTUAL_THREADS, "true");
+		for (int i = 0; i < servers.size(); i++) {
+			initParams.put("format.url.format" + i, servers.get(i).url("/biosdk-service").toString());
+		}
+		return initParams;
+	}
+
+	private static void failWith500(MockWebServer server) {
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest recordedRequest) {
+				return new MockResponse().setResponseCode(500);
+			}
+		});
+	}
+}
@@ -0,0 +1,122 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class WarmupTest {
+	private final List<MockWebServer> servers = new ArrayList<>();
+
+	@AfterEach
+	void stopServers() throws IOException {
+		for (MockWebServer server : servers) {
+			server.shutdown();
+		}
+	}
+
+	@Test
+	void enabledWarmup_OpensConnectionsAndRunsTheCodecs() throws Exception {
+		Counting service = new Counting(0);
+		MockWebServer server = start(service);
+		String url = server.url("/biosdk-service").toString();
+		Client_V_1_0 client = new Client_V_1_0();
+
+		client.init(Map.of("format.url.default", url, "warmup.enabled", "true", "warmup.connections", "3",
+				"warmup.codec-rounds", "20"));
+
+		// 3 on each of the blocking and the non-blocking clients
+		assertEquals(6, service.count("/biosdk-service/"));
+		assertTrue(server.getRequestCount() >= 7);
+		Map<String, Long> counters = client.getWarmupCounters();
+		assertEquals(6, counters.get("connections"));
+		assertEquals(0, counters.get("failures"));
+		assertEquals(20, counters.get("codec-rounds"));
+		assertEquals(200, client.checkQuality(getFaceSample(), List.of(BiometricType.FACE), new HashMap<>())
+				.getStatusCode());
+	}
+
+	@Test
+	void defaultInit_DoesNotWarmUp() throws Exception {
+		Counting service = new Counting(0);
+		Client_V_1_0 client = new Client_V_1_0();
+
+		client.init(Map.of("format.url.default", start(service).url("/biosdk-service").toString()));
+
+		assertEquals(0, service.count("/biosdk-service/"));
+		assertTrue(client.getWarmupCounters().values().stream().allMatch(counter -> counter == 0));
+	}
+
+	@Test
+	void slowWarmup_DoesNotHoldUpInitPastItsTimeout() throws Exception {
+		Counting service = new Counting(3000);
+		Client_V_1_0 client = new Client_V_1_0();
+
+		long start = System.nanoTime();
+		client.init(Map.of("format.url.default", start(service).url("/biosdk-service").toString(),
+				"warmup.enabled", "true", "warmup.connections", "1", "warmup.timeout-ms", "300"));
+
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3000);
+		assertEquals(0, client.getWarmupCounters().get("connections"));
+	}
+
+	private MockWebServer start(Dispatcher dispatcher) throws IOException {
+		MockWebServer server = new MockWebServer();
+		server.setDispatcher(dispatcher);
+		server.start();
+		servers.add(server);
+		return server;
+	}
+
+	/**
+	 * A stand-in counting the requests received by path, answering the warm-up
+	 * requests to the base path late.
+	 */
+	private static final class Counting extends Dispatcher {
+		private final SdkServiceStandIn service = new SdkServiceStandIn();
+
+		private final List<String> paths = new ArrayList<>();
+
+		private final long warmupDelayMillis;
+
+		Counting(long warmupDelayMillis) {
+			this.warmupDelayMillis = warmupDelayMillis;
+		}
+
+		@Override
+		public MockResponse dispatch(RecordedRequest recordedRequest) throws InterruptedException {
+			String path = recordedRequest.getPath();
+			synchronized (paths) {
+				paths.add(path);
+			}
+			if (path.endsWith("/biosdk-service/")) {
+				return new MockResponse().setResponseCode(200).setBody("ok").setHeadersDelay(warmupDelayMillis,
+						TimeUnit.MILLISECONDS);
+			}
+			return service.dispatch(recordedRequest);
+		}
+
+		long count(String path) {
+			synchronized (paths) {
+				return paths.stream().filter(received -> received.endsWith(path)).count();
+			}
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package io.mosip.biosdk.client.test;
+
+import static io.mosip.biosdk.client.utils.TestUtil.getFaceSample;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.mosip.biosdk.client.codec.WireFormat;
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn.Encoding;
+import io.mosip.biosdk.client.utils.SdkServiceStandIn.ReceivedRequest;
+import io.mosip.biosdk.client.utils.TestUtil;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import okhttp3.mockwebserver.MockWebServer;
+
+class WireFormatTest {
+	private MockWebServer server;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = new MockWebServer();
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		server.shutdown();
+	}
+
+	@Test
+	void cborRequested_ServiceSupportsCbor_SendsRawBdb() throws Exception {
+		SdkServiceStandIn service = new SdkServiceStandIn(Encoding.CBOR);
+		server.setDispatcher(service);
+		Client_V_1_0 client = initClient("cbor");
+		BiometricRecord sample = getFaceSample();
+
+		Response<QualityCheck> response = client.checkQuality(sample, List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(200, response.getStatusCode());
+		assertNotNull(response.getResponse().getScores().get(BiometricType.FACE));
+		ReceivedRequest received = service.getLastReceived("/check-quality");
+		assertEquals(Encoding.CBOR, received.encoding());
+		JsonNode bdb = received.request().get("sample").get("segments").get(0).get("bdb");
+		assertTrue(bdb.isBinary());
+		assertArrayEquals(sample.getSegments().get(0).getBdb(), bdb.binaryValue());
+	}
+
+	@Test
+	void smileRequested_ServiceSupportsSmile_RoundTripsBdb() throws Exception {
+		SdkServiceStandIn service = new SdkServiceStandIn(Encoding.SMILE);
+		server.setDispatcher(service);
+		Client_V_1_0 client = initClient("smile");
+		BiometricRecord sample = getFaceSample();
+
+		Response<BiometricRecord> response = client.extractTemplate(sample, List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(Encoding.SMILE, service.getLastReceived("/extract-template").encoding());
+		assertArrayEquals(sample.getSegments().get(0).getBdb(), response.getResponse().getSegments().get(0).getBdb());
+	}
+
+	@Test
+	void cborRequested_ServiceSupportsCbor_MatchesGallery() throws Exception {
+		server.setDispatcher(new SdkServiceStandIn(Encoding.CBOR));
+		Client_V_1_0 client = initClient("cbor");
+		BiometricRecord sample = getFaceSample();
+
+		Response<MatchDecision[]> response = client.match(sample, new BiometricRecord[] { new BiometricRecord(), sample },
+				List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(2, response.getResponse().length);
+		assertEquals(1, response.getResponse()[1].getGalleryIndex());
+		assertEquals(Match.MATCHED, response.getResponse()[1].getDecisions().get(BiometricType.FACE).getMatch());
+	}
+
+	@Test
+	void cborRequested_ServiceSupportsJsonOnly_FallsBackToJson() throws Exception {
+		SdkServiceStandIn service = new SdkServiceStandIn();
+		server.setDispatcher(service);
+		Client_V_1_0 client = initClient("cbor");
+		BiometricRecord sample = getFaceSample();
+
+		Response<BiometricRecord> response = client.extractTemplate(sample, List.of(BiometricType.FACE), new HashMap<>());
+
+		ReceivedRequest received = service.getLastReceived("/extract-template");
+		assertEquals(Encoding.JSON, received.encoding());
+		JsonNode bdb = received.request().get("sample").get("segments").get(0).get("bdb");
+		assertTrue(bdb.isArray());
+		assertEquals(sample.getSegments().get(0).getBdb().length, bdb.size());
+		assertArrayEquals(sample.getSegments().get(0).getBdb(), response.getResponse().getSegments().get(0).getBdb());
+	}
+
+	@Test
+	void notRequested_ServiceSupportsCbor_UsesJson() throws Exception {
+		SdkServiceStandIn service = new SdkServiceStandIn(Encoding.CBOR);
+		server.setDispatcher(service);
+		Client_V_1_0 client = initClient(null);
+
+		client.checkQuality(getFaceSample(), List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(Encoding.JSON, service.getLastReceived("/check-quality").encoding());
+	}
+
+	@Test
+	void fromName_ResolvesConfiguredNames() {
+		assertEquals(WireFormat.JSON, WireFormat.fromName(null));
+		assertEquals(WireFormat.CBOR, WireFormat.fromName(" CBOR "));
+		assertEquals(WireFormat.SMILE, WireFormat.fromName("smile"));
+		assertThrows(IllegalArgumentException.class, () -> WireFormat.fromName("xml"));
+	}
+
+	@Test
+	void forContentType_DefaultsToJson() {
+		assertEquals(WireFormat.CBOR, WireFormat.forContentType(MediaType.APPLICATION_CBOR));
+		assertEquals(WireFormat.JSON, WireFormat.forContentType(MediaType.parseMediaType("application/json;charset=UTF-8")));
+		assertEquals(WireFormat.JSON, WireFormat.forContentType(null));
+	}
+
+	private Client_V_1_0 initClient(String wireFormat) {
+		return TestUtil.initClient(new Client_V_1_0(), server.url("/biosdk-service").toString(),
+				wireFormat == null ? Map.of() : Map.of("format.wire.test", wireFormat));
+	}
+}
@@ -0,0 +1,420 @@
+package io.mosip.biosdk.client.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BinaryNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
+import okhttp3.MultipartReader;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.GzipSource;
+import okio.Okio;
+
+/**
+ * Minimal local stand-in for the BioSDK service, used with a
+ * {@link okhttp3.mockwebserver.MockWebServer}.
+ *
+ * <p>
+ * It always understands the JSON envelope and multipart requests, and can be
+ * told to also understand the binary envelopes. Like the real service, it uses
+ * its own mappers rather than the client codecs, so tests exercise both sides
+ * of the wire contract, and it writes BDBs as integer arrays in JSON. Gzip
+ * request bodies are decompressed, and responses can be gzip compressed for
+ * clients accepting it. Every decoded request is recorded for assertions.
+ * </p>
+ */
+public class SdkServiceStandIn extends Dispatcher {
+	/** Envelope encodings understood by the stand-in. */
+	public enum Encoding {
+		JSON("application/json", new ObjectMapper()),
+		CBOR("application/cbor", new CBORMapper()),
+		SMILE("application/x-jackson-smile", new SmileMapper()),
+		MULTIPART("multipart/form-data", new ObjectMapper());
+
+		private final String mediaType;
+		private final ObjectMapper mapper;
+
+		Encoding(String mediaType, ObjectMapper mapper) {
+			this.mediaType = mediaType;
+			this.mapper = mapper;
+		}
+
+		private static Encoding forMediaType(String header) {
+			if (header != null) {
+				for (Encoding encoding : values()) {
+					if (header.trim().startsWith(encoding.mediaType)) {
+						return encoding;
+					}
+				}
+			}
+			return JSON;
+		}
+	}
+
+	/**
+	 * A request as seen by the stand-in. For multipart requests, BDB part
+	 * references are already replaced by the part contents, and so are BDB
+	 * references to earlier BDBs, whose number is {@code bdbReferences}.
+	 * {@code compressed} tells whether the body was sent gzip compressed.
+	 */
+	public record ReceivedRequest(String path, Encoding encoding, JsonNode request, int bdbParts, int bdbReferences,
+			boolean compressed) {
+	}
+
+	private final Set<Encoding> binaryEncodings;
+
+	private final List<ReceivedRequest> received = Collections.synchronizedList(new ArrayList<>());
+
+	private volatile boolean gzipResponses;
+
+	private volatile int qualityBatchSize;
+
+	private volatile boolean bdbReferences;
+
+	private volatile boolean galleryRegistration = true;
+
+	private volatile Long galleryTtlSeconds;
+
+	private final Map<String, JsonNode> galleries = new ConcurrentHashMap<>();
+
+	/**
+	 * @param binaryEncodings The binary encodings understood in addition to JSON.
+	 */
+	public SdkServiceStandIn(Encoding... binaryEncodings) {
+		this.binaryEncodings = binaryEncodings.length == 0 ? EnumSet.noneOf(Encoding.class)
+				: EnumSet.of(binaryEncodings[0], binaryEncodings);
+	}
+
+	/**
+	 * Makes the stand-in gzip its responses to requests accepting gzip.
+	 */
+	public void setGzipResponses(boolean gzipResponses) {
+		this.gzipResponses = gzipResponses;
+	}
+
+	/**
+	 * Makes the stand-in advertise {@code /check-quality-batch} for batches of up
+	 * to the given size, {@code 0} for none.
+	 */
+	public void setQualityBatchSize(int qualityBatchSize) {
+		this.qualityBatchSize = qualityBatchSize;
+	}
+
+	/**
+	 * Makes the stand-in advertise {@code bdb-references} and resolve
+	 * {@code {"ref": n}} BDBs in envelopes.
+	 */
+	public void setBdbReferences(boolean bdbReferences) {
+		this.bdbReferences = bdbReferences;
+	}
+
+	/**
+	 * Makes the stand-in serve {@code /register-gallery} and
+	 * {@code /match-gallery}, the default, or answer them with 404.
+	 */
+	public void setGalleryRegistration(boolean galleryRegistration) {
+		this.galleryRegistration = galleryRegistration;
+	}
+
+	/**
+	 * Sets the lifetime reported for registered galleries, {@code null} for none.
+	 */
+	public void setGalleryTtlSeconds(Long galleryTtlSeconds) {
+		this.galleryTtlSeconds = galleryTtlSeconds;
+	}
+
+	/**
+	 * Forgets the registered galleries, as a service evicting them would.
+	 */
+	public void evictGalleries() {
+		galleries.clear();
+	}
+
+	public List<ReceivedRequest> getReceived() {
+		return received;
+	}
+
+	public ReceivedRequest getLastReceived(String path) {
+		synchronized (received) {
+			for (int i = received.size() - 1; i >= 0; i--) {
+				if (received.get(i).path().endsWith(path)) {
+					return received.get(i);
+				}
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public MockResponse dispatch(RecordedRequest recordedRequest) {
+		try {
+			Encoding requestEncoding = Encoding.forMediaType(recordedRequest.getHeader("Content-Type"));
+			if (requestEncoding != Encoding.JSON && requestEncoding != Encoding.MULTIPART
+					&& !binaryEncodings.contains(requestEncoding)) {
+				return new MockResponse().setResponseCode(415);
+			}
+			String path = recordedRequest.getPath();
+			boolean compressed = "gzip".equals(recordedRequest.getHeader("Content-Encoding"));
+			Buffer body = recordedRequest.getBody();
+			if (compressed) {
+				Buffer decompressed = new Buffer();
+				try (GzipSource source = new GzipSource(body)) {
+					decompressed.writeAll(source);
+				}
+				body = decompressed;
+			}
+			JsonNode request;
+			if (requestEncoding == Encoding.MULTIPART) {
+				List<byte[]> bdbParts = new ArrayList<>();
+				request = readMultipartRequest(recordedRequest, body, bdbParts);
+				received.add(new ReceivedRequest(path, requestEncoding, request, bdbParts.size(), 0, compressed));
+			} else {
+				request = readRequest(body.readByteArray(), requestEncoding);
+				int references = bdbReferences ? resolveBdbReferences(request, new ArrayList<>()) : 0;
+				received.add(new ReceivedRequest(path, requestEncoding, request, 0, references, compressed));
+			}
+
+			JsonNode responseBody = respond(path, request);
+			if (responseBody == null) {
+				return new MockResponse().setResponseCode(404);
+			}
+			Encoding responseEncoding = negotiate(recordedRequest.getHeader("Accept"));
+			if (responseEncoding == Encoding.JSON) {
+				binaryToIntArrays(responseBody);
+			}
+			MockResponse response = new MockResponse().setResponseCode(200)
+					.addHeader("Content-Type", responseEncoding.mediaType);
+			byte[] responseBytes = responseEncoding.mapper.writeValueAsBytes(responseBody);
+			String acceptEncoding = recordedRequest.getHeader("Accept-Encoding");
+			if (gzipResponses && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+				Buffer gzipped = new Buffer();
+				try (BufferedSink sink = Okio.buffer(new GzipSink(gzipped))) {
+					sink.write(responseBytes);
+				}
+				return response.addHeader("Content-Encoding", "gzip").setBody(gzipped);
+			}
+			return response.setBody(new Buffer().write(responseBytes));
+		} catch (IOException | RuntimeException e) {
+			return new MockResponse().setResponseCode(400).setBody(String.valueOf(e));
+		}
+	}
+
+	private JsonNode readRequest(byte[] body, Encoding encoding) throws IOException {
+		JsonNode envelope = encoding.mapper.readTree(body);
+		if (encoding != Encoding.JSON) {
+			return envelope.get("request");
+		}
+		return encoding.mapper.readTree(Base64.getDecoder().decode(envelope.get("request").asText()));
+	}
+
+	/**
+	 * Reads the {@code request} metadata part and resolves every numeric
+	 * {@code bdb} against the {@code bdb} parts.
+	 */
+	private JsonNode readMultipartRequest(RecordedRequest recordedRequest, Buffer body, List<byte[]> bdbParts)
+			throws IOException {
+		String boundary = okhttp3.MediaType.get(recordedRequest.getHeader("Content-Type")).parameter("boundary");
+		JsonNode envelope = null;
+		try (MultipartReader reader = new MultipartReader(body, boundary)) {
+			MultipartReader.Part part;
+			while ((part = reader.nextPart()) != null) {
+				String disposition = part.headers().get("Content-Disposition");
+				byte[] content = part.body().readByteArray();
+				if (disposition.contains("name=\"request\"")) {
+					envelope = Encoding.JSON.mapper.readTree(content);
+				} else if (disposition.contains("name=\"bdb\"")) {
+					bdbParts.add(content);
+				}
+			}
+		}
+		JsonNode request = envelope.get("request");
+		resolveBdbParts(request, bdbParts);
+		return request;
+	}
+
+	private void resolveBdbParts(JsonNode node, List<byte[]> bdbParts) {
+		if (node instanceof ObjectNode object && object.path("bdb").isInt()) {
+			object.put("bdb", bdbParts.get(object.get("bdb").asInt()));
+		}
+		for (JsonNode child : node) {
+			resolveBdbParts(child, bdbParts);
+		}
+	}
+
+	/**
+	 * Replaces every {@code {"ref": n}} BDB by the n-th BDB written in full
+	 * before it, walking the fields in the order they were written.
+	 *
+	 * @return The number of references replaced.
+	 */
+	private int resolveBdbReferences(JsonNode node, List<JsonNode> bdbs) {
+		int references = 0;
+		if (node instanceof ObjectNode object) {
+			for (Map.Entry<String, JsonNode> field : object.properties()) {
+				JsonNode value = field.getValue();
+				if (!"bdb".equals(field.getKey()) || value.isNull()) {
+					references += resolveBdbReferences(value, bdbs);
+				} else if (value.has("ref")) {
+					field.setValue(bdbs.get(value.get("ref").asInt()).deepCopy());
+					references++;
+				} else {
+					bdbs.add(value);
+				}
+			}
+		} else {
+			for (JsonNode child : node) {
+				references += resolveBdbReferences(child, bdbs);
+			}
+		}
+		return references;
+	}
+
+	private void binaryToIntArrays(JsonNode node) {
+		if (node instanceof ObjectNode object) {
+			object.properties().forEach(field -> {
+				if (field.getValue().isBinary()) {
+					byte[] bytes = ((BinaryNode) field.getValue()).binaryValue();
+					ArrayNode ints = object.putArray(field.getKey());
+					for (byte b : bytes) {
+						ints.add(b);
+					}
+				}
+			});
+		}
+		for (JsonNode child : node) {
+			binaryToIntArrays(child);
+		}
+	}
+
+	/**
+	 * Picks the first encoding in the {@code Accept} header that is understood,
+	 * defaulting to JSON.
+	 */
+	private Encoding negotiate(String accept) {
+		if (accept != null) {
+			for (String mediaRange : accept.split(",")) {
+				Encoding encoding = Encoding.forMediaType(mediaRange);
+				if (encoding == Encoding.JSON || binaryEncodings.contains(encoding)) {
+					return encoding;
+				}
+			}
+		}
+		return Encoding.JSON;
+	}
+
+	private JsonNode respond(String path, JsonNode request) throws IOException {
+		if (path.endsWith("/init")) {
+			JsonNode initResponse = readResource("init_response_success.json");
+			ObjectNode otherInfo = ((ObjectNode) initResponse.get("response")).putObject("otherInfo");
+			if (qualityBatchSize > 0) {
+				otherInfo.put("check-quality-batch-max-size", String.valueOf(qualityBatchSize));
+			}
+			if (bdbReferences) {
+				otherInfo.put("bdb-references", "true");
+			}
+			return initResponse;
+		} else if (path.endsWith("/check-quality-batch")) {
+			return wrap(qualityCheckResults(request));
+		} else if (path.endsWith("/check-quality")) {
+			return readResource("check_quality_success_response.json");
+		} else if (path.endsWith("/register-gallery") && galleryRegistration) {
+			String galleryId = UUID.randomUUID().toString();
+			galleries.put(galleryId, request.get("gallery").deepCopy());
+			ObjectNode registration = Encoding.JSON.mapper.createObjectNode();
+			registration.put("galleryId", galleryId);
+			if (galleryTtlSeconds != null) {
+				registration.put("ttlSeconds", galleryTtlSeconds);
+			}
+			return wrap(registration);
+		} else if (path.endsWith("/match-gallery") && galleryRegistration) {
+			JsonNode gallery = galleries.get(request.get("galleryId").asText());
+			if (gallery == null) {
+				ObjectNode root = (ObjectNode) wrap(null);
+				((ObjectNode) root.get("response")).put("statusCode", 404).put("statusMessage", "Gallery not found");
+				return root;
+			}
+			ObjectNode matchRequest = request.deepCopy();
+			matchRequest.set("gallery", gallery);
+			return wrap(matchDecisions(matchRequest));
+		} else if (path.endsWith("/match")) {
+			return wrap(matchDecisions(request));
+		} else if (path.endsWith("/extract-template") || path.endsWith("/segment")
+				|| path.endsWith("/convert-format")) {
+			return wrap(request.get("sample").deepCopy());
+		}
+		return null;
+	}
+
+	/**
+	 * One decision per gallery record, matched when the gallery record is the
+	 * probe itself.
+	 */
+	private JsonNode matchDecisions(JsonNode request) {
+		ArrayNode decisions = Encoding.JSON.mapper.createArrayNode();
+		JsonNode gallery = request.get("gallery");
+		for (int i = 0; i < gallery.size(); i++) {
+			ObjectNode decision = decisions.addObject();
+			decision.put("galleryIndex", i);
+			ObjectNode byModality = decision.putObject("decisions");
+			for (JsonNode modality : request.get("modalitiesToMatch")) {
+				ObjectNode modalityDecision = byModality.putObject(modality.asText());
+				modalityDecision.put("match", gallery.get(i).equals(request.get("sample")) ? "MATCHED" : "NOT_MATCHED");
+				modalityDecision.putArray("errors");
+				modalityDecision.putObject("analyticsInfo");
+			}
+			decision.putObject("analyticsInfo");
+		}
+		return decisions;
+	}
+
+	/**
+	 * One successful result per request of the batch, echoing the flags of the
+	 * request as analytics info.
+	 */
+	private JsonNode qualityCheckResults(JsonNode request) throws IOException {
+		ArrayNode results = Encoding.JSON.mapper.createArrayNode();
+		for (JsonNode qualityCheckRequest : request.get("requests")) {
+			ObjectNode result = (ObjectNode) readResource("check_quality_success_response.json").get("response");
+			if (qualityCheckRequest.path("flags").isObject()) {
+				((ObjectNode) result.get("response")).set("analyticsInfo", qualityCheckRequest.get("flags").deepCopy());
+			}
+			results.add(result);
+		}
+		return results;
+	}
+
+	private JsonNode wrap(JsonNode payload) {
+		ObjectNode root = Encoding.JSON.mapper.createObjectNode();
+		root.put("version", "1.0");
+		ObjectNode response = root.putObject("response");
+		response.put("statusCode", 200);
+		response.put("statusMessage", "OK");
+		response.set("response", payload);
+		root.putArray("errors");
+		return root;
+	}
+
+	private JsonNode readResource(String fileName) throws IOException {
+		return Encoding.JSON.mapper.readTree(TestUtil.readXmlFileAsBytes(fileName, Client_V_1_0.class));
+	}
+}
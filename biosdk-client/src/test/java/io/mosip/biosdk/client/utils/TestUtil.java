@@ -6,6 +6,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -14,9 +16,11 @@ import javax.xml.bind.JAXBElement;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.transform.stream.StreamSource;
 
+import io.mosip.biosdk.client.impl.spec_1_0.Client_V_1_0;
 import io.mosip.kernel.biometrics.constant.BiometricType;
 import io.mosip.kernel.biometrics.entities.BDBInfo;
 import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
 
 public class TestUtil {
 	private TestUtil() {
@@ -65,6 +69,51 @@ public class TestUtil {
 		return updatedBIRList;
 	}
 
+	/**
+	 * A record holding the face BIRs of {@code check_quality_request.xml}.
+	 */
+	public static BiometricRecord getFaceSample() throws Exception {
+		BiometricRecord sample = new BiometricRecord();
+		sample.setSegments(getBIRDataFromXMLType(readXmlFileAsBytes("check_quality_request.xml", TestUtil.class),
+				"Face"));
+		return sample;
+	}
+
+	/**
+	 * The face sample with its first BDB replaced by {@code bdbLength} bytes of
+	 * {@code fill}, so that samples differ by content and size.
+	 */
+	public static BiometricRecord getFaceSample(int bdbLength, int fill) throws Exception {
+		byte[] bdb = new byte[bdbLength];
+		Arrays.fill(bdb, (byte) fill);
+		return getFaceSample(bdb);
+	}
+
+	/**
+	 * The face sample with its first BDB replaced by {@code bdb}.
+	 */
+	public static BiometricRecord getFaceSample(byte[] bdb) throws Exception {
+		BiometricRecord sample = getFaceSample();
+		sample.getSegments().get(0).setBdb(bdb);
+		return sample;
+	}
+
+	/**
+	 * Initializes a client with the given SDK service URLs, comma separated, as
+	 * those of the {@code test} format, and the other init parameters.
+	 *
+	 * @throws IllegalStateException if init returned no SDK info.
+	 */
+	public static <C extends Client_V_1_0> C initClient(C client, String sdkServiceUrls,
+			Map<String, String> options) {
+		Map<String, String> initParams = new HashMap<>(options);
+		initParams.put("format.url.test", sdkServiceUrls);
+		if (client.init(initParams) == null) {
+			throw new IllegalStateException("init returned no SDK info");
+		}
+		return client;
+	}
+
 	public static BiometricType getBiometricType(String type) {
 		if (isInEnum(type, BiometricType.class)) {
 			return BiometricType.valueOf(type);